@@ -0,0 +1,379 @@
+package com.tasktracker.collections;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An immutable, sorted map based on a size-augmented AVL tree. Every modification returns a new map
+ * that shares all untouched nodes with the original one (path copying), so a modification costs
+ * {@code O(log n)} time and allocations while any previously obtained instance stays valid and
+ * unchanged. This makes instances of this class safe to publish as point-in-time snapshots.
+ *
+ * @param <K> the type of keys, must be comparable
+ * @param <V> the type of values
+ */
+public final class PersistentTreeMap<K extends Comparable<? super K>, V>
+    implements Iterable<Map.Entry<K, V>> {
+  public static final String KEY_CAN_T_BE_NULL = "key can't be null";
+  public static final String VALUE_CAN_T_BE_NULL = "value can't be null";
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentTreeMap EMPTY = new PersistentTreeMap<>(null);
+
+  private final Node<K, V> root;
+  private ValuesView valuesView = null;
+
+  private PersistentTreeMap(Node<K, V> root) {
+    this.root = root;
+  }
+
+  /**
+   * Returns the empty map.
+   *
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @return the shared empty map instance
+   */
+  @SuppressWarnings("unchecked")
+  public static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> empty() {
+    return (PersistentTreeMap<K, V>) EMPTY;
+  }
+
+  private static int height(Node<?, ?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static int size(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+    final int leftHeight = height(left);
+    final int rightHeight = height(right);
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left) >= height(left.right)) {
+        return new Node<>(
+            left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+      }
+      final Node<K, V> pivot = left.right;
+      return new Node<>(
+          pivot.key,
+          pivot.value,
+          new Node<>(left.key, left.value, left.left, pivot.left),
+          new Node<>(key, value, pivot.right, right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (height(right.right) >= height(right.left)) {
+        return new Node<>(
+            right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+      }
+      final Node<K, V> pivot = right.left;
+      return new Node<>(
+          pivot.key,
+          pivot.value,
+          new Node<>(key, value, left, pivot.left),
+          new Node<>(right.key, right.value, pivot.right, right.right));
+    }
+    return new Node<>(key, value, left, right);
+  }
+
+  private static <K extends Comparable<? super K>, V> Node<K, V> insert(
+      Node<K, V> node, K key, V value) {
+    if (node == null) {
+      return new Node<>(key, value, null, null);
+    }
+    final int cmp = key.compareTo(node.key);
+    if (cmp < 0) {
+      return balance(node.key, node.value, insert(node.left, key, value), node.right);
+    }
+    if (cmp > 0) {
+      return balance(node.key, node.value, node.left, insert(node.right, key, value));
+    }
+    if (node.value == value) {
+      return node;
+    }
+    return new Node<>(key, value, node.left, node.right);
+  }
+
+  private static <K extends Comparable<? super K>, V> Node<K, V> delete(Node<K, V> node, K key) {
+    if (node == null) {
+      return null;
+    }
+    final int cmp = key.compareTo(node.key);
+    if (cmp < 0) {
+      final Node<K, V> left = delete(node.left, key);
+      return left == node.left ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (cmp > 0) {
+      final Node<K, V> right = delete(node.right, key);
+      return right == node.right ? node : balance(node.key, node.value, node.left, right);
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node<K, V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor.key, successor.value, node.left, deleteMin(node.right));
+  }
+
+  private static <K, V> Node<K, V> deleteMin(Node<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.key, node.value, deleteMin(node.left), node.right);
+  }
+
+  /**
+   * Returns the number of mappings in this map.
+   *
+   * @return the number of mappings
+   */
+  public int size() {
+    return size(root);
+  }
+
+  /**
+   * Returns {@code true} if this map contains no mappings.
+   *
+   * @return {@code true} if this map is empty
+   */
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  /**
+   * Returns the value mapped to the given key.
+   *
+   * @param key the key to look up, must not be {@code null}
+   * @return the mapped value, or {@code null} if the key is absent
+   */
+  public V get(K key) {
+    Objects.requireNonNull(key, KEY_CAN_T_BE_NULL);
+    Node<K, V> node = root;
+    while (node != null) {
+      final int cmp = key.compareTo(node.key);
+      if (cmp == 0) {
+        return node.value;
+      }
+      node = cmp < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * Returns {@code true} if this map contains a mapping for the given key.
+   *
+   * @param key the key to look up, must not be {@code null}
+   * @return {@code true} if a mapping exists
+   */
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Returns a map that contains all mappings of this map plus the given one, replacing any existing
+   * mapping for the key. This map is left unchanged.
+   *
+   * @param key the key, must not be {@code null}
+   * @param value the value, must not be {@code null}
+   * @return the resulting map
+   */
+  public PersistentTreeMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key, KEY_CAN_T_BE_NULL);
+    Objects.requireNonNull(value, VALUE_CAN_T_BE_NULL);
+    final Node<K, V> newRoot = insert(root, key, value);
+    return newRoot == root ? this : new PersistentTreeMap<>(newRoot);
+  }
+
+  /**
+   * Returns a map that contains all mappings of this map except the one for the given key. This map
+   * is left unchanged.
+   *
+   * @param key the key to remove, must not be {@code null}
+   * @return the resulting map, or this map if the key was absent
+   */
+  public PersistentTreeMap<K, V> minus(K key) {
+    Objects.requireNonNull(key, KEY_CAN_T_BE_NULL);
+    final Node<K, V> newRoot = delete(root, key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentTreeMap<>(newRoot);
+  }
+
+  /**
+   * Returns an unmodifiable list view of the values in ascending key order. As the map itself is
+   * immutable, the view never changes; obtaining it is {@code O(1)} and positional access is {@code
+   * O(log n)}. The view is not {@link RandomAccess}: indexed loops cost {@code O(n log n)}, so
+   * callers walking all values should iterate instead, which is {@code O(n)}.
+   *
+   * @return the values of this map in key order
+   */
+  public List<V> values() {
+    if (valuesView == null) {
+      valuesView = new ValuesView();
+    }
+    return valuesView;
+  }
+
+  /**
+   * Returns an iterator over the values whose keys are strictly greater than the given key, in
+   * ascending key order. Positioning the iterator takes {@code O(log n)}; the key itself doesn't
+   * have to be present in the map.
+   *
+   * @param key the exclusive lower bound, must not be {@code null}
+   * @return an iterator over the values following the given key
+   */
+  public Iterator<V> valuesAfter(K key) {
+    Objects.requireNonNull(key, KEY_CAN_T_BE_NULL);
+    final InOrderIterator<K, V, V> iterator = new InOrderIterator<>(null, Node::getValue);
+    Node<K, V> node = root;
+    while (node != null) {
+      if (key.compareTo(node.key) < 0) {
+        iterator.path.push(node);
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return iterator;
+  }
+
+  /**
+   * Returns an iterator over the entries of this map in ascending key order.
+   *
+   * @return an iterator over immutable entries
+   */
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new InOrderIterator<>(root, Node::getImmutableEntry);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof PersistentTreeMap<?, ?> other) || size() != other.size()) return false;
+    final Iterator<?> these = iterator();
+    final Iterator<?> those = other.iterator();
+    while (these.hasNext()) {
+      if (!these.next().equals(those.next())) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (Map.Entry<K, V> entry : this) {
+      hash += entry.hashCode();
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+    for (Map.Entry<K, V> entry : this) {
+      joiner.add(entry.getKey() + "=" + entry.getValue());
+    }
+    return joiner.toString();
+  }
+
+  private static final class Node<K, V> {
+    private final K key;
+    private final V value;
+    private final Node<K, V> left;
+    private final Node<K, V> right;
+    private final int height;
+    private final int size;
+
+    private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.height = Math.max(PersistentTreeMap.height(left), PersistentTreeMap.height(right)) + 1;
+      this.size = PersistentTreeMap.size(left) + PersistentTreeMap.size(right) + 1;
+    }
+
+    private V getValue() {
+      return value;
+    }
+
+    private Map.Entry<K, V> getImmutableEntry() {
+      return new AbstractMap.SimpleImmutableEntry<>(key, value);
+    }
+  }
+
+  private static final class InOrderIterator<K, V, T> implements Iterator<T> {
+    private final Deque<Node<K, V>> path = new ArrayDeque<>();
+    private final Function<Node<K, V>, T> elementExtractor;
+
+    private InOrderIterator(Node<K, V> root, Function<Node<K, V>, T> elementExtractor) {
+      this.elementExtractor = elementExtractor;
+      pushLeftPath(root);
+    }
+
+    private void pushLeftPath(Node<K, V> node) {
+      for (Node<K, V> current = node; current != null; current = current.left) {
+        path.push(current);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !path.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      if (path.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      final Node<K, V> node = path.pop();
+      pushLeftPath(node.right);
+      return elementExtractor.apply(node);
+    }
+  }
+
+  private final class ValuesView extends AbstractList<V> {
+    @Override
+    public V get(int index) {
+      Objects.checkIndex(index, size());
+      Node<K, V> node = root;
+      int remaining = index;
+      while (true) {
+        final int leftSize = PersistentTreeMap.size(node.left);
+        if (remaining < leftSize) {
+          node = node.left;
+        } else if (remaining == leftSize) {
+          return node.value;
+        } else {
+          remaining -= leftSize + 1;
+          node = node.right;
+        }
+      }
+    }
+
+    @Override
+    public int size() {
+      return PersistentTreeMap.this.size();
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new InOrderIterator<>(root, Node::getValue);
+    }
+
+    @Override
+    public Spliterator<V> spliterator() {
+      return Spliterators.spliterator(
+          iterator(), size(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+  }
+}
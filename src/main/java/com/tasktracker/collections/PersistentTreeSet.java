@@ -0,0 +1,138 @@
+package com.tasktracker.collections;
+
+import java.util.*;
+
+/**
+ * An immutable, sorted set backed by a {@link PersistentTreeMap}. Adding or removing an element
+ * returns a new set sharing all untouched nodes with the original one, so it costs {@code O(log n)}
+ * instead of copying the set; lookups are {@code O(log n)} and iteration is in ascending order. The
+ * set is unmodifiable through the {@link Set} interface.
+ *
+ * @param <E> the type of elements, must be comparable
+ */
+public final class PersistentTreeSet<E extends Comparable<? super E>> extends AbstractSet<E> {
+  public static final String ELEMENT_CAN_T_BE_NULL = "element can't be null";
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final PersistentTreeSet EMPTY = new PersistentTreeSet(PersistentTreeMap.empty());
+
+  private final PersistentTreeMap<E, E> elements;
+
+  private PersistentTreeSet(final PersistentTreeMap<E, E> elements) {
+    this.elements = elements;
+  }
+
+  /**
+   * Returns the empty set.
+   *
+   * @param <E> the type of elements
+   * @return the shared empty set instance
+   */
+  @SuppressWarnings("unchecked")
+  public static <E extends Comparable<? super E>> PersistentTreeSet<E> empty() {
+    return (PersistentTreeSet<E>) EMPTY;
+  }
+
+  /**
+   * Returns a set containing the given elements. A {@code PersistentTreeSet} is returned as is, so
+   * that copying an already persistent set costs nothing.
+   *
+   * @param elements the elements, none of which may be {@code null}
+   * @param <E> the type of elements
+   * @return a persistent set of the elements
+   */
+  @SuppressWarnings("unchecked")
+  public static <E extends Comparable<? super E>> PersistentTreeSet<E> copyOf(
+      final Collection<? extends E> elements) {
+    Objects.requireNonNull(elements, "elements can't be null");
+    if (elements instanceof PersistentTreeSet<?> set) {
+      return (PersistentTreeSet<E>) set;
+    }
+    PersistentTreeSet<E> result = empty();
+    for (E element : elements) {
+      result = result.plus(element);
+    }
+    return result;
+  }
+
+  /**
+   * Returns a set that contains all elements of this set plus the given one. This set is left
+   * unchanged.
+   *
+   * @param element the element to add, must not be {@code null}
+   * @return the resulting set, or this set if the element was present
+   */
+  public PersistentTreeSet<E> plus(final E element) {
+    Objects.requireNonNull(element, ELEMENT_CAN_T_BE_NULL);
+    if (elements.containsKey(element)) {
+      return this;
+    }
+    return new PersistentTreeSet<>(elements.plus(element, element));
+  }
+
+  /**
+   * Returns a set that contains all elements of this set except the given one. This set is left
+   * unchanged.
+   *
+   * @param element the element to remove, must not be {@code null}
+   * @return the resulting set, or this set if the element was absent
+   */
+  public PersistentTreeSet<E> minus(final E element) {
+    Objects.requireNonNull(element, ELEMENT_CAN_T_BE_NULL);
+    final PersistentTreeMap<E, E> remaining = elements.minus(element);
+    if (remaining == elements) {
+      return this;
+    }
+    return remaining.isEmpty() ? empty() : new PersistentTreeSet<>(remaining);
+  }
+
+  /**
+   * Returns {@code true} if this set contains the given element, in {@code O(log n)}.
+   *
+   * @param o the element to look up
+   * @return {@code true} if the element is present
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean contains(final Object o) {
+    if (o == null) return false;
+    try {
+      return elements.containsKey((E) o);
+    } catch (ClassCastException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return elements.isEmpty();
+  }
+
+  /**
+   * Returns an iterator over the elements in ascending order. The iterator does not support
+   * removal.
+   *
+   * @return an iterator over the elements
+   */
+  @Override
+  public Iterator<E> iterator() {
+    return elements.values().iterator();
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return Spliterators.spliterator(
+        iterator(),
+        size(),
+        Spliterator.DISTINCT
+            | Spliterator.SORTED
+            | Spliterator.ORDERED
+            | Spliterator.IMMUTABLE
+            | Spliterator.NONNULL);
+  }
+}
@@ -0,0 +1,558 @@
+package com.tasktracker.collections;
+
+import java.util.*;
+
+/**
+ * An insertion-ordered map specialized for {@link UUID} keys, with the same ordering behaviour as
+ * {@link CustomLinkedHashMap}: {@link #put} moves an existing key to the end.
+ *
+ * <p>Entries live in parallel arrays indexed by slot: the two halves of the key, the value and the
+ * previous and next slot of the linked order. Slots freed by removals are reused before the arrays
+ * grow. Keys are found through an open-addressing table of slot numbers with linear probing, kept
+ * at most half full; removals shift later entries of a probe run back instead of leaving
+ * tombstones. An entry thus costs about 40 bytes and no objects besides its value, compared with a
+ * {@code HashMap} node, a linked node and a key for {@link CustomLinkedHashMap}, and lookups and
+ * iteration walk arrays instead of chasing pointers.
+ *
+ * <p>Keys handed out by iteration and the entry methods are new {@link UUID} instances. Iterators
+ * are fail-fast. The map is not thread-safe and does not permit {@code null} keys or values.
+ *
+ * @param <V> the type of the values
+ */
+public class UuidLinkedHashMap<V> extends AbstractMap<UUID, V> implements SequencedMap<UUID, V> {
+  private static final int NONE = -1;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private long[] mostSigBits;
+  private long[] leastSigBits;
+  private Object[] values;
+  private int[] previous;
+  private int[] next;
+  private int[] table;
+  private int head = NONE;
+  private int tail = NONE;
+  private int freeSlot = NONE;
+  private int usedSlots;
+  private int size;
+  private int modCount;
+  private EntrySetView entrySetView;
+  private ValuesView valuesView;
+  private ReversedView reversedView;
+
+  /** Constructs an empty map. */
+  public UuidLinkedHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty map with room for the given number of entries before it grows.
+   *
+   * @param initialCapacity the expected number of entries; must not be negative
+   * @throws IllegalArgumentException if the capacity is negative
+   */
+  public UuidLinkedHashMap(final int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Initial capacity can't be negative.");
+    }
+    allocate(Math.max(initialCapacity, 2));
+  }
+
+  private void allocate(final int capacity) {
+    mostSigBits = new long[capacity];
+    leastSigBits = new long[capacity];
+    values = new Object[capacity];
+    previous = new int[capacity];
+    next = new int[capacity];
+    table = new int[Integer.highestOneBit(capacity - 1) << 2];
+  }
+
+  private static int hash(final long most, final long least) {
+    long h = most * 0x9E3779B97F4A7C15L ^ least;
+    h ^= h >>> 32;
+    h *= 0xBF58476D1CE4E5B9L;
+    return (int) (h ^ (h >>> 29));
+  }
+
+  /** Returns the table position holding the key, or the empty position it would go to. */
+  private int position(final long most, final long least) {
+    final int mask = table.length - 1;
+    int position = hash(most, least) & mask;
+    while (true) {
+      final int entry = table[position];
+      if (entry == 0) return position;
+      final int slot = entry - 1;
+      if (mostSigBits[slot] == most && leastSigBits[slot] == least) return position;
+      position = (position + 1) & mask;
+    }
+  }
+
+  private int slotOf(final Object key) {
+    Objects.requireNonNull(key, CustomLinkedHashMap.KEY_CAN_T_BE_NULL);
+    if (!(key instanceof UUID id)) return NONE;
+    return table[position(id.getMostSignificantBits(), id.getLeastSignificantBits())] - 1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(final int slot) {
+    return (V) values[slot];
+  }
+
+  private UUID keyAt(final int slot) {
+    return new UUID(mostSigBits[slot], leastSigBits[slot]);
+  }
+
+  private Map.Entry<UUID, V> entryAt(final int slot) {
+    return slot == NONE ? null : new AbstractMap.SimpleImmutableEntry<>(keyAt(slot), valueAt(slot));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return slotOf(key) != NONE;
+  }
+
+  @Override
+  public boolean containsValue(final Object value) {
+    Objects.requireNonNull(value, CustomLinkedHashMap.VALUE_CAN_T_BE_NULL);
+    for (int slot = head; slot != NONE; slot = next[slot]) {
+      if (value.equals(values[slot])) return true;
+    }
+    return false;
+  }
+
+  @Override
+  public V get(final Object key) {
+    final int slot = slotOf(key);
+    return slot == NONE ? null : valueAt(slot);
+  }
+
+  /**
+   * Associates the value with the key and moves the key to the end of the order.
+   *
+   * @param key the key; must not be {@code null}
+   * @param value the value; must not be {@code null}
+   * @return the previous value of the key, or {@code null} if there was none
+   */
+  @Override
+  public V put(final UUID key, final V value) {
+    return putLast(key, value);
+  }
+
+  @Override
+  public V putLast(final UUID key, final V value) {
+    return insert(key, value, false);
+  }
+
+  @Override
+  public V putFirst(final UUID key, final V value) {
+    return insert(key, value, true);
+  }
+
+  private V insert(final UUID key, final V value, final boolean atFront) {
+    Objects.requireNonNull(key, CustomLinkedHashMap.KEY_CAN_T_BE_NULL);
+    Objects.requireNonNull(value, CustomLinkedHashMap.VALUE_CAN_T_BE_NULL);
+    final long most = key.getMostSignificantBits();
+    final long least = key.getLeastSignificantBits();
+    int position = position(most, least);
+    final int existing = table[position] - 1;
+    if (existing != NONE) {
+      final V oldValue = valueAt(existing);
+      values[existing] = value;
+      if (existing != (atFront ? head : tail)) {
+        unlink(existing);
+        link(existing, atFront);
+        modCount++;
+      }
+      return oldValue;
+    }
+    if (freeSlot == NONE && usedSlots == values.length) {
+      grow();
+      position = position(most, least);
+    }
+    final int slot;
+    if (freeSlot != NONE) {
+      slot = freeSlot;
+      freeSlot = next[slot];
+    } else {
+      slot = usedSlots++;
+    }
+    mostSigBits[slot] = most;
+    leastSigBits[slot] = least;
+    values[slot] = value;
+    table[position] = slot + 1;
+    link(slot, atFront);
+    size++;
+    modCount++;
+    return null;
+  }
+
+  private void link(final int slot, final boolean atFront) {
+    if (atFront) {
+      previous[slot] = NONE;
+      next[slot] = head;
+      if (head == NONE) {
+        tail = slot;
+      } else {
+        previous[head] = slot;
+      }
+      head = slot;
+    } else {
+      next[slot] = NONE;
+      previous[slot] = tail;
+      if (tail == NONE) {
+        head = slot;
+      } else {
+        next[tail] = slot;
+      }
+      tail = slot;
+    }
+  }
+
+  private void unlink(final int slot) {
+    final int before = previous[slot];
+    final int after = next[slot];
+    if (before == NONE) {
+      head = after;
+    } else {
+      next[before] = after;
+    }
+    if (after == NONE) {
+      tail = before;
+    } else {
+      previous[after] = before;
+    }
+  }
+
+  /** Doubles the arrays, compacting the live entries into the first slots in linked order. */
+  private void grow() {
+    final long[] oldMost = mostSigBits;
+    final long[] oldLeast = leastSigBits;
+    final Object[] oldValues = values;
+    final int[] oldNext = next;
+    final int oldHead = head;
+    allocate(oldValues.length * 2);
+    head = NONE;
+    tail = NONE;
+    freeSlot = NONE;
+    usedSlots = 0;
+    for (int slot = oldHead; slot != NONE; slot = oldNext[slot]) {
+      final int newSlot = usedSlots++;
+      mostSigBits[newSlot] = oldMost[slot];
+      leastSigBits[newSlot] = oldLeast[slot];
+      values[newSlot] = oldValues[slot];
+      table[position(oldMost[slot], oldLeast[slot])] = newSlot + 1;
+      link(newSlot, false);
+    }
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final int slot = slotOf(key);
+    if (slot == NONE) return null;
+    final V oldValue = valueAt(slot);
+    removeSlot(slot);
+    return oldValue;
+  }
+
+  @Override
+  public boolean remove(final Object key, final Object value) {
+    final int slot = slotOf(key);
+    if (slot == NONE || !Objects.equals(values[slot], value)) return false;
+    removeSlot(slot);
+    return true;
+  }
+
+  private void removeSlot(final int slot) {
+    deletePosition(position(mostSigBits[slot], leastSigBits[slot]));
+    unlink(slot);
+    values[slot] = null;
+    next[slot] = freeSlot;
+    freeSlot = slot;
+    size--;
+    modCount++;
+  }
+
+  /** Empties a table position, shifting back the entries of its probe run that hashed before it. */
+  private void deletePosition(final int position) {
+    final int mask = table.length - 1;
+    int gap = position;
+    int current = position;
+    while (true) {
+      current = (current + 1) & mask;
+      final int entry = table[current];
+      if (entry == 0) break;
+      final int ideal = hash(mostSigBits[entry - 1], leastSigBits[entry - 1]) & mask;
+      if (((current - ideal) & mask) >= ((current - gap) & mask)) {
+        table[gap] = entry;
+        gap = current;
+      }
+    }
+    table[gap] = 0;
+  }
+
+  @Override
+  public void clear() {
+    if (size == 0) return;
+    Arrays.fill(table, 0);
+    Arrays.fill(values, null);
+    head = NONE;
+    tail = NONE;
+    freeSlot = NONE;
+    usedSlots = 0;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public Map.Entry<UUID, V> firstEntry() {
+    return entryAt(head);
+  }
+
+  @Override
+  public Map.Entry<UUID, V> lastEntry() {
+    return entryAt(tail);
+  }
+
+  @Override
+  public Map.Entry<UUID, V> pollFirstEntry() {
+    final Map.Entry<UUID, V> entry = entryAt(head);
+    if (entry != null) removeSlot(head);
+    return entry;
+  }
+
+  @Override
+  public Map.Entry<UUID, V> pollLastEntry() {
+    final Map.Entry<UUID, V> entry = entryAt(tail);
+    if (entry != null) removeSlot(tail);
+    return entry;
+  }
+
+  @Override
+  public Set<Map.Entry<UUID, V>> entrySet() {
+    if (entrySetView == null) {
+      entrySetView = new EntrySetView(true);
+    }
+    return entrySetView;
+  }
+
+  @Override
+  public Collection<V> values() {
+    if (valuesView == null) {
+      valuesView = new ValuesView(true);
+    }
+    return valuesView;
+  }
+
+  @Override
+  public SequencedMap<UUID, V> reversed() {
+    if (reversedView == null) {
+      reversedView = new ReversedView();
+    }
+    return reversedView;
+  }
+
+  /** Walks the linked order in one direction and hands out an element per slot. */
+  private abstract class SlotIterator<T> implements Iterator<T> {
+    private final boolean forward;
+    private int nextSlot;
+    private int lastReturned = NONE;
+    private int expectedModCount = modCount;
+
+    SlotIterator(final boolean forward) {
+      this.forward = forward;
+      this.nextSlot = forward ? head : tail;
+    }
+
+    abstract T element(int slot);
+
+    @Override
+    public boolean hasNext() {
+      return nextSlot != NONE;
+    }
+
+    @Override
+    public T next() {
+      if (modCount != expectedModCount) throw new ConcurrentModificationException();
+      if (nextSlot == NONE) throw new NoSuchElementException("No more elements");
+      lastReturned = nextSlot;
+      nextSlot = forward ? next[nextSlot] : previous[nextSlot];
+      return element(lastReturned);
+    }
+
+    @Override
+    public void remove() {
+      if (lastReturned == NONE) {
+        throw new IllegalStateException(
+            "next() must be called before remove(), or remove() called twice");
+      }
+      if (modCount != expectedModCount) throw new ConcurrentModificationException();
+      removeSlot(lastReturned);
+      lastReturned = NONE;
+      expectedModCount = modCount;
+    }
+  }
+
+  private final class EntrySetView extends AbstractSet<Map.Entry<UUID, V>> {
+    private final boolean forward;
+
+    EntrySetView(final boolean forward) {
+      this.forward = forward;
+    }
+
+    @Override
+    public Iterator<Map.Entry<UUID, V>> iterator() {
+      return new SlotIterator<>(forward) {
+        @Override
+        Map.Entry<UUID, V> element(final int slot) {
+          return entryAt(slot);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      if (!(o instanceof Map.Entry<?, ?> entry) || entry.getKey() == null) return false;
+      final int slot = slotOf(entry.getKey());
+      return slot != NONE && Objects.equals(values[slot], entry.getValue());
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+      return o instanceof Map.Entry<?, ?> entry
+          && entry.getKey() != null
+          && UuidLinkedHashMap.this.remove(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public void clear() {
+      UuidLinkedHashMap.this.clear();
+    }
+  }
+
+  private final class ValuesView extends AbstractCollection<V> {
+    private final boolean forward;
+
+    ValuesView(final boolean forward) {
+      this.forward = forward;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new SlotIterator<>(forward) {
+        @Override
+        V element(final int slot) {
+          return valueAt(slot);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      return containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      UuidLinkedHashMap.this.clear();
+    }
+  }
+
+  private final class ReversedView extends AbstractMap<UUID, V> implements SequencedMap<UUID, V> {
+    private final EntrySetView reversedEntries = new EntrySetView(false);
+    private final ValuesView reversedValues = new ValuesView(false);
+
+    @Override
+    public SequencedMap<UUID, V> reversed() {
+      return UuidLinkedHashMap.this;
+    }
+
+    @Override
+    public Set<Map.Entry<UUID, V>> entrySet() {
+      return reversedEntries;
+    }
+
+    @Override
+    public Collection<V> values() {
+      return reversedValues;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return UuidLinkedHashMap.this.containsKey(key);
+    }
+
+    @Override
+    public V get(final Object key) {
+      return UuidLinkedHashMap.this.get(key);
+    }
+
+    @Override
+    public V put(final UUID key, final V value) {
+      return UuidLinkedHashMap.this.putFirst(key, value);
+    }
+
+    @Override
+    public V putFirst(final UUID key, final V value) {
+      return UuidLinkedHashMap.this.putLast(key, value);
+    }
+
+    @Override
+    public V putLast(final UUID key, final V value) {
+      return UuidLinkedHashMap.this.putFirst(key, value);
+    }
+
+    @Override
+    public V remove(final Object key) {
+      return UuidLinkedHashMap.this.remove(key);
+    }
+
+    @Override
+    public void clear() {
+      UuidLinkedHashMap.this.clear();
+    }
+
+    @Override
+    public Map.Entry<UUID, V> firstEntry() {
+      return UuidLinkedHashMap.this.lastEntry();
+    }
+
+    @Override
+    public Map.Entry<UUID, V> lastEntry() {
+      return UuidLinkedHashMap.this.firstEntry();
+    }
+
+    @Override
+    public Map.Entry<UUID, V> pollFirstEntry() {
+      return UuidLinkedHashMap.this.pollLastEntry();
+    }
+
+    @Override
+    public Map.Entry<UUID, V> pollLastEntry() {
+      return UuidLinkedHashMap.this.pollFirstEntry();
+    }
+  }
+}
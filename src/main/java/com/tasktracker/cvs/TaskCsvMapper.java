@@ -18,7 +18,7 @@ import java.util.stream.Collectors;
 public class TaskCsvMapper {
   public static final String DELIMITER = ",";
   public static final String ESCAPED_QUOTE = "\"\"";
-  public static final String CSV_HEADER =
+  public static final String LEGACY_CSV_HEADER =
       "\"id\","
           + "\"type\","
           + "\"title\","
@@ -30,6 +30,7 @@ public class TaskCsvMapper {
           + "\"duration\","
           + "\"created\","
           + "\"updated\"";
+  public static final String CSV_HEADER = LEGACY_CSV_HEADER + ",\"version\"";
   private static final DateTimeFormatter FMT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
   private static final String REGULAR_TASK_NAME = "REGULAR";
   private static final String EPIC_TASK_NAME = "EPIC";
@@ -62,6 +63,18 @@ public class TaskCsvMapper {
     return s; // Возвращаем как есть, если не обрамлено кавычками (например, литерал "null")
   }
 
+  /**
+   * Returns {@code true} if the given line is a task CSV header, either the current one or the one
+   * written before tasks carried a version.
+   *
+   * @param line the first line of a CSV file
+   * @return {@code true} if the line is a known header
+   */
+  public static boolean isHeader(String line) {
+    final String header = line.trim();
+    return header.equals(CSV_HEADER) || header.equals(LEGACY_CSV_HEADER);
+  }
+
   public static Task fromCsv(String line) {
     if (line == null || line.isBlank()) {
       throw new CvsMapperException("CSV line is null or blank: [" + line + "]");
@@ -109,11 +122,13 @@ public class TaskCsvMapper {
 
       LocalDateTime createdAt = LocalDateTime.parse(unquote(parts[idx++]), FMT);
       LocalDateTime updatedAt = LocalDateTime.parse(unquote(parts[idx++]), FMT);
+      // Lines written before tasks carried a version have no version field.
+      long version = parts.length > idx ? Long.parseLong(unquote(parts[idx])) : 0L;
 
       return switch (type) {
         case REGULAR_TASK_NAME ->
             new RegularTask(
-                id, title, description, status, createdAt, updatedAt, startTime, duration);
+                id, title, description, status, createdAt, updatedAt, startTime, duration, version);
         case EPIC_TASK_NAME ->
             new EpicTask(
                 id,
@@ -124,12 +139,22 @@ public class TaskCsvMapper {
                 createdAt,
                 updatedAt,
                 startTime,
-                duration);
+                duration,
+                version);
         case SUBTASK_TASK_NAME -> {
           if (epicId == null)
             throw new CvsMapperException("SubTask must have an epicId. Line: " + line);
           yield new SubTask(
-              id, title, description, status, epicId, createdAt, updatedAt, startTime, duration);
+              id,
+              title,
+              description,
+              status,
+              epicId,
+              createdAt,
+              updatedAt,
+              startTime,
+              duration,
+              version);
         }
         default -> throw new CvsMapperException("Unknown task type " + type + ". Line: " + line);
       };
@@ -170,7 +195,8 @@ public class TaskCsvMapper {
         .append(DELIMITER);
 
     sb.append(quote(task.getCreationDate().format(FMT))).append(DELIMITER);
-    sb.append(quote(task.getUpdateDate().format(FMT)));
+    sb.append(quote(task.getUpdateDate().format(FMT))).append(DELIMITER);
+    sb.append(quote(Long.toString(task.getVersion())));
 
     return sb.toString();
   }
@@ -0,0 +1,44 @@
+package com.tasktracker.task.dto;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A single change to be applied as part of a batch by {@code TaskManager#executeBatch}: the
+ * creation, update or deletion of a task.
+ */
+public sealed interface TaskCommand {
+
+  /**
+   * Creates a new task described by the given DTO.
+   *
+   * @param dto the creation data
+   */
+  record Create(TaskCreationDTO dto) implements TaskCommand {
+    public Create {
+      Objects.requireNonNull(dto, "Creation DTO can't be null");
+    }
+  }
+
+  /**
+   * Updates an existing task with the data of the given DTO.
+   *
+   * @param dto the update data
+   */
+  record Update(TaskUpdateDTO dto) implements TaskCommand {
+    public Update {
+      Objects.requireNonNull(dto, "Update DTO can't be null");
+    }
+  }
+
+  /**
+   * Deletes the task with the given ID, together with its subtasks if it is an epic.
+   *
+   * @param id the ID of the task to delete
+   */
+  record Delete(UUID id) implements TaskCommand {
+    public Delete {
+      Objects.requireNonNull(id, "Task ID can't be null");
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.tasktracker.task.dto;
+
+import com.tasktracker.task.model.implementations.Task;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of a single {@link TaskCommand} executed as part of a batch.
+ *
+ * @param command the executed command
+ * @param task the created task, the previous version of the updated task or the deleted task;
+ *     {@code null} if the command failed or deleted nothing
+ * @param error the reason the command was rejected, or {@code null} if it was applied
+ */
+public record TaskCommandResult(TaskCommand command, Task task, Exception error) {
+  public TaskCommandResult {
+    Objects.requireNonNull(command, "Command can't be null");
+  }
+
+  public static TaskCommandResult success(final TaskCommand command, final Task task) {
+    return new TaskCommandResult(command, task, null);
+  }
+
+  public static TaskCommandResult failure(final TaskCommand command, final Exception error) {
+    return new TaskCommandResult(command, null, Objects.requireNonNull(error));
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  public Optional<Task> getTask() {
+    return Optional.ofNullable(task);
+  }
+}
@@ -0,0 +1,12 @@
+package com.tasktracker.task.dto;
+
+import java.util.UUID;
+
+public sealed interface TaskUpdateDTO
+    permits EpicTaskUpdateDTO, RegularTaskUpdateDTO, SubTaskUpdateDTO {
+  UUID id();
+
+  String title();
+
+  String description();
+}
@@ -0,0 +1,90 @@
+package com.tasktracker.task.event;
+
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.Task;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A change of the tasks held by a task manager, published on a {@link TaskEventBus} after the
+ * change has been committed. Events carry the immutable task instances before and after the change,
+ * so subscribers can maintain derived views without reading the tasks back.
+ */
+public sealed interface TaskEvent {
+
+  /**
+   * Returns the ID of the task the event is about.
+   *
+   * @return the task ID
+   */
+  UUID taskId();
+
+  /**
+   * A task was created.
+   *
+   * @param task the created task
+   */
+  record TaskCreated(Task task) implements TaskEvent {
+    public TaskCreated {
+      Objects.requireNonNull(task, "Task can't be null.");
+    }
+
+    @Override
+    public UUID taskId() {
+      return task.getId();
+    }
+  }
+
+  /**
+   * A task was replaced by a new version.
+   *
+   * @param previous the task before the change
+   * @param current the task after the change
+   */
+  record TaskUpdated(Task previous, Task current) implements TaskEvent {
+    public TaskUpdated {
+      Objects.requireNonNull(previous, "Previous task can't be null.");
+      Objects.requireNonNull(current, "Current task can't be null.");
+    }
+
+    @Override
+    public UUID taskId() {
+      return current.getId();
+    }
+  }
+
+  /**
+   * A task was removed.
+   *
+   * @param task the removed task
+   */
+  record TaskRemoved(Task task) implements TaskEvent {
+    public TaskRemoved {
+      Objects.requireNonNull(task, "Task can't be null.");
+    }
+
+    @Override
+    public UUID taskId() {
+      return task.getId();
+    }
+  }
+
+  /**
+   * The status or time window an epic derives from its subtasks changed. Published in addition to
+   * the {@link TaskUpdated} event of the epic.
+   *
+   * @param previous the epic before the recomputation
+   * @param current the epic after the recomputation
+   */
+  record EpicRecomputed(EpicTask previous, EpicTask current) implements TaskEvent {
+    public EpicRecomputed {
+      Objects.requireNonNull(previous, "Previous epic can't be null.");
+      Objects.requireNonNull(current, "Current epic can't be null.");
+    }
+
+    @Override
+    public UUID taskId() {
+      return current.getId();
+    }
+  }
+}
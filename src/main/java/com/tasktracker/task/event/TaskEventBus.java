@@ -0,0 +1,157 @@
+package com.tasktracker.task.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * An in-process bus delivering {@link TaskEvent}s to subscribers.
+ *
+ * <p>Every subscription owns a bounded queue drained by its own virtual thread, which hands the
+ * queued events to the subscriber in batches of up to the configured size, in publication order.
+ * Publishing never blocks: an event that does not fit into a subscription's queue is dropped for
+ * that subscription and counted in {@link Subscription#droppedEvents()}, so a subscriber that fell
+ * behind knows that it has to rebuild its view from a full scan. A slow subscriber therefore never
+ * delays the publisher or the other subscribers. Exceptions thrown by a subscriber are passed to
+ * the uncaught exception handler of its thread and delivery continues with the next batch.
+ */
+public final class TaskEventBus implements AutoCloseable {
+  public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+  private final int queueCapacity;
+  private final int maxBatchSize;
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+  /** Constructs a bus with the default queue capacity and batch size. */
+  public TaskEventBus() {
+    this(DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Constructs a bus.
+   *
+   * @param queueCapacity the number of undelivered events each subscription buffers
+   * @param maxBatchSize the maximum number of events handed to a subscriber at once
+   * @throws IllegalArgumentException if the capacity or the batch size is not positive
+   */
+  public TaskEventBus(final int queueCapacity, final int maxBatchSize) {
+    if (queueCapacity < 1 || maxBatchSize < 1) {
+      throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+    }
+    this.queueCapacity = queueCapacity;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Registers a subscriber receiving every event published from now on.
+   *
+   * @param subscriber receives the events in batches, never concurrently with itself
+   * @return the subscription; closing it stops the delivery
+   */
+  public Subscription subscribe(final Consumer<? super List<TaskEvent>> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber can't be null.");
+    final Subscription subscription = new Subscription(subscriber);
+    subscriptions.add(subscription);
+    subscription.start();
+    return subscription;
+  }
+
+  /**
+   * Returns {@code true} if anybody listens, which lets publishers skip building events.
+   *
+   * @return {@code true} if there is at least one open subscription
+   */
+  public boolean hasSubscribers() {
+    return !subscriptions.isEmpty();
+  }
+
+  /**
+   * Queues the given events for every subscriber without blocking.
+   *
+   * @param events the events in the order they happened
+   */
+  public void publish(final Collection<? extends TaskEvent> events) {
+    Objects.requireNonNull(events, "Events can't be null.");
+    if (events.isEmpty()) return;
+    for (Subscription subscription : subscriptions) {
+      subscription.offer(events);
+    }
+  }
+
+  /** Closes every subscription. */
+  @Override
+  public void close() {
+    subscriptions.forEach(Subscription::close);
+  }
+
+  /** A registered subscriber together with its queue and delivery thread. */
+  public final class Subscription implements AutoCloseable {
+    private final Consumer<? super List<TaskEvent>> subscriber;
+    private final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean closed;
+    private Thread worker;
+
+    private Subscription(final Consumer<? super List<TaskEvent>> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    private void start() {
+      worker = Thread.ofVirtual().name("task-event-subscriber").start(this::deliver);
+    }
+
+    private void offer(final Collection<? extends TaskEvent> events) {
+      if (closed) return;
+      for (TaskEvent event : events) {
+        if (!queue.offer(event)) {
+          droppedEvents.incrementAndGet();
+        }
+      }
+    }
+
+    private void deliver() {
+      final List<TaskEvent> batch = new ArrayList<>(maxBatchSize);
+      while (!closed) {
+        try {
+          batch.add(queue.take());
+        } catch (InterruptedException e) {
+          return;
+        }
+        queue.drainTo(batch, maxBatchSize - 1);
+        try {
+          subscriber.accept(List.copyOf(batch));
+        } catch (RuntimeException e) {
+          final Thread thread = Thread.currentThread();
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+        batch.clear();
+      }
+    }
+
+    /**
+     * Returns the number of events that were dropped because the queue of this subscription was
+     * full. A subscriber that maintains a derived view rebuilds it once this number grows.
+     *
+     * @return the number of dropped events
+     */
+    public long droppedEvents() {
+      return droppedEvents.get();
+    }
+
+    /** Stops the delivery and unregisters the subscription. Queued events are discarded. */
+    @Override
+    public void close() {
+      closed = true;
+      subscriptions.remove(this);
+      worker.interrupt();
+      queue.clear();
+    }
+  }
+}
@@ -0,0 +1,318 @@
+package com.tasktracker.task.manager;
+
+import com.tasktracker.task.dto.*;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.TaskPage;
+import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An asynchronous facade over a {@link TaskManager}. Every operation is executed on an executor, by
+ * default one virtual thread per operation, and its outcome is delivered through a {@link
+ * CompletableFuture}. Checked exceptions of the underlying manager complete the future
+ * exceptionally, with the original exception as the cause of a {@link CompletionException}.
+ *
+ * <p>Operations are serialized per epic: an operation touching an epic, or one of its subtasks,
+ * starts only after all previously submitted operations touching the same epic have completed.
+ * Operations on regular tasks are serialized per task, operations on different epics or tasks run
+ * in parallel. Operations affecting all tasks, such as {@link #clearAllTasks()}, act as a barrier:
+ * they wait for every operation submitted before them and delay every operation submitted after
+ * them. The underlying manager must be safe for concurrent use.
+ */
+public final class AsyncTaskManager implements AutoCloseable {
+  private final TaskManager delegate;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+  // Guards tails, inFlight and barrier. A lock rather than a monitor, so the virtual threads
+  // settling operations don't pin their carrier while they wait for it.
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<UUID, CompletableFuture<Void>> tails = new HashMap<>();
+  private final Set<CompletableFuture<Void>> inFlight = new HashSet<>();
+  private CompletableFuture<Void> barrier = CompletableFuture.completedFuture(null);
+
+  /**
+   * Constructs an AsyncTaskManager executing every operation on its own virtual thread.
+   *
+   * @param delegate the thread-safe manager performing the operations
+   */
+  public AsyncTaskManager(final TaskManager delegate) {
+    this(delegate, Executors.newVirtualThreadPerTaskExecutor(), true);
+  }
+
+  /**
+   * Constructs an AsyncTaskManager executing operations on the given executor. The executor is not
+   * shut down by {@link #close()}.
+   *
+   * @param delegate the thread-safe manager performing the operations
+   * @param executor the executor running the operations
+   */
+  public AsyncTaskManager(final TaskManager delegate, final ExecutorService executor) {
+    this(delegate, executor, false);
+  }
+
+  private AsyncTaskManager(
+      final TaskManager delegate, final ExecutorService executor, final boolean ownsExecutor) {
+    this.delegate = Objects.requireNonNull(delegate, "Task Manager can't be null.");
+    this.executor = Objects.requireNonNull(executor, "Executor can't be null.");
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  private static <T> T invoke(final TaskAction<T> action) {
+    try {
+      return action.run();
+    } catch (ValidationException | TaskNotFoundException | VersionConflictException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  public CompletableFuture<Collection<Task>> getAllTasks() {
+    return submit(Set.of(), delegate::getAllTasks);
+  }
+
+  public CompletableFuture<TaskPage> getAllTasks(final String cursor, final int pageSize) {
+    return submit(Set.of(), () -> delegate.getAllTasks(cursor, pageSize));
+  }
+
+  public CompletableFuture<Void> clearAllTasks() {
+    return submitBarrier(
+        () -> {
+          delegate.clearAllTasks();
+          return null;
+        });
+  }
+
+  public CompletableFuture<List<Task>> getPrioritizedTasks() {
+    return submit(Set.of(), delegate::getPrioritizedTasks);
+  }
+
+  public <T extends Task> CompletableFuture<Void> removeTasksByType(final Class<T> clazz) {
+    Objects.requireNonNull(clazz, "Task type cannot be null.");
+    return submitBarrier(
+        () -> {
+          delegate.removeTasksByType(clazz);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Optional<Task>> removeTaskById(final UUID id) {
+    Objects.requireNonNull(id, "Task ID can't be null.");
+    return submit(keysOf(serializationKeyOf(id)), () -> delegate.removeTaskById(id));
+  }
+
+  public CompletableFuture<Optional<Task>> getTask(final UUID id) {
+    Objects.requireNonNull(id, "Task ID can't be null.");
+    return submit(keysOf(serializationKeyOf(id)), () -> delegate.getTask(id));
+  }
+
+  public CompletableFuture<Void> addTask(final RegularTaskCreationDTO dto) {
+    return submit(
+        Set.of(),
+        () -> {
+          delegate.addTask(dto);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> addTask(final EpicTaskCreationDTO dto) {
+    return submit(
+        Set.of(),
+        () -> {
+          delegate.addTask(dto);
+          return null;
+        });
+  }
+
+  public CompletableFuture<Void> addTask(final SubTaskCreationDTO dto) {
+    Objects.requireNonNull(dto, "SubTaskCreationDTO cannot be null.");
+    return submit(
+        keysOf(dto.epicId()),
+        () -> {
+          delegate.addTask(dto);
+          return null;
+        });
+  }
+
+  public CompletableFuture<RegularTask> updateTask(final RegularTaskUpdateDTO dto) {
+    Objects.requireNonNull(dto, "RegularTaskUpdateDTO cannot be null.");
+    return submit(keysOf(dto.id()), () -> delegate.updateTask(dto));
+  }
+
+  public CompletableFuture<SubTask> updateTask(final SubTaskUpdateDTO dto) {
+    Objects.requireNonNull(dto, "SubTaskUpdateDTO cannot be null.");
+    return submit(
+        keysOf(serializationKeyOf(dto.id()), dto.epicId()), () -> delegate.updateTask(dto));
+  }
+
+  public CompletableFuture<EpicTask> updateTask(final EpicTaskUpdateDTO dto) {
+    Objects.requireNonNull(dto, "EpicTaskUpdateDTO cannot be null.");
+    return submit(keysOf(dto.id()), () -> delegate.updateTask(dto));
+  }
+
+  public CompletableFuture<Task> updateTask(final TaskUpdateDTO dto, final long expectedVersion) {
+    Objects.requireNonNull(dto, "TaskUpdateDTO cannot be null.");
+    final UUID targetEpicId =
+        dto instanceof SubTaskUpdateDTO subTaskDto ? subTaskDto.epicId() : null;
+    return submit(
+        keysOf(serializationKeyOf(dto.id()), targetEpicId),
+        () -> delegate.updateTask(dto, expectedVersion));
+  }
+
+  public CompletableFuture<Collection<SubTask>> getEpicSubtasks(final UUID epicId) {
+    return submit(keysOf(epicId), () -> delegate.getEpicSubtasks(epicId));
+  }
+
+  public <T extends Task> CompletableFuture<Collection<T>> getAllTasksByClass(
+      final Class<T> targetClass) {
+    return submit(Set.of(), () -> delegate.getAllTasksByClass(targetClass));
+  }
+
+  public CompletableFuture<Collection<Task>> getHistory() {
+    return submit(Set.of(), delegate::getHistory);
+  }
+
+  /**
+   * Executes the given commands as one batch, serialized with every epic and task the commands
+   * touch.
+   *
+   * @param commands the commands to execute, in order
+   * @return a future of one result per command
+   * @see TaskManager#executeBatch(List)
+   */
+  public CompletableFuture<List<TaskCommandResult>> executeBatch(
+      final List<? extends TaskCommand> commands) {
+    Objects.requireNonNull(commands, "Commands can't be null.");
+    Set<UUID> keys = new HashSet<>();
+    for (TaskCommand command : commands) {
+      switch (Objects.requireNonNull(command, "Command can't be null.")) {
+        case TaskCommand.Create(SubTaskCreationDTO dto) -> keys.addAll(keysOf(dto.epicId()));
+        case TaskCommand.Create ignored -> {}
+        case TaskCommand.Update(SubTaskUpdateDTO dto) ->
+            keys.addAll(keysOf(serializationKeyOf(dto.id()), dto.epicId()));
+        case TaskCommand.Update(TaskUpdateDTO dto) -> keys.addAll(keysOf(dto.id()));
+        case TaskCommand.Delete(UUID id) -> keys.add(serializationKeyOf(id));
+      }
+    }
+    return submit(keys, () -> delegate.executeBatch(commands));
+  }
+
+  /**
+   * Waits for all submitted operations to complete and shuts down the executor if it was created by
+   * this manager.
+   */
+  @Override
+  public void close() {
+    final CompletableFuture<Void> pending;
+    lock.lock();
+    try {
+      pending = afterAll(inFlight);
+    } finally {
+      lock.unlock();
+    }
+    pending.join();
+    if (ownsExecutor) {
+      executor.close();
+    }
+  }
+
+  /**
+   * Returns the key operations on the given task are serialized by: the epic ID for subtasks, the
+   * task's own ID otherwise.
+   */
+  private UUID serializationKeyOf(final UUID taskId) {
+    if (taskId == null) return null;
+    return delegate
+        .peekTask(taskId)
+        .filter(SubTask.class::isInstance)
+        .map(task -> ((SubTask) task).getEpicTaskId())
+        .orElse(taskId);
+  }
+
+  private static Set<UUID> keysOf(final UUID... ids) {
+    Set<UUID> keys = new HashSet<>();
+    for (UUID id : ids) {
+      if (id != null) keys.add(id);
+    }
+    return keys;
+  }
+
+  private CompletableFuture<Void> afterAll(final Collection<CompletableFuture<Void>> predecessors) {
+    List<CompletableFuture<Void>> all = new ArrayList<>(predecessors);
+    all.add(barrier);
+    return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new));
+  }
+
+  private <T> CompletableFuture<T> submit(final Set<UUID> keys, final TaskAction<T> action) {
+    lock.lock();
+    try {
+      List<CompletableFuture<Void>> predecessors = new ArrayList<>(keys.size());
+      for (UUID key : keys) {
+        CompletableFuture<Void> tail = tails.get(key);
+        if (tail != null) predecessors.add(tail);
+      }
+      CompletableFuture<T> result =
+          afterAll(predecessors).thenApplyAsync(ignored -> invoke(action), executor);
+      CompletableFuture<Void> settled = track(result);
+      keys.forEach(key -> tails.put(key, settled));
+      settled.thenRun(
+          () -> {
+            lock.lock();
+            try {
+              keys.forEach(key -> tails.remove(key, settled));
+            } finally {
+              lock.unlock();
+            }
+          });
+      return result.copy();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private <T> CompletableFuture<T> submitBarrier(final TaskAction<T> action) {
+    lock.lock();
+    try {
+      CompletableFuture<T> result =
+          afterAll(tails.values()).thenApplyAsync(ignored -> invoke(action), executor);
+      tails.clear();
+      barrier = track(result);
+      return result.copy();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Registers the given operation as in flight until it completes.
+   *
+   * @return a future completing normally once the operation has completed in any way
+   */
+  private CompletableFuture<Void> track(final CompletableFuture<?> result) {
+    CompletableFuture<Void> settled = result.handle((value, error) -> null);
+    inFlight.add(settled);
+    settled.thenRun(
+        () -> {
+          lock.lock();
+          try {
+            inFlight.remove(settled);
+          } finally {
+            lock.unlock();
+          }
+        });
+    return settled;
+  }
+
+  @FunctionalInterface
+  private interface TaskAction<T> {
+    T run() throws ValidationException, TaskNotFoundException, VersionConflictException;
+  }
+}
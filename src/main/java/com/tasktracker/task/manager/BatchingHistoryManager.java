@@ -0,0 +1,307 @@
+package com.tasktracker.task.manager;
+
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.store.HistoryStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A history manager that takes the recording of views off the read path. {@link #put} only writes
+ * the task ID and the time of the view into a fixed buffer of primitive arrays, chosen by thread;
+ * no {@link TaskView} is built and the history store is not touched. A background thread applies
+ * the buffered views to the {@link HistoryStore} in batches, sorted by view time, whenever the
+ * flush interval elapses or a buffer is half full. A writer finding its buffer full applies the
+ * batch itself, so views are never dropped.
+ *
+ * <p>In exchange, {@link #getHistory()} may miss views recorded within the last flush interval;
+ * {@link #flush()} applies them on demand. {@link #remove} flushes first, so a buffered view can't
+ * bring back a removed task. View times have millisecond precision. Using this manager in place of
+ * an {@link InMemoryHistoryManager} selects the batched mode; the manager must be closed to stop
+ * its background thread, and rejects views once closed.
+ *
+ * <p>If applying a batch fails in the background thread, for example because a file-backed store
+ * can't write, the batch is dropped, the failure is passed to the thread's uncaught exception
+ * handler and counted, and the thread carries on with the next batch.
+ */
+public final class BatchingHistoryManager implements HistoryManager, AutoCloseable {
+  private static final int STRIPES = 16;
+  private static final int DEFAULT_BUFFER_CAPACITY = 256;
+  private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(50);
+
+  private final HistoryStore historyStore;
+  private final Clock clock;
+  private final long flushIntervalNanos;
+  private final Ring[] rings = new Ring[STRIPES];
+  private final ReentrantLock applyLock = new ReentrantLock();
+  private final long[] batchMostSigBits;
+  private final long[] batchLeastSigBits;
+  private final long[] batchViewTimes;
+  private final Integer[] batchOrder;
+  private final Thread flusher;
+  private final LongAdder flushFailureCount = new LongAdder();
+  private volatile boolean closed;
+
+  /**
+   * Constructs a batching history manager with a buffer of {@value #DEFAULT_BUFFER_CAPACITY} views
+   * per stripe, flushed every 50 milliseconds.
+   *
+   * @param historyStore the store the views are applied to; must not be {@code null}
+   */
+  public BatchingHistoryManager(final HistoryStore historyStore) {
+    this(historyStore, DEFAULT_BUFFER_CAPACITY, DEFAULT_FLUSH_INTERVAL, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs a batching history manager.
+   *
+   * @param historyStore the store the views are applied to; must not be {@code null}
+   * @param bufferCapacity the number of views each buffer stripe holds; must be positive
+   * @param flushInterval the longest time a view stays buffered while the manager is idle; must be
+   *     positive
+   * @param clock the clock view times are taken from
+   * @throws IllegalArgumentException if the capacity or the interval is not positive
+   */
+  public BatchingHistoryManager(
+      final HistoryStore historyStore,
+      final int bufferCapacity,
+      final Duration flushInterval,
+      final Clock clock) {
+    this.historyStore = Objects.requireNonNull(historyStore, "History Repository can't be null");
+    if (bufferCapacity < 1) {
+      throw new IllegalArgumentException("Buffer capacity must be positive.");
+    }
+    Objects.requireNonNull(flushInterval, "Flush interval can't be null.");
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("Flush interval must be positive.");
+    }
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+    this.flushIntervalNanos = flushInterval.toNanos();
+    Arrays.setAll(rings, i -> new Ring(bufferCapacity));
+    final int batchCapacity = STRIPES * bufferCapacity;
+    batchMostSigBits = new long[batchCapacity];
+    batchLeastSigBits = new long[batchCapacity];
+    batchViewTimes = new long[batchCapacity];
+    batchOrder = new Integer[batchCapacity];
+    flusher = Thread.ofVirtual().name("history-flusher").start(this::flushPeriodically);
+  }
+
+  /**
+   * Returns the history as of the last flush, oldest view first.
+   *
+   * @return an unmodifiable copy of the applied views
+   */
+  @Override
+  public Collection<TaskView> getHistory() {
+    applyLock.lock();
+    try {
+      return List.copyOf(historyStore.getAll());
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the views made within the given time window as of the last flush, oldest first.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return the applied views within the window
+   */
+  @Override
+  public List<TaskView> getHistoryBetween(final LocalDateTime from, final LocalDateTime to) {
+    applyLock.lock();
+    try {
+      return historyStore.getViewedBetween(from, to);
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  /**
+   * Buffers a view of the given task, stamped with the current time. The view is applied to the
+   * store later, so the previous view can't be reported.
+   *
+   * @param task the viewed task; must not be {@code null}
+   * @return an empty {@link Optional}
+   * @throws IllegalStateException if the manager is closed
+   */
+  @Override
+  public Optional<TaskView> put(final Task task) {
+    Objects.requireNonNull(task, "Task can't be null.");
+    if (closed) {
+      throw new IllegalStateException("History manager is closed.");
+    }
+    final UUID id = task.getId();
+    final long viewTime = clock.millis();
+    final Ring ring = rings[(int) Thread.currentThread().threadId() & (STRIPES - 1)];
+    while (true) {
+      final int size = ring.offer(id, viewTime);
+      if (size > 0) {
+        if (closed) {
+          // The manager closed while the view was buffered, possibly after its final flush.
+          flush();
+        } else if (size == ring.capacity() / 2 + 1) {
+          LockSupport.unpark(flusher);
+        }
+        return Optional.empty();
+      }
+      flush();
+    }
+  }
+
+  /**
+   * Applies the buffered views, then removes the view of the given task.
+   *
+   * @param id the ID of the task
+   * @return an {@link Optional} containing the removed view, or an empty {@link Optional}
+   */
+  @Override
+  public Optional<TaskView> remove(final UUID id) {
+    Objects.requireNonNull(id, "Task ID can't be null.");
+    applyLock.lock();
+    try {
+      applyBuffered();
+      return historyStore.remove(id);
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  /**
+   * Returns {@code true}, since this manager guards its store itself.
+   *
+   * @return {@code true}
+   */
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  /** Applies every buffered view to the history store. */
+  public void flush() {
+    applyLock.lock();
+    try {
+      applyBuffered();
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  /** Stops the background thread and applies the remaining views. */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(flusher);
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  /**
+   * Returns the number of batches the background thread failed to apply.
+   *
+   * @return the number of failed flushes
+   */
+  public long getFlushFailureCount() {
+    return flushFailureCount.sum();
+  }
+
+  private void flushPeriodically() {
+    while (!closed) {
+      LockSupport.parkNanos(this, flushIntervalNanos);
+      try {
+        flush();
+      } catch (RuntimeException e) {
+        flushFailureCount.increment();
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+  }
+
+  /** Moves the buffered views into the batch and applies them by view time. Holds applyLock. */
+  private void applyBuffered() {
+    int batchSize = 0;
+    for (Ring ring : rings) {
+      batchSize = ring.drainTo(batchMostSigBits, batchLeastSigBits, batchViewTimes, batchSize);
+    }
+    if (batchSize == 0) return;
+    for (int i = 0; i < batchSize; i++) {
+      batchOrder[i] = i;
+    }
+    Arrays.sort(batchOrder, 0, batchSize, Comparator.comparingLong(i -> batchViewTimes[i]));
+    for (int i = 0; i < batchSize; i++) {
+      final int index = batchOrder[i];
+      historyStore.put(
+          new TaskView(
+              new UUID(batchMostSigBits[index], batchLeastSigBits[index]),
+              LocalDateTime.ofInstant(
+                  Instant.ofEpochMilli(batchViewTimes[index]), clock.getZone())));
+    }
+  }
+
+  /**
+   * A fixed-size buffer of views in primitive arrays, guarded by a lock of its own. Since it is
+   * always drained completely, views are appended from the start and no wrap-around is needed.
+   */
+  private static final class Ring {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] mostSigBits;
+    private final long[] leastSigBits;
+    private final long[] viewTimes;
+    private int size;
+
+    private Ring(final int capacity) {
+      mostSigBits = new long[capacity];
+      leastSigBits = new long[capacity];
+      viewTimes = new long[capacity];
+    }
+
+    private int capacity() {
+      return viewTimes.length;
+    }
+
+    /** Appends a view and returns the new size, or 0 if the ring is full. */
+    private int offer(final UUID id, final long viewTime) {
+      lock.lock();
+      try {
+        if (size == viewTimes.length) return 0;
+        mostSigBits[size] = id.getMostSignificantBits();
+        leastSigBits[size] = id.getLeastSignificantBits();
+        viewTimes[size] = viewTime;
+        return ++size;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Copies the views into the batch arrays from the given offset and empties the ring. */
+    private int drainTo(
+        final long[] batchMostSigBits,
+        final long[] batchLeastSigBits,
+        final long[] batchViewTimes,
+        final int offset) {
+      lock.lock();
+      try {
+        System.arraycopy(mostSigBits, 0, batchMostSigBits, offset, size);
+        System.arraycopy(leastSigBits, 0, batchLeastSigBits, offset, size);
+        System.arraycopy(viewTimes, 0, batchViewTimes, offset, size);
+        final int drained = size;
+        size = 0;
+        return offset + drained;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
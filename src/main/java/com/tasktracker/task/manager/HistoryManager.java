@@ -3,7 +3,10 @@ package com.tasktracker.task.manager;
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.model.implementations.TaskView;
 import com.tasktracker.task.store.HistoryStore;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,6 +24,23 @@ public interface HistoryManager {
    */
   Collection<TaskView> getHistory();
 
+  /**
+   * Retrieves the task views made within the given time window, oldest first, for queries such as
+   * the tasks viewed in the last few minutes. This default filters the whole history.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return the views within the window, empty if {@code from} is not before {@code to}
+   */
+  default List<TaskView> getHistoryBetween(final LocalDateTime from, final LocalDateTime to) {
+    Objects.requireNonNull(from, "Window start can't be null.");
+    Objects.requireNonNull(to, "Window end can't be null.");
+    return getHistory().stream()
+        .filter(view -> !view.getViewDateTime().isBefore(from))
+        .filter(view -> view.getViewDateTime().isBefore(to))
+        .toList();
+  }
+
   /**
    * Adds a task to the history. If the history reaches its maximum allowed size, the oldest task is
    * removed to make room for the new task. The task is saved in the history as a {@link TaskView}
@@ -39,4 +59,24 @@ public interface HistoryManager {
    *     an empty {@link Optional}
    */
   Optional<TaskView> remove(UUID id);
+
+  /**
+   * Tells whether the manager may be used by several threads at once without external locking.
+   *
+   * @return {@code true} if the manager is thread-safe
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
+
+  /**
+   * Tells whether the history only changes through {@link #put} and {@link #remove}, so that
+   * results derived from it stay valid until the next write. Histories that expire views or apply
+   * them in the background return {@code false}.
+   *
+   * @return {@code true} if only writes change the history
+   */
+  default boolean changesOnlyOnWrite() {
+    return false;
+  }
 }
@@ -2,7 +2,10 @@ package com.tasktracker.task.manager;
 
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.CachedClock;
+import com.tasktracker.task.service.TopViewedCounter;
 import com.tasktracker.task.store.HistoryStore;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -12,17 +15,63 @@ import java.util.*;
  */
 public class InMemoryHistoryManager implements HistoryManager {
   private final HistoryStore historyStore;
+  private final TopViewedCounter viewCounter;
+  private final Clock clock;
 
   /**
    * Constructs an {@code InMemoryHistoryManager} with the specified {@link HistoryStore}. Ensures
-   * the provided history repository is not null.
+   * the provided history repository is not null. Views are stamped with the system clock.
    *
    * @param historyStore the {@link HistoryStore} used for managing the task history; must not be
    *     {@code null}
    */
   public InMemoryHistoryManager(final HistoryStore historyStore) {
+    this(historyStore, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs an {@code InMemoryHistoryManager} that stamps views with the given clock, such as a
+   * {@link CachedClock} on hot paths.
+   *
+   * @param historyStore the {@link HistoryStore} used for managing the task history; must not be
+   *     {@code null}
+   * @param clock the clock view times are taken from; must not be {@code null}
+   */
+  public InMemoryHistoryManager(final HistoryStore historyStore, final Clock clock) {
     Objects.requireNonNull(historyStore, "History Repository can't be null");
     this.historyStore = historyStore;
+    this.viewCounter = null;
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+  }
+
+  /**
+   * Constructs an {@code InMemoryHistoryManager} that also counts every view in the given {@link
+   * TopViewedCounter}, so that the most viewed tasks can be reported alongside the history.
+   *
+   * @param historyStore the {@link HistoryStore} used for managing the task history; must not be
+   *     {@code null}
+   * @param viewCounter the counter fed with every view; must not be {@code null}
+   */
+  public InMemoryHistoryManager(
+      final HistoryStore historyStore, final TopViewedCounter viewCounter) {
+    this(historyStore, viewCounter, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs an {@code InMemoryHistoryManager} that counts every view in the given {@link
+   * TopViewedCounter} and stamps views with the given clock.
+   *
+   * @param historyStore the {@link HistoryStore} used for managing the task history; must not be
+   *     {@code null}
+   * @param viewCounter the counter fed with every view; must not be {@code null}
+   * @param clock the clock view times are taken from; must not be {@code null}
+   */
+  public InMemoryHistoryManager(
+      final HistoryStore historyStore, final TopViewedCounter viewCounter, final Clock clock) {
+    Objects.requireNonNull(historyStore, "History Repository can't be null");
+    this.historyStore = historyStore;
+    this.viewCounter = Objects.requireNonNull(viewCounter, "View counter can't be null.");
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
   }
 
   /**
@@ -36,10 +85,22 @@ public class InMemoryHistoryManager implements HistoryManager {
     return historyStore.getAll();
   }
 
+  /**
+   * Retrieves the task views made within the given time window from the {@link HistoryStore}.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return the views within the window, oldest first
+   */
+  @Override
+  public List<TaskView> getHistoryBetween(final LocalDateTime from, final LocalDateTime to) {
+    return historyStore.getViewedBetween(from, to);
+  }
+
   /**
    * Adds the provided task to the history as a {@link TaskView}. The task's view is saved with the
-   * current timestamp. If a task with the same ID already exists in the history, it will be
-   * replaced.
+   * current time of the manager's clock. If a task with the same ID already exists in the history,
+   * it will be replaced.
    *
    * @param task the task to be added to the history, must not be {@code null}
    * @return an {@link Optional} containing the previous {@link TaskView}, if a task with the same
@@ -48,7 +109,12 @@ public class InMemoryHistoryManager implements HistoryManager {
   @Override
   public Optional<TaskView> put(final Task task) {
     Objects.requireNonNull(task, "Task can't be null.");
-    return historyStore.put(new TaskView(task.getId(), LocalDateTime.now()));
+    final Optional<TaskView> previous =
+        historyStore.put(new TaskView(task.getId(), CachedClock.now(clock)));
+    if (viewCounter != null) {
+      viewCounter.record(task.getId());
+    }
+    return previous;
   }
 
   /**
@@ -62,4 +128,26 @@ public class InMemoryHistoryManager implements HistoryManager {
   public Optional<TaskView> remove(UUID id) {
     return historyStore.remove(id);
   }
+
+  /**
+   * Returns {@code true} if the underlying {@link HistoryStore} is thread-safe, since this manager
+   * holds no state of its own. An attached {@link TopViewedCounter} is thread-safe and striped by
+   * thread, so it doesn't serialize concurrent views.
+   *
+   * @return {@code true} if the history store is concurrent
+   */
+  @Override
+  public boolean isConcurrent() {
+    return historyStore.isConcurrent();
+  }
+
+  /**
+   * Returns {@code true} if the underlying {@link HistoryStore} only changes on writes.
+   *
+   * @return {@code true} if the history store changes only on writes
+   */
+  @Override
+  public boolean changesOnlyOnWrite() {
+    return historyStore.changesOnlyOnWrite();
+  }
 }
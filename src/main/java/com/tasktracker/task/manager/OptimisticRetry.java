@@ -0,0 +1,93 @@
+package com.tasktracker.task.manager;
+
+import com.tasktracker.task.dto.TaskUpdateDTO;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Helpers for optimistic concurrency control. A conditional update that lost a race against a
+ * concurrent modification fails with a {@link VersionConflictException}; these helpers re-read the
+ * task and apply the change again on the fresh version, up to a given number of attempts.
+ */
+public final class OptimisticRetry {
+
+  private OptimisticRetry() {}
+
+  /**
+   * Runs the given action, running it again as long as it fails with a version conflict and the
+   * number of attempts is not exhausted. The action must read the current state itself on every
+   * attempt.
+   *
+   * @param maxAttempts the maximum number of attempts; must be positive
+   * @param action the action to run
+   * @return the result of the first successful attempt
+   * @throws ValidationException if an attempt fails validation
+   * @throws TaskNotFoundException if an attempt does not find its task
+   * @throws VersionConflictException if the last attempt still conflicts
+   * @throws IllegalArgumentException if the number of attempts is not positive
+   */
+  public static <T> T retry(final int maxAttempts, final VersionedAction<T> action)
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Max attempts must be positive.");
+    }
+    Objects.requireNonNull(action, "Action can't be null.");
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return action.run();
+      } catch (VersionConflictException e) {
+        if (attempt >= maxAttempts) throw e;
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  /**
+   * Reads a task, derives an update from it and applies the update conditionally on the version
+   * that was read, retrying on the latest version if the task was modified concurrently.
+   *
+   * @param manager the manager holding the task
+   * @param taskId the ID of the task to update
+   * @param maxAttempts the maximum number of attempts; must be positive
+   * @param change derives the update from the current version of the task
+   * @return the version of the task the successful update replaced
+   * @throws ValidationException if the task does not exist or the update is invalid
+   * @throws TaskNotFoundException if the task disappeared from the repository
+   * @throws VersionConflictException if the last attempt still conflicts
+   */
+  public static Task updateTask(
+      final TaskManager manager, final UUID taskId, final int maxAttempts, final TaskChange change)
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    Objects.requireNonNull(manager, "Task Manager can't be null.");
+    Objects.requireNonNull(taskId, "Task ID can't be null.");
+    Objects.requireNonNull(change, "Change can't be null.");
+    return retry(
+        maxAttempts,
+        () -> {
+          Task current =
+              manager
+                  .peekTask(taskId)
+                  .orElseThrow(
+                      () ->
+                          new ValidationException(
+                              String.format("Task with ID %s does not exist", taskId)));
+          return manager.updateTask(change.apply(current), current.getVersion());
+        });
+  }
+
+  /** An action that may fail because of a concurrent modification. */
+  @FunctionalInterface
+  public interface VersionedAction<T> {
+    T run() throws ValidationException, TaskNotFoundException, VersionConflictException;
+  }
+
+  /** Derives an update from the current version of a task. */
+  @FunctionalInterface
+  public interface TaskChange {
+    TaskUpdateDTO apply(Task current) throws ValidationException;
+  }
+}
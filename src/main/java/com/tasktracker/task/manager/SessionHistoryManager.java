@@ -0,0 +1,267 @@
+package com.tasktracker.task.manager;
+
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.CachedClock;
+import com.tasktracker.task.store.CompactHistoryStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a separate "recently viewed" history for every user session. A caller serving a session
+ * reads a task with {@link TaskManager#peekTask}, which leaves the global history alone, and
+ * records the view here under the session's ID. Registered with a {@link TaskManagerImpl}, the
+ * manager loses the views of deleted tasks as the global history does.
+ *
+ * <p>Sessions are created lazily on their first view and each holds a {@link CompactHistoryStore}
+ * of a fixed, small capacity, so a session costs a few hundred bytes. A session not used for the
+ * idle timeout is treated as gone: it is evicted when it is next used, by {@link
+ * #evictIdleSessions()}, or when the cap is reached. The number of sessions never exceeds the cap:
+ * a new session first reserves one of the slots, and when none is free, idle sessions are evicted
+ * first and then the least recently used eighth of the sessions, so the cost of finding them is
+ * spread over many session creations.
+ *
+ * <p>The manager is thread-safe. Sessions are created, used and evicted inside the atomic {@code
+ * compute} operations of a {@link ConcurrentHashMap}, so a view can't land in a session that is
+ * being evicted. Different sessions are served in parallel.
+ */
+public final class SessionHistoryManager {
+  private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+  private final AtomicInteger sessionSlots = new AtomicInteger();
+  private final int viewsPerSession;
+  private final int maxSessions;
+  private final long idleTimeoutMillis;
+  private final Clock clock;
+  private final LongAdder evictedSessionCount = new LongAdder();
+
+  /**
+   * Constructs a session history manager.
+   *
+   * @param viewsPerSession the number of views kept per session; must be positive
+   * @param maxSessions the maximum number of sessions; must be positive
+   * @param idleTimeout the time after its last use a session is evicted; must be positive
+   * @param clock the clock view times and idle times are measured with, such as a {@link
+   *     CachedClock} on hot paths
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public SessionHistoryManager(
+      final int viewsPerSession,
+      final int maxSessions,
+      final Duration idleTimeout,
+      final Clock clock) {
+    if (viewsPerSession < 1 || maxSessions < 1) {
+      throw new IllegalArgumentException("Views per session and max sessions must be positive.");
+    }
+    Objects.requireNonNull(idleTimeout, "Idle timeout can't be null.");
+    if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("Idle timeout must be positive.");
+    }
+    this.viewsPerSession = viewsPerSession;
+    this.maxSessions = maxSessions;
+    this.idleTimeoutMillis = idleTimeout.toMillis();
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+  }
+
+  /**
+   * Records a view of the given task in the history of the given session, creating the session if
+   * needed. A session that has been idle for the timeout starts over with an empty history.
+   *
+   * @param sessionId the ID of the session
+   * @param task the viewed task
+   * @return an {@link Optional} containing the previous view of the task in the session
+   */
+  public Optional<TaskView> put(final String sessionId, final Task task) {
+    Objects.requireNonNull(sessionId, "Session ID can't be null.");
+    Objects.requireNonNull(task, "Task can't be null.");
+    final long now = clock.millis();
+    final TaskView view = new TaskView(task.getId(), CachedClock.now(clock));
+    final PutOutcome outcome = new PutOutcome();
+    boolean reserved = false;
+    while (true) {
+      final boolean hasSlot = reserved;
+      sessions.compute(
+          sessionId,
+          (id, session) -> {
+            if (session != null && isIdle(session, now)) {
+              evictedSessionCount.increment();
+              session = new Session(viewsPerSession);
+            }
+            if (session == null) {
+              if (!hasSlot) return null;
+              session = new Session(viewsPerSession);
+              outcome.slotUsed = true;
+            }
+            session.lastAccessMillis = now;
+            outcome.previous = session.views.put(view);
+            outcome.applied = true;
+            return session;
+          });
+      if (outcome.applied) {
+        if (reserved && !outcome.slotUsed) sessionSlots.decrementAndGet();
+        return outcome.previous;
+      }
+      reserveSlot(now);
+      reserved = true;
+    }
+  }
+
+  /**
+   * Returns the history of the given session, oldest view first. A session that has been idle for
+   * the timeout is evicted instead.
+   *
+   * @param sessionId the ID of the session
+   * @return the views of the session, empty if the session does not exist or was idle
+   */
+  public Collection<TaskView> getHistory(final String sessionId) {
+    Objects.requireNonNull(sessionId, "Session ID can't be null.");
+    final long now = clock.millis();
+    if (evictIf(sessionId, session -> isIdle(session, now))) return List.of();
+    final List<Collection<TaskView>> history = new ArrayList<>(1);
+    sessions.computeIfPresent(
+        sessionId,
+        (id, session) -> {
+          session.lastAccessMillis = now;
+          history.add(session.views.getAll());
+          return session;
+        });
+    return history.isEmpty() ? List.of() : history.getFirst();
+  }
+
+  /**
+   * Removes a task from the histories of all sessions, e.g. after the task was deleted.
+   *
+   * @param taskId the ID of the task
+   */
+  public void removeTask(final UUID taskId) {
+    Objects.requireNonNull(taskId, "Task ID can't be null.");
+    for (String sessionId : sessions.keySet()) {
+      sessions.computeIfPresent(
+          sessionId,
+          (id, session) -> {
+            session.views.remove(taskId);
+            return session;
+          });
+    }
+  }
+
+  /**
+   * Ends a session and discards its history.
+   *
+   * @param sessionId the ID of the session
+   * @return {@code true} if the session existed
+   */
+  public boolean endSession(final String sessionId) {
+    Objects.requireNonNull(sessionId, "Session ID can't be null.");
+    if (sessions.remove(sessionId) == null) return false;
+    sessionSlots.decrementAndGet();
+    return true;
+  }
+
+  /** Evicts every session that was not used for the idle timeout. */
+  public void evictIdleSessions() {
+    evictIdleSessions(clock.millis());
+  }
+
+  /**
+   * Returns the number of live sessions.
+   *
+   * @return the number of sessions
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the number of sessions evicted for being idle or for exceeding the session cap.
+   *
+   * @return the number of evicted sessions
+   */
+  public long getEvictedSessionCount() {
+    return evictedSessionCount.sum();
+  }
+
+  private boolean isIdle(final Session session, final long now) {
+    return now - session.lastAccessMillis > idleTimeoutMillis;
+  }
+
+  /**
+   * Removes the session if it matches, then counts the eviction and frees its slot. The slot is
+   * freed only once the session is out of the map, so a new session can't be created alongside it
+   * and push the map over the cap.
+   */
+  private boolean evictIf(final String sessionId, final Predicate<Session> shouldEvict) {
+    final List<Session> evicted = new ArrayList<>(1);
+    sessions.computeIfPresent(
+        sessionId,
+        (id, session) -> {
+          if (!shouldEvict.test(session)) return session;
+          evicted.add(session);
+          return null;
+        });
+    if (evicted.isEmpty()) return false;
+    evictedSessionCount.increment();
+    sessionSlots.decrementAndGet();
+    return true;
+  }
+
+  /** Takes a slot for a new session, evicting sessions while none is free. */
+  private void reserveSlot(final long now) {
+    while (true) {
+      final int slots = sessionSlots.get();
+      if (slots < maxSessions) {
+        if (sessionSlots.compareAndSet(slots, slots + 1)) return;
+      } else if (!evictSessions(now)) {
+        // Every slot is reserved by a session about to be created; wait for them to settle.
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  private void evictIdleSessions(final long now) {
+    for (String sessionId : sessions.keySet()) {
+      evictIf(sessionId, session -> isIdle(session, now));
+    }
+  }
+
+  /** Evicts idle sessions, then the least recently used ones, and reports whether a slot freed. */
+  private boolean evictSessions(final long now) {
+    final int before = sessionSlots.get();
+    evictIdleSessions(now);
+    final int excess = sessionSlots.get() - maxSessions + 1;
+    if (excess > 0) {
+      final int batch = Math.max(excess, maxSessions / 8);
+      final List<Map.Entry<String, Long>> leastRecentlyUsed =
+          sessions.entrySet().stream()
+              .map(entry -> Map.entry(entry.getKey(), entry.getValue().lastAccessMillis))
+              .sorted(Map.Entry.comparingByValue())
+              .limit(batch)
+              .toList();
+      for (Map.Entry<String, Long> candidate : leastRecentlyUsed) {
+        // A session used since it was picked is kept.
+        evictIf(candidate.getKey(), session -> session.lastAccessMillis == candidate.getValue());
+      }
+    }
+    return sessionSlots.get() < before;
+  }
+
+  /** What a put did inside compute, read once compute has returned. */
+  private static final class PutOutcome {
+    private Optional<TaskView> previous;
+    private boolean applied;
+    private boolean slotUsed;
+  }
+
+  private static final class Session {
+    private final CompactHistoryStore views;
+    private volatile long lastAccessMillis;
+
+    private Session(final int capacity) {
+      this.views = new CompactHistoryStore(capacity);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.tasktracker.task.manager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks that IDs are hashed onto, so that operations on different IDs usually
+ * proceed in parallel while operations on the same ID are mutually exclusive. Several IDs are
+ * always locked in ascending stripe order, which rules out deadlocks between callers locking
+ * overlapping sets of IDs.
+ */
+final class StripedLock {
+  private final ReentrantLock[] stripes;
+
+  /**
+   * Constructs a striped lock.
+   *
+   * @param stripeCount the number of stripes; must be a positive power of two
+   * @throws IllegalArgumentException if the stripe count is not a positive power of two
+   */
+  StripedLock(final int stripeCount) {
+    if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+      throw new IllegalArgumentException("Stripe count must be a positive power of two.");
+    }
+    stripes = new ReentrantLock[stripeCount];
+    Arrays.setAll(stripes, i -> new ReentrantLock());
+  }
+
+  private int stripeOf(final UUID id) {
+    final int hash = id.hashCode();
+    return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+  }
+
+  /**
+   * Acquires the stripes of all given IDs in ascending stripe order.
+   *
+   * @param ids the IDs to lock; {@code null} entries are ignored
+   * @return a handle releasing the acquired stripes when closed
+   */
+  Held lock(final Collection<UUID> ids) {
+    Objects.requireNonNull(ids, "IDs can't be null.");
+    final int[] indexes =
+        ids.stream()
+            .filter(Objects::nonNull)
+            .mapToInt(this::stripeOf)
+            .distinct()
+            .sorted()
+            .toArray();
+    return acquire(indexes);
+  }
+
+  /**
+   * Acquires every stripe in ascending order, excluding all other holders.
+   *
+   * @return a handle releasing the stripes when closed
+   */
+  Held lockAll() {
+    final int[] indexes = new int[stripes.length];
+    Arrays.setAll(indexes, i -> i);
+    return acquire(indexes);
+  }
+
+  private Held acquire(final int[] indexes) {
+    for (int index : indexes) {
+      stripes[index].lock();
+    }
+    return () -> {
+      for (int i = indexes.length - 1; i >= 0; i--) {
+        stripes[indexes[i]].unlock();
+      }
+    };
+  }
+
+  /** A set of acquired stripes, released by {@link #close()}. */
+  @FunctionalInterface
+  interface Held extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
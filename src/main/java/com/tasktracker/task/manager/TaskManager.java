@@ -6,7 +6,9 @@ import com.tasktracker.task.model.implementations.EpicTask;
 import com.tasktracker.task.model.implementations.RegularTask;
 import com.tasktracker.task.model.implementations.SubTask;
 import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.TaskPage;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +22,15 @@ public interface TaskManager {
    */
   Collection<Task> getAllTasks();
 
+  /**
+   * Retrieves one page of tasks ordered by task ID.
+   *
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page together with the cursor of the next one
+   */
+  TaskPage getAllTasks(String cursor, int pageSize);
+
   /** Clears all tasks from the repository. */
   void clearAllTasks();
 
@@ -51,6 +62,14 @@ public interface TaskManager {
    */
   Optional<Task> getTask(UUID id);
 
+  /**
+   * Retrieves a task from the repository by its ID without recording it in the history.
+   *
+   * @param id the ID of the task to retrieve
+   * @return an {@link Optional} containing the task if it exists, or an empty Optional if not
+   */
+  Optional<Task> peekTask(UUID id);
+
   void addTask(RegularTaskCreationDTO regularTaskCreationDTO) throws ValidationException;
 
   void addTask(EpicTaskCreationDTO epicTaskCreationDTO) throws ValidationException;
@@ -67,6 +86,34 @@ public interface TaskManager {
   EpicTask updateTask(EpicTaskUpdateDTO epicTaskUpdateDTO)
       throws ValidationException, TaskNotFoundException;
 
+  /**
+   * Updates a task only if it still has the version the caller based its change on. The version
+   * check and the update happen atomically; if another client modified the task in the meantime,
+   * the update fails fast instead of overwriting that modification.
+   *
+   * @param dto the update of a regular task, an epic or a subtask
+   * @param expectedVersion the version of the task the update is based on
+   * @return the previous version of the task
+   * @throws ValidationException if the update is invalid or the task does not exist
+   * @throws TaskNotFoundException if the task disappeared from the repository
+   * @throws VersionConflictException if the task has a different version
+   * @see OptimisticRetry
+   */
+  Task updateTask(TaskUpdateDTO dto, long expectedVersion)
+      throws ValidationException, TaskNotFoundException, VersionConflictException;
+
+  /**
+   * Executes the given commands as one batch. All DTOs are validated up front, the commands are
+   * then applied in order, each affected epic is recomputed once at the end, and all changes are
+   * written to the repository in a single atomic operation. A rejected command doesn't abort the
+   * batch; its result carries the reason instead.
+   *
+   * @param commands the commands to execute, in order
+   * @return one result per command, in the order of the given commands
+   * @throws NullPointerException if the list or any of its commands is null
+   */
+  List<TaskCommandResult> executeBatch(List<? extends TaskCommand> commands);
+
   Collection<SubTask> getEpicSubtasks(UUID epicId) throws ValidationException;
 
   <T extends Task> Collection<T> getAllTasksByClass(Class<T> targetClass);
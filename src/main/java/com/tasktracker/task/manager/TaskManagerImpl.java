@@ -1,64 +1,173 @@
 package com.tasktracker.task.manager;
 
+import com.tasktracker.collections.PersistentTreeSet;
 import com.tasktracker.task.dto.*;
+import com.tasktracker.task.event.TaskEvent;
+import com.tasktracker.task.event.TaskEventBus;
 import com.tasktracker.task.exception.ValidationException;
 import com.tasktracker.task.model.enums.TaskStatus;
 import com.tasktracker.task.model.implementations.EpicTask;
 import com.tasktracker.task.model.implementations.RegularTask;
 import com.tasktracker.task.model.implementations.SubTask;
 import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.CachedClock;
 import com.tasktracker.task.service.EpicTaskAggregatedResult;
-import com.tasktracker.task.service.EpicTaskStatusAndTimeCollector;
+import com.tasktracker.task.service.IncrementalEpicAggregator;
 import com.tasktracker.task.service.ScheduleIndex;
+import com.tasktracker.task.service.TaskIdGenerator;
+import com.tasktracker.task.service.TimeOrderedTaskIdGenerator;
 import com.tasktracker.task.service.TreeSetScheduleIndex;
+import com.tasktracker.task.store.TaskPage;
 import com.tasktracker.task.store.TaskRepository;
+import com.tasktracker.task.store.TaskRepositorySnapshot;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
 import com.tasktracker.task.validation.Validator;
 import com.tasktracker.task.validation.ValidatorFactory;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Manages tasks of various types such as Regular Tasks, Sub-Tasks, and Epic Tasks. Provides
  * operations for creating, updating, and removing tasks, as well as managing relationships between
  * tasks like Epic Tasks and their Sub-Tasks.
+ *
+ * <p>The manager is safe for concurrent use. Mutations are serialized per epic through striped
+ * locks: an operation on an epic or on one of its subtasks holds the stripe of the epic, an
+ * operation on a regular task the stripe of the task, so independent epics and regular tasks are
+ * updated in parallel. Moving a subtask between epics holds both epics' stripes, which are always
+ * acquired in the same order. Operations spanning all tasks hold every stripe. Reads answered from
+ * the repository alone are served from its snapshots without locking. Locks are {@link
+ * ReentrantLock}s rather than monitors, so that virtual threads waiting for them don't pin their
+ * carrier. The history is guarded by a lock of its own, unless the history manager is {@linkplain
+ * HistoryManager#isConcurrent() thread-safe} itself.
  */
 public class TaskManagerImpl implements TaskManager {
   public static final String THE_CLASS_TYPE_CANNOT_BE_NULL = "The class type cannot be null.";
+  private static final int LOCK_STRIPES = 64;
   private final TaskRepository store;
   private final HistoryManager historyManager;
   private final ScheduleIndex index;
+  private final TaskIdGenerator idGenerator;
+  private final TaskEventBus eventBus;
+  private final Clock clock;
+  private final IncrementalEpicAggregator epicAggregator = new IncrementalEpicAggregator();
+  private final StripedLock locks = new StripedLock(LOCK_STRIPES);
+  private final ReentrantLock historyLock = new ReentrantLock();
+  private final boolean concurrentHistory;
+  private final boolean cacheableHistory;
+  private final AtomicLong historyWrites = new AtomicLong();
+  private volatile ResolvedHistory resolvedHistory;
+  private final List<SessionHistoryManager> sessionHistories = new CopyOnWriteArrayList<>();
 
   /**
    * Constructs a TaskManager with the given {@link TaskRepository} for storing and managing tasks.
+   * New tasks get time-ordered IDs from a {@link TimeOrderedTaskIdGenerator}.
    *
    * @param store the repository used to store and retrieve tasks
    */
   public TaskManagerImpl(final TaskRepository store, final HistoryManager historyManager) {
+    this(store, historyManager, new TimeOrderedTaskIdGenerator(), new TaskEventBus());
+  }
+
+  /**
+   * Constructs a TaskManager with the given {@link TaskRepository} for storing and managing tasks.
+   *
+   * @param store the repository used to store and retrieve tasks
+   * @param historyManager the history of viewed tasks
+   * @param idGenerator supplies the IDs of new tasks
+   * @param eventBus receives a {@link TaskEvent} for every committed change
+   */
+  public TaskManagerImpl(
+      final TaskRepository store,
+      final HistoryManager historyManager,
+      final TaskIdGenerator idGenerator,
+      final TaskEventBus eventBus) {
+    this(store, historyManager, idGenerator, eventBus, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs a TaskManager that stamps creations and updates with the given clock, such as a
+   * {@link CachedClock} for high-throughput deployments or a fixed clock in tests.
+   *
+   * @param store the repository used to store and retrieve tasks
+   * @param historyManager the history of viewed tasks
+   * @param idGenerator supplies the IDs of new tasks
+   * @param eventBus receives a {@link TaskEvent} for every committed change
+   * @param clock the clock timestamps are taken from
+   */
+  public TaskManagerImpl(
+      final TaskRepository store,
+      final HistoryManager historyManager,
+      final TaskIdGenerator idGenerator,
+      final TaskEventBus eventBus,
+      final Clock clock) {
     this.store = Objects.requireNonNull(store, "TaskRepository cannot be null.");
     this.historyManager = Objects.requireNonNull(historyManager, "History Manager can't be null");
+    this.concurrentHistory = historyManager.isConcurrent();
+    this.cacheableHistory = historyManager.changesOnlyOnWrite();
+    this.idGenerator = Objects.requireNonNull(idGenerator, "ID generator can't be null.");
+    this.eventBus = Objects.requireNonNull(eventBus, "Event bus can't be null.");
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
     this.index = new TreeSetScheduleIndex();
   }
 
+  /**
+   * Returns the bus the committed changes of this manager are published on. Changes of one epic or
+   * regular task are published in the order they were committed.
+   *
+   * @return the event bus
+   */
+  public TaskEventBus getEventBus() {
+    return eventBus;
+  }
+
+  /**
+   * Registers per-session histories kept next to the global one. Every task this manager deletes
+   * from then on is removed from them as well, once the deletion has committed.
+   *
+   * @param sessionHistory the session histories to keep in sync with deletions
+   */
+  public void addSessionHistory(final SessionHistoryManager sessionHistory) {
+    sessionHistories.add(Objects.requireNonNull(sessionHistory, "Session history can't be null."));
+  }
+
   @Override
   public List<Task> getPrioritizedTasks() {
     return index.asOrderedList();
   }
 
   /**
-   * Generates a unique UUID that is not currently in use for any task in the store.
+   * Generates a unique UUID that is not currently in use for any task in the store. The store is
+   * only consulted if the generator may repeat IDs.
    *
    * @return a new unique UUID that does not exist in the task store
    */
   private UUID generateId() {
-    UUID id;
-    do {
-      id = UUID.randomUUID();
-    } while (store.getTaskById(id).isPresent());
+    UUID id = idGenerator.nextId();
+    if (idGenerator.requiresCollisionCheck()) {
+      while (store.getTaskById(id).isPresent()) {
+        id = idGenerator.nextId();
+      }
+    }
     return id;
   }
 
+  /**
+   * Returns the current time of the manager's clock, used to stamp creations and updates.
+   *
+   * @return the current local date-time
+   */
+  private LocalDateTime now() {
+    return CachedClock.now(clock);
+  }
+
   /**
    * Retrieves all tasks currently stored in the repository.
    *
@@ -69,134 +178,230 @@ public class TaskManagerImpl implements TaskManager {
     return store.getAllTasks();
   }
 
+  /**
+   * Retrieves a task by its ID without recording it in the history.
+   *
+   * @param id the ID of the task to retrieve
+   * @return an {@link Optional} containing the task if it exists, or an empty Optional if not
+   */
+  @Override
+  public Optional<Task> peekTask(final UUID id) {
+    return store.getTaskById(id);
+  }
+
+  /**
+   * Retrieves one page of tasks ordered by task ID.
+   *
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page together with the cursor of the next one
+   */
+  @Override
+  public TaskPage getAllTasks(final String cursor, final int pageSize) {
+    return store.getAllTasks(cursor, pageSize);
+  }
+
   /** Clears all tasks from the repository. */
   @Override
   public void clearAllTasks() {
-    store.getAllTasks().forEach(this::removeTaskFromStoreAndHistory);
+    try (TaskTransaction transaction = begin(locks.lockAll())) {
+      store.getAllTasks().forEach(transaction::remove);
+      transaction.commit();
+      epicAggregator.clear();
+    }
   }
 
   @Override
   public <T extends Task> void removeTasksByType(final Class<T> clazz)
       throws UnsupportedOperationException {
     Objects.requireNonNull(clazz, "Task type cannot be null.");
-    if (clazz.equals(RegularTask.class)) {
-      store
-          .findTasksMatching(RegularTask.class::isInstance)
-          .forEach(this::removeTaskFromStoreAndHistory);
-    } else if (clazz.equals(SubTask.class)) {
-      store.findTasksMatching(SubTask.class::isInstance).stream()
-          .map(SubTask.class::cast)
-          .collect(
-              Collectors.groupingBy(
-                  SubTask::getEpicTaskId, Collectors.mapping(SubTask::getId, Collectors.toSet())))
-          .forEach(
-              (epicId, removedIds) -> {
-                removedIds.forEach(this::removeTaskFromStoreAndHistory);
-                try {
-                  EpicTask epicTask = getMatchingTaskOrThrow(epicId, EpicTask.class);
-                  store.updateTask(
-                      new EpicTask(
-                          epicTask.getId(),
-                          epicTask.getTitle(),
-                          epicTask.getDescription(),
-                          TaskStatus.NEW,
-                          Collections.emptySet(),
-                          epicTask.getCreationDate(),
-                          LocalDateTime.now(),
-                          null,
-                          null));
-                } catch (ValidationException e) {
-                  throw new IllegalArgumentException(
-                      "Invalid task state while updating epic task: " + e.getMessage(), e);
-                } catch (TaskNotFoundException e) {
-                  throw new NoSuchElementException(
-                      "Task not found while updating epic task: " + e.getMessage(), e);
-                }
-              });
-    } else if (clazz.equals(EpicTask.class)) {
-      store.findTasksMatching(EpicTask.class::isInstance).stream()
-          .map(EpicTask.class::cast)
-          .forEach(
-              epicTask -> {
-                Set<UUID> subtaskIds = new HashSet<>(epicTask.getSubtaskIds());
-                subtaskIds.forEach(this::removeTaskFromStoreAndHistory);
-                removeTaskFromStoreAndHistory(epicTask);
-              });
-    } else {
-      throw new UnsupportedOperationException(
-          "Unsupported com.tasktracker.task type: " + clazz.getSimpleName());
+    try (TaskTransaction transaction = begin(locks.lockAll())) {
+      if (clazz.equals(RegularTask.class)) {
+        store.streamTasks().filter(RegularTask.class::isInstance).forEach(transaction::remove);
+        transaction.commit();
+      } else if (clazz.equals(SubTask.class)) {
+        List<SubTask> subTasks =
+            store.streamTasks().filter(SubTask.class::isInstance).map(SubTask.class::cast).toList();
+        subTasks.forEach(transaction::remove);
+        List<UUID> epicIds = subTasks.stream().map(SubTask::getEpicTaskId).distinct().toList();
+        for (UUID epicId : epicIds) {
+          try {
+            EpicTask epicTask = transaction.findMatching(epicId, EpicTask.class);
+            EpicTask newEpicTask =
+                new EpicTask(
+                    epicTask.getId(),
+                    epicTask.getTitle(),
+                    epicTask.getDescription(),
+                    TaskStatus.NEW,
+                    Collections.emptySet(),
+                    epicTask.getCreationDate(),
+                    now(),
+                    null,
+                    null,
+                    epicTask.getVersion() + 1);
+            transaction.reschedule(epicTask, newEpicTask);
+            transaction.save(newEpicTask);
+          } catch (ValidationException e) {
+            throw new IllegalArgumentException(
+                "Invalid task state while updating epic task: " + e.getMessage(), e);
+          }
+        }
+        transaction.commit();
+        epicIds.forEach(epicAggregator::untrack);
+      } else if (clazz.equals(EpicTask.class)) {
+        List<EpicTask> epicTasks =
+            store
+                .streamTasks()
+                .filter(EpicTask.class::isInstance)
+                .map(EpicTask.class::cast)
+                .toList();
+        epicTasks.forEach(epicTask -> removeEpicTask(transaction, epicTask));
+        transaction.commit();
+        epicTasks.forEach(epicTask -> epicAggregator.untrack(epicTask.getId()));
+      } else {
+        throw new UnsupportedOperationException(
+            "Unsupported com.tasktracker.task type: " + clazz.getSimpleName());
+      }
     }
   }
 
   @Override
   public Optional<Task> removeTaskById(final UUID id)
       throws UnsupportedOperationException, ValidationException, TaskNotFoundException {
-    Optional<Task> optionalTask = store.getTaskById(id);
-    if (optionalTask.isEmpty()) return Optional.empty();
-    Task taskToDelete = optionalTask.get();
-    switch (taskToDelete) {
-      case RegularTask regularTask -> {
-        return removeTaskFromStoreAndHistory(regularTask);
+    try (TaskTransaction transaction = beginLocked(id)) {
+      Optional<Task> optionalTask = transaction.find(id);
+      if (optionalTask.isEmpty()) return Optional.empty();
+      Task taskToDelete = optionalTask.get();
+      switch (taskToDelete) {
+        case RegularTask regularTask -> transaction.remove(regularTask);
+        case SubTask subTask -> {
+          EpicTask parentEpicTask =
+              transaction.findMatching(subTask.getEpicTaskId(), EpicTask.class);
+          transaction.trackEpic(parentEpicTask);
+          transaction.remove(subTask);
+          EpicTask newEpicTask =
+              withAggregatedProperties(
+                  parentEpicTask,
+                  parentEpicTask.getSubtaskIds().minus(subTask.getId()),
+                  epicAggregator.remove(parentEpicTask.getId(), subTask.getId()));
+          transaction.reschedule(parentEpicTask, newEpicTask);
+          transaction.save(newEpicTask);
+        }
+        case EpicTask epicTask -> removeEpicTask(transaction, epicTask);
+        default ->
+            throw new UnsupportedOperationException(
+                "Unknown com.tasktracker.task type: " + taskToDelete.getClass().getName());
       }
-      case SubTask subTask -> {
-        Optional<Task> removedTask = removeTaskFromStoreAndHistory(subTask);
-        removeSubTaskIdFromEpicTask(subTask.getEpicTaskId(), subTask.getId());
-        EpicTask parentEpicTask = getMatchingTaskOrThrow(subTask.getEpicTaskId(), EpicTask.class);
-        Set<UUID> remainingSubTaskIds =
-            store.findTasksMatching(SubTask.class::isInstance).stream()
-                .map(SubTask.class::cast)
-                .filter(st -> st.getEpicTaskId().equals(subTask.getEpicTaskId()))
-                .map(SubTask::getId)
-                .collect(Collectors.toSet());
-        EpicTaskAggregatedResult aggregatedProperties =
-            aggregateEpicSubTaskProperties(remainingSubTaskIds);
-        store.updateTask(
-            new EpicTask(
-                parentEpicTask.getId(),
-                parentEpicTask.getTitle(),
-                parentEpicTask.getDescription(),
-                aggregatedProperties.status(),
-                remainingSubTaskIds,
-                parentEpicTask.getCreationDate(),
-                LocalDateTime.now(),
-                aggregatedProperties.startTime(),
-                aggregatedProperties.duration()));
-        return removedTask;
+      transaction.commit();
+      if (taskToDelete instanceof EpicTask) {
+        epicAggregator.untrack(id);
       }
-      case EpicTask epicTask -> {
-        epicTask.getSubtaskIds().forEach(this::removeTaskFromStoreAndHistory);
-        return removeTaskFromStoreAndHistory(epicTask);
-      }
-      default ->
-          throw new UnsupportedOperationException(
-              "Unknown com.tasktracker.task type: " + taskToDelete.getClass().getName());
+      return optionalTask;
     }
   }
 
-  private Optional<Task> removeTaskFromStoreAndHistory(UUID id) {
-    Optional<Task> task = store.getTaskById(id);
-    task.ifPresent(index::remove);
-    historyManager.remove(id);
-    return store.removeTask(id);
+  /** Stages the removal of the given epic together with all of its subtasks. */
+  private static void removeEpicTask(final TaskTransaction transaction, final EpicTask epicTask) {
+    epicTask.getSubtaskIds().stream()
+        .map(transaction::find)
+        .flatMap(Optional::stream)
+        .forEach(transaction::remove);
+    transaction.remove(epicTask);
   }
 
-  private Optional<Task> removeTaskFromStoreAndHistory(Task task) {
-    index.remove(task);
-    historyManager.remove(task.getId());
-    return store.removeTask(task.getId());
+  /**
+   * Starts a transaction over the repository, the schedule index, the epic aggregates and the
+   * history of this manager, for an operation that needs no locks, such as creating an unscheduled
+   * task.
+   *
+   * @return a new transaction, rolled back on close unless committed
+   */
+  private TaskTransaction begin() {
+    return begin(() -> {});
+  }
+
+  /**
+   * Starts a transaction that owns the given locks and releases them when it closes.
+   *
+   * @param held the acquired locks
+   * @return a new transaction, rolled back on close unless committed
+   */
+  private TaskTransaction begin(final StripedLock.Held held) {
+    return new TaskTransaction(store, index, epicAggregator, this::forgetView, eventBus, held);
+  }
+
+  private void recordView(final Task task) {
+    withHistory(() -> historyManager.put(task));
+    historyWrites.incrementAndGet();
+  }
+
+  private void forgetView(final UUID id) {
+    if (withHistory(() -> historyManager.remove(id)).isPresent()) {
+      historyWrites.incrementAndGet();
+    }
+    for (SessionHistoryManager sessionHistory : sessionHistories) {
+      sessionHistory.removeTask(id);
+    }
+  }
+
+  /**
+   * Runs an action on the history manager, serialized by the history lock unless the history
+   * manager is thread-safe itself.
+   */
+  private <T> T withHistory(final Supplier<T> action) {
+    if (concurrentHistory) {
+      return action.get();
+    }
+    historyLock.lock();
+    try {
+      return action.get();
+    } finally {
+      historyLock.unlock();
+    }
+  }
+
+  /**
+   * Locks the stripe that operations on the given task are serialized by, together with the stripes
+   * of the additional keys, and starts a transaction owning the locks. The stripe of a subtask is
+   * the one of its epic; should the subtask move to another epic while waiting for the lock, the
+   * lock is released and acquired again for the new epic. The task is read again under the lock
+   * through the transaction, which serves later reads of it from that read.
+   *
+   * @param taskId the ID of the task to lock
+   * @param additionalKeys further IDs to lock, such as the epic a subtask is moved to
+   * @return a new transaction holding the acquired stripes
+   */
+  private TaskTransaction beginLocked(final UUID taskId, final UUID... additionalKeys) {
+    Objects.requireNonNull(taskId, "TaskId can't be null");
+    while (true) {
+      final UUID key = serializationKeyOf(taskId, store.getTaskById(taskId));
+      final List<UUID> keys = new ArrayList<>(Arrays.asList(additionalKeys));
+      keys.add(key);
+      final TaskTransaction transaction = begin(locks.lock(keys));
+      if (key.equals(serializationKeyOf(taskId, transaction.find(taskId)))) {
+        return transaction;
+      }
+      transaction.close();
+    }
+  }
+
+  private static UUID serializationKeyOf(final UUID taskId, final Optional<Task> task) {
+    return task.filter(SubTask.class::isInstance)
+        .map(subTask -> ((SubTask) subTask).getEpicTaskId())
+        .orElse(taskId);
   }
 
   @Override
   public Optional<Task> getTask(UUID id) {
     Optional<Task> result = store.getTaskById(id);
-    result.ifPresent(historyManager::put);
+    result.ifPresent(this::recordView);
     return result;
   }
 
   @Override
   public void addTask(final RegularTaskCreationDTO dto) throws ValidationException {
     validateDto(dto, RegularTaskCreationDTO.class);
-    LocalDateTime creationTimestamp = LocalDateTime.now();
+    LocalDateTime creationTimestamp = now();
     RegularTask newTask =
         new RegularTask(
             generateId(),
@@ -207,34 +412,17 @@ public class TaskManagerImpl implements TaskManager {
             creationTimestamp,
             dto.startTime(),
             dto.duration());
-    index.add(newTask);
-    store.addTask(newTask);
-  }
-
-  /**
-   * Validates that if a task exists with the given ID, it matches the expected type. Does nothing
-   * if no task exists with the given ID, allowing for creation of new tasks.
-   *
-   * @param <T> the expected task type that extends Task
-   * @param taskId the ID of the task to validate
-   * @param taskClass the class representing the expected task type
-   * @throws ValidationException if a task exists but does not match the expected type
-   * @throws NullPointerException if taskId or taskClass is null
-   */
-  private <T extends Task> void validateExistingTaskClassType(UUID taskId, Class<T> taskClass)
-      throws ValidationException {
-    Optional<Task> existingTask = store.getTaskById(taskId);
-    if (existingTask.isPresent() && (!taskClass.isInstance(existingTask.get()))) {
-      throw new ValidationException(
-          String.format(
-              "Task with ID %s exists but is not a %s", taskId, taskClass.getSimpleName()));
+    try (TaskTransaction transaction = begin()) {
+      transaction.schedule(newTask);
+      transaction.save(newTask);
+      transaction.commit();
     }
   }
 
   @Override
   public void addTask(final EpicTaskCreationDTO dto) throws ValidationException {
     validateDto(dto, EpicTaskCreationDTO.class);
-    LocalDateTime currentTime = LocalDateTime.now();
+    LocalDateTime currentTime = now();
     EpicTask newTask =
         new EpicTask(
             generateId(),
@@ -246,7 +434,10 @@ public class TaskManagerImpl implements TaskManager {
             currentTime,
             dto.startTime(),
             null);
-    store.addTask(newTask);
+    try (TaskTransaction transaction = begin()) {
+      transaction.save(newTask);
+      transaction.commit();
+    }
   }
 
   @Override
@@ -254,22 +445,25 @@ public class TaskManagerImpl implements TaskManager {
       throws ValidationException, TaskNotFoundException {
     Objects.requireNonNull(dto, "SubTaskCreationDTO cannot be null.");
     validateDto(dto, SubTaskCreationDTO.class);
-    validateExistingTaskClassType(dto.epicId(), EpicTask.class);
-    LocalDateTime currentTime = LocalDateTime.now();
-    SubTask subTask =
-        new SubTask(
-            generateId(),
-            dto.title(),
-            dto.description(),
-            TaskStatus.NEW,
-            dto.epicId(),
-            currentTime,
-            currentTime,
-            dto.startTime(),
-            dto.duration());
-    index.add(subTask);
-    store.addTask(subTask);
-    attachSubTaskToEpicTask(subTask);
+    try (TaskTransaction transaction = begin(locks.lock(List.of(dto.epicId())))) {
+      EpicTask epicTask = transaction.findMatching(dto.epicId(), EpicTask.class);
+      LocalDateTime currentTime = now();
+      SubTask subTask =
+          new SubTask(
+              generateId(),
+              dto.title(),
+              dto.description(),
+              TaskStatus.NEW,
+              dto.epicId(),
+              currentTime,
+              currentTime,
+              dto.startTime(),
+              dto.duration());
+      transaction.schedule(subTask);
+      transaction.save(subTask);
+      attachSubTaskToEpicTask(transaction, epicTask, subTask);
+      transaction.commit();
+    }
   }
 
   @Override
@@ -277,7 +471,19 @@ public class TaskManagerImpl implements TaskManager {
       throws ValidationException, TaskNotFoundException {
     Objects.requireNonNull(dto, "RegularTaskUpdateDTO cannot be null.");
     validateDto(dto, RegularTaskUpdateDTO.class);
-    RegularTask currentTask = getMatchingTaskOrThrow(dto.id(), RegularTask.class);
+    try (TaskTransaction transaction = beginLocked(dto.id())) {
+      return applyRegularTaskUpdate(transaction, dto);
+    }
+  }
+
+  /**
+   * Updates a regular task within the given transaction, which holds the task's stripe, and commits
+   * it.
+   */
+  private RegularTask applyRegularTaskUpdate(
+      final TaskTransaction transaction, final RegularTaskUpdateDTO dto)
+      throws ValidationException {
+    RegularTask currentTask = transaction.findMatching(dto.id(), RegularTask.class);
     RegularTask updatedTask =
         new RegularTask(
             dto.id(),
@@ -285,19 +491,45 @@ public class TaskManagerImpl implements TaskManager {
             dto.description(),
             dto.status(),
             currentTask.getCreationDate(),
-            LocalDateTime.now(),
+            now(),
             dto.startTime(),
-            dto.duration());
-    index.update(currentTask, updatedTask);
-    return (RegularTask) store.updateTask(updatedTask);
+            dto.duration(),
+            currentTask.getVersion() + 1);
+    transaction.reschedule(currentTask, updatedTask);
+    transaction.save(updatedTask);
+    transaction.commit();
+    return currentTask;
   }
 
+  /**
+   * Updates an existing Sub-Task and recomputes its Epic Task. If the DTO refers to another epic,
+   * the subtask is moved there and both epics are recomputed. The schedule is validated before
+   * anything is written, and all changed tasks are written to the repository in a single operation.
+   *
+   * @param dto the DTO containing updated data for the Sub-Task
+   * @return the previous version of the Sub-Task
+   * @throws ValidationException if the data is invalid, a task does not exist or overlaps another
+   * @throws TaskNotFoundException if no task exists with the ID in the DTO
+   * @throws NullPointerException if the DTO parameter is null
+   */
   @Override
   public SubTask updateTask(final SubTaskUpdateDTO dto)
       throws ValidationException, TaskNotFoundException {
     Objects.requireNonNull(dto, "SubTaskUpdateDTO cannot be null.");
     validateDto(dto, SubTaskUpdateDTO.class);
-    SubTask oldSubTask = getMatchingTaskOrThrow(dto.id(), SubTask.class);
+    try (TaskTransaction transaction = beginLocked(dto.id(), dto.epicId())) {
+      return applySubTaskUpdate(transaction, dto);
+    }
+  }
+
+  /**
+   * Updates a subtask and recomputes its epics within the given transaction, which holds the
+   * stripes of both epics, and commits it.
+   */
+  private SubTask applySubTaskUpdate(final TaskTransaction transaction, final SubTaskUpdateDTO dto)
+      throws ValidationException {
+    SubTask oldSubTask = transaction.findMatching(dto.id(), SubTask.class);
+    EpicTask oldEpicTask = transaction.findMatching(oldSubTask.getEpicTaskId(), EpicTask.class);
     SubTask newSubTask =
         new SubTask(
             dto.id(),
@@ -306,28 +538,92 @@ public class TaskManagerImpl implements TaskManager {
             dto.status(),
             dto.epicId(),
             oldSubTask.getCreationDate(),
-            LocalDateTime.now(),
+            now(),
             dto.startTime(),
-            dto.duration());
-    var previousSubTask = store.updateTask(newSubTask);
-    EpicTask oldEpicTask = getMatchingTaskOrThrow(oldSubTask.getEpicTaskId(), EpicTask.class);
-    Set<UUID> subtaskIds = new HashSet<>(oldEpicTask.getSubtaskIds());
-    subtaskIds.add(dto.id());
-    EpicTaskAggregatedResult aggregatedEpicData = aggregateEpicSubTaskProperties(subtaskIds);
-    EpicTask newEpicTask =
-        new EpicTask(
-            oldEpicTask.getId(),
-            oldEpicTask.getTitle(),
-            oldEpicTask.getDescription(),
-            aggregatedEpicData.status(),
-            subtaskIds,
-            oldEpicTask.getCreationDate(),
-            oldEpicTask.getUpdateDate(),
-            aggregatedEpicData.startTime(),
-            aggregatedEpicData.duration());
-    index.updateEpicAndSubtask(oldSubTask, newSubTask, oldEpicTask, newEpicTask);
-    store.updateTask(newEpicTask);
-    return (SubTask) previousSubTask;
+            dto.duration(),
+            oldSubTask.getVersion() + 1);
+    if (oldEpicTask.getId().equals(newSubTask.getEpicTaskId())) {
+      transaction.trackEpic(oldEpicTask);
+      Set<UUID> subtaskIds = oldEpicTask.getSubtaskIds().plus(dto.id());
+      EpicTaskAggregatedResult aggregatedEpicData =
+          epicAggregator.put(oldEpicTask.getId(), newSubTask);
+      EpicTask newEpicTask =
+          new EpicTask(
+              oldEpicTask.getId(),
+              oldEpicTask.getTitle(),
+              oldEpicTask.getDescription(),
+              aggregatedEpicData.status(),
+              subtaskIds,
+              oldEpicTask.getCreationDate(),
+              oldEpicTask.getUpdateDate(),
+              aggregatedEpicData.startTime(),
+              aggregatedEpicData.duration(),
+              oldEpicTask.getVersion() + 1);
+      transaction.reschedule(oldSubTask, newSubTask, oldEpicTask, newEpicTask);
+      transaction.save(newEpicTask);
+    } else {
+      moveSubTask(transaction, oldSubTask, newSubTask, oldEpicTask);
+    }
+    transaction.save(newSubTask);
+    transaction.commit();
+    return oldSubTask;
+  }
+
+  /**
+   * Stages moving a subtask to another epic and recomputes both epics. The caller holds the stripes
+   * of both epics.
+   *
+   * @param transaction the transaction to stage the changes in
+   * @param oldSubTask the current version of the subtask
+   * @param newSubTask the updated subtask, referring to its new epic
+   * @param sourceEpicTask the epic the subtask currently belongs to
+   * @throws ValidationException if the new epic does not exist or the subtask overlaps another task
+   */
+  private void moveSubTask(
+      final TaskTransaction transaction,
+      final SubTask oldSubTask,
+      final SubTask newSubTask,
+      final EpicTask sourceEpicTask)
+      throws ValidationException {
+    EpicTask targetEpicTask = transaction.findMatching(newSubTask.getEpicTaskId(), EpicTask.class);
+    transaction.trackEpic(sourceEpicTask);
+    transaction.trackEpic(targetEpicTask);
+    Set<UUID> sourceSubtaskIds = sourceEpicTask.getSubtaskIds().minus(oldSubTask.getId());
+    Set<UUID> targetSubtaskIds = targetEpicTask.getSubtaskIds().plus(newSubTask.getId());
+    EpicTask newSourceEpicTask =
+        withAggregatedProperties(
+            sourceEpicTask,
+            sourceSubtaskIds,
+            epicAggregator.remove(sourceEpicTask.getId(), oldSubTask.getId()));
+    EpicTask newTargetEpicTask =
+        withAggregatedProperties(
+            targetEpicTask,
+            targetSubtaskIds,
+            epicAggregator.put(targetEpicTask.getId(), newSubTask));
+    // The source epic shrinks first, so that the subtask is checked against its remaining window.
+    transaction.reschedule(sourceEpicTask, newSourceEpicTask);
+    transaction.reschedule(oldSubTask, newSubTask);
+    transaction.reschedule(targetEpicTask, newTargetEpicTask);
+    transaction.save(newSourceEpicTask);
+    transaction.save(newTargetEpicTask);
+  }
+
+  private EpicTask withAggregatedProperties(
+      final EpicTask epicTask,
+      final Set<UUID> subtaskIds,
+      final EpicTaskAggregatedResult aggregatedProperties)
+      throws ValidationException {
+    return new EpicTask(
+        epicTask.getId(),
+        epicTask.getTitle(),
+        epicTask.getDescription(),
+        aggregatedProperties.status(),
+        subtaskIds,
+        epicTask.getCreationDate(),
+        now(),
+        aggregatedProperties.startTime(),
+        aggregatedProperties.duration(),
+        epicTask.getVersion() + 1);
   }
 
   /**
@@ -346,7 +642,17 @@ public class TaskManagerImpl implements TaskManager {
       throws ValidationException, TaskNotFoundException {
     Objects.requireNonNull(dto, "EpicTaskUpdateDTO cannot be null.");
     validateDto(dto, EpicTaskUpdateDTO.class);
-    EpicTask oldTask = getMatchingTaskOrThrow(dto.id(), EpicTask.class);
+    try (TaskTransaction transaction = beginLocked(dto.id())) {
+      return applyEpicTaskUpdate(transaction, dto);
+    }
+  }
+
+  /**
+   * Updates an epic within the given transaction, which holds the epic's stripe, and commits it.
+   */
+  private EpicTask applyEpicTaskUpdate(
+      final TaskTransaction transaction, final EpicTaskUpdateDTO dto) throws ValidationException {
+    EpicTask oldTask = transaction.findMatching(dto.id(), EpicTask.class);
     EpicTask newTask =
         new EpicTask(
             dto.id(),
@@ -355,11 +661,51 @@ public class TaskManagerImpl implements TaskManager {
             oldTask.getStatus(),
             oldTask.getSubtaskIds(),
             oldTask.getCreationDate(),
-            LocalDateTime.now(),
+            now(),
             oldTask.getStartTime(),
-            oldTask.getDuration());
-    index.update(oldTask, newTask);
-    return (EpicTask) store.updateTask(newTask);
+            oldTask.getDuration(),
+            oldTask.getVersion() + 1);
+    transaction.reschedule(oldTask, newTask);
+    transaction.save(newTask);
+    transaction.commit();
+    return oldTask;
+  }
+
+  /**
+   * Updates a task only if it still has the expected version. The version is checked in the same
+   * transaction as the update itself, holding its stripes, so no other update of the task can slip
+   * in between, and the task is read only once.
+   *
+   * @param dto the update of a regular task, an epic or a subtask
+   * @param expectedVersion the version of the task the update is based on
+   * @return the previous version of the task
+   * @throws ValidationException if the update is invalid or the task does not exist
+   * @throws TaskNotFoundException if the task disappeared from the repository
+   * @throws VersionConflictException if the task has a different version
+   */
+  @Override
+  public Task updateTask(final TaskUpdateDTO dto, final long expectedVersion)
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    Objects.requireNonNull(dto, "TaskUpdateDTO cannot be null.");
+    switch (dto) {
+      case RegularTaskUpdateDTO regularTaskDto ->
+          validateDto(regularTaskDto, RegularTaskUpdateDTO.class);
+      case EpicTaskUpdateDTO epicTaskDto -> validateDto(epicTaskDto, EpicTaskUpdateDTO.class);
+      case SubTaskUpdateDTO subTaskDto -> validateDto(subTaskDto, SubTaskUpdateDTO.class);
+    }
+    UUID targetEpicId = dto instanceof SubTaskUpdateDTO subTaskDto ? subTaskDto.epicId() : null;
+    try (TaskTransaction transaction = beginLocked(dto.id(), targetEpicId)) {
+      Task currentTask = transaction.findMatching(dto.id(), Task.class);
+      if (currentTask.getVersion() != expectedVersion) {
+        throw new VersionConflictException(dto.id(), expectedVersion, currentTask.getVersion());
+      }
+      return switch (dto) {
+        case RegularTaskUpdateDTO regularTaskDto ->
+            applyRegularTaskUpdate(transaction, regularTaskDto);
+        case EpicTaskUpdateDTO epicTaskDto -> applyEpicTaskUpdate(transaction, epicTaskDto);
+        case SubTaskUpdateDTO subTaskDto -> applySubTaskUpdate(transaction, subTaskDto);
+      };
+    }
   }
 
   /**
@@ -371,20 +717,68 @@ public class TaskManagerImpl implements TaskManager {
    */
   @Override
   public Collection<SubTask> getEpicSubtasks(UUID epicId) throws ValidationException {
+    TaskRepositorySnapshot snapshot = store.snapshot();
     EpicTask correspondentEpicTask =
-        store
+        snapshot
             .getTaskById(epicId)
             .filter(EpicTask.class::isInstance)
             .map(EpicTask.class::cast)
             .orElseThrow(
                 () -> new ValidationException("Task with ID " + epicId + " is not an Epic Task"));
     return correspondentEpicTask.getSubtaskIds().stream()
-        .map(store::getTaskById)
+        .map(snapshot::getTaskById)
         .flatMap(Optional::stream)
         .map(SubTask.class::cast)
         .toList();
   }
 
+  @Override
+  public List<TaskCommandResult> executeBatch(final List<? extends TaskCommand> commands) {
+    Objects.requireNonNull(commands, "Commands can't be null.");
+    commands.forEach(command -> Objects.requireNonNull(command, "Command can't be null."));
+    try (TaskTransaction transaction = begin(locks.lockAll())) {
+      Map<TaskCommand, ValidationException> invalidCommands = new IdentityHashMap<>();
+      for (TaskCommand command : commands) {
+        try {
+          validateCommand(command);
+        } catch (ValidationException e) {
+          invalidCommands.put(command, e);
+        }
+      }
+      BatchExecution batch = new BatchExecution(transaction);
+      List<TaskCommandResult> results = new ArrayList<>(commands.size());
+      for (TaskCommand command : commands) {
+        ValidationException validationError = invalidCommands.get(command);
+        if (validationError != null) {
+          results.add(TaskCommandResult.failure(command, validationError));
+          continue;
+        }
+        try {
+          results.add(TaskCommandResult.success(command, batch.execute(command)));
+        } catch (ValidationException e) {
+          results.add(TaskCommandResult.failure(command, e));
+        }
+      }
+      batch.commit();
+      return results;
+    }
+  }
+
+  private void validateCommand(final TaskCommand command) throws ValidationException {
+    switch (command) {
+      case TaskCommand.Create(RegularTaskCreationDTO dto) ->
+          validateDto(dto, RegularTaskCreationDTO.class);
+      case TaskCommand.Create(EpicTaskCreationDTO dto) ->
+          validateDto(dto, EpicTaskCreationDTO.class);
+      case TaskCommand.Create(SubTaskCreationDTO dto) -> validateDto(dto, SubTaskCreationDTO.class);
+      case TaskCommand.Update(RegularTaskUpdateDTO dto) ->
+          validateDto(dto, RegularTaskUpdateDTO.class);
+      case TaskCommand.Update(EpicTaskUpdateDTO dto) -> validateDto(dto, EpicTaskUpdateDTO.class);
+      case TaskCommand.Update(SubTaskUpdateDTO dto) -> validateDto(dto, SubTaskUpdateDTO.class);
+      case TaskCommand.Delete ignored -> {}
+    }
+  }
+
   /**
    * Retrieves all tasks of the specified class type stored in the repository.
    *
@@ -394,39 +788,47 @@ public class TaskManagerImpl implements TaskManager {
   @Override
   public <T extends Task> Collection<T> getAllTasksByClass(Class<T> targetClass) {
     Objects.requireNonNull(targetClass, THE_CLASS_TYPE_CANNOT_BE_NULL);
-    return store.findTasksMatching(targetClass::isInstance).stream()
-        .map(targetClass::cast)
-        .toList();
+    return store.streamTasks().filter(targetClass::isInstance).map(targetClass::cast).toList();
   }
 
   /**
    * Retrieves the complete history of tasks as a collection of {@link Task} objects. Only tasks
    * that are still present in the {@link TaskRepository} are included in the result.
    *
-   * @return a collection of {@link Task} objects present in the history and the repository
+   * <p>If the history {@linkplain HistoryManager#changesOnlyOnWrite() only changes on writes}, the
+   * resolved list is cached together with the repository version and the number of history writes
+   * it was built from, and returned as is while neither has changed.
+   *
+   * @return an unmodifiable list of {@link Task} objects present in the history and the repository
    */
   @Override
   public Collection<Task> getHistory() {
-    return historyManager.getHistory().stream()
-        .map(taskView -> store.getTaskById(taskView.getTaskId()))
-        .flatMap(Optional::stream)
-        .toList();
+    final long writes = historyWrites.get();
+    final TaskRepositorySnapshot snapshot = store.snapshot();
+    final ResolvedHistory cached = resolvedHistory;
+    if (cacheableHistory && cached != null && cached.isCurrent(snapshot.getVersion(), writes)) {
+      return cached.tasks();
+    }
+    final List<TaskView> views = withHistory(() -> List.copyOf(historyManager.getHistory()));
+    final List<Task> tasks =
+        views.stream()
+            .map(taskView -> snapshot.getTaskById(taskView.getTaskId()))
+            .flatMap(Optional::stream)
+            .toList();
+    if (cacheableHistory) {
+      resolvedHistory = new ResolvedHistory(snapshot.getVersion(), writes, tasks);
+    }
+    return tasks;
   }
 
-  private EpicTaskAggregatedResult aggregateEpicSubTaskProperties(final Set<UUID> subTasksIds) {
-    Objects.requireNonNull(subTasksIds, "SubTasks IDs can't be null.");
-    return subTasksIds.stream()
-        .map(
-            id -> {
-              try {
-                return getMatchingTaskOrThrow(id, SubTask.class);
-              } catch (ValidationException e) {
-                throw new IllegalStateException(
-                    "Failed to obtain SubTask for Epic task aggregate properties calculation", e);
-              }
-            })
-        .filter(Objects::nonNull)
-        .collect(EpicTaskStatusAndTimeCollector.aggregateEpicSubTaskPropertiesCollector());
+  /**
+   * The history resolved against a repository version. The write count is read before the history,
+   * so a write racing with the resolution can only make the entry look older than it is.
+   */
+  private record ResolvedHistory(long repositoryVersion, long historyWrites, List<Task> tasks) {
+    boolean isCurrent(final long repositoryVersion, final long historyWrites) {
+      return this.repositoryVersion == repositoryVersion && this.historyWrites == historyWrites;
+    }
   }
 
   /**
@@ -445,111 +847,247 @@ public class TaskManagerImpl implements TaskManager {
   }
 
   /**
-   * Attaches a SubTask to its associated EpicTask in the repository. If the SubTask is already
-   * attached to the EpicTask, no changes are made. When attaching a new SubTask, the EpicTask's
-   * status, start time, and duration are recalculated based on all SubTasks.
+   * Stages attaching a new SubTask to its EpicTask. If the SubTask is already attached to the
+   * EpicTask, no changes are made. When attaching a new SubTask, the EpicTask's status, start time,
+   * and duration are updated incrementally from the added SubTask.
    *
+   * @param transaction the transaction to stage the changes in
+   * @param oldEpicTask the EpicTask the SubTask belongs to
    * @param subTask the SubTask to attach to its EpicTask
-   * @throws ValidationException if the EpicTask does not exist or validation fails
-   * @throws TaskNotFoundException if the referenced EpicTask cannot be found
+   * @throws ValidationException if the updated EpicTask is invalid
    * @throws NullPointerException if subTask is null
    */
-  private void attachSubTaskToEpicTask(final SubTask subTask)
-      throws ValidationException, TaskNotFoundException {
-    EpicTask oldEpicTask = getMatchingTaskOrThrow(subTask.getEpicTaskId(), EpicTask.class);
-    Set<UUID> subTaskIds = new HashSet<>(oldEpicTask.getSubtaskIds());
+  private void attachSubTaskToEpicTask(
+      final TaskTransaction transaction, final EpicTask oldEpicTask, final SubTask subTask)
+      throws ValidationException {
     if (oldEpicTask.getSubtaskIds().contains(subTask.getId())) return;
-    subTaskIds.add(subTask.getId());
-    EpicTaskAggregatedResult epicsAggregatedStatusAndTimeProperties =
-        aggregateEpicSubTaskProperties(subTaskIds);
+    Set<UUID> subTaskIds = oldEpicTask.getSubtaskIds().plus(subTask.getId());
+    transaction.trackEpic(oldEpicTask);
     EpicTask newEpicTask =
-        new EpicTask(
-            oldEpicTask.getId(),
-            oldEpicTask.getTitle(),
-            oldEpicTask.getDescription(),
-            epicsAggregatedStatusAndTimeProperties.status(),
-            subTaskIds,
-            oldEpicTask.getCreationDate(),
-            LocalDateTime.now(),
-            epicsAggregatedStatusAndTimeProperties.startTime(),
-            epicsAggregatedStatusAndTimeProperties.duration());
-    index.update(oldEpicTask, newEpicTask);
-    store.updateTask(newEpicTask);
-  }
-
-  private void removeSubTaskIdFromEpicTask(UUID epicId, UUID subtaskId)
-      throws TaskNotFoundException, ValidationException {
-    EpicTask oldEpicTask = getMatchingTaskOrThrow(epicId, EpicTask.class);
-    Set<UUID> updatedSubTaskIds = new HashSet<>(oldEpicTask.getSubtaskIds());
-    updatedSubTaskIds.remove(subtaskId);
-    EpicTask newEpicTask =
-        new EpicTask(
-            oldEpicTask.getId(),
-            oldEpicTask.getTitle(),
-            oldEpicTask.getDescription(),
-            oldEpicTask.getStatus(),
-            updatedSubTaskIds,
-            oldEpicTask.getCreationDate(),
-            LocalDateTime.now(),
-            oldEpicTask.getStartTime(),
-            oldEpicTask.getDuration());
-    index.update(oldEpicTask, newEpicTask);
-    store.updateTask(newEpicTask);
+        withAggregatedProperties(
+            oldEpicTask, subTaskIds, epicAggregator.put(oldEpicTask.getId(), subTask));
+    transaction.reschedule(oldEpicTask, newEpicTask);
+    transaction.save(newEpicTask);
   }
 
   /**
-   * Retrieves a task by ID and validates that it matches the expected type.
-   *
-   * @param <T> The expected task type that extends Task
-   * @param taskId The ID of the task to retrieve
-   * @param clazz The class representing the expected task type
-   * @return The task cast to the expected type
-   * @throws NullPointerException if taskId or clazz is null
-   * @throws ValidationException if a task does not exist or does not match the expected type
+   * The working state of a single {@link #executeBatch} call. Commands are staged in one {@link
+   * TaskTransaction}, so the repository is written once for the whole batch. Epics touched by the
+   * batch keep their pending subtask IDs here and are rebuilt once on commit.
    */
-  private <T extends Task> T getMatchingTaskOrThrow(UUID taskId, Class<T> clazz)
-      throws ValidationException {
-    Objects.requireNonNull(taskId, "TaskId can't be null");
-    Task task = getTaskByIdOrThrowIfNotExist(taskId);
-    validateTaskTypeMatch(task, clazz);
-    return clazz.cast(task);
-  }
+  private final class BatchExecution {
+    private final TaskTransaction transaction;
+    private final Map<UUID, PersistentTreeSet<UUID>> epicSubtaskIds = new LinkedHashMap<>();
 
-  /**
-   * Retrieves a task by its ID from the store or throws an exception if it doesn't exist.
-   *
-   * @param taskId The unique identifier of the task to retrieve
-   * @return The task if found
-   * @throws NullPointerException if taskId is null
-   * @throws ValidationException if no task exists with the given ID
-   */
-  private Task getTaskByIdOrThrowIfNotExist(UUID taskId) throws ValidationException {
-    Objects.requireNonNull(taskId, "TaskId can't be null");
-    return store
-        .getTaskById(taskId)
-        .orElseThrow(
-            () -> new ValidationException(String.format("Task with ID %s does not exist", taskId)));
-  }
+    private BatchExecution(final TaskTransaction transaction) {
+      this.transaction = transaction;
+    }
 
-  /**
-   * Validates if a given task matches the expected type.
-   *
-   * @param task The task instance to validate
-   * @param expectedType The expected class type that the task should match
-   * @param <T> Type parameter bounded by Task class
-   * @throws ValidationException if the task is not of the expected type
-   * @throws NullPointerException if a task or expectedType is null
-   */
-  private <T extends Task> void validateTaskTypeMatch(Task task, Class<T> expectedType)
-      throws ValidationException {
-    Objects.requireNonNull(task, "Task ID cannot be null");
-    Objects.requireNonNull(expectedType, "Expected task type cannot be null");
-
-    if (!expectedType.isAssignableFrom(task.getClass())) {
-      throw new ValidationException(
-          String.format(
-              "Task with ID %s has type %s but expected type %s",
-              task.getId(), task.getClass().getSimpleName(), expectedType.getSimpleName()));
+    private Task execute(final TaskCommand command) throws ValidationException {
+      return switch (command) {
+        case TaskCommand.Create(RegularTaskCreationDTO dto) -> createRegularTask(dto);
+        case TaskCommand.Create(EpicTaskCreationDTO dto) -> createEpicTask(dto);
+        case TaskCommand.Create(SubTaskCreationDTO dto) -> createSubTask(dto);
+        case TaskCommand.Update(RegularTaskUpdateDTO dto) -> updateRegularTask(dto);
+        case TaskCommand.Update(EpicTaskUpdateDTO dto) -> updateEpicTask(dto);
+        case TaskCommand.Update(SubTaskUpdateDTO dto) -> updateSubTask(dto);
+        case TaskCommand.Delete(UUID id) -> delete(id);
+      };
+    }
+
+    private UUID newId() {
+      UUID id;
+      do {
+        id = generateId();
+      } while (transaction.isStaged(id));
+      return id;
+    }
+
+    /** Returns the pending subtask IDs of the given epic, tracking its aggregate on first use. */
+    private PersistentTreeSet<UUID> subtaskIdsOf(final EpicTask epicTask) {
+      return epicSubtaskIds.computeIfAbsent(
+          epicTask.getId(),
+          epicId -> {
+            transaction.trackEpic(epicTask);
+            return epicTask.getSubtaskIds();
+          });
+    }
+
+    private Task createRegularTask(final RegularTaskCreationDTO dto) throws ValidationException {
+      LocalDateTime creationTimestamp = now();
+      RegularTask newTask =
+          new RegularTask(
+              newId(),
+              dto.title(),
+              dto.description(),
+              TaskStatus.NEW,
+              creationTimestamp,
+              creationTimestamp,
+              dto.startTime(),
+              dto.duration());
+      transaction.schedule(newTask);
+      transaction.save(newTask);
+      return newTask;
+    }
+
+    private Task createEpicTask(final EpicTaskCreationDTO dto) throws ValidationException {
+      LocalDateTime currentTime = now();
+      EpicTask newTask =
+          new EpicTask(
+              newId(),
+              dto.title(),
+              dto.description(),
+              TaskStatus.NEW,
+              Set.of(),
+              currentTime,
+              currentTime,
+              dto.startTime(),
+              null);
+      transaction.save(newTask);
+      return newTask;
+    }
+
+    private Task createSubTask(final SubTaskCreationDTO dto) throws ValidationException {
+      EpicTask epicTask = transaction.findMatching(dto.epicId(), EpicTask.class);
+      LocalDateTime currentTime = now();
+      SubTask subTask =
+          new SubTask(
+              newId(),
+              dto.title(),
+              dto.description(),
+              TaskStatus.NEW,
+              dto.epicId(),
+              currentTime,
+              currentTime,
+              dto.startTime(),
+              dto.duration());
+      transaction.schedule(subTask);
+      transaction.save(subTask);
+      epicSubtaskIds.put(epicTask.getId(), subtaskIdsOf(epicTask).plus(subTask.getId()));
+      epicAggregator.put(epicTask.getId(), subTask);
+      return subTask;
+    }
+
+    private Task updateRegularTask(final RegularTaskUpdateDTO dto) throws ValidationException {
+      RegularTask currentTask = transaction.findMatching(dto.id(), RegularTask.class);
+      RegularTask updatedTask =
+          new RegularTask(
+              dto.id(),
+              dto.title(),
+              dto.description(),
+              dto.status(),
+              currentTask.getCreationDate(),
+              now(),
+              dto.startTime(),
+              dto.duration(),
+              currentTask.getVersion() + 1);
+      transaction.reschedule(currentTask, updatedTask);
+      transaction.save(updatedTask);
+      return currentTask;
+    }
+
+    private Task updateEpicTask(final EpicTaskUpdateDTO dto) throws ValidationException {
+      EpicTask oldTask = transaction.findMatching(dto.id(), EpicTask.class);
+      EpicTask newTask =
+          new EpicTask(
+              dto.id(),
+              dto.title(),
+              dto.description(),
+              oldTask.getStatus(),
+              oldTask.getSubtaskIds(),
+              oldTask.getCreationDate(),
+              now(),
+              oldTask.getStartTime(),
+              oldTask.getDuration(),
+              oldTask.getVersion() + 1);
+      transaction.reschedule(oldTask, newTask);
+      transaction.save(newTask);
+      return oldTask;
+    }
+
+    private Task updateSubTask(final SubTaskUpdateDTO dto) throws ValidationException {
+      SubTask oldSubTask = transaction.findMatching(dto.id(), SubTask.class);
+      if (!oldSubTask.getEpicTaskId().equals(dto.epicId())) {
+        throw new ValidationException(
+            String.format(
+                "Sub-Task with ID %s can't be moved to another epic within a batch", dto.id()));
+      }
+      EpicTask epicTask = transaction.findMatching(oldSubTask.getEpicTaskId(), EpicTask.class);
+      SubTask newSubTask =
+          new SubTask(
+              dto.id(),
+              dto.title(),
+              dto.description(),
+              dto.status(),
+              dto.epicId(),
+              oldSubTask.getCreationDate(),
+              now(),
+              dto.startTime(),
+              dto.duration(),
+              oldSubTask.getVersion() + 1);
+      PersistentTreeSet<UUID> subtaskIds = subtaskIdsOf(epicTask);
+      transaction.reschedule(oldSubTask, newSubTask);
+      transaction.save(newSubTask);
+      epicSubtaskIds.put(epicTask.getId(), subtaskIds.plus(newSubTask.getId()));
+      epicAggregator.put(epicTask.getId(), newSubTask);
+      return oldSubTask;
+    }
+
+    private Task delete(final UUID id) throws ValidationException {
+      Optional<Task> optionalTask = transaction.find(id);
+      if (optionalTask.isEmpty()) return null;
+      switch (optionalTask.get()) {
+        case RegularTask regularTask -> transaction.remove(regularTask);
+        case SubTask subTask -> {
+          EpicTask epicTask = transaction.findMatching(subTask.getEpicTaskId(), EpicTask.class);
+          epicSubtaskIds.put(epicTask.getId(), subtaskIdsOf(epicTask).minus(subTask.getId()));
+          transaction.remove(subTask);
+          epicAggregator.remove(epicTask.getId(), subTask.getId());
+        }
+        case EpicTask epicTask -> {
+          Set<UUID> subtaskIds = epicSubtaskIds.getOrDefault(id, epicTask.getSubtaskIds());
+          subtaskIds.stream()
+              .map(transaction::find)
+              .flatMap(Optional::stream)
+              .forEach(transaction::remove);
+          transaction.remove(epicTask);
+          epicSubtaskIds.remove(id);
+          epicAggregator.untrack(id);
+        }
+      }
+      return optionalTask.get();
+    }
+
+    /**
+     * Rebuilds every epic touched by the batch from its pending subtask IDs and aggregate, and
+     * commits the transaction.
+     */
+    private void commit() {
+      LocalDateTime currentTime = now();
+      for (Map.Entry<UUID, PersistentTreeSet<UUID>> entry : epicSubtaskIds.entrySet()) {
+        EpicTask oldEpicTask = (EpicTask) transaction.find(entry.getKey()).orElseThrow();
+        EpicTaskAggregatedResult aggregatedProperties = epicAggregator.getResult(entry.getKey());
+        try {
+          EpicTask newEpicTask =
+              new EpicTask(
+                  oldEpicTask.getId(),
+                  oldEpicTask.getTitle(),
+                  oldEpicTask.getDescription(),
+                  aggregatedProperties.status(),
+                  entry.getValue(),
+                  oldEpicTask.getCreationDate(),
+                  currentTime,
+                  aggregatedProperties.startTime(),
+                  aggregatedProperties.duration(),
+                  oldEpicTask.getVersion() + 1);
+          transaction.reschedule(oldEpicTask, newEpicTask);
+          transaction.save(newEpicTask);
+        } catch (ValidationException e) {
+          throw new IllegalStateException(
+              "Invalid task state while updating epic task: " + e.getMessage(), e);
+        }
+      }
+      transaction.commit();
     }
   }
 }
@@ -0,0 +1,314 @@
+package com.tasktracker.task.manager;
+
+import com.tasktracker.task.event.TaskEvent;
+import com.tasktracker.task.event.TaskEventBus;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.service.IncrementalEpicAggregator;
+import com.tasktracker.task.service.ScheduleIndex;
+import com.tasktracker.task.store.TaskRepository;
+import com.tasktracker.task.store.TaskRepositorySnapshot;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A unit of work spanning the task repository, the schedule index, the history and the epic
+ * aggregates of a {@link TaskManagerImpl}.
+ *
+ * <p>Schedule changes are validated and applied to the index immediately, so that later steps of
+ * the same transaction see them, and are recorded in an undo log. A task version that the
+ * transaction replaces or removes is only retired in the index: it keeps blocking its time for
+ * other writers, which may not hold any lock, until the transaction commits and releases it.
+ * Undoing a change therefore only removes what the transaction added and restores what it retired,
+ * and can never overlap a task committed by someone else in the meantime. Repository changes are
+ * staged as an overlay of saved and removed tasks, and history evictions are deferred. {@link
+ * #commit()} writes the overlay with a single {@link TaskRepository#applyChanges} call, so a
+ * persistent repository is flushed once per transaction, then releases the retired tasks, evicts
+ * the removed tasks from the history and publishes the committed changes as {@link TaskEvent}s.
+ * Closing a transaction that was not committed undoes the index changes in reverse order and drops
+ * the aggregates of the touched epics, which are seeded again from the repository on next use.
+ *
+ * <p>Tasks are read from a snapshot of the repository taken on the first read, and every task is
+ * read at most once per transaction. Since the transaction holds the locks of every task it
+ * touches, the snapshot is current for those tasks throughout the transaction. Transactions are
+ * confined to one thread and release their locks when they close, after a rollback.
+ */
+final class TaskTransaction implements AutoCloseable {
+  private final TaskRepository store;
+  private final ScheduleIndex index;
+  private final IncrementalEpicAggregator epicAggregator;
+  private final Consumer<UUID> historyEviction;
+  private final TaskEventBus eventBus;
+  private final StripedLock.Held locks;
+  private final Map<UUID, Optional<Task>> loadedTasks = new HashMap<>();
+  private final Map<UUID, Task> savedTasks = new LinkedHashMap<>();
+  private final Set<UUID> removedIds = new LinkedHashSet<>();
+  private final Set<UUID> touchedEpicIds = new HashSet<>();
+  private final Deque<Runnable> undoLog = new ArrayDeque<>();
+  private final Set<Task> retiredTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+  private TaskRepositorySnapshot snapshot;
+  private boolean completed;
+
+  /**
+   * Starts a transaction.
+   *
+   * @param store the repository the staged changes are written to
+   * @param index the schedule index validated against
+   * @param epicAggregator the aggregates of the epics
+   * @param historyEviction removes a task from the history once the transaction has committed
+   * @param eventBus receives the events describing the committed changes
+   * @param locks the locks held for the tasks the transaction touches, released on close
+   */
+  TaskTransaction(
+      final TaskRepository store,
+      final ScheduleIndex index,
+      final IncrementalEpicAggregator epicAggregator,
+      final Consumer<UUID> historyEviction,
+      final TaskEventBus eventBus,
+      final StripedLock.Held locks) {
+    this.store = Objects.requireNonNull(store, "TaskRepository cannot be null.");
+    this.index = Objects.requireNonNull(index, "Schedule index can't be null.");
+    this.epicAggregator = Objects.requireNonNull(epicAggregator, "Epic aggregator can't be null.");
+    this.historyEviction =
+        Objects.requireNonNull(historyEviction, "History eviction can't be null.");
+    this.eventBus = Objects.requireNonNull(eventBus, "Event bus can't be null.");
+    this.locks = Objects.requireNonNull(locks, "Locks can't be null.");
+  }
+
+  /** Reads a task as committed in the repository, at most once per transaction. */
+  private Optional<Task> load(final UUID id) {
+    if (snapshot == null) {
+      snapshot = store.snapshot();
+    }
+    return loadedTasks.computeIfAbsent(id, snapshot::getTaskById);
+  }
+
+  /**
+   * Finds a task as seen by this transaction: staged saves and removals take precedence over the
+   * repository.
+   *
+   * @param id the ID of the task
+   * @return the task, or an empty Optional if it does not exist or was removed
+   */
+  Optional<Task> find(final UUID id) {
+    if (removedIds.contains(id)) return Optional.empty();
+    final Task savedTask = savedTasks.get(id);
+    return savedTask != null ? Optional.of(savedTask) : load(id);
+  }
+
+  /**
+   * Finds a task as seen by this transaction and checks its type.
+   *
+   * @param id the ID of the task
+   * @param clazz the expected type of the task
+   * @return the task cast to the expected type
+   * @throws ValidationException if the task does not exist or has another type
+   */
+  <T extends Task> T findMatching(final UUID id, final Class<T> clazz) throws ValidationException {
+    Objects.requireNonNull(id, "TaskId can't be null");
+    final Task task =
+        find(id)
+            .orElseThrow(
+                () -> new ValidationException(String.format("Task with ID %s does not exist", id)));
+    if (!clazz.isInstance(task)) {
+      throw new ValidationException(
+          String.format(
+              "Task with ID %s has type %s but expected type %s",
+              id, task.getClass().getSimpleName(), clazz.getSimpleName()));
+    }
+    return clazz.cast(task);
+  }
+
+  /**
+   * Returns {@code true} if the given ID is taken by a task saved in this transaction.
+   *
+   * @param id the ID to check
+   * @return {@code true} if a staged task has the ID
+   */
+  boolean isStaged(final UUID id) {
+    return savedTasks.containsKey(id);
+  }
+
+  /**
+   * Adds a new task to the schedule. The tasks retired by this transaction do not count as
+   * overlaps.
+   *
+   * @param task the task to add
+   * @throws ValidationException if the task overlaps a scheduled task
+   */
+  void schedule(final Task task) throws ValidationException {
+    index.add(task, retiredTasks);
+    undoLog.push(() -> index.remove(task));
+  }
+
+  /**
+   * Replaces a task in the schedule. The schedule is left unchanged if the new version overlaps.
+   *
+   * @param oldTask the scheduled version of the task
+   * @param newTask the new version of the task
+   * @throws ValidationException if the new version overlaps a scheduled task
+   */
+  void reschedule(final Task oldTask, final Task newTask) throws ValidationException {
+    final int savepoint = undoLog.size();
+    try {
+      unschedule(oldTask);
+      schedule(newTask);
+    } catch (ValidationException e) {
+      rollbackTo(savepoint);
+      throw e;
+    }
+  }
+
+  /**
+   * Replaces a subtask and its epic in the schedule in one step, so that the new subtask is not
+   * checked against the old window of its epic. The schedule is left unchanged if either new
+   * version overlaps.
+   *
+   * @param oldSubTask the scheduled version of the subtask
+   * @param newSubTask the new version of the subtask
+   * @param oldEpicTask the scheduled version of the epic
+   * @param newEpicTask the new version of the epic
+   * @throws ValidationException if the subtask or the epic overlaps a scheduled task
+   */
+  void reschedule(
+      final SubTask oldSubTask,
+      final SubTask newSubTask,
+      final EpicTask oldEpicTask,
+      final EpicTask newEpicTask)
+      throws ValidationException {
+    final int savepoint = undoLog.size();
+    try {
+      unschedule(oldSubTask);
+      unschedule(oldEpicTask);
+      schedule(newSubTask);
+      schedule(newEpicTask);
+    } catch (ValidationException e) {
+      rollbackTo(savepoint);
+      throw e;
+    }
+  }
+
+  /** Retires a scheduled task until the transaction commits, keeping its time reserved. */
+  private void unschedule(final Task task) {
+    if (index.retire(task)) {
+      retiredTasks.add(task);
+      undoLog.push(
+          () -> {
+            retiredTasks.remove(task);
+            index.restore(task);
+          });
+    }
+  }
+
+  /** Undoes the changes recorded after the given depth of the undo log, most recent first. */
+  private void rollbackTo(final int savepoint) {
+    while (undoLog.size() > savepoint) {
+      undoLog.pop().run();
+    }
+  }
+
+  /**
+   * Stages a new or updated task to be saved on commit.
+   *
+   * @param task the task to save
+   */
+  void save(final Task task) {
+    removedIds.remove(task.getId());
+    savedTasks.put(task.getId(), task);
+  }
+
+  /**
+   * Removes a task from the schedule and stages its removal from the repository and the history.
+   *
+   * @param task the task to remove
+   */
+  void remove(final Task task) {
+    unschedule(task);
+    savedTasks.remove(task.getId());
+    removedIds.add(task.getId());
+  }
+
+  /**
+   * Makes sure the aggregate of the given epic is tracked, seeding it from the subtasks visible to
+   * this transaction. The aggregate is dropped if the transaction does not commit.
+   *
+   * @param epicTask the epic whose aggregate is about to change
+   */
+  void trackEpic(final EpicTask epicTask) {
+    if (touchedEpicIds.add(epicTask.getId())) {
+      undoLog.push(() -> epicAggregator.untrack(epicTask.getId()));
+    }
+    if (epicAggregator.isTracked(epicTask.getId())) return;
+    epicAggregator.track(
+        epicTask.getId(),
+        epicTask.getSubtaskIds().stream()
+            .map(this::find)
+            .flatMap(Optional::stream)
+            .filter(SubTask.class::isInstance)
+            .map(SubTask.class::cast)
+            .toList());
+  }
+
+  /**
+   * Writes all staged changes to the repository in a single operation, evicts the removed tasks
+   * from the history and publishes the changes. Events are only built if the bus has subscribers.
+   *
+   * @throws IllegalStateException if the transaction has already completed
+   */
+  void commit() {
+    if (completed) {
+      throw new IllegalStateException("Transaction has already completed.");
+    }
+    final List<TaskEvent> events = eventBus.hasSubscribers() ? describeChanges() : List.of();
+    if (!savedTasks.isEmpty() || !removedIds.isEmpty()) {
+      store.applyChanges(savedTasks.values(), removedIds);
+    }
+    completed = true;
+    retiredTasks.forEach(index::release);
+    removedIds.forEach(historyEviction);
+    eventBus.publish(events);
+  }
+
+  /** Compares the staged changes with the tasks they replace. */
+  private List<TaskEvent> describeChanges() {
+    final List<TaskEvent> events = new ArrayList<>();
+    for (Task task : savedTasks.values()) {
+      final Optional<Task> previous = load(task.getId());
+      if (previous.isEmpty()) {
+        events.add(new TaskEvent.TaskCreated(task));
+        continue;
+      }
+      events.add(new TaskEvent.TaskUpdated(previous.get(), task));
+      if (previous.get() instanceof EpicTask oldEpicTask
+          && task instanceof EpicTask newEpicTask
+          && !haveSameDerivedProperties(oldEpicTask, newEpicTask)) {
+        events.add(new TaskEvent.EpicRecomputed(oldEpicTask, newEpicTask));
+      }
+    }
+    for (UUID id : removedIds) {
+      load(id).ifPresent(task -> events.add(new TaskEvent.TaskRemoved(task)));
+    }
+    return events;
+  }
+
+  private static boolean haveSameDerivedProperties(final EpicTask first, final EpicTask second) {
+    return first.getStatus() == second.getStatus()
+        && Objects.equals(first.getStartTime(), second.getStartTime())
+        && Objects.equals(first.getDuration(), second.getDuration());
+  }
+
+  /** Rolls back the transaction unless it has committed, then releases its locks. */
+  @Override
+  public void close() {
+    try {
+      if (!completed) {
+        completed = true;
+        rollbackTo(0);
+      }
+    } finally {
+      locks.close();
+    }
+  }
+}
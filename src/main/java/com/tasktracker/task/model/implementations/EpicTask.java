@@ -1,5 +1,6 @@
 package com.tasktracker.task.model.implementations;
 
+import com.tasktracker.collections.PersistentTreeSet;
 import com.tasktracker.task.exception.ValidationException;
 import com.tasktracker.task.model.enums.TaskStatus;
 import java.time.Duration;
@@ -12,8 +13,11 @@ import java.util.UUID;
  * {@link Task} class to include additional functionality for managing subtasks.
  */
 public final class EpicTask extends Task {
-  /** A set of IDs representing the subtasks associated with this epic com.tasktracker.task. */
-  private final Set<UUID> subtaskIds;
+  /**
+   * A set of IDs representing the subtasks associated with this epic com.tasktracker.task. The set
+   * is persistent, so a modified copy of the epic shares it instead of copying it.
+   */
+  private final PersistentTreeSet<UUID> subtaskIds;
 
   /**
    * Constructs a new {@code EpicTask} instance with the specified parameters.
@@ -42,18 +46,70 @@ public final class EpicTask extends Task {
       final LocalDateTime startTime,
       final Duration duration)
       throws ValidationException {
-    super(id, title, description, status, creationDateTime, updateDateTime, startTime, duration);
-    this.subtaskIds = Set.copyOf(subtaskIds);
+    this(
+        id,
+        title,
+        description,
+        status,
+        subtaskIds,
+        creationDateTime,
+        updateDateTime,
+        startTime,
+        duration,
+        0L);
+  }
+
+  /**
+   * Constructs a {@code EpicTask} at the given version, e.g. a modified copy of an existing task.
+   *
+   * @param id the unique identifier of the task; must be greater than 0
+   * @param title the title of the task; cannot be null or shorter than the minimum required length
+   * @param description a description of the task; cannot be null or shorter than the minimum
+   *     required length
+   * @param status the current status of the task; cannot be null
+   * @param subtaskIds a set of IDs representing the subtasks associated with this epic task; cannot
+   *     contain negative values
+   * @param creationDateTime the creation date of the task; cannot be null
+   * @param updateDateTime the last update time of the task; cannot be null
+   * @param startTime the scheduled start time for the task; can be null
+   * @param duration the planned duration of the task; can be null
+   * @param version the version of the task; a newly created task has version 0
+   * @throws ValidationException if any validation criteria are not met
+   */
+  public EpicTask(
+      final UUID id,
+      final String title,
+      final String description,
+      final TaskStatus status,
+      final Set<UUID> subtaskIds,
+      final LocalDateTime creationDateTime,
+      final LocalDateTime updateDateTime,
+      final LocalDateTime startTime,
+      final Duration duration,
+      final long version)
+      throws ValidationException {
+    super(
+        id,
+        title,
+        description,
+        status,
+        creationDateTime,
+        updateDateTime,
+        startTime,
+        duration,
+        version);
+    this.subtaskIds = PersistentTreeSet.copyOf(subtaskIds);
   }
 
   /**
-   * Retrieves an unmodifiable copy of the set of subtask IDs associated with this
-   * com.tasktracker.task.
+   * Retrieves the immutable set of subtask IDs associated with this com.tasktracker.task. The set
+   * is returned without copying; adding or removing an ID through {@link PersistentTreeSet#plus}
+   * and {@link PersistentTreeSet#minus} costs {@code O(log k)} and leaves this epic unchanged.
    *
-   * @return a read-only view of the subtask IDs
+   * @return the subtask IDs, in ascending order
    */
-  public Set<UUID> getSubtaskIds() {
-    return Set.copyOf(subtaskIds);
+  public PersistentTreeSet<UUID> getSubtaskIds() {
+    return subtaskIds;
   }
 
   /**
@@ -79,6 +135,8 @@ public final class EpicTask extends Task {
         + super.getCreationDate()
         + ", updateDate="
         + super.getUpdateDate()
+        + ", version="
+        + super.getVersion()
         + '}';
   }
 }
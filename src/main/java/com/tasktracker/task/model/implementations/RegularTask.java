@@ -13,7 +13,7 @@ import java.util.UUID;
 public final class RegularTask extends Task {
 
   /**
-   * Constructs a new RegularTask with the specified parameters.
+   * Constructs a RegularTask with the specified parameters.
    *
    * @param id the unique identifier for the task; must be a valid UUID
    * @param title the title of the task; cannot be null or empty
@@ -35,7 +35,44 @@ public final class RegularTask extends Task {
       final LocalDateTime startTime,
       final Duration duration)
       throws ValidationException {
-    super(id, title, description, status, creationDateTime, updateDateTime, startTime, duration);
+    this(id, title, description, status, creationDateTime, updateDateTime, startTime, duration, 0L);
+  }
+
+  /**
+   * Constructs a RegularTask at the given version, e.g. a modified copy of an existing task.
+   *
+   * @param id the unique identifier for the task; must be a valid UUID
+   * @param title the title of the task; cannot be null or empty
+   * @param description the description of the task; cannot be null or empty
+   * @param status the current status of the task, as defined in {@link TaskStatus}; cannot be null
+   * @param creationDateTime the creation date of the task; cannot be null
+   * @param updateDateTime the last update date of the task; cannot be null
+   * @param startTime when this task is scheduled to begin; can be null
+   * @param duration how long this task is expected to take; can be null
+   * @param version the version of the task; a newly created task has version 0
+   * @throws ValidationException if any input validation fails
+   */
+  public RegularTask(
+      final UUID id,
+      final String title,
+      final String description,
+      final TaskStatus status,
+      final LocalDateTime creationDateTime,
+      final LocalDateTime updateDateTime,
+      final LocalDateTime startTime,
+      final Duration duration,
+      final long version)
+      throws ValidationException {
+    super(
+        id,
+        title,
+        description,
+        status,
+        creationDateTime,
+        updateDateTime,
+        startTime,
+        duration,
+        version);
   }
 
   /**
@@ -61,6 +98,8 @@ public final class RegularTask extends Task {
         + super.getCreationDate()
         + ", updateDate="
         + super.getUpdateDate()
+        + ", version="
+        + super.getVersion()
         + '}';
   }
 }
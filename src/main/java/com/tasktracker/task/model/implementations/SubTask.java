@@ -40,7 +40,56 @@ public final class SubTask extends Task {
       final LocalDateTime startTime,
       final Duration duration)
       throws ValidationException {
-    super(id, title, description, status, creationDateTime, updateDateTime, startTime, duration);
+    this(
+        id,
+        title,
+        description,
+        status,
+        epicTaskId,
+        creationDateTime,
+        updateDateTime,
+        startTime,
+        duration,
+        0L);
+  }
+
+  /**
+   * Constructs a SubTask at the given version, e.g. a modified copy of an existing task.
+   *
+   * @param id The unique identifier for this subtask
+   * @param title The name/title of this subtask
+   * @param description A brief description of what this subtask entails
+   * @param status The current state of progress of this subtask (e.g. NEW, IN_PROGRESS, etc)
+   * @param epicTaskId The identifier of the parent Epic task this subtask belongs to
+   * @param creationDateTime The date and time when this subtask was initially created
+   * @param updateDateTime The date and time when this subtask was last modified
+   * @param startTime When this subtask is scheduled to begin
+   * @param duration How long this subtask is expected to take
+   * @param version The version of this subtask; a newly created subtask has version 0
+   * @throws ValidationException If any of the input parameters fail validation checks
+   */
+  public SubTask(
+      final UUID id,
+      final String title,
+      final String description,
+      final TaskStatus status,
+      final UUID epicTaskId,
+      final LocalDateTime creationDateTime,
+      final LocalDateTime updateDateTime,
+      final LocalDateTime startTime,
+      final Duration duration,
+      final long version)
+      throws ValidationException {
+    super(
+        id,
+        title,
+        description,
+        status,
+        creationDateTime,
+        updateDateTime,
+        startTime,
+        duration,
+        version);
     this.epicTaskId = Objects.requireNonNull(epicTaskId, "Epic task id can't be null.");
   }
 
@@ -75,6 +124,8 @@ public final class SubTask extends Task {
         + super.getCreationDate()
         + ", updateDate="
         + super.getUpdateDate()
+        + ", version="
+        + super.getVersion()
         + '}';
   }
 }
@@ -27,6 +27,7 @@ public abstract sealed class Task implements Comparable<Task>
   private final LocalDateTime updateTime;
   private final LocalDateTime startTime;
   private final Duration duration;
+  private final long version;
 
   /**
    * Constructs a new Task with the given parameters.
@@ -67,6 +68,39 @@ public abstract sealed class Task implements Comparable<Task>
       LocalDateTime startTime,
       Duration duration)
       throws ValidationException {
+    this(id, title, description, status, creationDate, updateDate, startTime, duration, 0L);
+  }
+
+  /**
+   * Constructs a Task with the given parameters at the given version. The version is incremented
+   * every time a task is replaced by a modified copy and allows detecting concurrent modifications.
+   *
+   * @param id unique UUID identifier for the task
+   * @param title name of the task
+   * @param description details about the task
+   * @param status current state from TaskStatus enum
+   * @param creationDate date and time when task was created
+   * @param updateDate date and time when task was last modified
+   * @param startTime scheduled start date and time
+   * @param duration planned duration of the task
+   * @param version the version of the task; a newly created task has version 0
+   * @throws ValidationException if any validation rule is violated or the version is negative
+   * @throws NullPointerException if any required parameter is null
+   */
+  protected Task(
+      final UUID id,
+      final String title,
+      final String description,
+      final TaskStatus status,
+      final LocalDateTime creationDate,
+      final LocalDateTime updateDate,
+      LocalDateTime startTime,
+      Duration duration,
+      final long version)
+      throws ValidationException {
+    if (version < 0) {
+      throw new ValidationException("The version can't be negative.");
+    }
     this.id = Objects.requireNonNull(id, "Id can't be null.");
     this.title = getValidatedTitle(title);
     this.description = getValidatedDescription(description);
@@ -75,6 +109,7 @@ public abstract sealed class Task implements Comparable<Task>
     this.updateTime = getValidatedUpdatedTDate(updateDate);
     this.startTime = startTime;
     this.duration = duration;
+    this.version = version;
   }
 
   /**
@@ -199,6 +234,15 @@ public abstract sealed class Task implements Comparable<Task>
     return updateTime;
   }
 
+  /**
+   * Retrieves the version of the task, which grows with every modification.
+   *
+   * @return the version of the task
+   */
+  public long getVersion() {
+    return version;
+  }
+
   /**
    * Retrieves the ID of the com.tasktracker.task.
    *
@@ -291,6 +335,8 @@ public abstract sealed class Task implements Comparable<Task>
         + creationDate
         + ", updateTime="
         + updateTime
+        + ", version="
+        + version
         + '}';
   }
 
@@ -0,0 +1,168 @@
+package com.tasktracker.task.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A coarse clock for high-throughput deployments. A background thread reads the source clock once
+ * per tick and publishes the instant together with the matching {@link LocalDateTime}; reading the
+ * time then costs a single volatile read, without calling into the system clock, resolving the
+ * time-zone rules or allocating.
+ *
+ * <p>In exchange, the time lags the source clock by up to one tick, and every read within a tick
+ * returns the same value. Code that timestamps on a hot path should take the time through {@link
+ * #now(Clock)}, which returns the cached date-time of a cached clock and falls back to {@link
+ * LocalDateTime#now(Clock)} for any other. The clock must be closed to stop its background thread;
+ * after that it keeps returning the last time it published.
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+  private final Clock source;
+  private final long resolutionNanos;
+  private final Thread ticker;
+  private volatile Tick tick;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a clock caching the system clock in the default time zone.
+   *
+   * @param resolution the time between two updates; must be positive
+   * @throws IllegalArgumentException if the resolution is not positive
+   */
+  public CachedClock(final Duration resolution) {
+    this(Clock.systemDefaultZone(), resolution);
+  }
+
+  /**
+   * Constructs a clock caching the given source clock, in the source's time zone.
+   *
+   * @param source the clock read on every tick; must not be {@code null}
+   * @param resolution the time between two updates; must be positive
+   * @throws IllegalArgumentException if the resolution is not positive
+   */
+  public CachedClock(final Clock source, final Duration resolution) {
+    this.source = Objects.requireNonNull(source, "Source clock can't be null.");
+    Objects.requireNonNull(resolution, "Resolution can't be null.");
+    if (resolution.isNegative() || resolution.isZero()) {
+      throw new IllegalArgumentException("Resolution must be positive.");
+    }
+    this.resolutionNanos = resolution.toNanos();
+    update();
+    ticker = Thread.ofVirtual().name("clock-ticker").start(this::tickPeriodically);
+  }
+
+  /**
+   * Returns the current date-time of the given clock. For a {@code CachedClock} this is the
+   * date-time published on its last tick, so no object is allocated.
+   *
+   * @param clock the clock to read; must not be {@code null}
+   * @return the current local date-time of the clock
+   */
+  public static LocalDateTime now(final Clock clock) {
+    if (clock instanceof CachedClock cached) {
+      return cached.tick.dateTime();
+    }
+    return LocalDateTime.now(clock);
+  }
+
+  private void tickPeriodically() {
+    while (!closed) {
+      LockSupport.parkNanos(this, resolutionNanos);
+      update();
+    }
+  }
+
+  private void update() {
+    final Instant instant = source.instant();
+    tick = new Tick(instant, instant.toEpochMilli(), LocalDateTime.ofInstant(instant, getZone()));
+  }
+
+  /**
+   * Returns the instant published on the last tick.
+   *
+   * @return the cached instant
+   */
+  @Override
+  public Instant instant() {
+    return tick.instant();
+  }
+
+  /**
+   * Returns the instant published on the last tick in milliseconds since the epoch.
+   *
+   * @return the cached time in milliseconds
+   */
+  @Override
+  public long millis() {
+    return tick.millis();
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return source.getZone();
+  }
+
+  /**
+   * Returns a clock reading the instants of this clock in the given time zone. The returned clock
+   * shares the background thread of this one, so it stops advancing once this clock is closed.
+   *
+   * @param zone the time zone of the returned clock
+   * @return a clock in the given zone
+   */
+  @Override
+  public Clock withZone(final ZoneId zone) {
+    Objects.requireNonNull(zone, "Zone can't be null.");
+    if (zone.equals(getZone())) return this;
+    return new ZonedView(this, zone);
+  }
+
+  /** Stops the background thread. */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(ticker);
+    try {
+      ticker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** The values published on one tick, read together through a single volatile field. */
+  private record Tick(Instant instant, long millis, LocalDateTime dateTime) {}
+
+  /** Reads the instants of a cached clock in another time zone. */
+  private static final class ZonedView extends Clock {
+    private final CachedClock clock;
+    private final ZoneId zone;
+
+    private ZonedView(final CachedClock clock, final ZoneId zone) {
+      this.clock = clock;
+      this.zone = zone;
+    }
+
+    @Override
+    public Instant instant() {
+      return clock.instant();
+    }
+
+    @Override
+    public long millis() {
+      return clock.millis();
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return zone;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return clock.withZone(zone);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.tasktracker.task.service;
+
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.SubTask;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the aggregated status and time window of epic tasks up to date incrementally. For every
+ * tracked epic it maintains the number of subtasks per status and ordered multisets of subtask
+ * start and end times, so that adding, replacing or removing a single subtask costs {@code O(log
+ * k)} for an epic with {@code k} subtasks instead of re-collecting all of them.
+ *
+ * <p>The produced results follow the same rules as {@link EpicTaskStatusAndTimeCollector}.
+ */
+public final class IncrementalEpicAggregator {
+  private static final String EPIC_ID_CAN_T_BE_NULL = "Epic ID can't be null.";
+  private final Map<UUID, EpicAggregate> aggregates = new ConcurrentHashMap<>();
+
+  /**
+   * Returns {@code true} if the epic with the given ID is tracked by this aggregator.
+   *
+   * @param epicId the ID of the epic
+   * @return {@code true} if the epic is tracked
+   */
+  public boolean isTracked(final UUID epicId) {
+    Objects.requireNonNull(epicId, EPIC_ID_CAN_T_BE_NULL);
+    return aggregates.containsKey(epicId);
+  }
+
+  /**
+   * Starts tracking the epic with the given ID, seeding it with its current subtasks. Any previous
+   * state of the epic is discarded.
+   *
+   * @param epicId the ID of the epic
+   * @param subTasks the subtasks currently attached to the epic
+   * @return the aggregated properties of the epic
+   */
+  public EpicTaskAggregatedResult track(final UUID epicId, final Collection<SubTask> subTasks) {
+    Objects.requireNonNull(epicId, EPIC_ID_CAN_T_BE_NULL);
+    Objects.requireNonNull(subTasks, "SubTasks can't be null.");
+    final EpicAggregate aggregate = new EpicAggregate();
+    subTasks.forEach(aggregate::put);
+    aggregates.put(epicId, aggregate);
+    return aggregate.toResult();
+  }
+
+  /**
+   * Adds the given subtask to the epic, or replaces the previous version of it.
+   *
+   * @param epicId the ID of a tracked epic
+   * @param subTask the new or updated subtask
+   * @return the aggregated properties of the epic after the change
+   * @throws IllegalStateException if the epic is not tracked
+   */
+  public EpicTaskAggregatedResult put(final UUID epicId, final SubTask subTask) {
+    Objects.requireNonNull(subTask, "SubTask can't be null.");
+    final EpicAggregate aggregate = getTrackedAggregate(epicId);
+    aggregate.put(subTask);
+    return aggregate.toResult();
+  }
+
+  /**
+   * Removes the subtask with the given ID from the epic. Removing a subtask that is not part of the
+   * epic changes nothing.
+   *
+   * @param epicId the ID of a tracked epic
+   * @param subTaskId the ID of the subtask to remove
+   * @return the aggregated properties of the epic after the change
+   * @throws IllegalStateException if the epic is not tracked
+   */
+  public EpicTaskAggregatedResult remove(final UUID epicId, final UUID subTaskId) {
+    Objects.requireNonNull(subTaskId, "SubTask ID can't be null.");
+    final EpicAggregate aggregate = getTrackedAggregate(epicId);
+    aggregate.remove(subTaskId);
+    return aggregate.toResult();
+  }
+
+  /**
+   * Returns the current aggregated properties of the epic.
+   *
+   * @param epicId the ID of a tracked epic
+   * @return the aggregated properties of the epic
+   * @throws IllegalStateException if the epic is not tracked
+   */
+  public EpicTaskAggregatedResult getResult(final UUID epicId) {
+    return getTrackedAggregate(epicId).toResult();
+  }
+
+  /**
+   * Stops tracking the epic with the given ID.
+   *
+   * @param epicId the ID of the epic
+   */
+  public void untrack(final UUID epicId) {
+    Objects.requireNonNull(epicId, EPIC_ID_CAN_T_BE_NULL);
+    aggregates.remove(epicId);
+  }
+
+  /** Stops tracking all epics. */
+  public void clear() {
+    aggregates.clear();
+  }
+
+  private EpicAggregate getTrackedAggregate(final UUID epicId) {
+    Objects.requireNonNull(epicId, EPIC_ID_CAN_T_BE_NULL);
+    final EpicAggregate aggregate = aggregates.get(epicId);
+    if (aggregate == null) {
+      throw new IllegalStateException("Epic with ID " + epicId + " is not tracked.");
+    }
+    return aggregate;
+  }
+
+  private static final class EpicAggregate {
+    private final Map<UUID, SubTask> subTasks = new HashMap<>();
+    private final EnumMap<TaskStatus, Integer> statusCounts = new EnumMap<>(TaskStatus.class);
+    private final NavigableMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+
+    private static void increment(Map<LocalDateTime, Integer> counts, LocalDateTime key) {
+      counts.merge(key, 1, Integer::sum);
+    }
+
+    private static void decrement(Map<LocalDateTime, Integer> counts, LocalDateTime key) {
+      counts.computeIfPresent(key, (ignored, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void put(final SubTask subTask) {
+      final SubTask previous = subTasks.put(subTask.getId(), subTask);
+      if (previous != null) {
+        unregister(previous);
+      }
+      register(subTask);
+    }
+
+    private void remove(final UUID subTaskId) {
+      final SubTask previous = subTasks.remove(subTaskId);
+      if (previous != null) {
+        unregister(previous);
+      }
+    }
+
+    private void register(final SubTask subTask) {
+      statusCounts.merge(subTask.getStatus(), 1, Integer::sum);
+      final LocalDateTime startTime = subTask.getStartTime();
+      final LocalDateTime endTime = subTask.getEndTime();
+      if (startTime != null && endTime != null) {
+        increment(startTimes, startTime);
+        increment(endTimes, endTime);
+      }
+    }
+
+    private void unregister(final SubTask subTask) {
+      statusCounts.computeIfPresent(
+          subTask.getStatus(), (ignored, count) -> count == 1 ? null : count - 1);
+      final LocalDateTime startTime = subTask.getStartTime();
+      final LocalDateTime endTime = subTask.getEndTime();
+      if (startTime != null && endTime != null) {
+        decrement(startTimes, startTime);
+        decrement(endTimes, endTime);
+      }
+    }
+
+    private TaskStatus status() {
+      final boolean hasNewTasks = statusCounts.containsKey(TaskStatus.NEW);
+      final boolean hasInProgressTasks = statusCounts.containsKey(TaskStatus.IN_PROGRESS);
+      final boolean hasCompletedTasks = statusCounts.containsKey(TaskStatus.DONE);
+      if (!hasInProgressTasks && !hasCompletedTasks) {
+        return TaskStatus.NEW;
+      }
+      if (!hasNewTasks && !hasInProgressTasks) {
+        return TaskStatus.DONE;
+      }
+      return TaskStatus.IN_PROGRESS;
+    }
+
+    private EpicTaskAggregatedResult toResult() {
+      if (startTimes.isEmpty()) {
+        return new EpicTaskAggregatedResult(status(), null, null);
+      }
+      final LocalDateTime startTime = startTimes.firstKey();
+      return new EpicTaskAggregatedResult(
+          status(), startTime, Duration.between(startTime, endTimes.lastKey()));
+    }
+  }
+}
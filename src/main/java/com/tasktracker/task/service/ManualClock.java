@@ -0,0 +1,95 @@
+package com.tasktracker.task.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A deterministic clock for tests and benchmarks. Time only moves when {@link #advance} is called
+ * or, if a step is given, by that step after every read, so consecutive reads return strictly
+ * increasing instants without depending on how fast the code under test runs. The clock is
+ * thread-safe; clocks obtained through {@link #withZone} share its time.
+ */
+public final class ManualClock extends Clock {
+  private final AtomicReference<Instant> instant;
+  private final Duration step;
+  private final ZoneId zone;
+
+  /**
+   * Constructs a clock standing still at the given instant.
+   *
+   * @param start the instant the clock shows
+   * @param zone the time zone of the clock
+   */
+  public ManualClock(final Instant start, final ZoneId zone) {
+    this(start, zone, Duration.ZERO);
+  }
+
+  /**
+   * Constructs a clock that starts at the given instant and moves by the given step after every
+   * read.
+   *
+   * @param start the first instant the clock shows
+   * @param zone the time zone of the clock
+   * @param step the time added after every read; must not be negative
+   * @throws IllegalArgumentException if the step is negative
+   */
+  public ManualClock(final Instant start, final ZoneId zone, final Duration step) {
+    this(new AtomicReference<>(Objects.requireNonNull(start, "Start can't be null.")), zone, step);
+  }
+
+  private ManualClock(
+      final AtomicReference<Instant> instant, final ZoneId zone, final Duration step) {
+    this.instant = instant;
+    this.zone = Objects.requireNonNull(zone, "Zone can't be null.");
+    this.step = Objects.requireNonNull(step, "Step can't be null.");
+    if (step.isNegative()) {
+      throw new IllegalArgumentException("Step can't be negative.");
+    }
+  }
+
+  /**
+   * Moves the clock forward.
+   *
+   * @param duration the time to add; must not be negative
+   * @throws IllegalArgumentException if the duration is negative
+   */
+  public void advance(final Duration duration) {
+    Objects.requireNonNull(duration, "Duration can't be null.");
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException("Duration can't be negative.");
+    }
+    instant.updateAndGet(current -> current.plus(duration));
+  }
+
+  /**
+   * Returns the current instant of the clock, then moves the clock by its step.
+   *
+   * @return the current instant
+   */
+  @Override
+  public Instant instant() {
+    if (step.isZero()) return instant.get();
+    return instant.getAndUpdate(current -> current.plus(step));
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Returns a clock in the given time zone sharing the time of this clock.
+   *
+   * @param zone the time zone of the returned clock
+   * @return a clock in the given zone
+   */
+  @Override
+  public Clock withZone(final ZoneId zone) {
+    if (zone.equals(this.zone)) return this;
+    return new ManualClock(instant, zone, step);
+  }
+}
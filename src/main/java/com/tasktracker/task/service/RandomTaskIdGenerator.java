@@ -0,0 +1,16 @@
+package com.tasktracker.task.service;
+
+import java.util.UUID;
+
+/**
+ * Generates random version 4 UUIDs via {@link UUID#randomUUID()}. The IDs draw on a {@link
+ * java.security.SecureRandom}, which contends under load, and are scattered over the whole ID
+ * range. Collisions are not ruled out, so callers check every ID.
+ */
+public final class RandomTaskIdGenerator implements TaskIdGenerator {
+
+  @Override
+  public UUID nextId() {
+    return UUID.randomUUID();
+  }
+}
@@ -4,19 +4,68 @@ import com.tasktracker.task.exception.ValidationException;
 import com.tasktracker.task.model.implementations.EpicTask;
 import com.tasktracker.task.model.implementations.SubTask;
 import com.tasktracker.task.model.implementations.Task;
+import java.util.Collection;
 import java.util.List;
 
 public interface ScheduleIndex {
   void add(Task task) throws ValidationException;
 
+  /**
+   * Adds a task to the schedule, treating the given tasks as absent when checking for overlaps.
+   * This lets a transaction place a task into time it has retired but not yet released.
+   *
+   * @param task the task to add
+   * @param ignoredTasks the scheduled or retired tasks the new task may overlap, looked up with
+   *     {@link Collection#contains}
+   * @throws ValidationException if the task overlaps any other scheduled or retired task
+   */
+  void add(Task task, Collection<? extends Task> ignoredTasks) throws ValidationException;
+
   void update(Task oldTask, Task newTask) throws ValidationException;
 
   void updateEpicAndSubtask(
       SubTask oldSubtask, SubTask newSubtask, EpicTask oldEpicTask, EpicTask newEpicTask)
       throws ValidationException;
 
-  void remove(Task task);
+  /**
+   * Removes a task from the schedule.
+   *
+   * @param task the task to remove
+   * @return {@code true} if the task was scheduled
+   */
+  boolean remove(Task task);
+
+  /**
+   * Retires a scheduled task that a pending change replaces or removes. A retired task is no longer
+   * listed but keeps blocking its time for every other task, so that the time cannot be taken
+   * before the change commits and {@link #restore} never creates an overlap.
+   *
+   * @param task the task to retire
+   * @return {@code true} if the task was scheduled
+   */
+  boolean retire(Task task);
+
+  /**
+   * Lists a retired task again, undoing {@link #retire}. Does nothing if the task is not retired.
+   *
+   * @param task the task to restore
+   */
+  void restore(Task task);
+
+  /**
+   * Frees the time of a retired task once the change that retired it has committed. Does nothing if
+   * the task is not retired.
+   *
+   * @param task the task to release
+   */
+  void release(Task task);
 
+  /**
+   * Returns {@code true} if the task overlaps a scheduled or retired task.
+   *
+   * @param task the task to check
+   * @return {@code true} if the task overlaps
+   */
   boolean hasOverlap(Task task);
 
   List<Task> asOrderedList();
@@ -0,0 +1,30 @@
+package com.tasktracker.task.service;
+
+import java.util.UUID;
+
+/**
+ * Supplies the IDs of newly created tasks. Implementations must be safe for concurrent use.
+ *
+ * @see TimeOrderedTaskIdGenerator
+ * @see RandomTaskIdGenerator
+ */
+public interface TaskIdGenerator {
+
+  /**
+   * Returns a new task ID.
+   *
+   * @return the new ID
+   */
+  UUID nextId();
+
+  /**
+   * Tells whether IDs of this generator may repeat IDs handed out before, in which case the caller
+   * has to check a new ID against the existing tasks. Generators that never repeat an ID return
+   * {@code false} and spare the caller a repository lookup per ID.
+   *
+   * @return {@code true} if new IDs have to be checked for collisions
+   */
+  default boolean requiresCollisionCheck() {
+    return true;
+  }
+}
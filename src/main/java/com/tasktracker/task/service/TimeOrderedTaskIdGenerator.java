@@ -0,0 +1,60 @@
+package com.tasktracker.task.service;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered UUIDs in the layout of UUID version 7: the upper 48 bits hold the Unix
+ * time in milliseconds, followed by the version, a 12 bit sequence and 62 random bits behind the
+ * variant.
+ *
+ * <p>The timestamp and the sequence form a counter that is advanced with a compare-and-set, so the
+ * IDs of one generator strictly increase in {@link UUID#compareTo} order even when several are
+ * created within the same millisecond or the clock moves backwards; a sequence overflow borrows
+ * from the next millisecond. The IDs of one generator therefore never repeat and need no collision
+ * check. New tasks land at the end of ordered structures such as the repository's tree map rather
+ * than at random positions. The random bits come from {@link ThreadLocalRandom}, which never
+ * blocks.
+ */
+public final class TimeOrderedTaskIdGenerator implements TaskIdGenerator {
+  private static final int SEQUENCE_BITS = 12;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+  private static final long VERSION = 7L << SEQUENCE_BITS;
+  private static final long VARIANT = 1L << 63;
+  private static final long RANDOM_MASK = (1L << 62) - 1;
+
+  private final LongSupplier clock;
+  private final AtomicLong lastCounter = new AtomicLong();
+
+  /** Constructs a generator reading the system clock. */
+  public TimeOrderedTaskIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  /**
+   * Constructs a generator reading the given clock.
+   *
+   * @param clock supplies the current time in milliseconds since the epoch
+   */
+  public TimeOrderedTaskIdGenerator(final LongSupplier clock) {
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+  }
+
+  @Override
+  public UUID nextId() {
+    final long now = clock.getAsLong() << SEQUENCE_BITS;
+    final long counter = lastCounter.updateAndGet(last -> Math.max(last + 1, now));
+    final long mostSigBits =
+        ((counter >>> SEQUENCE_BITS) << 16) | VERSION | (counter & SEQUENCE_MASK);
+    final long leastSigBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+    return new UUID(mostSigBits, leastSigBits);
+  }
+
+  @Override
+  public boolean requiresCollisionCheck() {
+    return false;
+  }
+}
@@ -0,0 +1,266 @@
+package com.tasktracker.task.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts task views over a sliding time window and reports the most viewed tasks, in bounded
+ * memory.
+ *
+ * <p>The window is divided into slices of equal length. Each slice counts its views with the
+ * Space-Saving algorithm: it keeps at most {@code capacity} counters, and a view of an untracked
+ * task while all counters are taken reassigns the counter with the lowest count, inheriting that
+ * count as the possible overestimate. Counters are grouped into buckets of equal count kept in
+ * ascending order (the "stream summary"), so both incrementing a counter and finding the lowest one
+ * take constant time. Any task viewed more than {@code 1/capacity} of a slice's views is guaranteed
+ * to hold a counter.
+ *
+ * <p>When time moves past a slice, the oldest slice is cleared and reused, so views decay out of
+ * the window slice by slice. The current slice is still filling up, so with {@code n} slices the
+ * counts cover between {@code n - 1} and {@code n} slices of views. {@link #topK} merges the live
+ * slices.
+ *
+ * <p>The counter is thread-safe. To keep it off the critical path of concurrent readers, it is
+ * split into {@value #STRIPES} stripes chosen by thread, each with its own slices and lock; {@link
+ * #topK} merges the stripes as well. A task's views may then be spread over several stripes, each
+ * of which guarantees a counter only to tasks frequent within its own share of the views, and the
+ * overestimates of the stripes add up.
+ */
+public final class TopViewedCounter {
+  private static final int STRIPES = 8;
+
+  private final Clock clock;
+  private final long sliceMillis;
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  /**
+   * Constructs a counter.
+   *
+   * @param capacity the number of counters per slice and stripe, bounding the tracked tasks; must
+   *     be positive
+   * @param window the length of the sliding window; must be positive
+   * @param sliceCount the number of slices the window is divided into; must be positive
+   * @param clock the clock view times are measured with
+   * @throws IllegalArgumentException if a limit is not positive or the window is shorter than the
+   *     number of slices in milliseconds
+   */
+  public TopViewedCounter(
+      final int capacity, final Duration window, final int sliceCount, final Clock clock) {
+    Objects.requireNonNull(window, "Window can't be null.");
+    if (capacity < 1 || sliceCount < 1) {
+      throw new IllegalArgumentException("Capacity and slice count must be positive.");
+    }
+    if (window.toMillis() < sliceCount) {
+      throw new IllegalArgumentException("Window must be at least one millisecond per slice.");
+    }
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+    this.sliceMillis = window.toMillis() / sliceCount;
+    final long currentSlice = clock.millis() / sliceMillis;
+    Arrays.setAll(stripes, i -> new Stripe(capacity, sliceCount, currentSlice));
+  }
+
+  /**
+   * Counts a view of the given task in the stripe of the calling thread.
+   *
+   * @param taskId the ID of the viewed task
+   */
+  public void record(final UUID taskId) {
+    Objects.requireNonNull(taskId, "Task ID can't be null.");
+    final Stripe stripe = stripes[(int) Thread.currentThread().threadId() & (STRIPES - 1)];
+    final long now = clock.millis() / sliceMillis;
+    stripe.lock.lock();
+    try {
+      stripe.advance(now);
+      stripe.slices[(int) (stripe.currentSlice % stripe.slices.length)].increment(taskId);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the most viewed tasks within the window, most viewed first. Counts may be overestimated
+   * by at most {@link ViewCount#maxOverestimate()}.
+   *
+   * @param k the maximum number of tasks to return; must be positive
+   * @return up to {@code k} view counts in descending order of views
+   * @throws IllegalArgumentException if {@code k} is not positive
+   */
+  public List<ViewCount> topK(final int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("K must be positive.");
+    }
+    final Map<UUID, long[]> merged = new HashMap<>();
+    final long now = clock.millis() / sliceMillis;
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        stripe.advance(now);
+        for (Slice slice : stripe.slices) {
+          for (Counter counter : slice.counters.values()) {
+            final long[] totals = merged.computeIfAbsent(counter.taskId, id -> new long[2]);
+            totals[0] += counter.count;
+            totals[1] += counter.error;
+          }
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return merged.entrySet().stream()
+        .map(entry -> new ViewCount(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+        .sorted(Comparator.comparingLong(ViewCount::views).reversed())
+        .limit(k)
+        .toList();
+  }
+
+  /**
+   * The number of views of a task within the window.
+   *
+   * @param taskId the ID of the task
+   * @param views the counted views, possibly overestimated
+   * @param maxOverestimate the most the count may exceed the true number of views
+   */
+  public record ViewCount(UUID taskId, long views, long maxOverestimate) {}
+
+  /** The slices of one stripe, guarded by a lock of its own. */
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Slice[] slices;
+    private long currentSlice;
+
+    private Stripe(final int capacity, final int sliceCount, final long currentSlice) {
+      this.slices = new Slice[sliceCount];
+      Arrays.setAll(slices, i -> new Slice(capacity));
+      this.currentSlice = currentSlice;
+    }
+
+    /** Clears the slices time has moved past since the last call. The caller holds the lock. */
+    private void advance(final long now) {
+      if (now <= currentSlice) return;
+      final long expired = Math.min(now - currentSlice, slices.length);
+      for (long slice = now - expired + 1; slice <= now; slice++) {
+        slices[(int) (slice % slices.length)].clear();
+      }
+      currentSlice = now;
+    }
+  }
+
+  /** The Space-Saving counters of one slice, grouped into buckets of equal count. */
+  private static final class Slice {
+    private final int capacity;
+    private final Map<UUID, Counter> counters = new HashMap<>();
+    private Bucket lowest;
+
+    private Slice(final int capacity) {
+      this.capacity = capacity;
+    }
+
+    private void increment(final UUID taskId) {
+      Counter counter = counters.get(taskId);
+      if (counter == null) {
+        if (counters.size() < capacity) {
+          counter = new Counter(taskId);
+          counters.put(taskId, counter);
+          attachToCountOne(counter);
+          return;
+        }
+        counter = lowest.first;
+        counters.remove(counter.taskId);
+        counter.taskId = taskId;
+        counter.error = counter.count;
+        counters.put(taskId, counter);
+      }
+      promote(counter);
+    }
+
+    /** Links a new counter into the bucket of count one, which is the lowest possible bucket. */
+    private void attachToCountOne(final Counter counter) {
+      counter.count = 1;
+      if (lowest == null || lowest.count != 1) {
+        final Bucket bucket = new Bucket(1);
+        bucket.next = lowest;
+        if (lowest != null) lowest.previous = bucket;
+        lowest = bucket;
+      }
+      lowest.add(counter);
+    }
+
+    /** Moves a counter to the bucket following its own, creating it if needed. */
+    private void promote(final Counter counter) {
+      final Bucket bucket = counter.bucket;
+      final long count = bucket.count + 1;
+      Bucket target = bucket.next;
+      if (target == null || target.count != count) {
+        target = new Bucket(count);
+        target.previous = bucket;
+        target.next = bucket.next;
+        if (bucket.next != null) bucket.next.previous = target;
+        bucket.next = target;
+      }
+      bucket.remove(counter);
+      if (bucket.first == null) {
+        unlink(bucket);
+      }
+      counter.count = count;
+      target.add(counter);
+    }
+
+    private void unlink(final Bucket bucket) {
+      if (bucket.previous == null) {
+        lowest = bucket.next;
+      } else {
+        bucket.previous.next = bucket.next;
+      }
+      if (bucket.next != null) bucket.next.previous = bucket.previous;
+    }
+
+    private void clear() {
+      counters.clear();
+      lowest = null;
+    }
+  }
+
+  /** The counters sharing one count, linked in a list. */
+  private static final class Bucket {
+    private final long count;
+    private Bucket previous;
+    private Bucket next;
+    private Counter first;
+
+    private Bucket(final long count) {
+      this.count = count;
+    }
+
+    private void add(final Counter counter) {
+      counter.bucket = this;
+      counter.previous = null;
+      counter.next = first;
+      if (first != null) first.previous = counter;
+      first = counter;
+    }
+
+    private void remove(final Counter counter) {
+      if (counter.previous == null) {
+        first = counter.next;
+      } else {
+        counter.previous.next = counter.next;
+      }
+      if (counter.next != null) counter.next.previous = counter.previous;
+    }
+  }
+
+  private static final class Counter {
+    private UUID taskId;
+    private long count;
+    private long error;
+    private Bucket bucket;
+    private Counter previous;
+    private Counter next;
+
+    private Counter(final UUID taskId) {
+      this.taskId = taskId;
+    }
+  }
+}
@@ -11,16 +11,21 @@ import java.util.List;
 import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public final class TreeSetScheduleIndex implements ScheduleIndex {
 
   private static final Comparator<Task> CMP =
       Comparator.comparing(Task::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
           .thenComparing(Task::getEndTime, Comparator.nullsLast(Comparator.naturalOrder()))
-          .thenComparing(Task::getId);
+          .thenComparing(Task::getId)
+          .thenComparingLong(Task::getVersion);
 
   private final NavigableSet<Task> timeLine = new TreeSet<>(CMP);
 
+  /** Tasks that are no longer listed but still block their time until removed or restored. */
+  private final NavigableSet<Task> retired = new TreeSet<>(CMP);
+
   private static boolean intersect(Task a, Task b) {
     if (a == null || b == null) {
       return false;
@@ -56,36 +61,55 @@ public final class TreeSetScheduleIndex implements ScheduleIndex {
     return intersect(existingTask, taskToCheck);
   }
 
-  private boolean checkOverlapAgainstCollection(Task task, Collection<Task> tasksToCompareAgainst) {
+  /** Returns every task that blocks its time: the listed tasks and the retired ones. */
+  private Stream<Task> blockingTasks() {
+    return Stream.concat(timeLine.stream(), retired.stream());
+  }
+
+  /**
+   * Checks the given task against the timeline while treating the excluded tasks as absent, which
+   * avoids copying the whole timeline for every update. The exclusions are looked up with {@code
+   * contains}, so a large set of them costs no more than a single one.
+   */
+  private boolean checkOverlapExcluding(Task task, Collection<? extends Task> excludedTasks) {
     if (task.getStartTime() == null || task.getEndTime() == null) {
       return false;
     }
-    return tasksToCompareAgainst.stream()
-        .filter(Objects::nonNull)
+    return blockingTasks()
+        .filter(existingTask -> !excludedTasks.contains(existingTask))
         .anyMatch(existingTask -> hasConflict(task, existingTask));
   }
 
   @Override
   public void add(Task task) throws ValidationException {
+    add(task, List.of());
+  }
+
+  @Override
+  public synchronized void add(Task task, Collection<? extends Task> ignoredTasks)
+      throws ValidationException {
     Objects.requireNonNull(task, "Task to add cannot be null");
-    ensureNoOverlap(task);
+    Objects.requireNonNull(ignoredTasks, "Ignored tasks cannot be null");
+    if (checkOverlapExcluding(task, ignoredTasks)) {
+      throw new ValidationException(
+          String.format(
+              "Time overlap detected. Task ID %s with start time '%s' and end time '%s'"
+                  + " overlaps with an existing task in schedule",
+              task.getId(), task.getStartTime(), task.getEndTime()));
+    }
     timeLine.add(task);
   }
 
   @Override
-  public void update(Task oldTask, Task newTask) throws ValidationException {
+  public synchronized void update(Task oldTask, Task newTask) throws ValidationException {
     Objects.requireNonNull(oldTask, "Old task cannot be null for update");
     Objects.requireNonNull(newTask, "New task cannot be null for update");
 
-    NavigableSet<Task> tempTimeLine = new TreeSet<>(CMP);
-    tempTimeLine.addAll(this.timeLine);
-    tempTimeLine.remove(oldTask);
-
-    if (checkOverlapAgainstCollection(newTask, tempTimeLine)) {
+    if (checkOverlapExcluding(newTask, List.of(oldTask))) {
       throw new ValidationException(
           String.format(
-              "Time overlap detected for updated task. Task ID %s with start time '%s' and end time '%s'"
-                  + " overlaps with an existing task in schedule",
+              "Time overlap detected for updated task. Task ID %s with start time '%s' and end time"
+                  + " '%s' overlaps with an existing task in schedule",
               newTask.getId(), newTask.getStartTime(), newTask.getEndTime()));
     }
 
@@ -94,7 +118,7 @@ public final class TreeSetScheduleIndex implements ScheduleIndex {
   }
 
   @Override
-  public void updateEpicAndSubtask(
+  public synchronized void updateEpicAndSubtask(
       SubTask oldSubtask, SubTask newSubtask, EpicTask oldEpicTask, EpicTask newEpicTask)
       throws ValidationException {
     Objects.requireNonNull(oldSubtask, "Old subtask cannot be null");
@@ -102,24 +126,20 @@ public final class TreeSetScheduleIndex implements ScheduleIndex {
     Objects.requireNonNull(oldEpicTask, "Old epic task cannot be null");
     Objects.requireNonNull(newEpicTask, "New epic task cannot be null");
 
-    NavigableSet<Task> tempTimeLine = new TreeSet<>(CMP);
-    tempTimeLine.addAll(this.timeLine);
-    tempTimeLine.remove(oldSubtask);
-    tempTimeLine.remove(oldEpicTask);
-
-    if (checkOverlapAgainstCollection(newSubtask, tempTimeLine)) {
+    if (checkOverlapExcluding(newSubtask, List.of(oldSubtask, oldEpicTask))) {
       throw new ValidationException(
           String.format(
-              "Time overlap detected for new subtask. Task ID %s with start time '%s' and end time '%s' overlaps.",
+              "Time overlap detected for new subtask. Task ID %s with start time '%s' and end time"
+                  + " '%s' overlaps.",
               newSubtask.getId(), newSubtask.getStartTime(), newSubtask.getEndTime()));
     }
 
-    tempTimeLine.add(newSubtask);
-
-    if (checkOverlapAgainstCollection(newEpicTask, tempTimeLine)) {
+    if (checkOverlapExcluding(newEpicTask, List.of(oldSubtask, oldEpicTask))
+        || hasConflict(newEpicTask, newSubtask)) {
       throw new ValidationException(
           String.format(
-              "Time overlap detected for new epic task. Task ID %s with start time '%s' and end time '%s' overlaps.",
+              "Time overlap detected for new epic task. Task ID %s with start time '%s' and end"
+                  + " time '%s' overlaps.",
               newEpicTask.getId(), newEpicTask.getStartTime(), newEpicTask.getEndTime()));
     }
 
@@ -129,36 +149,49 @@ public final class TreeSetScheduleIndex implements ScheduleIndex {
     timeLine.add(newEpicTask);
   }
 
-  private void ensureNoOverlap(Task newTask) throws ValidationException {
-    Objects.requireNonNull(newTask, "Task for overlap check cannot be null");
-    if (hasOverlap(newTask)) {
-      throw new ValidationException(
-          String.format(
-              "Time overlap detected. Task ID %s with start time '%s' and end time '%s'"
-                  + " overlaps with an existing task in schedule",
-              newTask.getId(), newTask.getStartTime(), newTask.getEndTime()));
+  @Override
+  public synchronized boolean remove(Task task) {
+    Objects.requireNonNull(task, "Task to remove cannot be null");
+    return timeLine.remove(task);
+  }
+
+  @Override
+  public synchronized boolean retire(Task task) {
+    Objects.requireNonNull(task, "Task to retire cannot be null");
+    if (!timeLine.remove(task)) {
+      return false;
     }
+    retired.add(task);
+    return true;
   }
 
   @Override
-  public void remove(Task task) {
-    Objects.requireNonNull(task, "Task to remove cannot be null");
-    timeLine.remove(task);
+  public synchronized void restore(Task task) {
+    Objects.requireNonNull(task, "Task to restore cannot be null");
+    if (retired.remove(task)) {
+      timeLine.add(task);
+    }
+  }
+
+  @Override
+  public synchronized void release(Task task) {
+    Objects.requireNonNull(task, "Task to release cannot be null");
+    retired.remove(task);
   }
 
   @Override
-  public boolean hasOverlap(Task task) {
+  public synchronized boolean hasOverlap(Task task) {
     Objects.requireNonNull(task, "Task for overlap check cannot be null");
     if (task.getStartTime() == null || task.getEndTime() == null) {
       return false;
     }
-    return this.timeLine.stream()
+    return blockingTasks()
         .filter(Objects::nonNull)
         .anyMatch(existingTask -> hasConflict(task, existingTask));
   }
 
   @Override
-  public List<Task> asOrderedList() {
+  public synchronized List<Task> asOrderedList() {
     return List.copyOf(timeLine);
   }
 }
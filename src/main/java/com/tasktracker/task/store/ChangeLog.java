@@ -0,0 +1,313 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.cvs.TaskCsvMapper;
+import com.tasktracker.task.exception.ManagerSaveException;
+import com.tasktracker.task.model.implementations.Task;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A durable, ordered log of the changes made to a task repository, which lets consumers stay in
+ * sync with the repository by tailing it from the last offset they processed instead of exporting
+ * every task.
+ *
+ * <p>Each change is a {@link ChangeRecord} with an offset one greater than the offset of the change
+ * before it. Records are appended to a file, one line per record, holding the offset, the operation
+ * and either the task in the format of {@link TaskCsvMapper} or the ID of the removed task. Offsets
+ * continue where the file left off when the log is opened again.
+ *
+ * <p>Every append is forced to the storage device before it returns. A torn last line, left by a
+ * crash in the middle of an append, is dropped when the log is opened again; a corrupt line before
+ * it fails the opening. The log is written by the process that owns the repository, which reads it
+ * from memory; another process, such as a reporting job, tails the same file with {@link
+ * #read(Path, long, int)}, which ignores a last line still being appended.
+ *
+ * <p>The log keeps at least the given number of newest records. Once twice as many have
+ * accumulated, the older half is discarded and the file is rewritten, so the cost of the retention
+ * is spread over many appends. A consumer that fell behind the retained range has to resynchronize
+ * from a full read of the repository.
+ */
+public final class ChangeLog {
+  private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+  private static final String DELIMITER = ",";
+
+  private final Path logFilePath;
+  private final int retention;
+  private final List<ChangeRecord> records = new ArrayList<>();
+  private long nextOffset;
+
+  /**
+   * Opens the log stored in the given file, creating the file if it does not exist.
+   *
+   * @param logFilePath the file holding the log
+   * @param retention the minimum number of newest records kept; must be positive
+   * @throws IllegalArgumentException if the retention is not positive
+   * @throws ManagerSaveException if the file can't be read or created
+   */
+  public ChangeLog(final Path logFilePath, final int retention) {
+    this.logFilePath = Objects.requireNonNull(logFilePath, "Log file path can't be null.");
+    if (retention < 1) {
+      throw new IllegalArgumentException("Retention must be positive.");
+    }
+    this.retention = retention;
+    load();
+  }
+
+  private void load() {
+    try {
+      final Path parent = logFilePath.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      if (Files.notExists(logFilePath)) {
+        Files.createFile(logFilePath);
+        return;
+      }
+      try (BufferedReader reader = Files.newBufferedReader(logFilePath, DEFAULT_CHARSET)) {
+        String tornLine = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) continue;
+          if (tornLine != null) {
+            throw new ManagerSaveException(
+                "Corrupt change log: " + logFilePath, new IllegalStateException(tornLine));
+          }
+          try {
+            records.add(parse(line));
+          } catch (RuntimeException e) {
+            tornLine = line;
+          }
+        }
+        if (tornLine != null) {
+          rewrite(records);
+        }
+      }
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to read change log: " + logFilePath, e);
+    }
+    if (!records.isEmpty()) {
+      nextOffset = records.getLast().offset() + 1;
+    }
+  }
+
+  private static ChangeRecord parse(final String line) {
+    final int offsetEnd = line.indexOf(DELIMITER);
+    final int operationEnd = line.indexOf(DELIMITER, offsetEnd + 1);
+    final long offset = Long.parseLong(line.substring(0, offsetEnd));
+    final ChangeRecord.Operation operation =
+        ChangeRecord.Operation.valueOf(line.substring(offsetEnd + 1, operationEnd));
+    final String payload = line.substring(operationEnd + 1);
+    return switch (operation) {
+      case UPSERT -> {
+        final Task task = TaskCsvMapper.fromCsv(payload);
+        yield new ChangeRecord(offset, operation, task.getId(), task);
+      }
+      case DELETE -> new ChangeRecord(offset, operation, UUID.fromString(payload), null);
+    };
+  }
+
+  private static String format(final ChangeRecord record) {
+    return record.offset()
+        + DELIMITER
+        + record.operation()
+        + DELIMITER
+        + (record.task() != null ? TaskCsvMapper.toCsv(record.task()) : record.taskId());
+  }
+
+  /**
+   * Appends the saves and removals of one repository operation and writes them to the file.
+   *
+   * @param savedTasks the tasks that were created or replaced
+   * @param removedIds the IDs of the tasks that were removed
+   * @throws ManagerSaveException if the records can't be written
+   */
+  public synchronized void append(
+      final Collection<? extends Task> savedTasks, final Collection<UUID> removedIds) {
+    Objects.requireNonNull(savedTasks, "Saved tasks can't be null.");
+    Objects.requireNonNull(removedIds, "Removed IDs can't be null.");
+    if (savedTasks.isEmpty() && removedIds.isEmpty()) return;
+    final List<ChangeRecord> appended = new ArrayList<>(savedTasks.size() + removedIds.size());
+    long offset = nextOffset;
+    for (Task task : savedTasks) {
+      appended.add(new ChangeRecord(offset++, ChangeRecord.Operation.UPSERT, task.getId(), task));
+    }
+    for (UUID id : removedIds) {
+      appended.add(new ChangeRecord(offset++, ChangeRecord.Operation.DELETE, id, null));
+    }
+    writeTo(logFilePath, appended, StandardOpenOption.APPEND);
+    records.addAll(appended);
+    nextOffset = offset;
+    if (records.size() >= 2 * retention) {
+      compact();
+    }
+  }
+
+  private void compact() {
+    final List<ChangeRecord> retained =
+        new ArrayList<>(records.subList(records.size() - retention, records.size()));
+    rewrite(retained);
+    records.clear();
+    records.addAll(retained);
+  }
+
+  /** Atomically replaces the file with one holding the given records. */
+  private void rewrite(final List<ChangeRecord> retained) {
+    final Path compactedFilePath = logFilePath.resolveSibling(logFilePath.getFileName() + ".tmp");
+    writeTo(compactedFilePath, retained, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      Files.move(
+          compactedFilePath,
+          logFilePath,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to compact change log: " + logFilePath, e);
+    }
+  }
+
+  /** Writes the records and forces them to the storage device. */
+  private static void writeTo(
+      final Path path, final List<ChangeRecord> records, final StandardOpenOption mode) {
+    final StringBuilder lines = new StringBuilder();
+    for (ChangeRecord record : records) {
+      lines.append(format(record)).append(System.lineSeparator());
+    }
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+      final var buffer = DEFAULT_CHARSET.encode(CharBuffer.wrap(lines));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to write change log: " + path, e);
+    }
+  }
+
+  /**
+   * Returns up to {@code maxRecords} records starting at the given offset, in offset order.
+   *
+   * @param fromOffset the offset of the first record to return, usually the offset following the
+   *     last record the consumer processed
+   * @param maxRecords the maximum number of records to return; must be positive
+   * @return the records, empty if no record at or after the offset has been written yet
+   * @throws IllegalArgumentException if the offset is negative or no longer retained, or the
+   *     maximum is not positive
+   */
+  public synchronized List<ChangeRecord> read(final long fromOffset, final int maxRecords) {
+    if (maxRecords < 1) {
+      throw new IllegalArgumentException("Max records must be positive.");
+    }
+    if (fromOffset < firstOffset()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Offset %d is no longer retained, the log starts at offset %d",
+              fromOffset, firstOffset()));
+    }
+    if (fromOffset >= nextOffset) return List.of();
+    final int from = (int) (fromOffset - firstOffset());
+    return List.copyOf(records.subList(from, Math.min(records.size(), from + maxRecords)));
+  }
+
+  /**
+   * Reads up to {@code maxRecords} records starting at the given offset from the file of a log
+   * written by another process. The file is read anew on every call; a last line that is still
+   * being appended is left for the next call.
+   *
+   * @param logFilePath the file holding the log
+   * @param fromOffset the offset of the first record to return
+   * @param maxRecords the maximum number of records to return; must be positive
+   * @return the records, empty if the file does not exist or holds no record at or after the offset
+   * @throws IllegalArgumentException if the offset is no longer retained or the maximum is not
+   *     positive
+   * @throws ManagerSaveException if the file can't be read or a line other than the last is corrupt
+   */
+  public static List<ChangeRecord> read(
+      final Path logFilePath, final long fromOffset, final int maxRecords) {
+    Objects.requireNonNull(logFilePath, "Log file path can't be null.");
+    if (maxRecords < 1) {
+      throw new IllegalArgumentException("Max records must be positive.");
+    }
+    final List<String> lines = new ArrayList<>();
+    boolean more = false;
+    try (BufferedReader reader = Files.newBufferedReader(logFilePath, DEFAULT_CHARSET)) {
+      long firstOffset = -1;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) continue;
+        if (lines.size() == maxRecords) {
+          more = true;
+          break;
+        }
+        final long offset = parseOffset(line);
+        if (firstOffset < 0 && offset > fromOffset) {
+          throw new IllegalArgumentException(
+              String.format(
+                  "Offset %d is no longer retained, the log starts at offset %d",
+                  fromOffset, offset));
+        }
+        firstOffset = Math.max(firstOffset, offset);
+        if (offset >= fromOffset) {
+          lines.add(line);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return List.of();
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to read change log: " + logFilePath, e);
+    }
+    final List<ChangeRecord> batch = new ArrayList<>(lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      try {
+        batch.add(parse(lines.get(i)));
+      } catch (RuntimeException e) {
+        // A last line that doesn't parse is still being appended; the next read picks it up.
+        if (i == lines.size() - 1 && !more) break;
+        throw new ManagerSaveException(
+            "Corrupt change log: " + logFilePath, new IllegalStateException(lines.get(i)));
+      }
+    }
+    return List.copyOf(batch);
+  }
+
+  private static long parseOffset(final String line) {
+    final int offsetEnd = line.indexOf(DELIMITER);
+    try {
+      return Long.parseLong(offsetEnd < 0 ? line : line.substring(0, offsetEnd));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the offset of the oldest retained record, or {@link #nextOffset()} if the log is empty.
+   *
+   * @return the first offset that can be read
+   */
+  public synchronized long firstOffset() {
+    return records.isEmpty() ? nextOffset : records.getFirst().offset();
+  }
+
+  /**
+   * Returns the offset the next appended record will get.
+   *
+   * @return the offset following the newest record
+   */
+  public synchronized long nextOffset() {
+    return nextOffset;
+  }
+}
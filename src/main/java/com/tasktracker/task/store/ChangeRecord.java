@@ -0,0 +1,35 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.model.implementations.Task;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An entry of a {@link ChangeLog}: a task that was saved or the ID of a task that was removed.
+ *
+ * @param offset the position of the entry in the log; offsets strictly increase
+ * @param operation what happened to the task
+ * @param taskId the ID of the task
+ * @param task the saved task, or {@code null} for a removal
+ */
+public record ChangeRecord(long offset, Operation operation, UUID taskId, Task task) {
+
+  public ChangeRecord {
+    Objects.requireNonNull(operation, "Operation can't be null.");
+    Objects.requireNonNull(taskId, "Task ID can't be null.");
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset can't be negative.");
+    }
+    if ((operation == Operation.UPSERT) != (task != null)) {
+      throw new IllegalArgumentException("Only upserts carry a task.");
+    }
+  }
+
+  /** The kinds of changes recorded in the log. */
+  public enum Operation {
+    /** A task was created or replaced. */
+    UPSERT,
+    /** A task was removed. */
+    DELETE
+  }
+}
@@ -0,0 +1,197 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.model.implementations.TaskView;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A small, bounded history store backed by primitive arrays, meant for keeping many short
+ * histories, such as one per user session, in little memory. A view takes 24 bytes: the two halves
+ * of the task ID and the view time as nanoseconds since the epoch, which covers the years up to
+ * 2262. Views are kept oldest first; putting a view shifts the newer views in place, so operations
+ * take time linear in the capacity, which is meant to be small. The store is not thread-safe.
+ */
+public final class CompactHistoryStore implements HistoryStore {
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final long[] mostSigBits;
+  private final long[] leastSigBits;
+  private final long[] viewTimes;
+  private int size;
+
+  /**
+   * Constructs a store holding at most the given number of views.
+   *
+   * @param capacity the maximum number of views; must be positive
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public CompactHistoryStore(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("History capacity must be positive.");
+    }
+    mostSigBits = new long[capacity];
+    leastSigBits = new long[capacity];
+    viewTimes = new long[capacity];
+  }
+
+  /**
+   * Adds a view as the newest one, replacing the view of the same task or, if the store is full,
+   * evicting the oldest view.
+   *
+   * @param taskView the task view to be added; must not be {@code null}
+   * @return an {@link Optional} containing the replaced view, or an empty {@link Optional}
+   */
+  @Override
+  public Optional<TaskView> put(final TaskView taskView) {
+    Objects.requireNonNull(taskView, "Task view can't be null.");
+    final int index = indexOf(taskView.getTaskId());
+    final Optional<TaskView> previous = index >= 0 ? Optional.of(viewAt(index)) : Optional.empty();
+    if (index >= 0) {
+      removeAt(index);
+    } else if (size == mostSigBits.length) {
+      removeAt(0);
+    }
+    mostSigBits[size] = taskView.getTaskId().getMostSignificantBits();
+    leastSigBits[size] = taskView.getTaskId().getLeastSignificantBits();
+    // A view older than the newest one, e.g. after the clock went back, takes the newest time, so
+    // the times stay sorted for the binary search.
+    final long viewTime = toNanos(taskView.getViewDateTime());
+    viewTimes[size] = size > 0 ? Math.max(viewTime, viewTimes[size - 1]) : viewTime;
+    size++;
+    return previous;
+  }
+
+  /**
+   * Returns the views, oldest first.
+   *
+   * @return an unmodifiable copy of the views
+   */
+  @Override
+  public Collection<TaskView> getAll() {
+    final List<TaskView> views = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      views.add(viewAt(i));
+    }
+    return Collections.unmodifiableList(views);
+  }
+
+  /**
+   * Returns the views made within the given time window, oldest first. Since the view times are
+   * sorted, the window is found by binary search.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window
+   */
+  @Override
+  public List<TaskView> getViewedBetween(final LocalDateTime from, final LocalDateTime to) {
+    Objects.requireNonNull(from, "Window start can't be null.");
+    Objects.requireNonNull(to, "Window end can't be null.");
+    final int start = firstIndexNotBefore(toSaturatedNanos(from));
+    final int end = firstIndexNotBefore(toSaturatedNanos(to));
+    final List<TaskView> views = new ArrayList<>(Math.max(0, end - start));
+    for (int i = start; i < end; i++) {
+      views.add(viewAt(i));
+    }
+    return Collections.unmodifiableList(views);
+  }
+
+  private int firstIndexNotBefore(final long nanos) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (viewTimes[middle] < nanos) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Removes the view of the given task.
+   *
+   * @param id the ID of the task
+   * @return an {@link Optional} containing the removed view, or an empty {@link Optional}
+   */
+  @Override
+  public Optional<TaskView> remove(final UUID id) {
+    Objects.requireNonNull(id, "Task ID can't be null.");
+    final int index = indexOf(id);
+    if (index < 0) return Optional.empty();
+    final TaskView removed = viewAt(index);
+    removeAt(index);
+    return Optional.of(removed);
+  }
+
+  /**
+   * Returns {@code true}, since views never expire.
+   *
+   * @return {@code true}
+   */
+  @Override
+  public boolean changesOnlyOnWrite() {
+    return true;
+  }
+
+  /**
+   * Returns the number of views in the store.
+   *
+   * @return the number of views
+   */
+  public int size() {
+    return size;
+  }
+
+  private int indexOf(final UUID id) {
+    final long most = id.getMostSignificantBits();
+    final long least = id.getLeastSignificantBits();
+    for (int i = size - 1; i >= 0; i--) {
+      if (mostSigBits[i] == most && leastSigBits[i] == least) return i;
+    }
+    return -1;
+  }
+
+  private void removeAt(final int index) {
+    final int moved = size - index - 1;
+    System.arraycopy(mostSigBits, index + 1, mostSigBits, index, moved);
+    System.arraycopy(leastSigBits, index + 1, leastSigBits, index, moved);
+    System.arraycopy(viewTimes, index + 1, viewTimes, index, moved);
+    size--;
+  }
+
+  private TaskView viewAt(final int index) {
+    return new TaskView(
+        new UUID(mostSigBits[index], leastSigBits[index]), toDateTime(viewTimes[index]));
+  }
+
+  private static long toNanos(final LocalDateTime dateTime) {
+    return Math.addExact(
+        Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND),
+        dateTime.getNano());
+  }
+
+  private static long toSaturatedNanos(final LocalDateTime dateTime) {
+    try {
+      return toNanos(dateTime);
+    } catch (ArithmeticException e) {
+      return dateTime.getYear() > 1970 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+  }
+
+  private static LocalDateTime toDateTime(final long nanos) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(nanos, NANOS_PER_SECOND),
+        (int) Math.floorMod(nanos, NANOS_PER_SECOND),
+        ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,221 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.collections.UuidLinkedHashMap;
+import com.tasktracker.task.model.implementations.TaskView;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe history store for many concurrent writers, built like the access-order policies of
+ * high-performance caches.
+ *
+ * <p>The latest view of every task lives in a {@link ConcurrentHashMap}, so {@link #put} and {@link
+ * #remove} never wait for each other. The recency order is kept separately in a linked hash map
+ * that only one thread updates at a time. Writers record what they did in one of several striped,
+ * lock-free buffers, chosen by thread, and once a buffer has filled up the writer tries to take the
+ * drain lock and replays all buffers into the order. A writer that finds the lock taken just moves
+ * on. {@link #getAll()} drains everything before copying the order, so it sees every write that
+ * completed before it.
+ *
+ * <p>Buffered records are checked against the map while draining: a write is only replayed if its
+ * view is still the current one and a removal only if the task is still absent, so records drained
+ * out of order never resurrect stale views. Views of different tasks written concurrently are
+ * ordered by the time they are drained rather than the time they were written; a view drained after
+ * a newer one is stamped with the newer view's time, so the order stays in view-time order.
+ *
+ * <p>The store can be bounded: views beyond the capacity are evicted from the head of the order
+ * while draining, so the store may briefly hold more views until the next drain.
+ */
+public final class ConcurrentHistoryStore implements HistoryStore {
+  private static final int STRIPES = 16;
+  private static final int DRAIN_THRESHOLD = 32;
+
+  private final ConcurrentHashMap<UUID, TaskView> views = new ConcurrentHashMap<>();
+  private final Buffer[] buffers = new Buffer[STRIPES];
+  private final ReentrantLock drainLock = new ReentrantLock();
+  private final UuidLinkedHashMap<TaskView> order = new UuidLinkedHashMap<>();
+  private final int capacity;
+  private final LongAdder evictionCount = new LongAdder();
+
+  /** Constructs an unbounded concurrent history store. */
+  public ConcurrentHistoryStore() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a concurrent history store holding about the given number of views.
+   *
+   * @param capacity the maximum number of views kept after a drain; must be positive
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ConcurrentHistoryStore(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("History capacity must be positive.");
+    }
+    this.capacity = capacity;
+    Arrays.setAll(buffers, i -> new Buffer());
+  }
+
+  /**
+   * Adds a new task view, replacing and moving to the end any view of the same task.
+   *
+   * @param taskView the task view to be added; must not be {@code null}
+   * @return an {@link Optional} containing the replaced view, or an empty {@link Optional}
+   */
+  @Override
+  public Optional<TaskView> put(final TaskView taskView) {
+    Objects.requireNonNull(taskView, "Task view can't be null.");
+    final TaskView previous = views.put(taskView.getTaskId(), taskView);
+    record(new Write(taskView));
+    return Optional.ofNullable(previous);
+  }
+
+  /**
+   * Returns the views of the history, oldest first, after replaying all buffered writes.
+   *
+   * @return an unmodifiable copy of the task views
+   */
+  @Override
+  public Collection<TaskView> getAll() {
+    drainLock.lock();
+    try {
+      drain();
+      return List.copyOf(order.values());
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the views made within the given time window, oldest first, after replaying all buffered
+   * writes. Draining keeps the order in view-time order, so it is walked from its newest end until
+   * the first older view.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window
+   */
+  @Override
+  public List<TaskView> getViewedBetween(final LocalDateTime from, final LocalDateTime to) {
+    Objects.requireNonNull(from, "Window start can't be null.");
+    Objects.requireNonNull(to, "Window end can't be null.");
+    drainLock.lock();
+    try {
+      drain();
+      return InMemoryHistoryStore.viewedBetween(order, from, to);
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
+  /**
+   * Removes the view of the given task.
+   *
+   * @param id the ID of the task
+   * @return an {@link Optional} containing the removed view, or an empty {@link Optional}
+   */
+  @Override
+  public Optional<TaskView> remove(final UUID id) {
+    Objects.requireNonNull(id, "Task ID can't be null.");
+    final TaskView removed = views.remove(id);
+    if (removed != null) {
+      record(new Removal(id));
+    }
+    return Optional.ofNullable(removed);
+  }
+
+  /**
+   * Returns {@code true}, since this store needs no external locking.
+   *
+   * @return {@code true}
+   */
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  /**
+   * Returns {@code true}, since buffered writes are drained before every read.
+   *
+   * @return {@code true}
+   */
+  @Override
+  public boolean changesOnlyOnWrite() {
+    return true;
+  }
+
+  /**
+   * Returns the number of views evicted because the store exceeded its capacity.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  private void record(final Operation operation) {
+    final Buffer buffer = buffers[(int) Thread.currentThread().threadId() & (STRIPES - 1)];
+    buffer.operations.add(operation);
+    if (buffer.size.incrementAndGet() >= DRAIN_THRESHOLD && drainLock.tryLock()) {
+      try {
+        drain();
+      } finally {
+        drainLock.unlock();
+      }
+    }
+  }
+
+  /** Replays all buffered operations into the order. The caller holds the drain lock. */
+  private void drain() {
+    for (Buffer buffer : buffers) {
+      Operation operation;
+      while ((operation = buffer.operations.poll()) != null) {
+        buffer.size.decrementAndGet();
+        switch (operation) {
+          case Write(TaskView view) -> {
+            final TaskView ordered = InMemoryHistoryStore.notBeforeNewest(order, view);
+            // Views compare equal by task ID, so the current view is matched by identity.
+            if (views.computeIfPresent(
+                    view.getTaskId(), (id, current) -> current == view ? ordered : current)
+                == ordered) {
+              order.put(view.getTaskId(), ordered);
+            }
+          }
+          case Removal(UUID id) -> {
+            if (!views.containsKey(id)) {
+              order.remove(id);
+            }
+          }
+        }
+      }
+    }
+    while (order.size() > capacity) {
+      final Map.Entry<UUID, TaskView> eldest = order.pollFirstEntry();
+      // A newer view of the task put since this one was drained stays, and its pending write puts
+      // the task back into the order; views compare equal by task ID, so match by identity.
+      views.computeIfPresent(
+          eldest.getKey(),
+          (id, current) -> {
+            if (current != eldest.getValue()) return current;
+            evictionCount.increment();
+            return null;
+          });
+    }
+  }
+
+  private sealed interface Operation {}
+
+  private record Write(TaskView view) implements Operation {}
+
+  private record Removal(UUID id) implements Operation {}
+
+  private static final class Buffer {
+    private final Queue<Operation> operations = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+  }
+}
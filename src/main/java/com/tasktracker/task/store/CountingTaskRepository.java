@@ -0,0 +1,182 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link TaskRepository} decorator counting the calls made to each repository method, which makes
+ * the repository traffic of the operations of a task manager measurable. Reads made through a
+ * {@link TaskRepositorySnapshot} are served by the snapshot and count as one {@code snapshot} call.
+ * Counting is thread-safe and adds no locking to the delegate.
+ */
+public final class CountingTaskRepository implements TaskRepository {
+  private final TaskRepository delegate;
+  private final Map<String, LongAdder> callCounts = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a counting decorator.
+   *
+   * @param delegate the repository performing the calls
+   */
+  public CountingTaskRepository(final TaskRepository delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "TaskRepository cannot be null.");
+  }
+
+  private void count(final String method) {
+    callCounts.computeIfAbsent(method, ignored -> new LongAdder()).increment();
+  }
+
+  /**
+   * Returns the number of calls made to the given repository method since the last reset.
+   *
+   * @param method the name of the method, e.g. {@code "getTaskById"}
+   * @return the number of calls
+   */
+  public long getCallCount(final String method) {
+    final LongAdder count = callCounts.get(method);
+    return count == null ? 0 : count.sum();
+  }
+
+  /**
+   * Returns the total number of repository calls made since the last reset.
+   *
+   * @return the number of calls across all methods
+   */
+  public long getTotalCallCount() {
+    return callCounts.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  /**
+   * Returns the call counts of all methods that were called since the last reset.
+   *
+   * @return the call counts by method name, sorted by name
+   */
+  public Map<String, Long> getCallCounts() {
+    final Map<String, Long> counts = new TreeMap<>();
+    callCounts.forEach((method, count) -> counts.put(method, count.sum()));
+    return counts;
+  }
+
+  /** Sets all call counts back to zero. */
+  public void resetCallCounts() {
+    callCounts.clear();
+  }
+
+  @Override
+  public void addTask(final Task task) {
+    count("addTask");
+    delegate.addTask(task);
+  }
+
+  @Override
+  public Task updateTask(final Task updatedTask) throws TaskNotFoundException {
+    count("updateTask");
+    return delegate.updateTask(updatedTask);
+  }
+
+  @Override
+  public Task updateTask(final Task updatedTask, final long expectedVersion)
+      throws TaskNotFoundException, VersionConflictException {
+    count("updateTask");
+    return delegate.updateTask(updatedTask, expectedVersion);
+  }
+
+  @Override
+  public void addTasks(final Collection<? extends Task> tasks) {
+    count("addTasks");
+    delegate.addTasks(tasks);
+  }
+
+  @Override
+  public List<Task> updateTasks(final Collection<? extends Task> updatedTasks)
+      throws TaskNotFoundException {
+    count("updateTasks");
+    return delegate.updateTasks(updatedTasks);
+  }
+
+  @Override
+  public Collection<Task> getAllTasks() {
+    count("getAllTasks");
+    return delegate.getAllTasks();
+  }
+
+  @Override
+  public TaskPage getAllTasks(final String cursor, final int pageSize) {
+    count("getAllTasks");
+    return delegate.getAllTasks(cursor, pageSize);
+  }
+
+  @Override
+  public Optional<Task> getTaskById(final UUID id) {
+    count("getTaskById");
+    return delegate.getTaskById(id);
+  }
+
+  @Override
+  public Optional<Task> removeTask(final UUID id) {
+    count("removeTask");
+    return delegate.removeTask(id);
+  }
+
+  @Override
+  public List<Task> removeTasks(final Collection<UUID> ids) {
+    count("removeTasks");
+    return delegate.removeTasks(ids);
+  }
+
+  @Override
+  public void applyChanges(
+      final Collection<? extends Task> tasksToSave, final Collection<UUID> idsToRemove) {
+    count("applyChanges");
+    delegate.applyChanges(tasksToSave, idsToRemove);
+  }
+
+  @Override
+  public Collection<Task> findTasksMatching(final Predicate<Task> taskPredicate) {
+    count("findTasksMatching");
+    return delegate.findTasksMatching(taskPredicate);
+  }
+
+  @Override
+  public TaskPage findTasksMatching(
+      final Predicate<Task> taskPredicate, final String cursor, final int pageSize) {
+    count("findTasksMatching");
+    return delegate.findTasksMatching(taskPredicate, cursor, pageSize);
+  }
+
+  @Override
+  public Stream<Task> streamTasks() {
+    count("streamTasks");
+    return delegate.streamTasks();
+  }
+
+  @Override
+  public boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
+    count("removeMatchingTasks");
+    return delegate.removeMatchingTasks(taskPredicate);
+  }
+
+  @Override
+  public void clearAllTasks() {
+    count("clearAllTasks");
+    delegate.clearAllTasks();
+  }
+
+  @Override
+  public TaskRepositorySnapshot snapshot() {
+    count("snapshot");
+    return delegate.snapshot();
+  }
+}
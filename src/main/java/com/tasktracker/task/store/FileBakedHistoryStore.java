@@ -0,0 +1,334 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.exception.ManagerSaveException;
+import com.tasktracker.task.model.implementations.TaskView;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A history store that survives restarts by logging every change to a file. The views are held in
+ * an {@link InMemoryHistoryStore}; each put or remove appends one line to the log, so the file is
+ * never rewritten on the hot path. A put is logged as {@code P,<task id>,<view time>} and a removal
+ * as {@code R,<task id>}. Appends are buffered; a background thread writes them out every {@value
+ * #FLUSH_INTERVAL_MILLIS} milliseconds, and they are also written when the buffer fills, on {@link
+ * #flush()} and on {@link #close()}, so a crash loses at most the views of the last interval, even
+ * when no view follows them. A failed background flush is passed to the thread's uncaught exception
+ * handler and retried on the next interval.
+ *
+ * <p>On startup the log is replayed line by line into the in-memory store, which rebuilds the order
+ * of the views in a single streaming pass. Capacity evictions and expirations are not logged: the
+ * replay reproduces them. A torn last line, left by a crash in the middle of an append, is dropped
+ * by compacting the log right away.
+ *
+ * <p>Since replaced and removed views stay in the log, the file is compacted once it holds more
+ * than twice as many lines as there are views, and at least {@value #MIN_COMPACTION_LINES}. The
+ * live views are written to a new file, which then atomically replaces the log, so the cost of
+ * compaction is spread over many appends. Like the in-memory store, this store is not thread-safe;
+ * only the log writer is shared with the background thread, under its own lock. It is opt-in rather
+ * than the default history: its owner must close it to stop the background thread and release the
+ * log file.
+ */
+public final class FileBakedHistoryStore implements HistoryStore, AutoCloseable {
+  private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+  private static final String DELIMITER = ",";
+  private static final String PUT = "P";
+  private static final String REMOVE = "R";
+  private static final int MIN_COMPACTION_LINES = 1_024;
+  private static final long FLUSH_INTERVAL_MILLIS = 1_000;
+
+  private final Path logFilePath;
+  private final InMemoryHistoryStore views;
+  private final ReentrantLock writerLock = new ReentrantLock();
+  private final Thread flusher;
+  private BufferedWriter writer;
+  private boolean unflushed;
+  private long logLines;
+  private volatile boolean closed;
+
+  /**
+   * Opens a bounded history stored in the given file, creating the file if it does not exist.
+   *
+   * @param logFilePath the file holding the log
+   * @param capacity the maximum number of views; must be positive
+   * @throws IllegalArgumentException if the capacity is not positive
+   * @throws ManagerSaveException if the file can't be read or created
+   */
+  public FileBakedHistoryStore(final Path logFilePath, final int capacity) {
+    this(logFilePath, capacity, null, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Opens a bounded history stored in the given file whose views expire after the given time.
+   *
+   * @param logFilePath the file holding the log
+   * @param capacity the maximum number of views; must be positive
+   * @param timeToLive how long a view is kept after it was made, or {@code null} to keep views
+   *     until they are evicted
+   * @param clock the clock the age of views is measured with
+   * @throws IllegalArgumentException if the capacity or the time to live is not positive
+   * @throws ManagerSaveException if the file can't be read, is corrupt or can't be created
+   */
+  public FileBakedHistoryStore(
+      final Path logFilePath, final int capacity, final Duration timeToLive, final Clock clock) {
+    this.logFilePath = Objects.requireNonNull(logFilePath, "Log file path can't be null.");
+    this.views = new InMemoryHistoryStore(capacity, timeToLive, clock);
+    final boolean torn = replay();
+    writer = openWriter(logFilePath, StandardOpenOption.APPEND);
+    if (torn) {
+      compact();
+    }
+    flusher = Thread.ofVirtual().name("history-log-flusher").start(this::flushPeriodically);
+  }
+
+  /** Replays the log and returns {@code true} if its last line was torn. */
+  private boolean replay() {
+    try {
+      final Path parent = logFilePath.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      if (Files.notExists(logFilePath)) return false;
+      try (BufferedReader reader = Files.newBufferedReader(logFilePath, DEFAULT_CHARSET)) {
+        String tornLine = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) continue;
+          if (tornLine != null) {
+            throw new ManagerSaveException(
+                "Corrupt history log: " + logFilePath, new IllegalStateException(tornLine));
+          }
+          try {
+            apply(line);
+            logLines++;
+          } catch (RuntimeException e) {
+            tornLine = line;
+          }
+        }
+        return tornLine != null;
+      }
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to read history log: " + logFilePath, e);
+    }
+  }
+
+  private void apply(final String line) {
+    final String[] fields = line.split(DELIMITER, -1);
+    switch (fields[0]) {
+      case PUT -> {
+        if (fields.length != 3) throw new IllegalArgumentException("Malformed put: " + line);
+        views.put(new TaskView(UUID.fromString(fields[1]), LocalDateTime.parse(fields[2])));
+      }
+      case REMOVE -> {
+        if (fields.length != 2) throw new IllegalArgumentException("Malformed removal: " + line);
+        views.remove(UUID.fromString(fields[1]));
+      }
+      default -> throw new IllegalArgumentException("Unknown history record: " + line);
+    }
+  }
+
+  private static BufferedWriter openWriter(final Path path, final StandardOpenOption mode) {
+    try {
+      return Files.newBufferedWriter(
+          path, DEFAULT_CHARSET, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to open history log: " + path, e);
+    }
+  }
+
+  /**
+   * Adds a view to the history and appends it to the log.
+   *
+   * @param taskView the task view to be added; must not be {@code null}
+   * @return an {@link Optional} containing the replaced view, or an empty {@link Optional}
+   * @throws ManagerSaveException if the view can't be logged
+   */
+  @Override
+  public Optional<TaskView> put(final TaskView taskView) {
+    Objects.requireNonNull(taskView, "Task view can't be null.");
+    final Optional<TaskView> previous = views.put(taskView);
+    append(PUT + DELIMITER + taskView.getTaskId() + DELIMITER + taskView.getViewDateTime());
+    return previous;
+  }
+
+  /**
+   * Retrieves the views that have not expired.
+   *
+   * @return an unmodifiable collection of the views, oldest first
+   */
+  @Override
+  public Collection<TaskView> getAll() {
+    return views.getAll();
+  }
+
+  /**
+   * Retrieves the views made within the given time window, walking the in-memory order from its
+   * newest end.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window, oldest first
+   */
+  @Override
+  public List<TaskView> getViewedBetween(final LocalDateTime from, final LocalDateTime to) {
+    return views.getViewedBetween(from, to);
+  }
+
+  /**
+   * Removes the view of the given task and logs the removal if there was one.
+   *
+   * @param id the ID of the task
+   * @return an {@link Optional} containing the removed view, or an empty {@link Optional}
+   * @throws ManagerSaveException if the removal can't be logged
+   */
+  @Override
+  public Optional<TaskView> remove(final UUID id) {
+    final Optional<TaskView> removed = views.remove(id);
+    if (removed.isPresent()) {
+      append(REMOVE + DELIMITER + id);
+    }
+    return removed;
+  }
+
+  /**
+   * Returns {@code true} unless views expire.
+   *
+   * @return {@code true} if the store has no time to live
+   */
+  @Override
+  public boolean changesOnlyOnWrite() {
+    return views.changesOnlyOnWrite();
+  }
+
+  private void append(final String line) {
+    writerLock.lock();
+    try {
+      writer.write(line);
+      writer.newLine();
+      unflushed = true;
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to write history log: " + logFilePath, e);
+    } finally {
+      writerLock.unlock();
+    }
+    logLines++;
+    if (logLines >= MIN_COMPACTION_LINES && logLines > 2L * views.size()) {
+      compact();
+    }
+  }
+
+  /**
+   * Writes the buffered log lines to the file.
+   *
+   * @throws ManagerSaveException if the lines can't be written
+   */
+  public void flush() {
+    writerLock.lock();
+    try {
+      if (!unflushed) return;
+      writer.flush();
+      unflushed = false;
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to write history log: " + logFilePath, e);
+    } finally {
+      writerLock.unlock();
+    }
+  }
+
+  private void flushPeriodically() {
+    while (!closed) {
+      LockSupport.parkNanos(this, FLUSH_INTERVAL_MILLIS * 1_000_000);
+      if (closed) return;
+      try {
+        flush();
+      } catch (RuntimeException e) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      }
+    }
+  }
+
+  /**
+   * Rewrites the log so that it holds one line per live view.
+   *
+   * @throws ManagerSaveException if the log can't be rewritten
+   */
+  public void compact() {
+    final Collection<TaskView> live = views.getAll();
+    final Path compactedFilePath = logFilePath.resolveSibling(logFilePath.getFileName() + ".tmp");
+    try (BufferedWriter compacted =
+        openWriter(compactedFilePath, StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (TaskView view : live) {
+        compacted.write(PUT + DELIMITER + view.getTaskId() + DELIMITER + view.getViewDateTime());
+        compacted.newLine();
+      }
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to compact history log: " + logFilePath, e);
+    }
+    writerLock.lock();
+    try {
+      writer.close();
+      Files.move(
+          compactedFilePath,
+          logFilePath,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to compact history log: " + logFilePath, e);
+    } finally {
+      writer = openWriter(logFilePath, StandardOpenOption.APPEND);
+      unflushed = false;
+      writerLock.unlock();
+    }
+    logLines = live.size();
+  }
+
+  /**
+   * Returns the number of lines in the log, which compaction brings down to the number of views.
+   *
+   * @return the number of logged changes
+   */
+  public long getLogLineCount() {
+    return logLines;
+  }
+
+  /**
+   * Stops the background thread, writes the buffered log lines and closes the log file.
+   *
+   * @throws ManagerSaveException if the log can't be closed
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(flusher);
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    writerLock.lock();
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new ManagerSaveException("Failed to close history log: " + logFilePath, e);
+    } finally {
+      writerLock.unlock();
+    }
+  }
+}
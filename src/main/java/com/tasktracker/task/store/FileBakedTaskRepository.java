@@ -16,15 +16,59 @@ import java.util.stream.Collectors;
 
 public final class FileBakedTaskRepository extends InMemoryTaskRepository
     implements TaskRepository {
+  public static final String CHANGE_LOG_FILE_NAME = "task_changes.log";
   private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
   private final Path dataFilePath;
+  private final ChangeLog changeLog;
 
   public FileBakedTaskRepository(Path dataFilePath) {
     this.dataFilePath = Objects.requireNonNull(dataFilePath, "Data file path can't be null.");
+    this.changeLog = null;
     ensureDataFileExists();
     loadFromFileToMemory();
   }
 
+  /**
+   * Constructs a repository that also records every change in a {@link ChangeLog}, stored as
+   * {@value #CHANGE_LOG_FILE_NAME} next to the data file.
+   *
+   * @param dataFilePath the CSV file holding the tasks
+   * @param changeLogRetention the minimum number of newest changes the log keeps
+   * @throws IllegalArgumentException if the retention is not positive
+   */
+  public FileBakedTaskRepository(Path dataFilePath, int changeLogRetention) {
+    this.dataFilePath = Objects.requireNonNull(dataFilePath, "Data file path can't be null.");
+    ensureDataFileExists();
+    loadFromFileToMemory();
+    this.changeLog =
+        new ChangeLog(dataFilePath.resolveSibling(CHANGE_LOG_FILE_NAME), changeLogRetention);
+  }
+
+  /**
+   * Returns the log of the changes made to this repository, if it records one.
+   *
+   * @return the change log, or an empty Optional if the repository was built without one
+   */
+  public Optional<ChangeLog> getChangeLog() {
+    return Optional.ofNullable(changeLog);
+  }
+
+  /**
+   * Appends the changes to the log, if there is one. Called before the data file is rewritten, so
+   * every change that reaches the data file has an offset; if the rewrite then fails, consumers may
+   * see a change the data file lacks.
+   */
+  private void recordChanges(
+      final Collection<? extends Task> savedTasks, final Collection<UUID> removedIds) {
+    if (changeLog != null) {
+      changeLog.append(savedTasks, removedIds);
+    }
+  }
+
+  private static List<UUID> idsOf(final Collection<Task> tasks) {
+    return tasks.stream().map(Task::getId).toList();
+  }
+
   private void ensureDataFileExists() throws ManagerSaveException {
     Objects.requireNonNull(dataFilePath, "Data file path can't be null");
     final Path parent = dataFilePath.getParent();
@@ -73,7 +117,7 @@ public final class FileBakedTaskRepository extends InMemoryTaskRepository
       throw new ManagerSaveException("Failed to read tasks from file: " + dataFilePath, e);
     }
 
-    if (lines.isEmpty() || !lines.get(0).trim().equals(TaskCsvMapper.CSV_HEADER.trim())) {
+    if (lines.isEmpty() || !TaskCsvMapper.isHeader(lines.get(0))) {
       if (!lines.isEmpty()) {
         System.err.println(
             "Warning: CSV file "
@@ -126,14 +170,32 @@ public final class FileBakedTaskRepository extends InMemoryTaskRepository
   }
 
   @Override
-  public void addTask(final Task task) {
+  public synchronized void addTask(final Task task) {
     super.addTask(task);
+    recordChanges(List.of(task), List.of());
     save();
   }
 
   @Override
-  public Task updateTask(final Task updatedTask) throws TaskNotFoundException {
+  public synchronized Task updateTask(final Task updatedTask) throws TaskNotFoundException {
     final var result = super.updateTask(updatedTask);
+    recordChanges(List.of(updatedTask), List.of());
+    save();
+    return result;
+  }
+
+  @Override
+  public synchronized void addTasks(final Collection<? extends Task> tasks) {
+    super.addTasks(tasks);
+    recordChanges(tasks, List.of());
+    save();
+  }
+
+  @Override
+  public synchronized List<Task> updateTasks(final Collection<? extends Task> updatedTasks)
+      throws TaskNotFoundException {
+    final var result = super.updateTasks(updatedTasks);
+    recordChanges(updatedTasks, List.of());
     save();
     return result;
   }
@@ -154,26 +216,60 @@ public final class FileBakedTaskRepository extends InMemoryTaskRepository
   }
 
   @Override
-  public Optional<Task> removeTask(final UUID id) {
+  public synchronized Optional<Task> removeTask(final UUID id) {
     final var result = super.removeTask(id);
     if (result.isPresent()) {
+      recordChanges(List.of(), List.of(id));
+      save();
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized List<Task> removeTasks(final Collection<UUID> ids) {
+    final var result = super.removeTasks(ids);
+    if (!result.isEmpty()) {
+      recordChanges(List.of(), idsOf(result));
       save();
     }
     return result;
   }
 
   @Override
-  public boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
+  public synchronized void applyChanges(
+      final Collection<? extends Task> tasksToSave, final Collection<UUID> idsToRemove) {
+    final TaskRepositorySnapshot before = snapshot();
+    super.applyChanges(tasksToSave, idsToRemove);
+    if (snapshot().getVersion() != before.getVersion()) {
+      recordChanges(
+          tasksToSave,
+          idsToRemove.stream().filter(id -> before.getTaskById(id).isPresent()).toList());
+      save();
+    }
+  }
+
+  @Override
+  public synchronized boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
+    final TaskRepositorySnapshot before = snapshot();
     final var result = super.removeMatchingTasks(taskPredicate);
     if (result) {
+      final TaskRepositorySnapshot after = snapshot();
+      recordChanges(
+          List.of(),
+          before.getAllTasks().stream()
+              .map(Task::getId)
+              .filter(id -> after.getTaskById(id).isEmpty())
+              .toList());
       save();
     }
     return result;
   }
 
   @Override
-  public void clearAllTasks() {
+  public synchronized void clearAllTasks() {
+    final TaskRepositorySnapshot before = snapshot();
     super.clearAllTasks();
+    recordChanges(List.of(), idsOf(before.getAllTasks()));
     save();
   }
 }
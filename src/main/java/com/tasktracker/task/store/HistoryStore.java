@@ -1,7 +1,10 @@
 package com.tasktracker.task.store;
 
 import com.tasktracker.task.model.implementations.TaskView;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,5 +31,46 @@ public interface HistoryStore {
    */
   Collection<TaskView> getAll();
 
+  /**
+   * Retrieves the task views made within the given time window, oldest first. Stores keeping their
+   * views in the order they were put answer this from the newest end without reading older views.
+   * They rely on view times never decreasing along that order, so they stamp a view put with an
+   * earlier time than the newest one, e.g. after a clock step or the end of daylight saving time,
+   * with the newest time instead. This default filters all views.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window, empty if {@code from} is not
+   *     before {@code to}
+   */
+  default List<TaskView> getViewedBetween(final LocalDateTime from, final LocalDateTime to) {
+    Objects.requireNonNull(from, "Window start can't be null.");
+    Objects.requireNonNull(to, "Window end can't be null.");
+    return getAll().stream()
+        .filter(view -> !view.getViewDateTime().isBefore(from))
+        .filter(view -> view.getViewDateTime().isBefore(to))
+        .toList();
+  }
+
   Optional<TaskView> remove(UUID id);
+
+  /**
+   * Tells whether the store may be used by several threads at once without external locking.
+   *
+   * @return {@code true} if the store is thread-safe
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
+
+  /**
+   * Tells whether the contents of the store only change through {@link #put} and {@link #remove},
+   * so that results derived from them stay valid until the next write. Stores that expire views on
+   * their own return {@code false}.
+   *
+   * @return {@code true} if only writes change the store
+   */
+  default boolean changesOnlyOnWrite() {
+    return false;
+  }
 }
@@ -1,21 +1,74 @@
 package com.tasktracker.task.store;
 
-import com.tasktracker.collections.CustomLinkedHashMap;
+import com.tasktracker.collections.UuidLinkedHashMap;
 import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.CachedClock;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
- * A repository implementation for managing task history in memory using a TreeSet. The tasks are
- * stored in a navigable, ordered collection to maintain a defined order.
+ * A repository implementation for managing task history in memory. Task views are kept in a {@link
+ * UuidLinkedHashMap} in the order they were last put, oldest first.
+ *
+ * <p>The history can be bounded: once it holds {@code capacity} views, putting a view of another
+ * task evicts the oldest view in constant time. Views can also expire a fixed time after they were
+ * made; since the oldest views come first, expired views are removed from the head of the map
+ * before every put and read. Evictions and expirations are counted separately. To keep the map in
+ * view-time order when the clock goes back, a view older than the newest one is stored with the
+ * newest view's time.
  */
 public class InMemoryHistoryStore implements HistoryStore {
   private static final int INITIAL_CAPACITY = 16;
   private static final float LOAD_FACTOR = 0.75f;
-  private final CustomLinkedHashMap<UUID, TaskView> store = new CustomLinkedHashMap<>();
+  private final UuidLinkedHashMap<TaskView> store = new UuidLinkedHashMap<>();
+  private final int capacity;
+  private final Duration timeToLive;
+  private final Clock clock;
+  private long evictionCount;
+  private long expirationCount;
+
+  /** Constructs an unbounded history store whose views never expire. */
+  public InMemoryHistoryStore() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Constructs a history store holding at most the given number of views, which never expire.
+   *
+   * @param capacity the maximum number of views; must be positive
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public InMemoryHistoryStore(final int capacity) {
+    this(capacity, null, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs a bounded history store whose views expire after the given time.
+   *
+   * @param capacity the maximum number of views; must be positive
+   * @param timeToLive how long a view is kept after it was made, or {@code null} to keep views
+   *     until they are evicted
+   * @param clock the clock the age of views is measured with, such as a {@link CachedClock} on hot
+   *     paths
+   * @throws IllegalArgumentException if the capacity or the time to live is not positive
+   */
+  public InMemoryHistoryStore(final int capacity, final Duration timeToLive, final Clock clock) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("History capacity must be positive.");
+    }
+    if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+      throw new IllegalArgumentException("History time to live must be positive.");
+    }
+    this.capacity = capacity;
+    this.timeToLive = timeToLive;
+    this.clock = Objects.requireNonNull(clock, "Clock can't be null.");
+  }
 
   /**
    * Adds a new task view to the history repository, replacing any existing task view with the same
-   * ID.
+   * ID. If the history is full, the oldest view is evicted.
    *
    * @param taskView the task view to be added to the repository
    * @return an {@link Optional} containing the previous {@link TaskView} if one was replaced, or an
@@ -23,20 +76,76 @@ public class InMemoryHistoryStore implements HistoryStore {
    */
   @Override
   public Optional<TaskView> put(final TaskView taskView) {
-    return Optional.ofNullable(store.put(taskView.getTaskId(), taskView));
+    expire();
+    if (store.size() >= capacity && !store.containsKey(taskView.getTaskId())) {
+      store.pollFirstEntry();
+      evictionCount++;
+    }
+    return Optional.ofNullable(store.put(taskView.getTaskId(), notBeforeNewest(store, taskView)));
+  }
+
+  /**
+   * Returns the given view, or a copy stamped with the time of the newest view of the map if the
+   * given view is older, so that putting it keeps the map in view-time order.
+   *
+   * @param views the views in the order they were put
+   * @param view the view about to be put
+   * @return a view whose time is not before the newest view of the map
+   */
+  static TaskView notBeforeNewest(final SequencedMap<UUID, TaskView> views, final TaskView view) {
+    final Map.Entry<UUID, TaskView> newest = views.lastEntry();
+    if (newest == null) return view;
+    final LocalDateTime newestTime = newest.getValue().getViewDateTime();
+    if (!view.getViewDateTime().isBefore(newestTime)) return view;
+    return new TaskView(view.getTaskId(), newestTime);
   }
 
   /**
-   * Retrieves all task views stored in the history repository as a collection of map entries. Each
-   * entry consists of the task ID as the key and its corresponding {@link TaskView} as the value.
+   * Retrieves all task views stored in the history repository that have not expired.
    *
-   * @return an unmodifiable collection of map entries containing all task views in the repository
+   * @return an unmodifiable collection of all task views in the repository, oldest first
    */
   @Override
   public Collection<TaskView> getAll() {
+    expire();
     return Collections.unmodifiableCollection(store.values());
   }
 
+  /**
+   * Retrieves the views made within the given time window that have not expired. Puts keep the map
+   * in view-time order, so it is walked from its newest end and the walk stops at the first view
+   * older than the window; only views newer than {@code from} are read.
+   *
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window, oldest first
+   */
+  @Override
+  public List<TaskView> getViewedBetween(final LocalDateTime from, final LocalDateTime to) {
+    Objects.requireNonNull(from, "Window start can't be null.");
+    Objects.requireNonNull(to, "Window end can't be null.");
+    expire();
+    return viewedBetween(store, from, to);
+  }
+
+  /**
+   * Collects the views of an ordered map that fall into a window, walking from the newest end.
+   *
+   * @param views the views in the order they were put
+   * @param from the start of the window, inclusive
+   * @param to the end of the window, exclusive
+   * @return an unmodifiable list of the views within the window, oldest first
+   */
+  static List<TaskView> viewedBetween(
+      final SequencedMap<UUID, TaskView> views, final LocalDateTime from, final LocalDateTime to) {
+    final Deque<TaskView> window = new ArrayDeque<>();
+    for (TaskView view : views.reversed().values()) {
+      if (view.getViewDateTime().isBefore(from)) break;
+      if (view.getViewDateTime().isBefore(to)) window.addFirst(view);
+    }
+    return List.copyOf(window);
+  }
+
   /**
    * Removes a task view from the history repository by its ID, if it exists.
    *
@@ -48,4 +157,52 @@ public class InMemoryHistoryStore implements HistoryStore {
   public Optional<TaskView> remove(UUID id) {
     return Optional.ofNullable(store.remove(id));
   }
+
+  /**
+   * Returns {@code true} unless views expire.
+   *
+   * @return {@code true} if the store has no time to live
+   */
+  @Override
+  public boolean changesOnlyOnWrite() {
+    return timeToLive == null;
+  }
+
+  private void expire() {
+    if (timeToLive == null) return;
+    final LocalDateTime threshold = CachedClock.now(clock).minus(timeToLive);
+    while (!store.isEmpty()
+        && store.firstEntry().getValue().getViewDateTime().isBefore(threshold)) {
+      store.pollFirstEntry();
+      expirationCount++;
+    }
+  }
+
+  /**
+   * Returns the number of views held, including expired views not yet removed. Unlike {@link
+   * #getAll()}, this neither expires views nor allocates.
+   *
+   * @return the number of views in the store
+   */
+  public int size() {
+    return store.size();
+  }
+
+  /**
+   * Returns the number of views evicted because the history was full.
+   *
+   * @return the number of evictions
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of views removed because they expired.
+   *
+   * @return the number of expirations
+   */
+  public long getExpirationCount() {
+    return expirationCount;
+  }
 }
@@ -1,18 +1,22 @@
 package com.tasktracker.task.store;
 
+import com.tasktracker.collections.PersistentTreeMap;
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A repository for managing {@link Task} objects, providing operations for adding, updating,
- * retrieving, and removing tasks. Tasks are identified by unique UUIDs and stored in an internal
- * map.
+ * retrieving, and removing tasks. Tasks are identified by unique UUIDs and stored in a persistent
+ * (immutable, structurally shared) map, so that every state of the repository can be handed out as
+ * a {@link TaskRepositorySnapshot} in constant time. Mutations are serialized, reads never block.
  */
 public class InMemoryTaskRepository implements TaskRepository {
   public static final String TASK_CAN_T_BE_NULL = "Task can't be null";
-  private final NavigableMap<UUID, Task> store = new TreeMap<>();
+  private volatile Snapshot current = new Snapshot(0, PersistentTreeMap.empty());
 
   /**
    * Adds a new task to the repository. The task must have a unique ID that isn't already present in
@@ -23,13 +27,14 @@ public class InMemoryTaskRepository implements TaskRepository {
    * @throws IllegalArgumentException if a task with the same ID already exists in the repository
    */
   @Override
-  public void addTask(final Task task) {
+  public synchronized void addTask(final Task task) {
     Objects.requireNonNull(task, TASK_CAN_T_BE_NULL);
+    final PersistentTreeMap<UUID, Task> store = current.store();
     if (store.containsKey(task.getId())) {
       throw new IllegalArgumentException(
           String.format("Task with id %s already exists in store", task.getId()));
     }
-    store.put(task.getId(), task);
+    publish(store.plus(task.getId(), task));
   }
 
   /**
@@ -41,22 +46,131 @@ public class InMemoryTaskRepository implements TaskRepository {
    * @throws TaskNotFoundException if no task exists with the ID of the updated task
    * @throws NullPointerException if the updated task is null
    */
-  public Task updateTask(Task updatedTask) throws TaskNotFoundException {
+  public synchronized Task updateTask(Task updatedTask) throws TaskNotFoundException {
     Objects.requireNonNull(updatedTask, "Updated task can't be null");
     final UUID id = updatedTask.getId();
-    if (store.get(id) == null) {
+    final PersistentTreeMap<UUID, Task> store = current.store();
+    final Task previousTask = store.get(id);
+    if (previousTask == null) {
       throw new TaskNotFoundException("Task with ID " + id + " not found for update.");
     }
-    return store.put(id, updatedTask);
+    publish(store.plus(id, updatedTask));
+    return previousTask;
   }
 
   /**
-   * Retrieves all tasks stored in the repository.
+   * Updates an existing task only if the stored task still has the expected version. The update
+   * itself goes through {@link #updateTask(Task)}, so subclasses that persist updates there, like
+   * {@link FileBakedTaskRepository}, persist it once without overriding this method.
    *
-   * @return an unmodifiable Collection containing all tasks
+   * @param updatedTask the task containing the updated data; its version must be greater than the
+   *     expected one
+   * @param expectedVersion the version the caller read and based its change on
+   * @return the previous version of the task that was updated
+   * @throws TaskNotFoundException if no task exists with the ID of the updated task
+   * @throws VersionConflictException if the stored task has a different version
+   * @throws IllegalArgumentException if the version of the updated task is not greater than the
+   *     expected version
+   * @throws NullPointerException if the updated task is null
+   */
+  @Override
+  public synchronized Task updateTask(final Task updatedTask, final long expectedVersion)
+      throws TaskNotFoundException, VersionConflictException {
+    checkVersionIncrement(updatedTask, expectedVersion);
+    final Task previousTask = current.store().get(updatedTask.getId());
+    if (previousTask != null && previousTask.getVersion() != expectedVersion) {
+      throw new VersionConflictException(
+          updatedTask.getId(), expectedVersion, previousTask.getVersion());
+    }
+    return updateTask(updatedTask);
+  }
+
+  static void checkVersionIncrement(final Task updatedTask, final long expectedVersion) {
+    Objects.requireNonNull(updatedTask, "Updated task can't be null");
+    if (updatedTask.getVersion() <= expectedVersion) {
+      throw new IllegalArgumentException(
+          "The version of the updated task must be greater than " + expectedVersion + ".");
+    }
+  }
+
+  /**
+   * Adds all given tasks to the repository as a single atomic operation. The tasks become visible
+   * to readers at once, in a single new snapshot.
+   *
+   * @param tasks the tasks to add to the repository
+   * @throws NullPointerException if the collection or any of its tasks is null
+   * @throws IllegalArgumentException if a task ID already exists in the repository or occurs more
+   *     than once in the collection
+   */
+  @Override
+  public synchronized void addTasks(final Collection<? extends Task> tasks) {
+    Objects.requireNonNull(tasks, "Tasks can't be null");
+    PersistentTreeMap<UUID, Task> store = current.store();
+    for (Task task : tasks) {
+      Objects.requireNonNull(task, TASK_CAN_T_BE_NULL);
+      if (store.containsKey(task.getId())) {
+        throw new IllegalArgumentException(
+            String.format("Task with id %s already exists in store", task.getId()));
+      }
+      store = store.plus(task.getId(), task);
+    }
+    if (store != current.store()) {
+      publish(store);
+    }
+  }
+
+  /**
+   * Replaces all given tasks in the repository as a single atomic operation.
+   *
+   * @param updatedTasks the tasks containing the updated data
+   * @return the previous versions of the updated tasks, in the order of the given collection
+   * @throws TaskNotFoundException if no task exists with the ID of one of the updated tasks
+   * @throws NullPointerException if the collection or any of its tasks is null
+   */
+  @Override
+  public synchronized List<Task> updateTasks(final Collection<? extends Task> updatedTasks)
+      throws TaskNotFoundException {
+    Objects.requireNonNull(updatedTasks, "Updated tasks can't be null");
+    PersistentTreeMap<UUID, Task> store = current.store();
+    final List<Task> previousTasks = new ArrayList<>(updatedTasks.size());
+    for (Task updatedTask : updatedTasks) {
+      Objects.requireNonNull(updatedTask, "Updated task can't be null");
+      final Task previousTask = store.get(updatedTask.getId());
+      if (previousTask == null) {
+        throw new TaskNotFoundException(
+            "Task with ID " + updatedTask.getId() + " not found for update.");
+      }
+      previousTasks.add(previousTask);
+      store = store.plus(updatedTask.getId(), updatedTask);
+    }
+    if (store != current.store()) {
+      publish(store);
+    }
+    return previousTasks;
+  }
+
+  /**
+   * Retrieves all tasks stored in the repository. The returned list is a view of the current
+   * snapshot and is obtained without copying.
+   *
+   * @return an unmodifiable list containing all tasks
    */
   public List<Task> getAllTasks() {
-    return List.copyOf(store.values());
+    return current.getAllTasks();
+  }
+
+  /**
+   * Retrieves one page of tasks ordered by task ID. The cursor is resolved in {@code O(log n)}, so
+   * a page costs {@code O(log n + pageSize)} regardless of its position.
+   *
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   */
+  @Override
+  public TaskPage getAllTasks(final String cursor, final int pageSize) {
+    return findTasksMatching(task -> true, cursor, pageSize);
   }
 
   /**
@@ -66,7 +180,7 @@ public class InMemoryTaskRepository implements TaskRepository {
    * @return an Optional containing the task if it exists, or an empty Optional if it does not
    */
   public Optional<Task> getTaskById(final UUID id) {
-    return Optional.ofNullable(store.get(id));
+    return current.getTaskById(id);
   }
 
   /**
@@ -77,8 +191,64 @@ public class InMemoryTaskRepository implements TaskRepository {
    *     the given ID
    * @throws NullPointerException if id is null
    */
-  public Optional<Task> removeTask(final UUID id) {
-    return Optional.ofNullable(store.remove(id));
+  public synchronized Optional<Task> removeTask(final UUID id) {
+    final PersistentTreeMap<UUID, Task> store = current.store();
+    final Task removedTask = store.get(id);
+    if (removedTask != null) {
+      publish(store.minus(id));
+    }
+    return Optional.ofNullable(removedTask);
+  }
+
+  /**
+   * Removes all tasks with the given IDs as a single atomic operation. IDs without a task are
+   * ignored.
+   *
+   * @param ids the UUIDs of the tasks to remove
+   * @return the removed tasks
+   * @throws NullPointerException if the collection or any of its IDs is null
+   */
+  @Override
+  public synchronized List<Task> removeTasks(final Collection<UUID> ids) {
+    Objects.requireNonNull(ids, "Task IDs can't be null");
+    PersistentTreeMap<UUID, Task> store = current.store();
+    final List<Task> removedTasks = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      final Task removedTask = store.get(id);
+      if (removedTask != null) {
+        removedTasks.add(removedTask);
+        store = store.minus(id);
+      }
+    }
+    if (!removedTasks.isEmpty()) {
+      publish(store);
+    }
+    return removedTasks;
+  }
+
+  /**
+   * Saves and removes tasks as a single atomic operation, publishing a single new snapshot.
+   *
+   * @param tasksToSave the tasks to add or replace
+   * @param idsToRemove the UUIDs of the tasks to remove
+   * @throws NullPointerException if a collection, any of its tasks or any of its IDs is null
+   */
+  @Override
+  public synchronized void applyChanges(
+      final Collection<? extends Task> tasksToSave, final Collection<UUID> idsToRemove) {
+    Objects.requireNonNull(tasksToSave, "Tasks can't be null");
+    Objects.requireNonNull(idsToRemove, "Task IDs can't be null");
+    PersistentTreeMap<UUID, Task> store = current.store();
+    for (Task task : tasksToSave) {
+      Objects.requireNonNull(task, TASK_CAN_T_BE_NULL);
+      store = store.plus(task.getId(), task);
+    }
+    for (UUID id : idsToRemove) {
+      store = store.minus(id);
+    }
+    if (store != current.store()) {
+      publish(store);
+    }
   }
 
   /**
@@ -91,7 +261,52 @@ public class InMemoryTaskRepository implements TaskRepository {
    */
   public Collection<Task> findTasksMatching(final Predicate<Task> taskPredicate) {
     Objects.requireNonNull(taskPredicate);
-    return store.values().stream().filter(taskPredicate).toList();
+    return streamTasks().filter(taskPredicate).toList();
+  }
+
+  /**
+   * Returns a lazily evaluated stream over the tasks of the current snapshot, ordered by task ID.
+   * The stream is not affected by mutations performed while it is being consumed.
+   *
+   * @return a stream of all tasks in the repository
+   */
+  @Override
+  public Stream<Task> streamTasks() {
+    return current.getAllTasks().stream();
+  }
+
+  /**
+   * Finds one page of tasks that match the given predicate, ordered by task ID. Scanning starts
+   * right after the cursor and stops as soon as the page is full. A cursor is returned whenever
+   * unscanned tasks remain, so the following page may turn out to be empty.
+   *
+   * @param taskPredicate the predicate to filter tasks
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page of matching tasks
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   * @throws NullPointerException if the taskPredicate is null
+   */
+  @Override
+  public TaskPage findTasksMatching(
+      final Predicate<Task> taskPredicate, final String cursor, final int pageSize) {
+    Objects.requireNonNull(taskPredicate);
+    TaskPage.validatePageSize(pageSize);
+    final PersistentTreeMap<UUID, Task> store = current.store();
+    final Iterator<Task> iterator =
+        cursor == null
+            ? store.values().iterator()
+            : store.valuesAfter(TaskPage.decodeCursor(cursor));
+    final List<Task> page = new ArrayList<>(Math.min(pageSize, store.size()));
+    while (page.size() < pageSize && iterator.hasNext()) {
+      final Task task = iterator.next();
+      if (taskPredicate.test(task)) {
+        page.add(task);
+      }
+    }
+    final String nextCursor =
+        iterator.hasNext() ? TaskPage.encodeCursor(page.getLast().getId()) : null;
+    return new TaskPage(page, nextCursor);
   }
 
   /**
@@ -101,16 +316,65 @@ public class InMemoryTaskRepository implements TaskRepository {
    * @return true if any tasks were removed, false otherwise
    * @throws NullPointerException if the specified predicate is null
    */
-  public boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
+  public synchronized boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
     Objects.requireNonNull(taskPredicate);
-    return store.entrySet().removeIf(entry -> taskPredicate.test(entry.getValue()));
+    final PersistentTreeMap<UUID, Task> store = current.store();
+    PersistentTreeMap<UUID, Task> updatedStore = store;
+    for (Task task : store.values()) {
+      if (taskPredicate.test(task)) {
+        updatedStore = updatedStore.minus(task.getId());
+      }
+    }
+    if (updatedStore == store) {
+      return false;
+    }
+    publish(updatedStore);
+    return true;
   }
 
   /**
    * Clears all tasks from the repository, permanently deleting all stored data. After this
    * operation is performed, the repository will be empty.
    */
-  public void clearAllTasks() {
-    store.clear();
+  public synchronized void clearAllTasks() {
+    publish(PersistentTreeMap.empty());
+  }
+
+  /**
+   * Returns the current snapshot of the repository in constant time. The snapshot shares its
+   * structure with the repository and is never affected by later mutations.
+   *
+   * @return an immutable, point-in-time view of the repository
+   */
+  @Override
+  public TaskRepositorySnapshot snapshot() {
+    return current;
+  }
+
+  private void publish(final PersistentTreeMap<UUID, Task> store) {
+    current = new Snapshot(current.version() + 1, store);
+  }
+
+  private record Snapshot(long version, PersistentTreeMap<UUID, Task> store)
+      implements TaskRepositorySnapshot {
+    @Override
+    public long getVersion() {
+      return version;
+    }
+
+    @Override
+    public Optional<Task> getTaskById(final UUID id) {
+      return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+      return store.values();
+    }
+
+    @Override
+    public int size() {
+      return store.size();
+    }
   }
 }
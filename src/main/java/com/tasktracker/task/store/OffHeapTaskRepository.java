@@ -0,0 +1,616 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.collections.PersistentTreeMap;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link TaskRepository} that keeps task data outside the Java heap. Every task is encoded into a
+ * compact binary record and appended to direct {@link ByteBuffer} chunks; only a UUID-ordered index
+ * of record locations lives on the heap. {@link Task} objects are materialized on read and are not
+ * retained by the repository.
+ *
+ * <p>Records are never overwritten in place: updates append a new record and removals only drop the
+ * index entry, so, just like in {@link InMemoryTaskRepository}, every state of the repository can
+ * be handed out as a {@link TaskRepositorySnapshot} in constant time. Space taken by outdated
+ * records is reclaimed by compaction once it exceeds the space taken by live records.
+ */
+public class OffHeapTaskRepository implements TaskRepository {
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+  private static final ByteBuffer[] NO_CHUNKS = new ByteBuffer[0];
+  private final int chunkSize;
+  private volatile Snapshot current = new Snapshot(0, PersistentTreeMap.empty(), NO_CHUNKS, 0);
+  private ByteBuffer[] chunks = NO_CHUNKS;
+  private int writeOffset = 0;
+  private long garbageBytes = 0;
+
+  /** Creates a repository that allocates native memory in chunks of {@value DEFAULT_CHUNK_SIZE}. */
+  public OffHeapTaskRepository() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a repository that allocates native memory in chunks of the given size. Records larger
+   * than a chunk get a dedicated chunk of their own size.
+   *
+   * @param chunkSize the size of a single native memory chunk in bytes; must be positive
+   * @throws IllegalArgumentException if the chunk size is not positive
+   */
+  public OffHeapTaskRepository(final int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size should be positive, got: " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+  }
+
+  private static long location(final int chunkIndex, final int offset) {
+    return ((long) chunkIndex << Integer.SIZE) | offset;
+  }
+
+  private static Task read(final ByteBuffer[] chunks, final long location) {
+    return TaskRecordCodec.decode(chunks[(int) (location >>> Integer.SIZE)], (int) location);
+  }
+
+  private static long versionOf(final ByteBuffer[] chunks, final long location) {
+    return TaskRecordCodec.version(chunks[(int) (location >>> Integer.SIZE)], (int) location);
+  }
+
+  private static int recordLength(final ByteBuffer[] chunks, final long location) {
+    return TaskRecordCodec.recordLength(chunks[(int) (location >>> Integer.SIZE)], (int) location);
+  }
+
+  /**
+   * Adds a new task to the repository. The task must have a unique ID that isn't already present in
+   * the repository.
+   *
+   * @param task the task to add to the repository
+   * @throws NullPointerException if the task is null
+   * @throws IllegalArgumentException if a task with the same ID already exists in the repository
+   */
+  @Override
+  public synchronized void addTask(final Task task) {
+    Objects.requireNonNull(task, InMemoryTaskRepository.TASK_CAN_T_BE_NULL);
+    if (current.index().containsKey(task.getId())) {
+      throw new IllegalArgumentException(
+          String.format("Task with id %s already exists in store", task.getId()));
+    }
+    final byte[] record = TaskRecordCodec.encode(task);
+    final long location = append(record);
+    publish(current.index().plus(task.getId(), location), current.liveBytes() + record.length);
+  }
+
+  /**
+   * Updates an existing task in the repository with the provided updated task data. The new version
+   * is appended as a new record; the previous one becomes garbage.
+   *
+   * @param updatedTask the task containing the updated data, must have an existing ID in the
+   *     repository
+   * @return the previous version of the task that was updated
+   * @throws TaskNotFoundException if no task exists with the ID of the updated task
+   * @throws NullPointerException if the updated task is null
+   */
+  @Override
+  public synchronized Task updateTask(final Task updatedTask) throws TaskNotFoundException {
+    Objects.requireNonNull(updatedTask, "Updated task can't be null");
+    final UUID id = updatedTask.getId();
+    final Long previousLocation = current.index().get(id);
+    if (previousLocation == null) {
+      throw new TaskNotFoundException("Task with ID " + id + " not found for update.");
+    }
+    final Task previousTask = read(current.chunks(), previousLocation);
+    final int previousLength = recordLength(current.chunks(), previousLocation);
+    final byte[] record = TaskRecordCodec.encode(updatedTask);
+    final long location = append(record);
+    garbageBytes += previousLength;
+    publish(
+        current.index().plus(id, location), current.liveBytes() - previousLength + record.length);
+    compactIfWasteful();
+    return previousTask;
+  }
+
+  /**
+   * Updates an existing task only if the stored task still has the expected version. The stored
+   * version is read from the record without decoding the task.
+   *
+   * @param updatedTask the task containing the updated data; its version must be greater than the
+   *     expected one
+   * @param expectedVersion the version the caller read and based its change on
+   * @return the previous version of the task that was updated
+   * @throws TaskNotFoundException if no task exists with the ID of the updated task
+   * @throws VersionConflictException if the stored task has a different version
+   * @throws IllegalArgumentException if the version of the updated task is not greater than the
+   *     expected version
+   * @throws NullPointerException if the updated task is null
+   */
+  @Override
+  public synchronized Task updateTask(final Task updatedTask, final long expectedVersion)
+      throws TaskNotFoundException, VersionConflictException {
+    InMemoryTaskRepository.checkVersionIncrement(updatedTask, expectedVersion);
+    final Long location = current.index().get(updatedTask.getId());
+    if (location != null) {
+      final long storedVersion = versionOf(current.chunks(), location);
+      if (storedVersion != expectedVersion) {
+        throw new VersionConflictException(updatedTask.getId(), expectedVersion, storedVersion);
+      }
+    }
+    return updateTask(updatedTask);
+  }
+
+  /**
+   * Adds all given tasks to the repository as a single atomic operation. The tasks become visible
+   * to readers at once, in a single new snapshot.
+   *
+   * @param tasks the tasks to add to the repository
+   * @throws NullPointerException if the collection or any of its tasks is null
+   * @throws IllegalArgumentException if a task ID already exists in the repository or occurs more
+   *     than once in the collection
+   */
+  @Override
+  public synchronized void addTasks(final Collection<? extends Task> tasks) {
+    Objects.requireNonNull(tasks, "Tasks can't be null");
+    final Set<UUID> batchIds = HashSet.newHashSet(tasks.size());
+    for (Task task : tasks) {
+      Objects.requireNonNull(task, InMemoryTaskRepository.TASK_CAN_T_BE_NULL);
+      if (current.index().containsKey(task.getId()) || !batchIds.add(task.getId())) {
+        throw new IllegalArgumentException(
+            String.format("Task with id %s already exists in store", task.getId()));
+      }
+    }
+    PersistentTreeMap<UUID, Long> index = current.index();
+    long liveBytes = current.liveBytes();
+    for (Task task : tasks) {
+      final byte[] record = TaskRecordCodec.encode(task);
+      index = index.plus(task.getId(), append(record));
+      liveBytes += record.length;
+    }
+    if (!tasks.isEmpty()) {
+      publish(index, liveBytes);
+    }
+  }
+
+  /**
+   * Replaces all given tasks in the repository as a single atomic operation.
+   *
+   * @param updatedTasks the tasks containing the updated data
+   * @return the previous versions of the updated tasks, in the order of the given collection
+   * @throws TaskNotFoundException if no task exists with the ID of one of the updated tasks
+   * @throws NullPointerException if the collection or any of its tasks is null
+   */
+  @Override
+  public synchronized List<Task> updateTasks(final Collection<? extends Task> updatedTasks)
+      throws TaskNotFoundException {
+    Objects.requireNonNull(updatedTasks, "Updated tasks can't be null");
+    for (Task updatedTask : updatedTasks) {
+      Objects.requireNonNull(updatedTask, "Updated task can't be null");
+      if (!current.index().containsKey(updatedTask.getId())) {
+        throw new TaskNotFoundException(
+            "Task with ID " + updatedTask.getId() + " not found for update.");
+      }
+    }
+    PersistentTreeMap<UUID, Long> index = current.index();
+    long liveBytes = current.liveBytes();
+    final List<Task> previousTasks = new ArrayList<>(updatedTasks.size());
+    for (Task updatedTask : updatedTasks) {
+      final long previousLocation = index.get(updatedTask.getId());
+      final int previousLength = recordLength(chunks, previousLocation);
+      previousTasks.add(read(chunks, previousLocation));
+      final byte[] record = TaskRecordCodec.encode(updatedTask);
+      index = index.plus(updatedTask.getId(), append(record));
+      liveBytes += record.length - previousLength;
+      garbageBytes += previousLength;
+    }
+    if (!updatedTasks.isEmpty()) {
+      publish(index, liveBytes);
+      compactIfWasteful();
+    }
+    return previousTasks;
+  }
+
+  /**
+   * Retrieves all tasks stored in the repository. Tasks are decoded lazily while the returned list
+   * is read.
+   *
+   * @return an unmodifiable list containing all tasks
+   */
+  @Override
+  public List<Task> getAllTasks() {
+    return current.getAllTasks();
+  }
+
+  /**
+   * Retrieves one page of tasks ordered by task ID.
+   *
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   */
+  @Override
+  public TaskPage getAllTasks(final String cursor, final int pageSize) {
+    return findTasksMatching(task -> true, cursor, pageSize);
+  }
+
+  /**
+   * Retrieves a task by its unique identifier, decoding it from native memory.
+   *
+   * @param id the unique identifier of the task in the repository
+   * @return an Optional containing the task if it exists, or an empty Optional if it does not
+   */
+  @Override
+  public Optional<Task> getTaskById(final UUID id) {
+    return current.getTaskById(id);
+  }
+
+  /**
+   * Removes a task from the repository by its unique identifier.
+   *
+   * @param id the unique identifier of the task to remove from the repository
+   * @return an Optional containing the removed task, or an empty Optional if no task was found with
+   *     the given ID
+   * @throws NullPointerException if id is null
+   */
+  @Override
+  public synchronized Optional<Task> removeTask(final UUID id) {
+    final Long location = current.index().get(id);
+    if (location == null) {
+      return Optional.empty();
+    }
+    final Task removedTask = read(current.chunks(), location);
+    final int length = recordLength(current.chunks(), location);
+    garbageBytes += length;
+    publish(current.index().minus(id), current.liveBytes() - length);
+    compactIfWasteful();
+    return Optional.of(removedTask);
+  }
+
+  /**
+   * Removes all tasks with the given IDs as a single atomic operation. IDs without a task are
+   * ignored.
+   *
+   * @param ids the UUIDs of the tasks to remove
+   * @return the removed tasks
+   * @throws NullPointerException if the collection or any of its IDs is null
+   */
+  @Override
+  public synchronized List<Task> removeTasks(final Collection<UUID> ids) {
+    Objects.requireNonNull(ids, "Task IDs can't be null");
+    PersistentTreeMap<UUID, Long> index = current.index();
+    long liveBytes = current.liveBytes();
+    final List<Task> removedTasks = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      final Long location = index.get(id);
+      if (location != null) {
+        final int length = recordLength(chunks, location);
+        removedTasks.add(read(chunks, location));
+        index = index.minus(id);
+        liveBytes -= length;
+        garbageBytes += length;
+      }
+    }
+    if (!removedTasks.isEmpty()) {
+      publish(index, liveBytes);
+      compactIfWasteful();
+    }
+    return removedTasks;
+  }
+
+  /**
+   * Saves and removes tasks as a single atomic operation, publishing a single new snapshot. Saved
+   * tasks are appended as new records; replaced and removed records become garbage.
+   *
+   * @param tasksToSave the tasks to add or replace
+   * @param idsToRemove the UUIDs of the tasks to remove
+   * @throws NullPointerException if a collection, any of its tasks or any of its IDs is null
+   */
+  @Override
+  public synchronized void applyChanges(
+      final Collection<? extends Task> tasksToSave, final Collection<UUID> idsToRemove) {
+    Objects.requireNonNull(tasksToSave, "Tasks can't be null");
+    Objects.requireNonNull(idsToRemove, "Task IDs can't be null");
+    tasksToSave.forEach(
+        task -> Objects.requireNonNull(task, InMemoryTaskRepository.TASK_CAN_T_BE_NULL));
+    idsToRemove.forEach(id -> Objects.requireNonNull(id, "Task ID can't be null"));
+    PersistentTreeMap<UUID, Long> index = current.index();
+    long liveBytes = current.liveBytes();
+    for (Task task : tasksToSave) {
+      final Long previousLocation = index.get(task.getId());
+      if (previousLocation != null) {
+        final int previousLength = recordLength(chunks, previousLocation);
+        liveBytes -= previousLength;
+        garbageBytes += previousLength;
+      }
+      final byte[] record = TaskRecordCodec.encode(task);
+      index = index.plus(task.getId(), append(record));
+      liveBytes += record.length;
+    }
+    for (UUID id : idsToRemove) {
+      final Long location = index.get(id);
+      if (location != null) {
+        final int length = recordLength(chunks, location);
+        index = index.minus(id);
+        liveBytes -= length;
+        garbageBytes += length;
+      }
+    }
+    if (index != current.index()) {
+      publish(index, liveBytes);
+      compactIfWasteful();
+    }
+  }
+
+  /**
+   * Finds tasks that match the given predicate criteria.
+   *
+   * @param taskPredicate the predicate to apply to each task for filtering
+   * @return a Collection of tasks that satisfy the given predicate; an empty list if no such tasks
+   *     exist
+   * @throws NullPointerException if the taskPredicate is null
+   */
+  @Override
+  public Collection<Task> findTasksMatching(final Predicate<Task> taskPredicate) {
+    Objects.requireNonNull(taskPredicate);
+    return streamTasks().filter(taskPredicate).toList();
+  }
+
+  /**
+   * Finds one page of tasks that match the given predicate, ordered by task ID. Only the scanned
+   * records are decoded.
+   *
+   * @param taskPredicate the predicate to filter tasks
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page of matching tasks
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   * @throws NullPointerException if the taskPredicate is null
+   */
+  @Override
+  public TaskPage findTasksMatching(
+      final Predicate<Task> taskPredicate, final String cursor, final int pageSize) {
+    Objects.requireNonNull(taskPredicate);
+    TaskPage.validatePageSize(pageSize);
+    final Snapshot snapshot = current;
+    final Iterator<Long> iterator =
+        cursor == null
+            ? snapshot.index().values().iterator()
+            : snapshot.index().valuesAfter(TaskPage.decodeCursor(cursor));
+    final List<Task> page = new ArrayList<>(Math.min(pageSize, snapshot.size()));
+    while (page.size() < pageSize && iterator.hasNext()) {
+      final Task task = read(snapshot.chunks(), iterator.next());
+      if (taskPredicate.test(task)) {
+        page.add(task);
+      }
+    }
+    final String nextCursor =
+        iterator.hasNext() ? TaskPage.encodeCursor(page.getLast().getId()) : null;
+    return new TaskPage(page, nextCursor);
+  }
+
+  /**
+   * Returns a lazily evaluated stream over the tasks of the current snapshot, ordered by task ID.
+   * Each task is decoded only when the stream reaches it.
+   *
+   * @return a stream of all tasks in the repository
+   */
+  @Override
+  public Stream<Task> streamTasks() {
+    final Snapshot snapshot = current;
+    return snapshot.index().values().stream().map(location -> read(snapshot.chunks(), location));
+  }
+
+  /**
+   * Removes tasks from the repository that satisfy the given predicate condition.
+   *
+   * @param taskPredicate the predicate used to identify tasks to remove
+   * @return true if any tasks were removed, false otherwise
+   * @throws NullPointerException if the specified predicate is null
+   */
+  @Override
+  public synchronized boolean removeMatchingTasks(final Predicate<Task> taskPredicate) {
+    Objects.requireNonNull(taskPredicate);
+    final Snapshot snapshot = current;
+    PersistentTreeMap<UUID, Long> updatedIndex = snapshot.index();
+    long liveBytes = snapshot.liveBytes();
+    for (Map.Entry<UUID, Long> entry : snapshot.index()) {
+      if (taskPredicate.test(read(snapshot.chunks(), entry.getValue()))) {
+        final int length = recordLength(snapshot.chunks(), entry.getValue());
+        updatedIndex = updatedIndex.minus(entry.getKey());
+        liveBytes -= length;
+        garbageBytes += length;
+      }
+    }
+    if (updatedIndex == snapshot.index()) {
+      return false;
+    }
+    publish(updatedIndex, liveBytes);
+    compactIfWasteful();
+    return true;
+  }
+
+  /**
+   * Clears all tasks from the repository. Native memory is released once no snapshot refers to it
+   * anymore.
+   */
+  @Override
+  public synchronized void clearAllTasks() {
+    chunks = NO_CHUNKS;
+    writeOffset = 0;
+    garbageBytes = 0;
+    current = new Snapshot(current.version() + 1, PersistentTreeMap.empty(), NO_CHUNKS, 0);
+  }
+
+  /**
+   * Returns the current snapshot of the repository in constant time.
+   *
+   * @return an immutable, point-in-time view of the repository
+   */
+  @Override
+  public TaskRepositorySnapshot snapshot() {
+    return current;
+  }
+
+  /**
+   * Returns the number of native memory bytes occupied by the records of live tasks.
+   *
+   * @return the resident size of all live task records in bytes
+   */
+  public long getResidentBytes() {
+    return current.liveBytes();
+  }
+
+  /**
+   * Returns the average number of native memory bytes occupied by a single task record.
+   *
+   * @return the average resident size of a task in bytes, or {@code 0} if the repository is empty
+   */
+  public double getResidentBytesPerTask() {
+    final Snapshot snapshot = current;
+    return snapshot.size() == 0 ? 0 : (double) snapshot.liveBytes() / snapshot.size();
+  }
+
+  /**
+   * Returns the total capacity of the native memory chunks currently allocated by the repository,
+   * including space taken by outdated records and not yet used space.
+   *
+   * @return the allocated native memory in bytes
+   */
+  public long getAllocatedBytes() {
+    long allocated = 0;
+    for (ByteBuffer chunk : current.chunks()) {
+      allocated += chunk.capacity();
+    }
+    return allocated;
+  }
+
+  private void publish(final PersistentTreeMap<UUID, Long> index, final long liveBytes) {
+    current = new Snapshot(current.version() + 1, index, chunks, liveBytes);
+  }
+
+  private long append(final byte[] record) {
+    if (chunks.length == 0 || writeOffset + record.length > chunks[chunks.length - 1].capacity()) {
+      chunks = Arrays.copyOf(chunks, chunks.length + 1);
+      chunks[chunks.length - 1] = ByteBuffer.allocateDirect(Math.max(chunkSize, record.length));
+      writeOffset = 0;
+    }
+    final int chunkIndex = chunks.length - 1;
+    chunks[chunkIndex].put(writeOffset, record);
+    final long location = location(chunkIndex, writeOffset);
+    writeOffset += record.length;
+    return location;
+  }
+
+  /**
+   * Rewrites all live records into fresh chunks once outdated records take more space than live
+   * ones. Snapshots taken before compaction keep referring to the old chunks.
+   */
+  private void compactIfWasteful() {
+    final Snapshot snapshot = current;
+    if (garbageBytes <= snapshot.liveBytes() || garbageBytes < chunkSize) {
+      return;
+    }
+    chunks = NO_CHUNKS;
+    writeOffset = 0;
+    PersistentTreeMap<UUID, Long> compactedIndex = PersistentTreeMap.empty();
+    for (Map.Entry<UUID, Long> entry : snapshot.index()) {
+      final long location = entry.getValue();
+      final ByteBuffer chunk = snapshot.chunks()[(int) (location >>> Integer.SIZE)];
+      final byte[] record = new byte[TaskRecordCodec.recordLength(chunk, (int) location)];
+      chunk.get((int) location, record);
+      compactedIndex = compactedIndex.plus(entry.getKey(), append(record));
+    }
+    garbageBytes = 0;
+    current = new Snapshot(snapshot.version(), compactedIndex, chunks, snapshot.liveBytes());
+  }
+
+  private static final class Snapshot implements TaskRepositorySnapshot {
+    private final long version;
+    private final PersistentTreeMap<UUID, Long> index;
+    private final ByteBuffer[] chunks;
+    private final long liveBytes;
+    private final List<Task> tasksView;
+
+    private Snapshot(
+        long version, PersistentTreeMap<UUID, Long> index, ByteBuffer[] chunks, long liveBytes) {
+      this.version = version;
+      this.index = index;
+      this.chunks = chunks;
+      this.liveBytes = liveBytes;
+      this.tasksView = new TasksView();
+    }
+
+    private long version() {
+      return version;
+    }
+
+    private PersistentTreeMap<UUID, Long> index() {
+      return index;
+    }
+
+    private ByteBuffer[] chunks() {
+      return chunks;
+    }
+
+    private long liveBytes() {
+      return liveBytes;
+    }
+
+    @Override
+    public long getVersion() {
+      return version;
+    }
+
+    @Override
+    public Optional<Task> getTaskById(final UUID id) {
+      final Long location = index.get(id);
+      return location == null ? Optional.empty() : Optional.of(read(chunks, location));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+      return tasksView;
+    }
+
+    @Override
+    public int size() {
+      return index.size();
+    }
+
+    private final class TasksView extends AbstractList<Task> {
+      @Override
+      public Task get(int index) {
+        return read(chunks, Snapshot.this.index.values().get(index));
+      }
+
+      @Override
+      public int size() {
+        return Snapshot.this.index.size();
+      }
+
+      @Override
+      public Iterator<Task> iterator() {
+        final Iterator<Long> locations = Snapshot.this.index.values().iterator();
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return locations.hasNext();
+          }
+
+          @Override
+          public Task next() {
+            return read(chunks, locations.next());
+          }
+        };
+      }
+
+      @Override
+      public Spliterator<Task> spliterator() {
+        return Spliterators.spliterator(
+            iterator(), size(), Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+      }
+    }
+  }
+}
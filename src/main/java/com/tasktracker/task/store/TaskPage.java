@@ -0,0 +1,82 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.model.implementations.Task;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A single page of tasks ordered by task ID, together with an opaque cursor pointing past the last
+ * task of the page. Because the cursor is based on the task ID rather than on a position, pages
+ * stay stable when tasks are inserted or removed between requests.
+ *
+ * @param tasks the tasks of this page in ascending ID order
+ * @param nextCursor the cursor to request the following page with, or {@code null} if there are no
+ *     more tasks
+ */
+public record TaskPage(List<Task> tasks, String nextCursor) {
+  private static final int UUID_BYTES = 16;
+
+  public TaskPage {
+    tasks = List.copyOf(Objects.requireNonNull(tasks, "Tasks can't be null"));
+  }
+
+  /**
+   * Returns {@code true} if another page may follow this one.
+   *
+   * @return {@code true} if {@link #nextCursor()} is present
+   */
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  /**
+   * Encodes the ID of the last task of a page into an opaque cursor.
+   *
+   * @param lastTaskId the ID of the last task returned
+   * @return the URL-safe cursor string
+   */
+  static String encodeCursor(final UUID lastTaskId) {
+    Objects.requireNonNull(lastTaskId, "Task ID can't be null");
+    final ByteBuffer buffer = ByteBuffer.allocate(UUID_BYTES);
+    buffer.putLong(lastTaskId.getMostSignificantBits());
+    buffer.putLong(lastTaskId.getLeastSignificantBits());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  /**
+   * Decodes a cursor produced by {@link #encodeCursor(UUID)}.
+   *
+   * @param cursor the cursor string
+   * @return the ID of the last task of the previous page
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  static UUID decodeCursor(final String cursor) {
+    Objects.requireNonNull(cursor, "Cursor can't be null");
+    final byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Malformed page cursor: " + cursor, e);
+    }
+    if (bytes.length != UUID_BYTES) {
+      throw new IllegalArgumentException("Malformed page cursor: " + cursor);
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  /**
+   * Validates the requested page size.
+   *
+   * @param pageSize the maximum number of tasks per page
+   * @throws IllegalArgumentException if the page size is not positive
+   */
+  static void validatePageSize(final int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size should be positive, got: " + pageSize);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes tasks into compact binary records and decodes them back. A record starts with its total
+ * length in bytes, followed by the task type, ID, status, version, title, description, timestamps
+ * and the type specific fields. The version sits at a fixed offset, so it can be read without
+ * decoding the record. Timestamps are stored as epoch seconds and nanos in UTC, strings as UTF-8.
+ */
+final class TaskRecordCodec {
+  static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+  private static final byte REGULAR_TASK_TYPE = 0;
+  private static final byte EPIC_TASK_TYPE = 1;
+  private static final byte SUBTASK_TASK_TYPE = 2;
+  private static final byte HAS_START_TIME = 1;
+  private static final byte HAS_DURATION = 2;
+  private static final int UUID_BYTES = 2 * Long.BYTES;
+  private static final int TIMESTAMP_BYTES = Long.BYTES + Integer.BYTES;
+  private static final int VERSION_OFFSET =
+      LENGTH_PREFIX_BYTES + Byte.BYTES + UUID_BYTES + Byte.BYTES;
+  private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+  private TaskRecordCodec() {}
+
+  /**
+   * Encodes the given task into a binary record.
+   *
+   * @param task the task to encode
+   * @return the record bytes, including the length prefix
+   */
+  static byte[] encode(final Task task) {
+    final byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+    final byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+    final LocalDateTime startTime = task.getStartTime();
+    final Duration duration = task.getDuration();
+
+    int length =
+        LENGTH_PREFIX_BYTES
+            + Byte.BYTES
+            + UUID_BYTES
+            + Byte.BYTES
+            + Long.BYTES
+            + Integer.BYTES
+            + title.length
+            + Integer.BYTES
+            + description.length
+            + 2 * TIMESTAMP_BYTES
+            + Byte.BYTES;
+    if (startTime != null) length += TIMESTAMP_BYTES;
+    if (duration != null) length += TIMESTAMP_BYTES;
+    length +=
+        switch (task) {
+          case RegularTask ignored -> 0;
+          case SubTask ignored -> UUID_BYTES;
+          case EpicTask epicTask -> Integer.BYTES + epicTask.getSubtaskIds().size() * UUID_BYTES;
+        };
+
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.putInt(length);
+    buffer.put(typeOf(task));
+    putUuid(buffer, task.getId());
+    buffer.put((byte) task.getStatus().ordinal());
+    buffer.putLong(task.getVersion());
+    buffer.putInt(title.length).put(title);
+    buffer.putInt(description.length).put(description);
+    putTimestamp(buffer, task.getCreationDate());
+    putTimestamp(buffer, task.getUpdateDate());
+    byte flags = 0;
+    if (startTime != null) flags |= HAS_START_TIME;
+    if (duration != null) flags |= HAS_DURATION;
+    buffer.put(flags);
+    if (startTime != null) putTimestamp(buffer, startTime);
+    if (duration != null) buffer.putLong(duration.getSeconds()).putInt(duration.getNano());
+    switch (task) {
+      case RegularTask ignored -> {}
+      case SubTask subTask -> putUuid(buffer, subTask.getEpicTaskId());
+      case EpicTask epicTask -> {
+        final Set<UUID> subtaskIds = epicTask.getSubtaskIds();
+        buffer.putInt(subtaskIds.size());
+        subtaskIds.forEach(subtaskId -> putUuid(buffer, subtaskId));
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Returns the length of the record stored at the given offset.
+   *
+   * @param chunk the buffer holding the record
+   * @param offset the offset of the record's length prefix
+   * @return the record length in bytes, including the length prefix
+   */
+  static int recordLength(final ByteBuffer chunk, final int offset) {
+    return chunk.getInt(offset);
+  }
+
+  /**
+   * Returns the version of the task whose record is stored at the given offset.
+   *
+   * @param chunk the buffer holding the record
+   * @param offset the offset of the record's length prefix
+   * @return the version of the stored task
+   */
+  static long version(final ByteBuffer chunk, final int offset) {
+    return chunk.getLong(offset + VERSION_OFFSET);
+  }
+
+  /**
+   * Decodes the record stored at the given offset into a new task instance.
+   *
+   * @param chunk the buffer holding the record; its position and limit are left untouched
+   * @param offset the offset of the record's length prefix
+   * @return the decoded task
+   * @throws IllegalStateException if the record does not describe a valid task
+   */
+  static Task decode(final ByteBuffer chunk, final int offset) {
+    final ByteBuffer buffer = chunk.duplicate().position(offset + LENGTH_PREFIX_BYTES);
+    final byte type = buffer.get();
+    final UUID id = getUuid(buffer);
+    final TaskStatus status = STATUSES[buffer.get()];
+    final long version = buffer.getLong();
+    final String title = getString(buffer);
+    final String description = getString(buffer);
+    final LocalDateTime creationDate = getTimestamp(buffer);
+    final LocalDateTime updateDate = getTimestamp(buffer);
+    final byte flags = buffer.get();
+    final LocalDateTime startTime = (flags & HAS_START_TIME) != 0 ? getTimestamp(buffer) : null;
+    final Duration duration =
+        (flags & HAS_DURATION) != 0 ? Duration.ofSeconds(buffer.getLong(), buffer.getInt()) : null;
+    try {
+      return switch (type) {
+        case REGULAR_TASK_TYPE ->
+            new RegularTask(
+                id,
+                title,
+                description,
+                status,
+                creationDate,
+                updateDate,
+                startTime,
+                duration,
+                version);
+        case SUBTASK_TASK_TYPE ->
+            new SubTask(
+                id,
+                title,
+                description,
+                status,
+                getUuid(buffer),
+                creationDate,
+                updateDate,
+                startTime,
+                duration,
+                version);
+        case EPIC_TASK_TYPE -> {
+          final int subtaskCount = buffer.getInt();
+          final Set<UUID> subtaskIds = HashSet.newHashSet(subtaskCount);
+          for (int i = 0; i < subtaskCount; i++) {
+            subtaskIds.add(getUuid(buffer));
+          }
+          yield new EpicTask(
+              id,
+              title,
+              description,
+              status,
+              subtaskIds,
+              creationDate,
+              updateDate,
+              startTime,
+              duration,
+              version);
+        }
+        default -> throw new IllegalStateException("Unknown task record type: " + type);
+      };
+    } catch (ValidationException e) {
+      throw new IllegalStateException("Stored task record is invalid: " + id, e);
+    }
+  }
+
+  private static byte typeOf(final Task task) {
+    return switch (task) {
+      case RegularTask ignored -> REGULAR_TASK_TYPE;
+      case SubTask ignored -> SUBTASK_TASK_TYPE;
+      case EpicTask ignored -> EPIC_TASK_TYPE;
+    };
+  }
+
+  private static void putUuid(final ByteBuffer buffer, final UUID uuid) {
+    buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+  }
+
+  private static UUID getUuid(final ByteBuffer buffer) {
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  private static void putTimestamp(final ByteBuffer buffer, final LocalDateTime dateTime) {
+    buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+  }
+
+  private static LocalDateTime getTimestamp(final ByteBuffer buffer) {
+    return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+  }
+
+  private static String getString(final ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -2,10 +2,13 @@ package com.tasktracker.task.store;
 
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Interface for managing {@link Task} objects, providing operations for adding, updating,
@@ -35,6 +38,46 @@ public interface TaskRepository {
    */
   Task updateTask(Task updatedTask) throws TaskNotFoundException;
 
+  /**
+   * Updates an existing task only if the stored task still has the expected version. The check and
+   * the update form a single atomic operation, so concurrent writers can update tasks without
+   * holding locks of their own: the loser of a race fails fast and can retry on fresh data.
+   *
+   * @param updatedTask the task containing the updated data; its version must be greater than the
+   *     expected one
+   * @param expectedVersion the version the caller read and based its change on
+   * @return the previous version of the task that was updated
+   * @throws TaskNotFoundException if no task exists with the ID of the updated task
+   * @throws VersionConflictException if the stored task has a different version
+   * @throws IllegalArgumentException if the version of the updated task is not greater than the
+   *     expected version
+   * @throws NullPointerException if the updated task is null
+   */
+  Task updateTask(Task updatedTask, long expectedVersion)
+      throws TaskNotFoundException, VersionConflictException;
+
+  /**
+   * Adds all given tasks to the repository as a single atomic operation: either every task is
+   * added, or, if any of them is invalid, none is.
+   *
+   * @param tasks the tasks to add to the repository
+   * @throws NullPointerException if the collection or any of its tasks is null
+   * @throws IllegalArgumentException if a task ID already exists in the repository or occurs more
+   *     than once in the collection
+   */
+  void addTasks(Collection<? extends Task> tasks);
+
+  /**
+   * Replaces all given tasks in the repository as a single atomic operation: either every task is
+   * updated, or, if any of them does not exist, none is.
+   *
+   * @param updatedTasks the tasks containing the updated data
+   * @return the previous versions of the updated tasks, in the order of the given collection
+   * @throws TaskNotFoundException if no task exists with the ID of one of the updated tasks
+   * @throws NullPointerException if the collection or any of its tasks is null
+   */
+  List<Task> updateTasks(Collection<? extends Task> updatedTasks) throws TaskNotFoundException;
+
   /**
    * Retrieves all tasks stored in the repository.
    *
@@ -42,6 +85,16 @@ public interface TaskRepository {
    */
   Collection<Task> getAllTasks();
 
+  /**
+   * Retrieves one page of tasks ordered by task ID.
+   *
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   */
+  TaskPage getAllTasks(String cursor, int pageSize);
+
   /**
    * Retrieves a task by its UUID.
    *
@@ -58,6 +111,27 @@ public interface TaskRepository {
    */
   Optional<Task> removeTask(UUID id);
 
+  /**
+   * Removes all tasks with the given IDs as a single atomic operation. IDs without a task are
+   * ignored.
+   *
+   * @param ids the UUIDs of the tasks to remove
+   * @return the removed tasks
+   * @throws NullPointerException if the collection or any of its IDs is null
+   */
+  List<Task> removeTasks(Collection<UUID> ids);
+
+  /**
+   * Saves and removes tasks as a single atomic operation. Each saved task is added, or replaces the
+   * stored task with the same ID; removals are applied after the saves, and IDs without a task are
+   * ignored. Readers observe either none or all of the changes.
+   *
+   * @param tasksToSave the tasks to add or replace
+   * @param idsToRemove the UUIDs of the tasks to remove
+   * @throws NullPointerException if a collection, any of its tasks or any of its IDs is null
+   */
+  void applyChanges(Collection<? extends Task> tasksToSave, Collection<UUID> idsToRemove);
+
   /**
    * Finds tasks that match the given predicate.
    *
@@ -66,6 +140,27 @@ public interface TaskRepository {
    */
   Collection<Task> findTasksMatching(Predicate<Task> taskPredicate);
 
+  /**
+   * Finds one page of tasks that match the given predicate, ordered by task ID.
+   *
+   * @param taskPredicate the predicate to filter tasks
+   * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+   * @param pageSize the maximum number of tasks to return; must be positive
+   * @return the requested page of matching tasks
+   * @throws IllegalArgumentException if the cursor is malformed or the page size is not positive
+   */
+  TaskPage findTasksMatching(Predicate<Task> taskPredicate, String cursor, int pageSize);
+
+  /**
+   * Returns a lazily evaluated stream over all tasks, ordered by task ID. Tasks are read one by one
+   * while the stream is consumed, so short-circuiting operations such as {@code limit}, {@code
+   * anyMatch} or {@code findFirst} stop scanning as soon as the result is known. The stream may be
+   * turned parallel by the caller.
+   *
+   * @return a stream of all tasks in the repository
+   */
+  Stream<Task> streamTasks();
+
   /**
    * Removes tasks matching the given predicate.
    *
@@ -76,4 +171,12 @@ public interface TaskRepository {
 
   /** Removes all tasks from the repository. */
   void clearAllTasks();
+
+  /**
+   * Returns an immutable, point-in-time view of the repository. Later changes to the repository are
+   * not visible through the returned snapshot.
+   *
+   * @return the current snapshot of the repository
+   */
+  TaskRepositorySnapshot snapshot();
 }
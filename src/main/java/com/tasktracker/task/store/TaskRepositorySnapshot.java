@@ -0,0 +1,44 @@
+package com.tasktracker.task.store;
+
+import com.tasktracker.task.model.implementations.Task;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * An immutable, point-in-time view of a {@link TaskRepository}. A snapshot never reflects changes
+ * made to the repository after it was taken, so it can be read for as long as needed (e.g. by
+ * reports or exports) without blocking writers and without copying the repository contents.
+ */
+public interface TaskRepositorySnapshot {
+
+  /**
+   * Returns the version of the repository this snapshot was taken at. Every successful mutation of
+   * the repository increments its version.
+   *
+   * @return the repository version captured by this snapshot
+   */
+  long getVersion();
+
+  /**
+   * Retrieves a task by its UUID as it was at the moment the snapshot was taken.
+   *
+   * @param id the UUID of the task
+   * @return an Optional containing the task if found, or empty if not found
+   */
+  Optional<Task> getTaskById(UUID id);
+
+  /**
+   * Retrieves all tasks of the snapshot ordered by their IDs.
+   *
+   * @return an unmodifiable list containing all tasks of the snapshot
+   */
+  List<Task> getAllTasks();
+
+  /**
+   * Returns the number of tasks in the snapshot.
+   *
+   * @return the number of tasks
+   */
+  int size();
+}
@@ -0,0 +1,35 @@
+package com.tasktracker.task.store.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown by a conditional update when the stored task no longer has the version the caller based
+ * its change on, i.e. the task was modified concurrently.
+ */
+public class VersionConflictException extends Exception {
+  private final UUID taskId;
+  private final long expectedVersion;
+  private final long actualVersion;
+
+  public VersionConflictException(UUID taskId, long expectedVersion, long actualVersion) {
+    super(
+        String.format(
+            "Task with ID %s has version %d but version %d was expected",
+            taskId, actualVersion, expectedVersion));
+    this.taskId = taskId;
+    this.expectedVersion = expectedVersion;
+    this.actualVersion = actualVersion;
+  }
+
+  public UUID getTaskId() {
+    return taskId;
+  }
+
+  public long getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  public long getActualVersion() {
+    return actualVersion;
+  }
+}
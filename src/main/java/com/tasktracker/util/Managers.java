@@ -14,20 +14,22 @@ import java.nio.file.Paths;
  */
 public class Managers {
   private static final Path DATA_FILE_PATH = Paths.get("data", "task_data.cvs");
+  private static final int HISTORY_CAPACITY = 1_000;
 
   private Managers() {}
 
   /**
    * Creates and returns the default implementation of {@link TaskManager}. This default instance
-   * uses in-memory repositories for task and history management, and is linked to an in-memory
-   * history manager for handling task history.
+   * keeps tasks in a file-backed repository and is linked to an in-memory history manager, which
+   * keeps the views of the most recently viewed tasks. A history that survives restarts is opt-in:
+   * build the manager with a {@link FileBakedHistoryStore} and close the store on shutdown.
    *
-   * @return an instance of {@link TaskManagerImpl} configured with in-memory task and history
-   *     repositories
+   * @return an instance of {@link TaskManagerImpl} configured with a file-backed task repository
+   *     and an in-memory history
    */
   public static TaskManager getDefault() {
     TaskRepository taskRepository = new FileBakedTaskRepository(DATA_FILE_PATH);
-    HistoryStore historyStore = new InMemoryHistoryStore();
+    HistoryStore historyStore = new InMemoryHistoryStore(HISTORY_CAPACITY);
     HistoryManager historyManager = new InMemoryHistoryManager(historyStore);
     return new TaskManagerImpl(taskRepository, historyManager);
   }
@@ -0,0 +1,128 @@
+package com.tasktracker.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/** Tests for the PersistentTreeMap class. */
+class PersistentTreeMapTest {
+
+  private PersistentTreeMap<Integer, String> map;
+
+  @BeforeEach
+  void setUp() {
+    map = PersistentTreeMap.<Integer, String>empty().plus(2, "Two").plus(1, "One").plus(3, "Three");
+  }
+
+  @Test
+  @DisplayName("empty: Should contain no mappings")
+  void empty_ShouldBeEmpty() {
+    PersistentTreeMap<Integer, String> empty = PersistentTreeMap.empty();
+    assertTrue(empty.isEmpty());
+    assertEquals(0, empty.size());
+    assertNull(empty.get(1));
+    assertTrue(empty.values().isEmpty());
+  }
+
+  @Test
+  @DisplayName("plus: Should keep values ordered by key")
+  void plus_ShouldKeepKeyOrder() {
+    assertEquals(List.of("One", "Two", "Three"), List.copyOf(map.values()));
+    assertEquals("Two", map.get(2));
+    assertTrue(map.containsKey(3));
+    assertFalse(map.containsKey(4));
+  }
+
+  @Test
+  @DisplayName("plus: Should not modify the original map")
+  void plus_ShouldLeaveOriginalUnchanged() {
+    PersistentTreeMap<Integer, String> updated = map.plus(4, "Four").plus(1, "Uno");
+    assertEquals(3, map.size());
+    assertEquals("One", map.get(1));
+    assertNull(map.get(4));
+    assertEquals(4, updated.size());
+    assertEquals("Uno", updated.get(1));
+  }
+
+  @Test
+  @DisplayName("minus: Should remove only from the returned map")
+  void minus_ShouldLeaveOriginalUnchanged() {
+    PersistentTreeMap<Integer, String> updated = map.minus(2);
+    assertEquals(List.of("One", "Three"), List.copyOf(updated.values()));
+    assertEquals(List.of("One", "Two", "Three"), List.copyOf(map.values()));
+  }
+
+  @Test
+  @DisplayName("minus: Should return the same instance for an absent key")
+  void minus_AbsentKey_ShouldReturnSameInstance() {
+    assertSame(map, map.minus(42));
+  }
+
+  @Test
+  @DisplayName("minus: Should return the empty map once the last key is removed")
+  void minus_LastKey_ShouldReturnEmpty() {
+    PersistentTreeMap<Integer, String> updated = map.minus(1).minus(2).minus(3);
+    assertTrue(updated.isEmpty());
+    assertSame(PersistentTreeMap.empty(), updated);
+  }
+
+  @Test
+  @DisplayName("values: Should support positional access")
+  void values_ShouldSupportPositionalAccess() {
+    List<String> values = map.values();
+    assertEquals("One", values.get(0));
+    assertEquals("Three", values.get(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> values.get(3));
+  }
+
+  @Test
+  @DisplayName("values: Should not claim random access for logarithmic positional access")
+  void values_ShouldNotBeRandomAccess() {
+    assertFalse(map.values() instanceof RandomAccess);
+  }
+
+  @Test
+  @DisplayName("values: Should be unmodifiable")
+  void values_ShouldBeUnmodifiable() {
+    assertThrows(UnsupportedOperationException.class, () -> map.values().add("Four"));
+    assertThrows(UnsupportedOperationException.class, () -> map.values().remove(0));
+  }
+
+  @Test
+  @DisplayName("Null keys and values should be rejected")
+  void nullArguments_ShouldThrowNullPointerException() {
+    assertThrows(NullPointerException.class, () -> map.plus(null, "Null"));
+    assertThrows(NullPointerException.class, () -> map.plus(4, null));
+    assertThrows(NullPointerException.class, () -> map.get(null));
+    assertThrows(NullPointerException.class, () -> map.minus(null));
+  }
+
+  @Test
+  @DisplayName("Random operations should match TreeMap and preserve older versions")
+  void randomOperations_ShouldMatchTreeMap() {
+    Random random = new Random(42);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    PersistentTreeMap<Integer, Integer> actual = PersistentTreeMap.empty();
+    PersistentTreeMap<Integer, Integer> olderVersion = null;
+    List<Integer> olderValues = null;
+
+    for (int i = 0; i < 10_000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextBoolean()) {
+        expected.put(key, i);
+        actual = actual.plus(key, i);
+      } else {
+        expected.remove(key);
+        actual = actual.minus(key);
+      }
+      if (i == 5_000) {
+        olderVersion = actual;
+        olderValues = new ArrayList<>(expected.values());
+      }
+    }
+
+    assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(actual.values()));
+    assertEquals(olderValues, new ArrayList<>(olderVersion.values()));
+  }
+}
@@ -0,0 +1,62 @@
+package com.tasktracker.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/** Tests for the PersistentTreeSet class. */
+class PersistentTreeSetTest {
+
+  private PersistentTreeSet<Integer> set;
+
+  @BeforeEach
+  void setUp() {
+    set = PersistentTreeSet.<Integer>empty().plus(2).plus(1).plus(3);
+  }
+
+  @Test
+  @DisplayName("plus: Should keep elements in ascending order")
+  void plus_ShouldKeepElementsSorted() {
+    assertEquals(List.of(1, 2, 3), List.copyOf(set));
+    assertTrue(set.contains(2));
+    assertFalse(set.contains(4));
+    assertFalse(set.contains("2"));
+  }
+
+  @Test
+  @DisplayName("plus and minus: Should leave the original set unchanged")
+  void plusAndMinus_ShouldLeaveOriginalUnchanged() {
+    PersistentTreeSet<Integer> added = set.plus(4);
+    PersistentTreeSet<Integer> removed = set.minus(2);
+
+    assertEquals(Set.of(1, 2, 3, 4), added);
+    assertEquals(Set.of(1, 3), removed);
+    assertEquals(Set.of(1, 2, 3), set);
+  }
+
+  @Test
+  @DisplayName("plus and minus: Should return the same instance when nothing changes")
+  void plusAndMinus_NoChange_ShouldReturnSameInstance() {
+    assertSame(set, set.plus(2));
+    assertSame(set, set.minus(4));
+    assertSame(PersistentTreeSet.empty(), set.minus(1).minus(2).minus(3));
+  }
+
+  @Test
+  @DisplayName("copyOf: Should share a persistent set and copy any other collection")
+  void copyOf_ShouldShareOnlyPersistentSets() {
+    assertSame(set, PersistentTreeSet.copyOf(set));
+    assertEquals(set, PersistentTreeSet.copyOf(List.of(3, 1, 2, 1)));
+  }
+
+  @Test
+  @DisplayName("Set methods: Should reject modification and null elements")
+  void modification_ShouldThrow() {
+    assertThrows(UnsupportedOperationException.class, () -> set.add(4));
+    assertThrows(UnsupportedOperationException.class, () -> set.remove(1));
+    assertThrows(NullPointerException.class, () -> set.plus(null));
+    assertThrows(
+        NullPointerException.class, () -> PersistentTreeSet.copyOf(Arrays.asList(1, null)));
+  }
+}
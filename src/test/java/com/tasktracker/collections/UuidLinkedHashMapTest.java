@@ -0,0 +1,131 @@
+package com.tasktracker.collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for UuidLinkedHashMap covering ordering, removal, growth and sequenced views. */
+class UuidLinkedHashMapTest {
+  private static final UUID K1 = new UUID(0, 1);
+  private static final UUID K2 = new UUID(0, 2);
+  private static final UUID K3 = new UUID(0, 3);
+
+  private static UuidLinkedHashMap<String> mapOf(UUID... keys) {
+    UuidLinkedHashMap<String> map = new UuidLinkedHashMap<>();
+    for (UUID key : keys) {
+      map.put(key, "Value " + key.getLeastSignificantBits());
+    }
+    return map;
+  }
+
+  @Test
+  @DisplayName("put should append new keys and move existing keys to the end")
+  void put_ExistingKey_ShouldMoveToEnd() {
+    UuidLinkedHashMap<String> map = mapOf(K1, K2, K3);
+
+    assertEquals("Value 1", map.put(K1, "Replaced"));
+
+    assertEquals(List.of(K2, K3, K1), List.copyOf(map.keySet()));
+    assertEquals(List.of("Value 2", "Value 3", "Replaced"), List.copyOf(map.values()));
+    assertEquals("Replaced", map.get(K1));
+  }
+
+  @Test
+  @DisplayName("putFirst and putLast should place the key at the requested end")
+  void putFirstAndPutLast_ShouldPlaceKeyAtEnds() {
+    UuidLinkedHashMap<String> map = mapOf(K1, K2);
+
+    map.putFirst(K3, "Front");
+    map.putLast(K1, "Back");
+
+    assertEquals(List.of(K3, K2, K1), List.copyOf(map.keySet()));
+  }
+
+  @Test
+  @DisplayName("Null keys and values should be rejected")
+  void put_NullKeyOrValue_ShouldThrowNullPointerException() {
+    UuidLinkedHashMap<String> map = new UuidLinkedHashMap<>();
+    assertThrows(NullPointerException.class, () -> map.put(null, "Value"));
+    assertThrows(NullPointerException.class, () -> map.put(K1, null));
+    assertThrows(NullPointerException.class, () -> map.get(null));
+  }
+
+  @Test
+  @DisplayName("Polling entries should remove them from both ends")
+  void pollEntries_ShouldRemoveFromBothEnds() {
+    UuidLinkedHashMap<String> map = mapOf(K1, K2, K3);
+
+    assertEquals(Map.entry(K1, "Value 1"), map.pollFirstEntry());
+    assertEquals(Map.entry(K3, "Value 3"), map.pollLastEntry());
+    assertEquals(Map.entry(K2, "Value 2"), map.firstEntry());
+    assertEquals(Map.entry(K2, "Value 2"), map.lastEntry());
+    assertEquals(1, map.size());
+    map.clear();
+    assertNull(map.pollFirstEntry());
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  @DisplayName("The reversed view should iterate backwards and write to the other end")
+  void reversed_ShouldMirrorOrder() {
+    UuidLinkedHashMap<String> map = mapOf(K1, K2);
+    SequencedMap<UUID, String> reversed = map.reversed();
+
+    reversed.put(K3, "Value 3");
+
+    assertEquals(List.of(K3, K1, K2), List.copyOf(map.keySet()));
+    assertEquals(List.of(K2, K1, K3), List.copyOf(reversed.keySet()));
+    assertEquals(Map.entry(K2, "Value 2"), reversed.firstEntry());
+    assertSame(map, reversed.reversed());
+  }
+
+  @Test
+  @DisplayName("Iterator removal should unlink the entry and detect concurrent modification")
+  void iterator_RemoveAndConcurrentModification() {
+    UuidLinkedHashMap<String> map = mapOf(K1, K2, K3);
+    Iterator<UUID> iterator = map.keySet().iterator();
+    iterator.next();
+    iterator.remove();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    iterator.next();
+    map.remove(K3);
+
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+    assertEquals(List.of(K2), List.copyOf(map.keySet()));
+  }
+
+  @Test
+  @DisplayName("Random operations should match java.util.LinkedHashMap with move-to-end puts")
+  void randomOperations_ShouldMatchReferenceMap() {
+    Random random = new Random(42);
+    UUID[] keys = new UUID[300];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = new UUID(random.nextLong(), random.nextLong());
+    }
+    UuidLinkedHashMap<Integer> map = new UuidLinkedHashMap<>(0);
+    LinkedHashMap<UUID, Integer> reference = new LinkedHashMap<>();
+
+    for (int step = 0; step < 50_000; step++) {
+      UUID key = keys[random.nextInt(keys.length)];
+      switch (random.nextInt(4)) {
+        case 0, 1 -> {
+          Integer expected = reference.remove(key);
+          reference.put(key, step);
+          assertEquals(expected, map.put(key, step));
+        }
+        case 2 -> assertEquals(reference.remove(key), map.remove(key));
+        default -> {
+          assertEquals(reference.get(key), map.get(key));
+          assertEquals(reference.containsKey(key), map.containsKey(key));
+        }
+      }
+      if (step % 5_000 == 0) {
+        assertEquals(reference, map);
+        assertEquals(List.copyOf(reference.keySet()), List.copyOf(map.keySet()));
+      }
+    }
+    assertEquals(List.copyOf(reference.entrySet()), List.copyOf(map.entrySet()));
+  }
+}
@@ -0,0 +1,138 @@
+package com.tasktracker.task.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for TaskEventBus covering batching, ordering, overflow and failing subscribers. */
+class TaskEventBusTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+  private static List<TaskEvent> createdEvents(int count) throws ValidationException {
+    List<TaskEvent> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      events.add(
+          new TaskEvent.TaskCreated(
+              new RegularTask(
+                  UUID.randomUUID(),
+                  "Event task title " + i,
+                  "Event task description " + i,
+                  TaskStatus.NEW,
+                  NOW,
+                  NOW,
+                  null,
+                  null)));
+    }
+    return events;
+  }
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive capacity or batch size")
+  void constructor_NonPositiveArguments_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new TaskEventBus(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TaskEventBus(1, 0));
+  }
+
+  @Test
+  @DisplayName("Events should be delivered in publication order in bounded batches")
+  void publish_ManyEvents_ShouldDeliverInOrderInBatches() throws Exception {
+    List<TaskEvent> published = createdEvents(100);
+    List<TaskEvent> delivered = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(published.size());
+
+    try (TaskEventBus bus = new TaskEventBus(1000, 16)) {
+      assertFalse(bus.hasSubscribers());
+      bus.subscribe(
+          batch -> {
+            batchSizes.add(batch.size());
+            delivered.addAll(batch);
+            batch.forEach(event -> done.countDown());
+          });
+      assertTrue(bus.hasSubscribers());
+      for (TaskEvent event : published) {
+        bus.publish(List.of(event));
+      }
+
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+    assertEquals(published, delivered);
+    assertTrue(batchSizes.stream().allMatch(size -> size <= 16));
+  }
+
+  @Test
+  @DisplayName("Publishing to a full subscription should not block and should count drops")
+  void publish_SlowSubscriber_ShouldDropAndCountOverflow() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch firstBatch = new CountDownLatch(1);
+    List<TaskEvent> events = createdEvents(11);
+
+    try (TaskEventBus bus = new TaskEventBus(4, 4)) {
+      TaskEventBus.Subscription subscription =
+          bus.subscribe(
+              batch -> {
+                firstBatch.countDown();
+                try {
+                  release.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      bus.publish(events.subList(0, 1));
+      assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+
+      bus.publish(events.subList(1, 11));
+
+      assertEquals(6, subscription.droppedEvents());
+      release.countDown();
+    }
+  }
+
+  @Test
+  @DisplayName("A failing subscriber should keep receiving later batches")
+  void publish_SubscriberThrows_ShouldContinueDelivery() throws Exception {
+    List<TaskEvent> events = createdEvents(2);
+    BlockingQueue<TaskEvent> delivered = new LinkedBlockingQueue<>();
+
+    try (TaskEventBus bus = new TaskEventBus()) {
+      bus.subscribe(
+          batch -> {
+            delivered.addAll(batch);
+            throw new IllegalStateException("Subscriber failure");
+          });
+      Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+      Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {});
+      try {
+        bus.publish(events.subList(0, 1));
+        assertEquals(events.get(0), delivered.poll(5, TimeUnit.SECONDS));
+        bus.publish(events.subList(1, 2));
+        assertEquals(events.get(1), delivered.poll(5, TimeUnit.SECONDS));
+      } finally {
+        Thread.setDefaultUncaughtExceptionHandler(handler);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("A closed subscription should receive no further events")
+  void close_Subscription_ShouldStopDelivery() throws Exception {
+    BlockingQueue<TaskEvent> delivered = new LinkedBlockingQueue<>();
+
+    try (TaskEventBus bus = new TaskEventBus()) {
+      TaskEventBus.Subscription subscription = bus.subscribe(delivered::addAll);
+      subscription.close();
+      assertFalse(bus.hasSubscribers());
+
+      bus.publish(createdEvents(1));
+
+      assertNull(delivered.poll(200, TimeUnit.MILLISECONDS));
+    }
+  }
+}
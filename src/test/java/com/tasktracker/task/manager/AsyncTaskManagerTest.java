@@ -0,0 +1,149 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.dto.*;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.InMemoryHistoryStore;
+import com.tasktracker.task.store.InMemoryTaskRepository;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for AsyncTaskManager covering ordering, parallel epics and error propagation. */
+class AsyncTaskManagerTest {
+  private static final String TITLE_PREFIX = "Async Task Title ";
+  private static final String DESCRIPTION = "Async Task Description with enough characters";
+
+  private TaskManager manager;
+  private AsyncTaskManager asyncManager;
+
+  @BeforeEach
+  void setUp() {
+    manager =
+        new TaskManagerImpl(
+            new InMemoryTaskRepository(), new InMemoryHistoryManager(new InMemoryHistoryStore()));
+    asyncManager = new AsyncTaskManager(manager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    asyncManager.close();
+  }
+
+  private EpicTask addEpic(String suffix) {
+    asyncManager.addTask(new EpicTaskCreationDTO(TITLE_PREFIX + suffix, DESCRIPTION, null)).join();
+    return manager.getAllTasksByClass(EpicTask.class).stream()
+        .filter(epic -> epic.getTitle().equals(TITLE_PREFIX + suffix))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private SubTaskCreationDTO subTaskCreationDTO(String suffix, UUID epicId) {
+    return new SubTaskCreationDTO(TITLE_PREFIX + suffix, DESCRIPTION, epicId, null, null);
+  }
+
+  @Test
+  @DisplayName("Concurrent subtask creation on several epics should attach every subtask")
+  void addTask_ConcurrentSubTasks_ShouldAttachAllToTheirEpics() {
+    EpicTask first = addEpic("First");
+    EpicTask second = addEpic("Second");
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      futures.add(asyncManager.addTask(subTaskCreationDTO("A" + i, first.getId())));
+      futures.add(asyncManager.addTask(subTaskCreationDTO("B" + i, second.getId())));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    assertEquals(
+        200, ((EpicTask) manager.peekTask(first.getId()).orElseThrow()).getSubtaskIds().size());
+    assertEquals(
+        200, ((EpicTask) manager.peekTask(second.getId()).orElseThrow()).getSubtaskIds().size());
+    assertEquals(400, manager.getAllTasksByClass(SubTask.class).size());
+  }
+
+  @Test
+  @DisplayName("Updates of the same epic should be applied in submission order")
+  void updateTask_SameEpic_ShouldApplyInSubmissionOrder() {
+    EpicTask epic = addEpic("Ordered");
+    asyncManager.addTask(subTaskCreationDTO("Sub", epic.getId())).join();
+    SubTask subTask = manager.getAllTasksByClass(SubTask.class).iterator().next();
+    List<CompletableFuture<SubTask>> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(
+          asyncManager.updateTask(
+              new SubTaskUpdateDTO(
+                  subTask.getId(),
+                  TITLE_PREFIX + i,
+                  DESCRIPTION,
+                  i % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.DONE,
+                  epic.getId(),
+                  null,
+                  null)));
+    }
+
+    for (int i = 1; i < futures.size(); i++) {
+      assertEquals(TITLE_PREFIX + (i - 1), futures.get(i).join().getTitle());
+    }
+    Task updated = manager.peekTask(subTask.getId()).orElseThrow();
+    assertEquals(TITLE_PREFIX + 99, updated.getTitle());
+    assertEquals(TaskStatus.DONE, manager.peekTask(epic.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  @DisplayName("Checked exceptions should complete the future exceptionally")
+  void addTask_UnknownEpic_ShouldCompleteExceptionally() {
+    CompletableFuture<Void> future =
+        asyncManager.addTask(subTaskCreationDTO("Orphan", UUID.randomUUID()));
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertInstanceOf(ValidationException.class, exception.getCause());
+  }
+
+  @Test
+  @DisplayName("clearAllTasks should act as a barrier between earlier and later operations")
+  void clearAllTasks_ShouldOrderAgainstAllOperations() {
+    EpicTask epic = addEpic("Barrier");
+    List<CompletableFuture<Void>> before = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      before.add(asyncManager.addTask(subTaskCreationDTO("Before" + i, epic.getId())));
+      before.add(
+          asyncManager.addTask(
+              new RegularTaskCreationDTO(TITLE_PREFIX + "Regular" + i, DESCRIPTION, null, null)));
+    }
+    CompletableFuture<Void> clear = asyncManager.clearAllTasks();
+    CompletableFuture<Void> after =
+        asyncManager.addTask(
+            new RegularTaskCreationDTO(TITLE_PREFIX + "After", DESCRIPTION, null, null));
+    after.join();
+
+    assertTrue(clear.isDone());
+    assertTrue(before.stream().allMatch(CompletableFuture::isDone));
+    assertEquals(1, manager.getAllTasks().size());
+  }
+
+  @Test
+  @DisplayName("executeBatch should run the batch asynchronously")
+  void executeBatch_ShouldReturnResults() {
+    EpicTask epic = addEpic("Batch");
+    List<TaskCommandResult> results =
+        asyncManager
+            .executeBatch(
+                List.of(
+                    new TaskCommand.Create(subTaskCreationDTO("Batch1", epic.getId())),
+                    new TaskCommand.Create(subTaskCreationDTO("Batch2", epic.getId()))))
+            .join();
+
+    assertTrue(results.stream().allMatch(TaskCommandResult::isSuccess));
+    assertEquals(
+        2, ((EpicTask) manager.peekTask(epic.getId()).orElseThrow()).getSubtaskIds().size());
+  }
+}
@@ -0,0 +1,203 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ManagerSaveException;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.store.InMemoryHistoryStore;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for BatchingHistoryManager covering buffering, flushing and removal. */
+class BatchingHistoryManagerTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+  private static final Duration LONG_INTERVAL = Duration.ofHours(1);
+
+  private static Task task() throws ValidationException {
+    return new RegularTask(
+        UUID.randomUUID(),
+        "Batched history title",
+        "Batched history description",
+        TaskStatus.NEW,
+        NOW,
+        NOW,
+        null,
+        null);
+  }
+
+  private static BatchingHistoryManager manager(int bufferCapacity, Duration interval) {
+    return new BatchingHistoryManager(
+        new InMemoryHistoryStore(), bufferCapacity, interval, Clock.systemUTC());
+  }
+
+  private static List<UUID> taskIds(HistoryManager manager) {
+    return manager.getHistory().stream().map(TaskView::getTaskId).toList();
+  }
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive buffer capacity or flush interval")
+  void constructor_InvalidLimits_ShouldThrowIllegalArgumentException() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new BatchingHistoryManager(store, 0, LONG_INTERVAL, Clock.systemUTC()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new BatchingHistoryManager(store, 8, Duration.ZERO, Clock.systemUTC()));
+  }
+
+  @Test
+  @DisplayName("Buffered views should only show up in the history after a flush")
+  void put_ThenFlush_ShouldApplyViewsInOrder() throws ValidationException {
+    try (BatchingHistoryManager manager = manager(16, LONG_INTERVAL)) {
+      Task first = task();
+      Task second = task();
+      manager.put(first);
+      manager.put(second);
+      manager.put(first);
+
+      assertTrue(manager.getHistory().isEmpty());
+      manager.flush();
+      assertEquals(List.of(second.getId(), first.getId()), taskIds(manager));
+    }
+  }
+
+  @Test
+  @DisplayName("View times should come from the clock at the time of the view")
+  void put_FixedClock_ShouldStampViewTime() throws ValidationException {
+    Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    try (BatchingHistoryManager manager =
+        new BatchingHistoryManager(new InMemoryHistoryStore(), 16, LONG_INTERVAL, clock)) {
+      manager.put(task());
+      manager.flush();
+
+      assertEquals(NOW, manager.getHistory().iterator().next().getViewDateTime());
+    }
+  }
+
+  @Test
+  @DisplayName("A full buffer should be applied by the writer without losing views")
+  void put_BufferFull_ShouldApplyBatchSynchronously() throws ValidationException {
+    try (BatchingHistoryManager manager = manager(2, LONG_INTERVAL)) {
+      List<UUID> ids = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        Task task = task();
+        ids.add(task.getId());
+        manager.put(task);
+      }
+      manager.flush();
+
+      assertEquals(ids, taskIds(manager));
+    }
+  }
+
+  @Test
+  @DisplayName("remove should not be undone by a buffered view of the same task")
+  void remove_BufferedView_ShouldStayRemoved() throws ValidationException {
+    try (BatchingHistoryManager manager = manager(16, LONG_INTERVAL)) {
+      Task task = task();
+      manager.put(task);
+
+      assertTrue(manager.remove(task.getId()).isPresent());
+      manager.flush();
+      assertTrue(manager.getHistory().isEmpty());
+    }
+  }
+
+  @Test
+  @DisplayName("The background thread should apply views within the flush interval")
+  void put_Idle_ShouldBeAppliedInBackground() throws Exception {
+    try (BatchingHistoryManager manager = manager(16, Duration.ofMillis(5))) {
+      Task task = task();
+      manager.put(task);
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (manager.getHistory().isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals(List.of(task.getId()), taskIds(manager));
+    }
+  }
+
+  @Test
+  @DisplayName("close should apply the views still buffered")
+  void close_ShouldFlushRemainingViews() throws ValidationException {
+    InMemoryHistoryStore store = new InMemoryHistoryStore();
+    BatchingHistoryManager manager =
+        new BatchingHistoryManager(store, 16, LONG_INTERVAL, Clock.systemUTC());
+    manager.put(task());
+
+    manager.close();
+
+    assertEquals(1, store.getAll().size());
+    assertThrows(IllegalStateException.class, () -> manager.put(task()));
+  }
+
+  @Test
+  @DisplayName("The background thread should survive a batch the store fails to apply")
+  void put_StoreFailsOnce_ShouldKeepFlushingInBackground() throws Exception {
+    AtomicBoolean failNext = new AtomicBoolean(true);
+    InMemoryHistoryStore store =
+        new InMemoryHistoryStore() {
+          @Override
+          public Optional<TaskView> put(TaskView taskView) {
+            if (failNext.getAndSet(false)) {
+              throw new ManagerSaveException("Store unavailable", new IOException());
+            }
+            return super.put(taskView);
+          }
+        };
+    try (BatchingHistoryManager manager =
+        new BatchingHistoryManager(store, 16, Duration.ofMillis(5), Clock.systemUTC())) {
+      manager.put(task());
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (manager.getFlushFailureCount() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+
+      Task task = task();
+      manager.put(task);
+      while (manager.getHistory().isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+
+      assertEquals(1, manager.getFlushFailureCount());
+      assertEquals(List.of(task.getId()), taskIds(manager));
+    }
+  }
+
+  @Test
+  @DisplayName("Concurrent views from many threads should all be applied")
+  void put_ConcurrentWriters_ShouldApplyAllViews() throws Exception {
+    try (BatchingHistoryManager manager = manager(8, Duration.ofMillis(1))) {
+      List<Task> tasks = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        tasks.add(task());
+      }
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        threads.add(Thread.ofVirtual().start(() -> tasks.forEach(manager::put)));
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      manager.flush();
+
+      assertEquals(200, manager.getHistory().size());
+    }
+  }
+}
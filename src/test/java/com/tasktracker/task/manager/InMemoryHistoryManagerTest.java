@@ -7,8 +7,11 @@ import com.tasktracker.task.model.enums.TaskStatus;
 import com.tasktracker.task.model.implementations.RegularTask;
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.TopViewedCounter;
 import com.tasktracker.task.store.HistoryStore;
 import com.tasktracker.task.store.InMemoryHistoryStore;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -220,4 +223,39 @@ class InMemoryHistoryManagerTest {
         historyManager.getHistory().stream().map(TaskView::getTaskId).collect(Collectors.toList());
     assertEquals(idsAfterAddT4, idsAfterRemoveNonExistent);
   }
+
+  @Test
+  @DisplayName("put should feed every view to the view counter")
+  void put_WithViewCounter_ShouldCountViews() throws ValidationException {
+    TopViewedCounter viewCounter =
+        new TopViewedCounter(16, Duration.ofHours(1), 6, Clock.systemUTC());
+    historyManager = new InMemoryHistoryManager(historyStore, viewCounter);
+    Task popular = createTask("Popular");
+    Task other = createTask("Other");
+
+    historyManager.put(popular);
+    historyManager.put(other);
+    historyManager.put(popular);
+
+    assertEquals(
+        List.of(
+            new TopViewedCounter.ViewCount(popular.getId(), 2, 0),
+            new TopViewedCounter.ViewCount(other.getId(), 1, 0)),
+        viewCounter.topK(5));
+    assertEquals(2, historyManager.getHistory().size());
+  }
+
+  @Test
+  @DisplayName("getHistoryBetween should return the views made within the window")
+  void getHistoryBetween_RecentWindow_ShouldReturnRecentViews() throws ValidationException {
+    Task task = createTask("Windowed");
+    LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+    historyManager.put(task);
+
+    List<TaskView> recent =
+        historyManager.getHistoryBetween(before, LocalDateTime.now().plusSeconds(1));
+
+    assertEquals(List.of(task.getId()), recent.stream().map(TaskView::getTaskId).toList());
+    assertTrue(historyManager.getHistoryBetween(before.minusHours(1), before).isEmpty());
+  }
 }
@@ -3,16 +3,28 @@ package com.tasktracker.task.manager;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.tasktracker.task.dto.*;
+import com.tasktracker.task.event.TaskEvent;
+import com.tasktracker.task.event.TaskEventBus;
 import com.tasktracker.task.exception.ValidationException;
 import com.tasktracker.task.model.enums.TaskStatus;
 import com.tasktracker.task.model.implementations.*;
+import com.tasktracker.task.service.ManualClock;
+import com.tasktracker.task.service.TimeOrderedTaskIdGenerator;
+import com.tasktracker.task.store.ConcurrentHistoryStore;
+import com.tasktracker.task.store.CountingTaskRepository;
 import com.tasktracker.task.store.InMemoryHistoryStore;
 import com.tasktracker.task.store.InMemoryTaskRepository;
 import com.tasktracker.task.store.TaskRepository;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -191,6 +203,71 @@ public class InMemoryTaskManagerTest {
     assertThrows(NullPointerException.class, () -> new TaskManagerImpl(taskRepository, null));
   }
 
+  @Test
+  @DisplayName("Constructor should throw NullPointerException when the ID generator is null")
+  void testConstructor_NullIdGenerator_ThrowsNullPointerException() {
+    assertThrows(
+        NullPointerException.class,
+        () -> new TaskManagerImpl(taskRepository, historyManager, null, new TaskEventBus()));
+  }
+
+  // --- ID Generation Tests ---
+  @Test
+  @DisplayName("Tasks created by the default manager should get ascending IDs")
+  void testCreateTasks_DefaultIdGenerator_AssignsAscendingIds() throws ValidationException {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ids.add(addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Ordered" + i)).getId());
+    }
+
+    assertEquals(ids.stream().sorted().toList(), ids, "IDs should follow creation order");
+  }
+
+  @Test
+  @DisplayName("IDs of a generator requiring a collision check should skip IDs already in use")
+  void testCreateTask_CollidingIdGenerator_SkipsExistingId() throws ValidationException {
+    UUID takenId = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Taken")).getId();
+    UUID freeId = UUID.randomUUID();
+    Iterator<UUID> ids = List.of(takenId, freeId).iterator();
+    TaskManager collidingManager =
+        new TaskManagerImpl(taskRepository, historyManager, ids::next, new TaskEventBus());
+
+    collidingManager.addTask(createValidRegularTaskCreationDTO("Fresh"));
+
+    assertTrue(taskRepository.getTaskById(freeId).isPresent(), "Task should get the free ID");
+    assertEquals(2, taskRepository.getAllTasks().size());
+  }
+
+  // --- Clock Tests ---
+  @Test
+  @DisplayName("Creations, updates and views should be stamped with the injected clock")
+  void testMutations_InjectedClock_UseClockTime()
+      throws ValidationException, TaskNotFoundException {
+    ManualClock clock = new ManualClock(Instant.parse("2030-01-01T09:00:00Z"), ZoneOffset.UTC);
+    historyManager = new InMemoryHistoryManager(new InMemoryHistoryStore(), clock);
+    manager =
+        new TaskManagerImpl(
+            taskRepository,
+            historyManager,
+            new TimeOrderedTaskIdGenerator(),
+            new TaskEventBus(),
+            clock);
+    LocalDateTime created = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Clocked"));
+    clock.advance(Duration.ofHours(1));
+    manager.updateTask(
+        new RegularTaskUpdateDTO(
+            task.getId(), task.getTitle(), task.getDescription(), TaskStatus.DONE, null, null));
+    Task updated = manager.getTask(task.getId()).orElseThrow();
+
+    assertEquals(created, task.getCreationDate());
+    assertEquals(created, updated.getCreationDate());
+    assertEquals(created.plusHours(1), updated.getUpdateDate());
+    assertEquals(
+        created.plusHours(1), historyManager.getHistory().iterator().next().getViewDateTime());
+  }
+
   // --- getAllTasks() Tests ---
   @Test
   @DisplayName("getAllTasks should return an empty collection when no tasks exist")
@@ -399,6 +476,25 @@ public class InMemoryTaskManagerTest {
   }
 
   // --- removeTaskById(UUID id) Tests ---
+  @Test
+  @DisplayName("removeTaskById should remove the task from registered session histories")
+  void testRemoveTaskById_SessionHistory_RemovesView()
+      throws ValidationException, TaskNotFoundException {
+    SessionHistoryManager sessions =
+        new SessionHistoryManager(5, 10, Duration.ofMinutes(30), Clock.systemDefaultZone());
+    ((TaskManagerImpl) manager).addSessionHistory(sessions);
+    RegularTask removed = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Gone"));
+    RegularTask kept = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Kept"));
+    sessions.put("alice", removed);
+    sessions.put("alice", kept);
+
+    manager.removeTaskById(removed.getId());
+
+    assertEquals(
+        List.of(kept.getId()),
+        sessions.getHistory("alice").stream().map(TaskView::getTaskId).toList());
+  }
+
   @Test
   @DisplayName("removeTaskById should throw NullPointerException if ID is null")
   void testRemoveTaskById_NullId_ThrowsNullPointerException() {
@@ -911,6 +1007,82 @@ public class InMemoryTaskManagerTest {
     assertThrows(ValidationException.class, () -> manager.updateTask(dto));
   }
 
+  @Test
+  @DisplayName("updateTask (SubTask) with another epic ID should move the subtask between epics")
+  void testUpdateSubTask_OtherEpicId_MovesSubTaskAndRecomputesBothEpics()
+      throws ValidationException, TaskNotFoundException {
+    EpicTask source = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("MoveSource"));
+    EpicTask target = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("MoveTarget"));
+    SubTask staying = addAndRetrieveSubTask(createValidSubTaskCreationDTO("Stay", source.getId()));
+    SubTask moving =
+        addAndRetrieveSubTask(
+            createValidSubTaskCreationDTOWithTime(
+                "Move", source.getId(), DEFAULT_START_TIME, DEFAULT_DURATION));
+
+    SubTask previous =
+        manager.updateTask(
+            new SubTaskUpdateDTO(
+                moving.getId(),
+                moving.getTitle(),
+                moving.getDescription(),
+                TaskStatus.DONE,
+                target.getId(),
+                DEFAULT_START_TIME,
+                DEFAULT_DURATION));
+
+    assertEquals(source.getId(), previous.getEpicTaskId());
+    SubTask moved = (SubTask) manager.peekTask(moving.getId()).orElseThrow();
+    assertEquals(target.getId(), moved.getEpicTaskId());
+    EpicTask newSource = (EpicTask) manager.peekTask(source.getId()).orElseThrow();
+    assertEquals(Set.of(staying.getId()), newSource.getSubtaskIds());
+    assertEquals(TaskStatus.NEW, newSource.getStatus());
+    assertNull(newSource.getStartTime());
+    EpicTask newTarget = (EpicTask) manager.peekTask(target.getId()).orElseThrow();
+    assertEquals(Set.of(moving.getId()), newTarget.getSubtaskIds());
+    assertEquals(TaskStatus.DONE, newTarget.getStatus());
+    assertEquals(DEFAULT_START_TIME, newTarget.getStartTime());
+    assertEquals(DEFAULT_DURATION, newTarget.getDuration());
+  }
+
+  @Test
+  @DisplayName("updateTask (SubTask) moving into a foreign epic's window should change nothing")
+  void testUpdateSubTask_MoveOverlappingSourceEpic_ThrowsAndKeepsState()
+      throws ValidationException, TaskNotFoundException {
+    EpicTask source = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("OverlapSource"));
+    EpicTask target = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("OverlapTarget"));
+    addAndRetrieveSubTask(
+        createValidSubTaskCreationDTOWithTime(
+            "Early", source.getId(), DEFAULT_START_TIME, DEFAULT_DURATION));
+    addAndRetrieveSubTask(
+        createValidSubTaskCreationDTOWithTime(
+            "Late", source.getId(), DEFAULT_START_TIME_2, DEFAULT_DURATION));
+    SubTask moving =
+        addAndRetrieveSubTask(
+            createValidSubTaskCreationDTOWithTime(
+                "Middle", source.getId(), DEFAULT_START_TIME.plusHours(5), DEFAULT_DURATION));
+    EpicTask sourceBefore = (EpicTask) manager.peekTask(source.getId()).orElseThrow();
+
+    assertThrows(
+        ValidationException.class,
+        () ->
+            manager.updateTask(
+                new SubTaskUpdateDTO(
+                    moving.getId(),
+                    moving.getTitle(),
+                    moving.getDescription(),
+                    TaskStatus.NEW,
+                    target.getId(),
+                    moving.getStartTime(),
+                    moving.getDuration())));
+
+    assertEquals(
+        source.getId(), ((SubTask) manager.peekTask(moving.getId()).orElseThrow()).getEpicTaskId());
+    assertEquals(sourceBefore, manager.peekTask(source.getId()).orElseThrow());
+    assertTrue(
+        ((EpicTask) manager.peekTask(target.getId()).orElseThrow()).getSubtaskIds().isEmpty());
+    assertEquals(4, manager.getPrioritizedTasks().size());
+  }
+
   // --- updateTask(EpicTaskUpdateDTO dto) Tests ---
   @Test
   @DisplayName("updateTask (Epic) should update an existing EpicTask (title, description)")
@@ -1065,6 +1237,49 @@ public class InMemoryTaskManagerTest {
     assertEquals(historySizeBefore, manager.getHistory().size());
   }
 
+  @Test
+  @DisplayName("getHistory should return the cached list until a view or a task change")
+  void testGetHistory_NoChanges_ReturnsCachedList() throws Exception {
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Cached"));
+    RegularTask other = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Other"));
+    manager.getTask(task.getId());
+
+    Collection<Task> first = manager.getHistory();
+    assertSame(first, manager.getHistory());
+
+    manager.getTask(other.getId());
+    Collection<Task> afterView = manager.getHistory();
+    assertNotSame(first, afterView);
+    assertEquals(
+        List.of(task.getId(), other.getId()), afterView.stream().map(Task::getId).toList());
+
+    manager.updateTask(
+        new RegularTaskUpdateDTO(
+            task.getId(),
+            "Updated Cached Title",
+            "Updated Cached Description",
+            TaskStatus.DONE,
+            null,
+            null));
+    Collection<Task> afterUpdate = manager.getHistory();
+    assertNotSame(afterView, afterUpdate);
+    assertEquals(TaskStatus.DONE, afterUpdate.iterator().next().getStatus());
+  }
+
+  @Test
+  @DisplayName("getHistory should not cache a history whose views expire")
+  void testGetHistory_ExpiringHistory_IsNotCached() throws ValidationException {
+    manager =
+        new TaskManagerImpl(
+            taskRepository,
+            new InMemoryHistoryManager(
+                new InMemoryHistoryStore(10, Duration.ofHours(1), Clock.systemDefaultZone())));
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Expiring"));
+    manager.getTask(task.getId());
+
+    assertNotSame(manager.getHistory(), manager.getHistory());
+  }
+
   // --- Complex Scenarios ---
   @Test
   @DisplayName("Epic status should be NEW if all SubTasks are NEW")
@@ -1256,4 +1471,607 @@ public class InMemoryTaskManagerTest {
     assertNull(updatedEpic.getStartTime());
     assertNull(updatedEpic.getDuration());
   }
+
+  // --- executeBatch() Tests ---
+  @Test
+  @DisplayName("executeBatch should create tasks and recompute each affected epic once")
+  void testExecuteBatch_CreateTasks_AppliesAllCommands() throws ValidationException {
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("BatchEpic"));
+    long versionBefore = taskRepository.snapshot().getVersion();
+
+    List<TaskCommandResult> results =
+        manager.executeBatch(
+            List.of(
+                new TaskCommand.Create(createValidRegularTaskCreationDTO("BatchRegular")),
+                new TaskCommand.Create(
+                    createValidSubTaskCreationDTOWithTime(
+                        "BatchSub1", epic.getId(), DEFAULT_START_TIME, DEFAULT_DURATION)),
+                new TaskCommand.Create(
+                    createValidSubTaskCreationDTOWithTime(
+                        "BatchSub2", epic.getId(), DEFAULT_START_TIME_2, DEFAULT_DURATION))));
+
+    assertTrue(results.stream().allMatch(TaskCommandResult::isSuccess));
+    assertEquals(versionBefore + 1, taskRepository.snapshot().getVersion());
+    EpicTask updatedEpic = (EpicTask) manager.getTask(epic.getId()).orElseThrow();
+    assertEquals(
+        Set.of(results.get(1).task().getId(), results.get(2).task().getId()),
+        updatedEpic.getSubtaskIds());
+    assertEquals(DEFAULT_START_TIME, updatedEpic.getStartTime());
+    assertEquals(DEFAULT_START_TIME_2.plus(DEFAULT_DURATION), updatedEpic.getEndTime());
+    assertEquals(4, manager.getAllTasks().size());
+  }
+
+  @Test
+  @DisplayName("executeBatch should report rejected commands and apply the rest")
+  void testExecuteBatch_InvalidCommands_ReportsPerCommandResults() throws ValidationException {
+    RegularTask existing =
+        addAndRetrieveRegularTask(
+            createValidRegularTaskCreationDTOWithTime(
+                "BatchExisting", DEFAULT_START_TIME, DEFAULT_DURATION));
+
+    List<TaskCommandResult> results =
+        manager.executeBatch(
+            List.of(
+                new TaskCommand.Create(
+                    new RegularTaskCreationDTO(
+                        INVALID_SHORT_TITLE, INVALID_SHORT_DESCRIPTION, null, null)),
+                new TaskCommand.Create(
+                    createValidRegularTaskCreationDTOWithTime(
+                        "BatchOverlap", DEFAULT_START_TIME.plusHours(1), DEFAULT_DURATION)),
+                new TaskCommand.Create(
+                    createValidSubTaskCreationDTO("BatchOrphan", UUID.randomUUID())),
+                new TaskCommand.Create(
+                    createValidRegularTaskCreationDTOWithTime(
+                        "BatchFree", DEFAULT_START_TIME_2, DEFAULT_DURATION)),
+                new TaskCommand.Create(
+                    createValidRegularTaskCreationDTOWithTime(
+                        "BatchOverlapInBatch", DEFAULT_START_TIME_2, DEFAULT_DURATION))));
+
+    assertEquals(
+        List.of(false, false, false, true, false),
+        results.stream().map(TaskCommandResult::isSuccess).toList());
+    assertTrue(
+        results.stream()
+            .filter(result -> !result.isSuccess())
+            .allMatch(result -> result.error() instanceof ValidationException));
+    assertEquals(
+        Set.of(existing.getId(), results.get(3).task().getId()),
+        manager.getAllTasks().stream().map(Task::getId).collect(Collectors.toSet()));
+    assertEquals(2, manager.getPrioritizedTasks().size());
+  }
+
+  @Test
+  @DisplayName("executeBatch should update and delete tasks and keep epics consistent")
+  void testExecuteBatch_UpdateAndDelete_KeepsEpicConsistent()
+      throws ValidationException, TaskNotFoundException {
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("BatchEpicUpd"));
+    SubTask kept = addAndRetrieveSubTask(createValidSubTaskCreationDTO("BatchKept", epic.getId()));
+    SubTask deleted =
+        addAndRetrieveSubTask(createValidSubTaskCreationDTO("BatchDeleted", epic.getId()));
+    RegularTask regular =
+        addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("BatchRegularDel"));
+    manager.getTask(regular.getId());
+
+    List<TaskCommandResult> results =
+        manager.executeBatch(
+            List.of(
+                new TaskCommand.Update(
+                    new SubTaskUpdateDTO(
+                        kept.getId(),
+                        kept.getTitle(),
+                        kept.getDescription(),
+                        TaskStatus.DONE,
+                        epic.getId(),
+                        null,
+                        null)),
+                new TaskCommand.Delete(deleted.getId()),
+                new TaskCommand.Delete(regular.getId()),
+                new TaskCommand.Delete(UUID.randomUUID()),
+                new TaskCommand.Update(
+                    new EpicTaskUpdateDTO(
+                        epic.getId(), VALID_TITLE_PREFIX + "Renamed", epic.getDescription()))));
+
+    assertTrue(results.stream().allMatch(TaskCommandResult::isSuccess));
+    assertEquals(TaskStatus.NEW, results.get(0).task().getStatus());
+    assertTrue(results.get(3).getTask().isEmpty());
+    EpicTask updatedEpic = (EpicTask) manager.getTask(epic.getId()).orElseThrow();
+    assertEpicState(
+        updatedEpic, VALID_TITLE_PREFIX + "Renamed", epic.getDescription(), TaskStatus.DONE, 1);
+    assertEquals(Set.of(kept.getId()), updatedEpic.getSubtaskIds());
+    assertTrue(manager.getTask(regular.getId()).isEmpty());
+    assertFalse(manager.getHistory().stream().anyMatch(t -> t.getId().equals(regular.getId())));
+  }
+
+  @Test
+  @DisplayName("executeBatch should delete an epic together with subtasks created in the batch")
+  void testExecuteBatch_DeleteEpic_RemovesBatchSubTasks() throws ValidationException {
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("BatchEpicDel"));
+
+    List<TaskCommandResult> results =
+        manager.executeBatch(
+            List.of(
+                new TaskCommand.Create(createValidSubTaskCreationDTO("BatchSubDel", epic.getId())),
+                new TaskCommand.Delete(epic.getId())));
+
+    assertTrue(results.stream().allMatch(TaskCommandResult::isSuccess));
+    assertTrue(manager.getAllTasks().isEmpty());
+  }
+
+  // --- Transaction Tests ---
+  @Test
+  @DisplayName("A rejected SubTask update should leave repository and schedule untouched")
+  void testUpdateSubTask_Overlap_LeavesRepositoryAndScheduleUnchanged()
+      throws ValidationException, TaskNotFoundException {
+    addAndRetrieveRegularTask(
+        createValidRegularTaskCreationDTOWithTime(
+            "Blocker", DEFAULT_START_TIME_2, DEFAULT_DURATION));
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("TxEpic"));
+    SubTask sub =
+        addAndRetrieveSubTask(
+            createValidSubTaskCreationDTOWithTime(
+                "TxSub", epic.getId(), DEFAULT_START_TIME, DEFAULT_DURATION));
+    List<Task> scheduleBefore = manager.getPrioritizedTasks();
+    long versionBefore = taskRepository.snapshot().getVersion();
+
+    assertThrows(
+        ValidationException.class,
+        () ->
+            manager.updateTask(
+                new SubTaskUpdateDTO(
+                    sub.getId(),
+                    sub.getTitle(),
+                    sub.getDescription(),
+                    TaskStatus.DONE,
+                    epic.getId(),
+                    DEFAULT_START_TIME_2,
+                    DEFAULT_DURATION)));
+
+    assertEquals(versionBefore, taskRepository.snapshot().getVersion());
+    assertEquals(sub, manager.peekTask(sub.getId()).orElseThrow());
+    assertEquals(scheduleBefore, manager.getPrioritizedTasks());
+    assertEquals(TaskStatus.NEW, manager.peekTask(epic.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  @DisplayName("Adding a SubTask should write the subtask and its epic in one repository change")
+  void testAddSubTask_WritesRepositoryOnce() throws ValidationException, TaskNotFoundException {
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("OneWrite"));
+    long versionBefore = taskRepository.snapshot().getVersion();
+
+    manager.addTask(createValidSubTaskCreationDTO("OneWriteSub", epic.getId()));
+
+    assertEquals(versionBefore + 1, taskRepository.snapshot().getVersion());
+    assertEquals(
+        1, ((EpicTask) manager.peekTask(epic.getId()).orElseThrow()).getSubtaskIds().size());
+  }
+
+  // --- Concurrency Tests ---
+  @Test
+  @DisplayName(
+      "Concurrent updates and opposite moves across epics should neither lose nor deadlock")
+  void testConcurrentMovesBetweenEpics_ShouldKeepEpicsConsistent() throws Exception {
+    EpicTask first = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("ConcurrentFirst"));
+    EpicTask second = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("ConcurrentSecond"));
+    List<SubTask> subTasks = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      UUID epicId = i % 2 == 0 ? first.getId() : second.getId();
+      subTasks.add(addAndRetrieveSubTask(createValidSubTaskCreationDTO("Concurrent" + i, epicId)));
+    }
+
+    List<Callable<Void>> workers = new ArrayList<>();
+    for (SubTask subTask : subTasks) {
+      workers.add(
+          () -> {
+            for (int round = 0; round < 200; round++) {
+              UUID epicId = round % 2 == 0 ? second.getId() : first.getId();
+              manager.updateTask(
+                  new SubTaskUpdateDTO(
+                      subTask.getId(),
+                      subTask.getTitle(),
+                      subTask.getDescription(),
+                      TaskStatus.IN_PROGRESS,
+                      epicId,
+                      null,
+                      null));
+            }
+            return null;
+          });
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(workers.size())) {
+      for (Future<Void> future : executor.invokeAll(workers, 30, TimeUnit.SECONDS)) {
+        future.get();
+      }
+    }
+
+    EpicTask firstAfter = (EpicTask) manager.peekTask(first.getId()).orElseThrow();
+    EpicTask secondAfter = (EpicTask) manager.peekTask(second.getId()).orElseThrow();
+    assertEquals(8, firstAfter.getSubtaskIds().size());
+    assertTrue(secondAfter.getSubtaskIds().isEmpty());
+    assertEquals(TaskStatus.IN_PROGRESS, firstAfter.getStatus());
+    assertEquals(TaskStatus.NEW, secondAfter.getStatus());
+    for (SubTask subTask : subTasks) {
+      assertEquals(
+          first.getId(),
+          ((SubTask) manager.peekTask(subTask.getId()).orElseThrow()).getEpicTaskId());
+    }
+  }
+
+  // --- Optimistic Concurrency Tests ---
+  @Test
+  @DisplayName("Updates should increment the versions of the task and of its epic")
+  void testUpdateSubTask_IncrementsVersions() throws ValidationException, TaskNotFoundException {
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("VersionEpic"));
+    SubTask sub = addAndRetrieveSubTask(createValidSubTaskCreationDTO("VersionSub", epic.getId()));
+    assertEquals(0, sub.getVersion());
+    assertEquals(1, manager.peekTask(epic.getId()).orElseThrow().getVersion());
+
+    manager.updateTask(
+        new SubTaskUpdateDTO(
+            sub.getId(),
+            sub.getTitle(),
+            sub.getDescription(),
+            TaskStatus.DONE,
+            epic.getId(),
+            null,
+            null));
+
+    assertEquals(1, manager.peekTask(sub.getId()).orElseThrow().getVersion());
+    assertEquals(2, manager.peekTask(epic.getId()).orElseThrow().getVersion());
+  }
+
+  @Test
+  @DisplayName("Conditional update with a stale version should fail and change nothing")
+  void testConditionalUpdate_StaleVersion_ThrowsVersionConflictException()
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Conditional"));
+    RegularTaskUpdateDTO first =
+        new RegularTaskUpdateDTO(
+            task.getId(), task.getTitle(), task.getDescription(), TaskStatus.DONE, null, null);
+    RegularTaskUpdateDTO stale =
+        new RegularTaskUpdateDTO(
+            task.getId(),
+            VALID_TITLE_PREFIX + "Stale",
+            task.getDescription(),
+            TaskStatus.NEW,
+            null,
+            null);
+
+    assertEquals(task, manager.updateTask(first, 0));
+    VersionConflictException conflict =
+        assertThrows(VersionConflictException.class, () -> manager.updateTask(stale, 0));
+
+    assertEquals(1, conflict.getActualVersion());
+    Task current = manager.peekTask(task.getId()).orElseThrow();
+    assertEquals(TaskStatus.DONE, current.getStatus());
+    assertEquals(task.getTitle(), current.getTitle());
+  }
+
+  @Test
+  @DisplayName("Concurrent read-modify-write cycles with retries should not lose updates")
+  void testOptimisticRetry_ConcurrentIncrements_ShouldApplyEveryUpdate() throws Exception {
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Counter"));
+    int workers = 8;
+    int updatesPerWorker = 50;
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      tasks.add(
+          () -> {
+            for (int round = 0; round < updatesPerWorker; round++) {
+              OptimisticRetry.updateTask(
+                  manager,
+                  task.getId(),
+                  Integer.MAX_VALUE,
+                  current ->
+                      new RegularTaskUpdateDTO(
+                          current.getId(),
+                          VALID_TITLE_PREFIX + (current.getVersion() + 1),
+                          current.getDescription(),
+                          current.getStatus(),
+                          null,
+                          null));
+            }
+            return null;
+          });
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+      for (Future<Void> future : executor.invokeAll(tasks, 30, TimeUnit.SECONDS)) {
+        future.get();
+      }
+    }
+
+    Task current = manager.peekTask(task.getId()).orElseThrow();
+    assertEquals(workers * updatesPerWorker, current.getVersion());
+    assertEquals(VALID_TITLE_PREFIX + workers * updatesPerWorker, current.getTitle());
+  }
+
+  @Test
+  @DisplayName("Concurrent views through a concurrent history store should all be recorded")
+  void testGetTask_ConcurrentHistoryStore_RecordsAllViews() throws Exception {
+    historyManager = new InMemoryHistoryManager(new ConcurrentHistoryStore());
+    manager = new TaskManagerImpl(taskRepository, historyManager);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ids.add(addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Viewed" + i)).getId());
+    }
+    List<Callable<Void>> viewers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      viewers.add(
+          () -> {
+            for (int round = 0; round < 100; round++) {
+              ids.forEach(manager::getTask);
+            }
+            return null;
+          });
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      for (Future<Void> future : executor.invokeAll(viewers)) {
+        future.get();
+      }
+    }
+
+    assertTrue(historyManager.isConcurrent());
+    assertEquals(
+        new HashSet<>(ids),
+        manager.getHistory().stream().map(Task::getId).collect(Collectors.toSet()));
+  }
+
+  @Test
+  @DisplayName("Batched views should reach the history once flushed and be evicted on removal")
+  void testGetTask_BatchingHistoryManager_AppliesViewsOnFlush() throws Exception {
+    try (BatchingHistoryManager batchingHistory =
+        new BatchingHistoryManager(new InMemoryHistoryStore())) {
+      manager = new TaskManagerImpl(taskRepository, batchingHistory);
+      Task first = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("BatchedFirst"));
+      Task second = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("BatchedSecond"));
+      manager.getTask(first.getId());
+      manager.getTask(second.getId());
+
+      batchingHistory.flush();
+      assertEquals(
+          List.of(first.getId(), second.getId()),
+          manager.getHistory().stream().map(Task::getId).toList());
+
+      manager.getTask(first.getId());
+      manager.removeTaskById(first.getId());
+      batchingHistory.flush();
+      assertEquals(
+          List.of(second.getId()), manager.getHistory().stream().map(Task::getId).toList());
+    }
+  }
+
+  // --- Event Tests ---
+  private static List<TaskEvent> awaitEvents(BlockingQueue<TaskEvent> events, int count)
+      throws InterruptedException {
+    List<TaskEvent> received = new ArrayList<>();
+    while (received.size() < count) {
+      TaskEvent event = events.poll(5, TimeUnit.SECONDS);
+      assertNotNull(event, "Expected " + count + " events but got " + received);
+      received.add(event);
+    }
+    return received;
+  }
+
+  @Test
+  @DisplayName("Committed changes should be published as typed events")
+  void testEvents_SubTaskLifecycle_PublishesCreatedUpdatedRecomputedAndRemoved()
+      throws ValidationException, TaskNotFoundException, InterruptedException {
+    BlockingQueue<TaskEvent> events = new LinkedBlockingQueue<>();
+    try (TaskEventBus eventBus = new TaskEventBus()) {
+      eventBus.subscribe(events::addAll);
+      manager =
+          new TaskManagerImpl(
+              taskRepository, historyManager, new TimeOrderedTaskIdGenerator(), eventBus);
+
+      EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("EventEpic"));
+      assertEquals(List.of(new TaskEvent.TaskCreated(epic)), awaitEvents(events, 1));
+
+      SubTask sub = addAndRetrieveSubTask(createValidSubTaskCreationDTO("EventSub", epic.getId()));
+      EpicTask epicWithSub = (EpicTask) manager.peekTask(epic.getId()).orElseThrow();
+      assertEquals(
+          Set.of(new TaskEvent.TaskCreated(sub), new TaskEvent.TaskUpdated(epic, epicWithSub)),
+          new HashSet<>(awaitEvents(events, 2)));
+
+      manager.updateTask(
+          new SubTaskUpdateDTO(
+              sub.getId(),
+              sub.getTitle(),
+              sub.getDescription(),
+              TaskStatus.DONE,
+              epic.getId(),
+              null,
+              null));
+      EpicTask doneEpic = (EpicTask) manager.peekTask(epic.getId()).orElseThrow();
+      List<TaskEvent> updateEvents = awaitEvents(events, 3);
+      assertTrue(updateEvents.contains(new TaskEvent.EpicRecomputed(epicWithSub, doneEpic)));
+      assertTrue(updateEvents.contains(new TaskEvent.TaskUpdated(epicWithSub, doneEpic)));
+
+      manager.removeTaskById(sub.getId());
+      List<TaskEvent> removalEvents = awaitEvents(events, 3);
+      assertTrue(
+          removalEvents.stream()
+              .anyMatch(
+                  event ->
+                      event instanceof TaskEvent.TaskRemoved(Task removed)
+                          && removed.getId().equals(sub.getId())
+                          && removed.getStatus() == TaskStatus.DONE));
+      assertTrue(removalEvents.stream().anyMatch(TaskEvent.EpicRecomputed.class::isInstance));
+    }
+  }
+
+  @Test
+  @DisplayName("A rejected change should not publish any event")
+  void testEvents_RejectedChange_PublishesNothing()
+      throws ValidationException, InterruptedException {
+    BlockingQueue<TaskEvent> events = new LinkedBlockingQueue<>();
+    try (TaskEventBus eventBus = new TaskEventBus()) {
+      eventBus.subscribe(events::addAll);
+      manager =
+          new TaskManagerImpl(
+              taskRepository, historyManager, new TimeOrderedTaskIdGenerator(), eventBus);
+      manager.addTask(
+          new RegularTaskCreationDTO(
+              VALID_TITLE_PREFIX + "First",
+              VALID_DESCRIPTION_PREFIX + "First",
+              DEFAULT_START_TIME,
+              DEFAULT_DURATION));
+      awaitEvents(events, 1);
+
+      assertThrows(
+          ValidationException.class,
+          () ->
+              manager.addTask(
+                  new RegularTaskCreationDTO(
+                      VALID_TITLE_PREFIX + "Overlapping",
+                      VALID_DESCRIPTION_PREFIX + "Overlapping",
+                      DEFAULT_START_TIME,
+                      DEFAULT_DURATION)));
+
+      assertNull(events.poll(200, TimeUnit.MILLISECONDS), "No event should be published");
+    }
+  }
+
+  // --- Repository Access Tests ---
+  @Test
+  @DisplayName("Updating a subtask should read each task at most once per operation")
+  void testUpdateSubTask_ReadsRepositoryOncePerTask()
+      throws ValidationException, TaskNotFoundException {
+    CountingTaskRepository countingRepository = new CountingTaskRepository(taskRepository);
+    manager = new TaskManagerImpl(countingRepository, historyManager);
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("CountedEpic"));
+    for (int i = 0; i < 5; i++) {
+      addAndRetrieveSubTask(createValidSubTaskCreationDTO("CountedSub" + i, epic.getId()));
+    }
+    SubTask sub = manager.getEpicSubtasks(epic.getId()).iterator().next();
+    countingRepository.resetCallCounts();
+
+    manager.updateTask(
+        new SubTaskUpdateDTO(
+            sub.getId(),
+            sub.getTitle(),
+            sub.getDescription(),
+            TaskStatus.DONE,
+            epic.getId(),
+            null,
+            null));
+
+    assertEquals(
+        Map.of("getTaskById", 1L, "snapshot", 1L, "applyChanges", 1L),
+        countingRepository.getCallCounts());
+  }
+
+  @Test
+  @DisplayName("A conditional update should check the version and update in one read")
+  void testConditionalUpdate_ReadsRepositoryOnce()
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    CountingTaskRepository countingRepository = new CountingTaskRepository(taskRepository);
+    manager = new TaskManagerImpl(countingRepository, historyManager);
+    RegularTask task = addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Versioned"));
+    countingRepository.resetCallCounts();
+
+    manager.updateTask(
+        new RegularTaskUpdateDTO(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            TaskStatus.DONE,
+            null,
+            null),
+        task.getVersion());
+
+    assertEquals(
+        Map.of("getTaskById", 1L, "snapshot", 1L, "applyChanges", 1L),
+        countingRepository.getCallCounts());
+  }
+
+  @Test
+  @DisplayName("getEpicSubtasks and getHistory should read from a single snapshot")
+  void testReadOperations_UseSingleSnapshot() throws ValidationException, TaskNotFoundException {
+    CountingTaskRepository countingRepository = new CountingTaskRepository(taskRepository);
+    manager = new TaskManagerImpl(countingRepository, historyManager);
+    EpicTask epic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("SnapshotEpic"));
+    for (int i = 0; i < 5; i++) {
+      SubTask sub =
+          addAndRetrieveSubTask(createValidSubTaskCreationDTO("SnapshotSub" + i, epic.getId()));
+      manager.getTask(sub.getId());
+    }
+    countingRepository.resetCallCounts();
+
+    assertEquals(5, manager.getEpicSubtasks(epic.getId()).size());
+    assertEquals(Map.of("snapshot", 1L), countingRepository.getCallCounts());
+    countingRepository.resetCallCounts();
+    assertEquals(5, manager.getHistory().size());
+    assertEquals(Map.of("snapshot", 1L), countingRepository.getCallCounts());
+  }
+
+  @Test
+  @DisplayName("A failed move should not restore its old schedule over a concurrently added task")
+  void testMoveSubTask_FailedCommit_ShouldNotOverlapConcurrentAdd() throws Exception {
+    CountDownLatch commitStarted = new CountDownLatch(1);
+    CountDownLatch concurrentAddDone = new CountDownLatch(1);
+    AtomicBoolean failCommits = new AtomicBoolean();
+    taskRepository =
+        new InMemoryTaskRepository() {
+          @Override
+          public void applyChanges(
+              Collection<? extends Task> tasksToSave, Collection<UUID> idsToRemove) {
+            if (failCommits.get()) {
+              commitStarted.countDown();
+              try {
+                concurrentAddDone.await(30, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              throw new IllegalStateException("Simulated write failure");
+            }
+            super.applyChanges(tasksToSave, idsToRemove);
+          }
+        };
+    manager = new TaskManagerImpl(taskRepository, historyManager);
+    EpicTask sourceEpic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("SourceEpic"));
+    EpicTask targetEpic = addAndRetrieveEpicTask(createValidEpicTaskCreationDTO("TargetEpic"));
+    addAndRetrieveSubTask(
+        createValidSubTaskCreationDTOWithTime(
+            "StayingSub", sourceEpic.getId(), DEFAULT_START_TIME, DEFAULT_DURATION));
+    SubTask moving =
+        addAndRetrieveSubTask(
+            createValidSubTaskCreationDTOWithTime(
+                "MovingSub",
+                sourceEpic.getId(),
+                DEFAULT_START_TIME.plusHours(4),
+                DEFAULT_DURATION));
+    List<Task> scheduleBefore = manager.getPrioritizedTasks();
+    failCommits.set(true);
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      Future<?> move =
+          executor.submit(
+              () ->
+                  manager.updateTask(
+                      new SubTaskUpdateDTO(
+                          moving.getId(),
+                          moving.getTitle(),
+                          moving.getDescription(),
+                          moving.getStatus(),
+                          targetEpic.getId(),
+                          DEFAULT_START_TIME_2,
+                          DEFAULT_DURATION)));
+      assertTrue(commitStarted.await(30, TimeUnit.SECONDS));
+      try {
+        assertThrows(
+            ValidationException.class,
+            () ->
+                manager.addTask(
+                    createValidRegularTaskCreationDTOWithTime(
+                        "FreedTimeTask", DEFAULT_START_TIME.plusHours(4), DEFAULT_DURATION)),
+            "The time freed by the move must stay reserved until it commits");
+      } finally {
+        concurrentAddDone.countDown();
+      }
+      ExecutionException failure = assertThrows(ExecutionException.class, move::get);
+      assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    assertEquals(scheduleBefore, manager.getPrioritizedTasks());
+    assertTrue(manager.getAllTasksByClass(RegularTask.class).isEmpty());
+  }
 }
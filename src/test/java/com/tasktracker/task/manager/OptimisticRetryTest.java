@@ -0,0 +1,56 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for OptimisticRetry covering retries, exhaustion and argument checks. */
+class OptimisticRetryTest {
+  private static final UUID TASK_ID = UUID.randomUUID();
+
+  @Test
+  @DisplayName("retry should run the action again until it stops conflicting")
+  void retry_ConflictsThenSuccess_ShouldReturnResult() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+
+    String result =
+        OptimisticRetry.retry(
+            5,
+            () -> {
+              if (attempts.incrementAndGet() < 3) {
+                throw new VersionConflictException(TASK_ID, 0, 1);
+              }
+              return "done";
+            });
+
+    assertEquals("done", result);
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  @DisplayName("retry should rethrow the conflict once the attempts are exhausted")
+  void retry_AlwaysConflicting_ShouldThrowAfterMaxAttempts() {
+    AtomicInteger attempts = new AtomicInteger();
+
+    assertThrows(
+        VersionConflictException.class,
+        () ->
+            OptimisticRetry.retry(
+                4,
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new VersionConflictException(TASK_ID, 0, 1);
+                }));
+    assertEquals(4, attempts.get());
+  }
+
+  @Test
+  @DisplayName("retry should reject a non-positive number of attempts")
+  void retry_NonPositiveAttempts_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> OptimisticRetry.retry(0, () -> "never"));
+  }
+}
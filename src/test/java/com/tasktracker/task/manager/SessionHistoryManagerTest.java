@@ -0,0 +1,225 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.model.implementations.TaskView;
+import com.tasktracker.task.service.CachedClock;
+import com.tasktracker.task.service.ManualClock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for SessionHistoryManager covering session isolation, idle eviction and caps. */
+class SessionHistoryManagerTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+  private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+  private final ManualClock clock = new ManualClock(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+  private static Task task() throws ValidationException {
+    return new RegularTask(
+        UUID.randomUUID(),
+        "Session task",
+        "Session task description",
+        TaskStatus.NEW,
+        NOW,
+        NOW,
+        null,
+        null);
+  }
+
+  private static List<UUID> taskIds(SessionHistoryManager manager, String sessionId) {
+    return manager.getHistory(sessionId).stream().map(TaskView::getTaskId).toList();
+  }
+
+  @Test
+  @DisplayName("Constructor should reject non-positive limits")
+  void constructor_InvalidLimits_ShouldThrowIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SessionHistoryManager(0, 10, IDLE_TIMEOUT, clock));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SessionHistoryManager(10, 0, IDLE_TIMEOUT, clock));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SessionHistoryManager(10, 10, Duration.ZERO, clock));
+  }
+
+  @Test
+  @DisplayName("Each session should keep its own bounded history")
+  void put_DifferentSessions_ShouldKeepSeparateHistories() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(2, 10, IDLE_TIMEOUT, clock);
+    Task first = task();
+    Task second = task();
+    Task third = task();
+
+    manager.put("alice", first);
+    manager.put("alice", second);
+    manager.put("alice", third);
+    manager.put("bob", first);
+
+    assertEquals(List.of(second.getId(), third.getId()), taskIds(manager, "alice"));
+    assertEquals(List.of(first.getId()), taskIds(manager, "bob"));
+    assertTrue(manager.getHistory("carol").isEmpty());
+    assertEquals(2, manager.getSessionCount());
+  }
+
+  @Test
+  @DisplayName("removeTask should remove the task from every session")
+  void removeTask_ShouldRemoveFromAllSessions() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(5, 10, IDLE_TIMEOUT, clock);
+    Task shared = task();
+    Task own = task();
+    manager.put("alice", shared);
+    manager.put("alice", own);
+    manager.put("bob", shared);
+
+    manager.removeTask(shared.getId());
+
+    assertEquals(List.of(own.getId()), taskIds(manager, "alice"));
+    assertTrue(manager.getHistory("bob").isEmpty());
+  }
+
+  @Test
+  @DisplayName("evictIdleSessions should drop only sessions idle for the timeout")
+  void evictIdleSessions_ShouldDropIdleSessions() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(5, 10, IDLE_TIMEOUT, clock);
+    manager.put("alice", task());
+    manager.put("bob", task());
+    clock.advance(IDLE_TIMEOUT);
+    manager.getHistory("bob");
+    clock.advance(Duration.ofMinutes(1));
+
+    manager.evictIdleSessions();
+
+    assertTrue(manager.getHistory("alice").isEmpty());
+    assertEquals(1, manager.getHistory("bob").size());
+    assertEquals(1, manager.getSessionCount());
+    assertEquals(1, manager.getEvictedSessionCount());
+  }
+
+  @Test
+  @DisplayName("A session idle for the timeout should be gone when it is used again")
+  void getHistoryAndPut_IdleSession_ShouldEvictIt() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(5, 10, IDLE_TIMEOUT, clock);
+    Task stale = task();
+    Task fresh = task();
+    manager.put("alice", stale);
+    manager.put("bob", stale);
+    clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+
+    assertTrue(manager.getHistory("alice").isEmpty());
+    manager.put("bob", fresh);
+
+    assertEquals(List.of(fresh.getId()), taskIds(manager, "bob"));
+    assertEquals(1, manager.getSessionCount());
+    assertEquals(2, manager.getEvictedSessionCount());
+  }
+
+  @Test
+  @DisplayName("Creating a session beyond the cap should evict the least recently used sessions")
+  void put_BeyondSessionCap_ShouldEvictLeastRecentlyUsedSessions() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(5, 16, IDLE_TIMEOUT, clock);
+    for (int i = 0; i < 16; i++) {
+      manager.put("session-" + i, task());
+      clock.advance(Duration.ofSeconds(1));
+    }
+    manager.getHistory("session-0");
+
+    manager.put("newcomer", task());
+
+    assertTrue(manager.getSessionCount() <= 16);
+    assertEquals(2, manager.getEvictedSessionCount());
+    assertFalse(manager.getHistory("session-0").isEmpty());
+    assertTrue(manager.getHistory("session-1").isEmpty());
+    assertTrue(manager.getHistory("session-2").isEmpty());
+    assertFalse(manager.getHistory("newcomer").isEmpty());
+  }
+
+  @Test
+  @DisplayName("endSession should discard the session's history")
+  void endSession_ShouldDiscardHistory() throws ValidationException {
+    SessionHistoryManager manager = new SessionHistoryManager(5, 10, IDLE_TIMEOUT, clock);
+    manager.put("alice", task());
+
+    assertTrue(manager.endSession("alice"));
+    assertFalse(manager.endSession("alice"));
+    assertEquals(0, manager.getSessionCount());
+  }
+
+  @Test
+  @DisplayName("Concurrent views of many sessions should all be recorded")
+  void put_ConcurrentSessions_ShouldRecordAllViews() throws Exception {
+    SessionHistoryManager manager = new SessionHistoryManager(3, 10_000, IDLE_TIMEOUT, clock);
+    Task task = task();
+    List<Thread> threads =
+        IntStream.range(0, 64)
+            .mapToObj(
+                t ->
+                    Thread.ofVirtual()
+                        .start(
+                            () -> {
+                              for (int i = 0; i < 100; i++) {
+                                manager.put("session-" + (t * 100 + i), task);
+                              }
+                            }))
+            .toList();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(6_400, manager.getSessionCount());
+    assertEquals(List.of(task.getId()), taskIds(manager, "session-6399"));
+  }
+
+  @Test
+  @DisplayName("Concurrent creation of sessions should never exceed the cap")
+  void put_ConcurrentSessionsBeyondCap_ShouldStayWithinCap() throws Exception {
+    SessionHistoryManager manager = new SessionHistoryManager(3, 100, IDLE_TIMEOUT, clock);
+    Task task = task();
+    AtomicInteger maxSessions = new AtomicInteger();
+    List<Thread> threads =
+        IntStream.range(0, 32)
+            .mapToObj(
+                t ->
+                    Thread.ofPlatform()
+                        .start(
+                            () -> {
+                              for (int i = 0; i < 200; i++) {
+                                manager.put("session-" + (t * 200 + i), task);
+                                maxSessions.accumulateAndGet(manager.getSessionCount(), Math::max);
+                              }
+                            }))
+            .toList();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(maxSessions.get() <= 100);
+    assertEquals(6_400, manager.getSessionCount() + manager.getEvictedSessionCount());
+  }
+
+  @Test
+  @DisplayName("Views should be stamped with the cached time of a cached clock")
+  void put_CachedClock_ShouldStampCachedTime() throws ValidationException {
+    try (CachedClock cached = new CachedClock(clock, Duration.ofHours(1))) {
+      SessionHistoryManager manager = new SessionHistoryManager(5, 10, IDLE_TIMEOUT, cached);
+      clock.advance(Duration.ofMinutes(5));
+
+      manager.put("session", task());
+
+      assertEquals(NOW, manager.getHistory("session").iterator().next().getViewDateTime());
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for StripedLock covering validation, exclusion and lock ordering. */
+class StripedLockTest {
+
+  @Test
+  @DisplayName("Constructor should reject stripe counts that are not a power of two")
+  void constructor_NotPowerOfTwo_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+    assertThrows(IllegalArgumentException.class, () -> new StripedLock(12));
+  }
+
+  @Test
+  @DisplayName("Locking the same ID twice in one call should not fail and nulls are ignored")
+  void lock_DuplicateAndNullIds_ShouldAcquireOnce() {
+    StripedLock locks = new StripedLock(4);
+    UUID id = UUID.randomUUID();
+
+    assertDoesNotThrow(() -> locks.lock(Arrays.asList(id, null, id)).close());
+    assertDoesNotThrow(() -> locks.lockAll().close());
+  }
+
+  @Test
+  @DisplayName("Holders of the same ID should be mutually exclusive")
+  @SuppressWarnings("try")
+  void lock_SameId_ShouldExcludeOtherThreads() throws Exception {
+    StripedLock locks = new StripedLock(8);
+    UUID id = UUID.randomUUID();
+    CountDownLatch held = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(
+          () -> {
+            try (StripedLock.Held ignored = locks.lock(List.of(id))) {
+              held.countDown();
+              release.await();
+            }
+            return null;
+          });
+      held.await();
+      Future<Boolean> contender =
+          executor.submit(
+              () -> {
+                try (StripedLock.Held ignored = locks.lock(List.of(id))) {
+                  return true;
+                }
+              });
+      assertThrows(TimeoutException.class, () -> contender.get(100, TimeUnit.MILLISECONDS));
+      release.countDown();
+      assertTrue(contender.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  @DisplayName("Threads locking overlapping ID pairs in opposite orders should not deadlock")
+  @SuppressWarnings("try")
+  void lock_OppositeOrders_ShouldNotDeadlock() throws Exception {
+    StripedLock locks = new StripedLock(2);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    int[] counter = new int[1];
+    List<Callable<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      List<UUID> ids = i % 2 == 0 ? List.of(first, second) : List.of(second, first);
+      workers.add(
+          () -> {
+            for (int round = 0; round < 10_000; round++) {
+              try (StripedLock.Held ignored = locks.lock(ids)) {
+                counter[0]++;
+              }
+            }
+            return null;
+          });
+    }
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(workers.size())) {
+      for (Future<Void> future : executor.invokeAll(workers, 30, TimeUnit.SECONDS)) {
+        future.get();
+      }
+    }
+    assertEquals(80_000, counter[0]);
+  }
+}
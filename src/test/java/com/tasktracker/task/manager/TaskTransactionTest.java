@@ -0,0 +1,240 @@
+package com.tasktracker.task.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.event.TaskEventBus;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.service.IncrementalEpicAggregator;
+import com.tasktracker.task.service.ScheduleIndex;
+import com.tasktracker.task.service.TreeSetScheduleIndex;
+import com.tasktracker.task.store.CountingTaskRepository;
+import com.tasktracker.task.store.InMemoryTaskRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for TaskTransaction covering staging, reads, commit, rollback and locking. */
+class TaskTransactionTest {
+  private static final LocalDateTime START_TIME = LocalDateTime.of(2030, 1, 1, 9, 0);
+  private static final Duration DURATION = Duration.ofHours(1);
+
+  private InMemoryTaskRepository store;
+  private ScheduleIndex index;
+  private IncrementalEpicAggregator epicAggregator;
+  private List<UUID> evictedIds;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryTaskRepository();
+    index = new TreeSetScheduleIndex();
+    epicAggregator = new IncrementalEpicAggregator();
+    evictedIds = new ArrayList<>();
+  }
+
+  private TaskTransaction begin() {
+    return new TaskTransaction(
+        store, index, epicAggregator, evictedIds::add, new TaskEventBus(), () -> {});
+  }
+
+  private static RegularTask regularTask(String title, LocalDateTime startTime)
+      throws ValidationException {
+    return new RegularTask(
+        UUID.randomUUID(),
+        title,
+        "Transaction test description",
+        TaskStatus.NEW,
+        START_TIME,
+        START_TIME,
+        startTime,
+        startTime == null ? null : DURATION);
+  }
+
+  @Test
+  @DisplayName("Staged changes should be visible to the transaction but not to the repository")
+  void find_StagedChanges_ShouldOverlayRepository() throws ValidationException {
+    RegularTask stored = regularTask("Stored regular task", null);
+    store.addTask(stored);
+    RegularTask added = regularTask("Added regular task", null);
+
+    try (TaskTransaction transaction = begin()) {
+      transaction.save(added);
+      transaction.remove(stored);
+
+      assertEquals(Optional.of(added), transaction.find(added.getId()));
+      assertTrue(transaction.find(stored.getId()).isEmpty());
+      assertTrue(store.getTaskById(added.getId()).isEmpty());
+      assertTrue(store.getTaskById(stored.getId()).isPresent());
+    }
+  }
+
+  @Test
+  @DisplayName("commit should write all changes as one repository change and evict history")
+  void commit_ShouldApplyChangesOnceAndEvictRemovedTasks() throws ValidationException {
+    RegularTask stored = regularTask("Stored regular task", null);
+    store.addTask(stored);
+    long versionBefore = store.snapshot().getVersion();
+    RegularTask first = regularTask("First regular task", START_TIME);
+    RegularTask second = regularTask("Second regular task", START_TIME.plusHours(2));
+
+    try (TaskTransaction transaction = begin()) {
+      transaction.schedule(first);
+      transaction.save(first);
+      transaction.schedule(second);
+      transaction.save(second);
+      transaction.remove(stored);
+      assertTrue(evictedIds.isEmpty());
+      transaction.commit();
+    }
+
+    assertEquals(versionBefore + 1, store.snapshot().getVersion());
+    assertEquals(Set.of(first, second), new HashSet<>(store.getAllTasks()));
+    assertEquals(List.of(stored.getId()), evictedIds);
+    assertEquals(List.of(first, second), index.asOrderedList());
+  }
+
+  @Test
+  @DisplayName("Closing without commit should undo schedule changes and drop touched aggregates")
+  void close_WithoutCommit_ShouldRollBack() throws ValidationException {
+    RegularTask scheduled = regularTask("Scheduled regular task", START_TIME);
+    index.add(scheduled);
+    store.addTask(scheduled);
+    EpicTask epic =
+        new EpicTask(
+            UUID.randomUUID(),
+            "Transaction epic title",
+            "Transaction epic description",
+            TaskStatus.NEW,
+            Set.of(),
+            START_TIME,
+            START_TIME,
+            null,
+            null);
+    store.addTask(epic);
+    long versionBefore = store.snapshot().getVersion();
+    RegularTask moved = regularTask(scheduled.getTitle(), START_TIME.plusHours(3));
+
+    try (TaskTransaction transaction = begin()) {
+      transaction.reschedule(scheduled, moved);
+      transaction.save(moved);
+      transaction.trackEpic(epic);
+      SubTask subTask =
+          new SubTask(
+              UUID.randomUUID(),
+              "Transaction subtask",
+              "Transaction subtask description",
+              TaskStatus.DONE,
+              epic.getId(),
+              START_TIME,
+              START_TIME,
+              START_TIME.plusHours(3),
+              DURATION);
+      epicAggregator.put(epic.getId(), subTask);
+      assertThrows(ValidationException.class, () -> transaction.schedule(subTask));
+    }
+
+    assertEquals(versionBefore, store.snapshot().getVersion());
+    assertEquals(List.<Task>of(scheduled), index.asOrderedList());
+    assertFalse(epicAggregator.isTracked(epic.getId()));
+    assertTrue(evictedIds.isEmpty());
+  }
+
+  @Test
+  @DisplayName("A replaced task should keep its time reserved for others until commit")
+  void reschedule_ShouldReserveReplacedTimeUntilCommit() throws ValidationException {
+    RegularTask scheduled = regularTask("Scheduled regular task", START_TIME);
+    index.add(scheduled);
+    store.addTask(scheduled);
+    RegularTask moved = regularTask(scheduled.getTitle(), START_TIME.plusHours(3));
+    RegularTask competing = regularTask("Competing regular task", START_TIME);
+
+    try (TaskTransaction transaction = begin()) {
+      transaction.reschedule(scheduled, moved);
+      transaction.save(moved);
+
+      assertEquals(List.<Task>of(moved), index.asOrderedList());
+      assertThrows(ValidationException.class, () -> index.add(competing));
+      transaction.commit();
+    }
+
+    index.add(competing);
+    assertEquals(List.<Task>of(competing, moved), index.asOrderedList());
+  }
+
+  @Test
+  @DisplayName("A failed reschedule should leave the schedule unchanged for the transaction")
+  void reschedule_Overlapping_ShouldKeepOldVersionScheduled() throws ValidationException {
+    RegularTask scheduled = regularTask("Scheduled regular task", START_TIME);
+    RegularTask blocking = regularTask("Blocking regular task", START_TIME.plusHours(3));
+    index.add(scheduled);
+    index.add(blocking);
+    store.addTasks(List.of(scheduled, blocking));
+    RegularTask moved = regularTask(scheduled.getTitle(), START_TIME.plusHours(3));
+    RegularTask added = regularTask("Added regular task", START_TIME.plusHours(6));
+
+    try (TaskTransaction transaction = begin()) {
+      assertThrows(ValidationException.class, () -> transaction.reschedule(scheduled, moved));
+      transaction.schedule(added);
+      transaction.save(added);
+      transaction.commit();
+    }
+
+    assertEquals(List.<Task>of(scheduled, blocking, added), index.asOrderedList());
+    assertTrue(index.hasOverlap(regularTask("Competing regular task", START_TIME)));
+  }
+
+  @Test
+  @DisplayName("commit should fail on a transaction that has already completed")
+  void commit_Twice_ShouldThrowIllegalStateException() {
+    TaskTransaction transaction = begin();
+    transaction.commit();
+
+    assertThrows(IllegalStateException.class, transaction::commit);
+  }
+
+  @Test
+  @DisplayName("find should read every task once from a single repository snapshot")
+  void find_RepeatedReads_ShouldUseOneSnapshot() throws ValidationException {
+    RegularTask stored = regularTask("Stored regular task", null);
+    store.addTask(stored);
+    CountingTaskRepository countingStore = new CountingTaskRepository(store);
+
+    try (TaskTransaction transaction =
+        new TaskTransaction(
+            countingStore, index, epicAggregator, evictedIds::add, new TaskEventBus(), () -> {})) {
+      for (int i = 0; i < 3; i++) {
+        assertEquals(Optional.of(stored), transaction.find(stored.getId()));
+        assertTrue(transaction.find(UUID.randomUUID()).isEmpty());
+      }
+    }
+
+    assertEquals(Map.of("snapshot", 1L), countingStore.getCallCounts());
+  }
+
+  @Test
+  @DisplayName("close should release the locks of the transaction after rolling back")
+  void close_ShouldReleaseLocksAfterRollback() throws ValidationException {
+    RegularTask scheduled = regularTask("Scheduled regular task", START_TIME);
+    List<String> steps = new ArrayList<>();
+    TaskTransaction transaction =
+        new TaskTransaction(
+            store,
+            index,
+            epicAggregator,
+            evictedIds::add,
+            new TaskEventBus(),
+            () -> steps.add(index.hasOverlap(scheduled) ? "released with change" : "released"));
+    transaction.schedule(scheduled);
+
+    transaction.close();
+
+    assertEquals(List.of("released"), steps);
+  }
+}
@@ -2,6 +2,7 @@ package com.tasktracker.task.model.implementations;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.tasktracker.collections.PersistentTreeSet;
 import com.tasktracker.task.exception.ValidationException;
 import com.tasktracker.task.model.enums.TaskStatus;
 import java.time.Duration;
@@ -304,6 +305,40 @@ class EpicTaskTest {
         "Original subtask IDs in EpicTask should remain unchanged after attempt to modify copy");
   }
 
+  @Test
+  @DisplayName("A modified copy should share the persistent subtask ID set instead of copying it")
+  void constructor_PersistentSubtaskIds_ShouldShareSet() throws ValidationException {
+    EpicTask epic =
+        new EpicTask(
+            VALID_ID,
+            VALID_TITLE,
+            VALID_DESCRIPTION,
+            TaskStatus.NEW,
+            VALID_SUBTASK_IDS,
+            CREATION_TIME,
+            UPDATE_TIME,
+            START_TIME,
+            DURATION);
+    UUID addedId = UUID.randomUUID();
+    PersistentTreeSet<UUID> subtaskIds = epic.getSubtaskIds().plus(addedId);
+
+    EpicTask copy =
+        new EpicTask(
+            VALID_ID,
+            VALID_TITLE,
+            VALID_DESCRIPTION,
+            TaskStatus.NEW,
+            subtaskIds,
+            CREATION_TIME,
+            UPDATE_TIME,
+            START_TIME,
+            DURATION,
+            epic.getVersion() + 1);
+
+    assertSame(subtaskIds, copy.getSubtaskIds());
+    assertFalse(epic.getSubtaskIds().contains(addedId));
+  }
+
   @Test
   @DisplayName("toString should return a non-empty string representation")
   void toString_ReturnsNonEmptyString() throws ValidationException {
@@ -0,0 +1,89 @@
+package com.tasktracker.task.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for CachedClock covering cached reads, ticking, zones and closing. */
+class CachedClockTest {
+  private static final Instant START = Instant.parse("2030-01-01T09:00:00Z");
+
+  private final ManualClock source = new ManualClock(START, ZoneOffset.UTC);
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive resolution")
+  void constructor_NonPositiveResolution_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new CachedClock(source, Duration.ZERO));
+    assertThrows(
+        IllegalArgumentException.class, () -> new CachedClock(source, Duration.ofMillis(-1)));
+  }
+
+  @Test
+  @DisplayName("Reads within a tick should return the same cached time")
+  void now_WithinTick_ShouldReturnCachedDateTime() {
+    try (CachedClock clock = new CachedClock(source, Duration.ofHours(1))) {
+      source.advance(Duration.ofMinutes(5));
+
+      LocalDateTime first = CachedClock.now(clock);
+
+      assertSame(first, CachedClock.now(clock));
+      assertEquals(LocalDateTime.ofInstant(START, ZoneOffset.UTC), first);
+      assertEquals(START, clock.instant());
+      assertEquals(START.toEpochMilli(), clock.millis());
+    }
+  }
+
+  @Test
+  @DisplayName("The ticker should pick up the source clock's time")
+  void instant_AfterTick_ShouldFollowSource() throws InterruptedException {
+    try (CachedClock clock = new CachedClock(source, Duration.ofMillis(1))) {
+      Instant later = START.plus(Duration.ofMinutes(5));
+      source.advance(Duration.ofMinutes(5));
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (!clock.instant().equals(later) && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      assertEquals(later, clock.instant());
+      assertEquals(LocalDateTime.ofInstant(later, ZoneOffset.UTC), CachedClock.now(clock));
+    }
+  }
+
+  @Test
+  @DisplayName("now should fall back to the clock's own time for other clocks")
+  void now_OtherClock_ShouldReadClock() {
+    assertEquals(LocalDateTime.ofInstant(START, ZoneOffset.UTC), CachedClock.now(source));
+  }
+
+  @Test
+  @DisplayName("withZone should share the cached instant in another zone")
+  void withZone_OtherZone_ShouldShareInstant() {
+    try (CachedClock clock = new CachedClock(source, Duration.ofHours(1))) {
+      ZoneOffset zone = ZoneOffset.ofHours(3);
+
+      assertSame(clock, clock.withZone(ZoneOffset.UTC));
+      assertEquals(zone, clock.withZone(zone).getZone());
+      assertEquals(START, clock.withZone(zone).instant());
+      assertEquals(LocalDateTime.ofInstant(START, zone), LocalDateTime.now(clock.withZone(zone)));
+    }
+  }
+
+  @Test
+  @DisplayName("A closed clock should keep its last time")
+  void close_ShouldStopTicking() throws InterruptedException {
+    CachedClock clock = new CachedClock(source, Duration.ofMillis(1));
+    clock.close();
+    Instant last = clock.instant();
+
+    source.advance(Duration.ofMinutes(5));
+    Thread.sleep(20);
+
+    assertEquals(last, clock.instant());
+  }
+}
@@ -0,0 +1,178 @@
+package com.tasktracker.task.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.SubTask;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for IncrementalEpicAggregator, checked against EpicTaskStatusAndTimeCollector. */
+class IncrementalEpicAggregatorTest {
+  private static final LocalDateTime BASE_TIME = LocalDateTime.of(2030, 1, 1, 9, 0);
+  private static final UUID EPIC_ID = UUID.randomUUID();
+
+  private IncrementalEpicAggregator aggregator;
+
+  private static SubTask createSubTask(UUID id, TaskStatus status, LocalDateTime startTime)
+      throws ValidationException {
+    return new SubTask(
+        id,
+        "SubTask title",
+        "SubTask description",
+        status,
+        EPIC_ID,
+        BASE_TIME,
+        BASE_TIME,
+        startTime,
+        startTime == null ? null : Duration.ofHours(1));
+  }
+
+  private static EpicTaskAggregatedResult collect(Collection<SubTask> subTasks) {
+    return subTasks.stream()
+        .collect(EpicTaskStatusAndTimeCollector.aggregateEpicSubTaskPropertiesCollector());
+  }
+
+  @BeforeEach
+  void setUp() {
+    aggregator = new IncrementalEpicAggregator();
+    aggregator.track(EPIC_ID, List.of());
+  }
+
+  @Test
+  @DisplayName("An empty epic should be NEW without a time window")
+  void getResult_EmptyEpic_ShouldBeNewWithoutTime() {
+    EpicTaskAggregatedResult result = aggregator.getResult(EPIC_ID);
+
+    assertEquals(TaskStatus.NEW, result.status());
+    assertNull(result.startTime());
+    assertNull(result.duration());
+  }
+
+  @Test
+  @DisplayName("Putting subtasks should update status and time window")
+  void put_SubTasks_ShouldUpdateStatusAndTimeWindow() throws ValidationException {
+    aggregator.put(EPIC_ID, createSubTask(UUID.randomUUID(), TaskStatus.DONE, BASE_TIME));
+    EpicTaskAggregatedResult result =
+        aggregator.put(
+            EPIC_ID, createSubTask(UUID.randomUUID(), TaskStatus.NEW, BASE_TIME.plusHours(3)));
+
+    assertEquals(TaskStatus.IN_PROGRESS, result.status());
+    assertEquals(BASE_TIME, result.startTime());
+    assertEquals(Duration.ofHours(4), result.duration());
+  }
+
+  @Test
+  @DisplayName("Putting a subtask again should replace its previous version")
+  void put_ExistingSubTask_ShouldReplacePreviousVersion() throws ValidationException {
+    UUID id = UUID.randomUUID();
+    aggregator.put(EPIC_ID, createSubTask(id, TaskStatus.NEW, BASE_TIME));
+    EpicTaskAggregatedResult result =
+        aggregator.put(EPIC_ID, createSubTask(id, TaskStatus.DONE, BASE_TIME.plusHours(5)));
+
+    assertEquals(TaskStatus.DONE, result.status());
+    assertEquals(BASE_TIME.plusHours(5), result.startTime());
+    assertEquals(Duration.ofHours(1), result.duration());
+  }
+
+  @Test
+  @DisplayName("Removing subtasks should shrink the time window and keep duplicates")
+  void remove_SubTasks_ShouldShrinkTimeWindow() throws ValidationException {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID last = UUID.randomUUID();
+    aggregator.put(EPIC_ID, createSubTask(first, TaskStatus.DONE, BASE_TIME));
+    aggregator.put(EPIC_ID, createSubTask(second, TaskStatus.DONE, BASE_TIME));
+    aggregator.put(EPIC_ID, createSubTask(last, TaskStatus.NEW, BASE_TIME.plusHours(2)));
+
+    EpicTaskAggregatedResult afterFirst = aggregator.remove(EPIC_ID, first);
+    assertEquals(BASE_TIME, afterFirst.startTime());
+    assertEquals(TaskStatus.IN_PROGRESS, afterFirst.status());
+
+    EpicTaskAggregatedResult afterLast = aggregator.remove(EPIC_ID, last);
+    assertEquals(TaskStatus.DONE, afterLast.status());
+    assertEquals(BASE_TIME, afterLast.startTime());
+    assertEquals(Duration.ofHours(1), afterLast.duration());
+
+    EpicTaskAggregatedResult afterSecond = aggregator.remove(EPIC_ID, second);
+    assertEquals(TaskStatus.NEW, afterSecond.status());
+    assertNull(afterSecond.startTime());
+  }
+
+  @Test
+  @DisplayName("Removing an unknown subtask should change nothing")
+  void remove_UnknownSubTask_ShouldChangeNothing() throws ValidationException {
+    aggregator.put(EPIC_ID, createSubTask(UUID.randomUUID(), TaskStatus.IN_PROGRESS, BASE_TIME));
+    EpicTaskAggregatedResult before = aggregator.getResult(EPIC_ID);
+
+    assertEquals(before, aggregator.remove(EPIC_ID, UUID.randomUUID()));
+  }
+
+  @Test
+  @DisplayName("Subtasks without a start time should not affect the time window")
+  void put_SubTaskWithoutStartTime_ShouldNotAffectTimeWindow() throws ValidationException {
+    aggregator.put(EPIC_ID, createSubTask(UUID.randomUUID(), TaskStatus.NEW, BASE_TIME));
+    EpicTaskAggregatedResult result =
+        aggregator.put(EPIC_ID, createSubTask(UUID.randomUUID(), TaskStatus.DONE, null));
+
+    assertEquals(TaskStatus.IN_PROGRESS, result.status());
+    assertEquals(BASE_TIME, result.startTime());
+    assertEquals(Duration.ofHours(1), result.duration());
+  }
+
+  @Test
+  @DisplayName("Random changes should match a full recollection of the subtasks")
+  void put_RandomChanges_ShouldMatchCollector() throws ValidationException {
+    Random random = new Random(42);
+    TaskStatus[] statuses = TaskStatus.values();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    Map<UUID, SubTask> expected = new HashMap<>();
+    for (int i = 0; i < 500; i++) {
+      UUID id = ids.get(random.nextInt(ids.size()));
+      EpicTaskAggregatedResult result;
+      if (random.nextInt(4) == 0) {
+        expected.remove(id);
+        result = aggregator.remove(EPIC_ID, id);
+      } else {
+        LocalDateTime startTime =
+            random.nextInt(5) == 0 ? null : BASE_TIME.plusHours(random.nextInt(48));
+        SubTask subTask = createSubTask(id, statuses[random.nextInt(statuses.length)], startTime);
+        expected.put(id, subTask);
+        result = aggregator.put(EPIC_ID, subTask);
+      }
+      assertEquals(collect(expected.values()), result);
+    }
+  }
+
+  @Test
+  @DisplayName("Tracking should seed the epic from existing subtasks")
+  void track_ExistingSubTasks_ShouldSeedAggregate() throws ValidationException {
+    UUID epicId = UUID.randomUUID();
+    List<SubTask> subTasks =
+        List.of(
+            createSubTask(UUID.randomUUID(), TaskStatus.DONE, BASE_TIME),
+            createSubTask(UUID.randomUUID(), TaskStatus.DONE, BASE_TIME.plusHours(1)));
+
+    assertEquals(collect(subTasks), aggregator.track(epicId, subTasks));
+    assertTrue(aggregator.isTracked(epicId));
+  }
+
+  @Test
+  @DisplayName("Accessing an untracked epic should throw IllegalStateException")
+  void put_UntrackedEpic_ShouldThrow() throws ValidationException {
+    SubTask subTask = createSubTask(UUID.randomUUID(), TaskStatus.NEW, null);
+    aggregator.untrack(EPIC_ID);
+
+    assertFalse(aggregator.isTracked(EPIC_ID));
+    assertThrows(IllegalStateException.class, () -> aggregator.put(EPIC_ID, subTask));
+    assertThrows(IllegalStateException.class, () -> aggregator.getResult(EPIC_ID));
+  }
+}
@@ -0,0 +1,69 @@
+package com.tasktracker.task.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for ManualClock covering advancing, stepping and shared zones. */
+class ManualClockTest {
+  private static final Instant START = Instant.parse("2030-01-01T09:00:00Z");
+
+  @Test
+  @DisplayName("A clock without a step should only move when advanced")
+  void instant_WithoutStep_ShouldMoveOnlyWhenAdvanced() {
+    ManualClock clock = new ManualClock(START, ZoneOffset.UTC);
+
+    assertEquals(START, clock.instant());
+    assertEquals(START, clock.instant());
+
+    clock.advance(Duration.ofSeconds(90));
+
+    assertEquals(START.plusSeconds(90), clock.instant());
+    assertThrows(IllegalArgumentException.class, () -> clock.advance(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  @DisplayName("A stepping clock should move by its step after every read")
+  void instant_WithStep_ShouldMoveAfterEveryRead() {
+    ManualClock clock = new ManualClock(START, ZoneOffset.UTC, Duration.ofMillis(1));
+
+    assertEquals(START, clock.instant());
+    assertEquals(START.plusMillis(1), clock.instant());
+    assertEquals(START.plusMillis(2).toEpochMilli(), clock.millis());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ManualClock(START, ZoneOffset.UTC, Duration.ofMillis(-1)));
+  }
+
+  @Test
+  @DisplayName("Concurrent reads of a stepping clock should all see distinct instants")
+  void instant_ConcurrentReadsWithStep_ShouldBeDistinct() {
+    ManualClock clock = new ManualClock(START, ZoneOffset.UTC, Duration.ofNanos(1));
+    Set<Instant> instants = ConcurrentHashMap.newKeySet();
+
+    IntStream.range(0, 10_000).parallel().forEach(i -> instants.add(clock.instant()));
+
+    assertEquals(10_000, instants.size());
+  }
+
+  @Test
+  @DisplayName("withZone should return a clock sharing the time")
+  void withZone_OtherZone_ShouldShareTime() {
+    ManualClock clock = new ManualClock(START, ZoneOffset.UTC);
+    Clock zoned = clock.withZone(ZoneOffset.ofHours(3));
+
+    clock.advance(Duration.ofMinutes(1));
+
+    assertSame(clock, clock.withZone(ZoneOffset.UTC));
+    assertEquals(ZoneOffset.ofHours(3), zoned.getZone());
+    assertEquals(START.plusSeconds(60), zoned.instant());
+  }
+}
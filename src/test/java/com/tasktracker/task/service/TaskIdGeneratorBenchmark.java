@@ -0,0 +1,91 @@
+package com.tasktracker.task.service;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.store.InMemoryTaskRepository;
+import com.tasktracker.task.store.TaskRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Throughput comparison of the task ID generators, run by hand via {@link #main}. Each round draws
+ * IDs the way the manager does, including the repository lookup of generators that require a
+ * collision check, against a repository filled with tasks, once on one thread and once on all
+ * available processors.
+ */
+public final class TaskIdGeneratorBenchmark {
+  private static final int PREFILLED_TASKS = 100_000;
+  private static final int IDS_PER_THREAD = 500_000;
+  private static final int ROUNDS = 5;
+
+  private TaskIdGeneratorBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    TaskRepository repository = prefilledRepository();
+    int processors = Runtime.getRuntime().availableProcessors();
+    for (int round = 1; round <= ROUNDS; round++) {
+      for (int threads : new int[] {1, processors}) {
+        report(round, threads, "random + lookup", new RandomTaskIdGenerator(), repository);
+        report(round, threads, "time-ordered", new TimeOrderedTaskIdGenerator(), repository);
+      }
+    }
+  }
+
+  private static TaskRepository prefilledRepository() throws ValidationException {
+    TaskRepository repository = new InMemoryTaskRepository();
+    LocalDateTime now = LocalDateTime.now();
+    List<RegularTask> tasks = new ArrayList<>(PREFILLED_TASKS);
+    for (int i = 0; i < PREFILLED_TASKS; i++) {
+      tasks.add(
+          new RegularTask(
+              UUID.randomUUID(),
+              "Benchmark task " + i,
+              "Benchmark description " + i,
+              TaskStatus.NEW,
+              now,
+              now,
+              null,
+              null));
+    }
+    repository.addTasks(tasks);
+    return repository;
+  }
+
+  private static void report(
+      int round, int threads, String name, TaskIdGenerator generator, TaskRepository repository)
+      throws Exception {
+    List<Callable<Long>> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(() -> drawIds(generator, repository));
+    }
+    long start = System.nanoTime();
+    long checksum = 0;
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (Future<Long> future : executor.invokeAll(workers)) {
+        checksum ^= future.get();
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf(
+        "round %d, %2d threads, %-16s %,14.0f ids/s (checksum %x)%n",
+        round, threads, name, threads * (double) IDS_PER_THREAD / seconds, checksum);
+  }
+
+  private static long drawIds(TaskIdGenerator generator, TaskRepository repository) {
+    long checksum = 0;
+    for (int i = 0; i < IDS_PER_THREAD; i++) {
+      UUID id = generator.nextId();
+      if (generator.requiresCollisionCheck()) {
+        while (repository.getTaskById(id).isPresent()) {
+          id = generator.nextId();
+        }
+      }
+      checksum ^= id.getLeastSignificantBits();
+    }
+    return checksum;
+  }
+}
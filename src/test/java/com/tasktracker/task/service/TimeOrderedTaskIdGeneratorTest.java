@@ -0,0 +1,84 @@
+package com.tasktracker.task.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for TimeOrderedTaskIdGenerator covering layout, ordering and uniqueness. */
+class TimeOrderedTaskIdGeneratorTest {
+  private static final long NOW = 1_900_000_000_000L;
+
+  @Test
+  @DisplayName("nextId should produce version 7 UUIDs carrying the clock's milliseconds")
+  void nextId_ShouldUseVersion7LayoutWithTimestamp() {
+    TimeOrderedTaskIdGenerator generator = new TimeOrderedTaskIdGenerator(() -> NOW);
+
+    UUID id = generator.nextId();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+    assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+    assertFalse(generator.requiresCollisionCheck());
+  }
+
+  @Test
+  @DisplayName("nextId should strictly increase within a millisecond and when the clock goes back")
+  void nextId_SameOrBackwardClock_ShouldStrictlyIncrease() {
+    AtomicLong clock = new AtomicLong(NOW);
+    TimeOrderedTaskIdGenerator generator = new TimeOrderedTaskIdGenerator(clock::get);
+    UUID previous = generator.nextId();
+
+    for (int i = 0; i < 10_000; i++) {
+      if (i == 5_000) clock.set(NOW - 1_000);
+      UUID next = generator.nextId();
+      assertTrue(previous.compareTo(next) < 0, "IDs should be strictly increasing");
+      previous = next;
+    }
+  }
+
+  @Test
+  @DisplayName("nextId should order IDs of later milliseconds after earlier ones")
+  void nextId_LaterMillisecond_ShouldSortAfterEarlierIds() {
+    AtomicLong clock = new AtomicLong(NOW);
+    TimeOrderedTaskIdGenerator generator = new TimeOrderedTaskIdGenerator(clock::get);
+    UUID earlier = generator.nextId();
+
+    clock.incrementAndGet();
+    UUID later = generator.nextId();
+
+    assertTrue(earlier.compareTo(later) < 0);
+    assertEquals(NOW + 1, later.getMostSignificantBits() >>> 16);
+  }
+
+  @Test
+  @DisplayName("nextId should never hand out the same ID to concurrent callers")
+  void nextId_ConcurrentCallers_ShouldProduceUniqueIds() throws Exception {
+    TimeOrderedTaskIdGenerator generator = new TimeOrderedTaskIdGenerator(() -> NOW);
+    int threads = 8;
+    int idsPerThread = 5_000;
+    List<Callable<List<UUID>>> callers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      callers.add(
+          () -> {
+            List<UUID> ids = new ArrayList<>(idsPerThread);
+            for (int j = 0; j < idsPerThread; j++) {
+              ids.add(generator.nextId());
+            }
+            return ids;
+          });
+    }
+
+    Set<UUID> ids = new HashSet<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (Future<List<UUID>> future : executor.invokeAll(callers)) {
+        ids.addAll(future.get());
+      }
+    }
+
+    assertEquals(threads * idsPerThread, ids.size());
+  }
+}
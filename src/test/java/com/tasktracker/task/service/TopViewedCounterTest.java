@@ -0,0 +1,116 @@
+package com.tasktracker.task.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for TopViewedCounter covering exact counts, bounded memory and window decay. */
+class TopViewedCounterTest {
+  private static final Duration WINDOW = Duration.ofHours(1);
+
+  private final ManualClock clock =
+      new ManualClock(Instant.parse("2030-01-01T09:00:00Z"), ZoneOffset.UTC);
+
+  private static void view(TopViewedCounter counter, UUID taskId, int times) {
+    for (int i = 0; i < times; i++) {
+      counter.record(taskId);
+    }
+  }
+
+  @Test
+  @DisplayName("Constructor should reject non-positive limits")
+  void constructor_InvalidLimits_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new TopViewedCounter(0, WINDOW, 4, clock));
+    assertThrows(IllegalArgumentException.class, () -> new TopViewedCounter(8, WINDOW, 0, clock));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new TopViewedCounter(8, Duration.ofMillis(2), 4, clock));
+  }
+
+  @Test
+  @DisplayName("topK should report exact counts while every task has a counter")
+  void topK_WithinCapacity_ShouldReportExactCounts() {
+    TopViewedCounter counter = new TopViewedCounter(8, WINDOW, 4, clock);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    view(counter, second, 3);
+    view(counter, first, 5);
+    view(counter, third, 1);
+
+    assertEquals(
+        List.of(
+            new TopViewedCounter.ViewCount(first, 5, 0),
+            new TopViewedCounter.ViewCount(second, 3, 0)),
+        counter.topK(2));
+  }
+
+  @Test
+  @DisplayName("A frequently viewed task should stay on top among many rarely viewed ones")
+  void topK_BeyondCapacity_ShouldKeepHeavyHitter() {
+    TopViewedCounter counter = new TopViewedCounter(4, WINDOW, 1, clock);
+    UUID popular = UUID.randomUUID();
+    for (int i = 0; i < 1_000; i++) {
+      counter.record(popular);
+      counter.record(UUID.randomUUID());
+    }
+
+    List<TopViewedCounter.ViewCount> top = counter.topK(1);
+
+    assertEquals(popular, top.getFirst().taskId());
+    assertTrue(top.getFirst().views() >= 1_000);
+    assertTrue(top.getFirst().views() - top.getFirst().maxOverestimate() <= 1_000);
+    assertEquals(4, counter.topK(10).size());
+  }
+
+  @Test
+  @DisplayName("Views should drop out of the window slice by slice")
+  void topK_AfterWindowPasses_ShouldForgetOldViews() {
+    TopViewedCounter counter = new TopViewedCounter(8, WINDOW, 4, clock);
+    UUID old = UUID.randomUUID();
+    UUID recent = UUID.randomUUID();
+    view(counter, old, 5);
+    clock.advance(Duration.ofMinutes(30));
+    view(counter, recent, 2);
+
+    assertEquals(old, counter.topK(1).getFirst().taskId());
+    clock.advance(Duration.ofMinutes(30));
+    assertEquals(List.of(new TopViewedCounter.ViewCount(recent, 2, 0)), counter.topK(5));
+    clock.advance(Duration.ofHours(2));
+    assertTrue(counter.topK(5).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Views recorded by many threads should be merged across stripes")
+  void topK_ConcurrentRecorders_ShouldMergeStripes() throws InterruptedException {
+    TopViewedCounter counter = new TopViewedCounter(8, WINDOW, 4, clock);
+    UUID popular = UUID.randomUUID();
+    UUID rare = UUID.randomUUID();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 16; t++) {
+      threads.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    view(counter, popular, 1_000);
+                    view(counter, rare, 10);
+                  }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(
+        List.of(
+            new TopViewedCounter.ViewCount(popular, 16_000, 0),
+            new TopViewedCounter.ViewCount(rare, 160, 0)),
+        counter.topK(5));
+  }
+}
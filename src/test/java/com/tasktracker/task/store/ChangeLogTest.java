@@ -0,0 +1,160 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ManagerSaveException;
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** JUnit5 tests for ChangeLog covering offsets, batched reads, durability and retention. */
+class ChangeLogTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+  @TempDir Path tempDir;
+
+  private static RegularTask createTask(String suffix) throws ValidationException {
+    return new RegularTask(
+        UUID.randomUUID(),
+        "Change log title " + suffix,
+        "Change log description " + suffix,
+        TaskStatus.NEW,
+        NOW,
+        NOW,
+        null,
+        null);
+  }
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive retention")
+  void constructor_NonPositiveRetention_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new ChangeLog(tempDir.resolve("log"), 0));
+  }
+
+  @Test
+  @DisplayName("Appended changes should get consecutive offsets and be readable in batches")
+  void append_SavesAndRemovals_ShouldBeReadableFromOffset() throws ValidationException {
+    ChangeLog log = new ChangeLog(tempDir.resolve("log"), 100);
+    RegularTask first = createTask("First");
+    RegularTask second = createTask("Second");
+
+    log.append(List.of(first, second), List.of());
+    log.append(List.of(), List.of(first.getId()));
+
+    assertEquals(0, log.firstOffset());
+    assertEquals(3, log.nextOffset());
+    List<ChangeRecord> batch = log.read(0, 2);
+    assertEquals(
+        List.of(
+            new ChangeRecord(0, ChangeRecord.Operation.UPSERT, first.getId(), first),
+            new ChangeRecord(1, ChangeRecord.Operation.UPSERT, second.getId(), second)),
+        batch);
+    assertEquals(
+        List.of(new ChangeRecord(2, ChangeRecord.Operation.DELETE, first.getId(), null)),
+        log.read(2, 10));
+    assertTrue(log.read(3, 10).isEmpty());
+  }
+
+  @Test
+  @DisplayName("A reopened log should keep its records and continue their offsets")
+  void constructor_ExistingFile_ShouldRestoreRecordsAndOffsets() throws ValidationException {
+    Path file = tempDir.resolve("log");
+    RegularTask task = createTask("Durable");
+    new ChangeLog(file, 100).append(List.of(task), List.of(task.getId()));
+
+    ChangeLog reopened = new ChangeLog(file, 100);
+    reopened.append(List.of(), List.of(UUID.randomUUID()));
+
+    List<ChangeRecord> records = reopened.read(0, 10);
+    assertEquals(3, records.size());
+    assertEquals(task, records.get(0).task());
+    assertEquals(ChangeRecord.Operation.DELETE, records.get(1).operation());
+    assertEquals(2, records.get(2).offset());
+  }
+
+  @Test
+  @DisplayName("Retention should discard old records, also from the file, but keep the offsets")
+  void append_BeyondRetention_ShouldDiscardOldestRecords() throws ValidationException {
+    Path file = tempDir.resolve("log");
+    ChangeLog log = new ChangeLog(file, 3);
+    for (int i = 0; i < 7; i++) {
+      log.append(List.of(createTask("Retained" + i)), List.of());
+    }
+
+    assertEquals(7, log.nextOffset());
+    assertTrue(log.firstOffset() > 0 && log.firstOffset() <= 4);
+    assertThrows(IllegalArgumentException.class, () -> log.read(0, 10));
+    assertEquals(6, log.read(6, 10).getFirst().offset());
+
+    ChangeLog reopened = new ChangeLog(file, 3);
+    assertEquals(log.firstOffset(), reopened.firstOffset());
+    assertEquals(7, reopened.nextOffset());
+  }
+
+  @Test
+  @DisplayName("A torn last line should be dropped when the log is opened again")
+  void constructor_TornLastLine_ShouldDropIt() throws Exception {
+    Path file = tempDir.resolve("log");
+    RegularTask task = createTask("Torn");
+    new ChangeLog(file, 100).append(List.of(task), List.of());
+    Files.writeString(file, "1,UPSERT,", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    ChangeLog reopened = new ChangeLog(file, 100);
+    reopened.append(List.of(), List.of(task.getId()));
+
+    assertEquals(2, reopened.nextOffset());
+    assertEquals(ChangeRecord.Operation.DELETE, reopened.read(1, 10).getFirst().operation());
+    assertEquals(2, new ChangeLog(file, 100).read(0, 10).size());
+  }
+
+  @Test
+  @DisplayName("A corrupt line before the last should fail the opening")
+  void constructor_CorruptMiddleLine_ShouldThrowManagerSaveException() throws Exception {
+    Path file = tempDir.resolve("log");
+    RegularTask task = createTask("Corrupt");
+    ChangeLog log = new ChangeLog(file, 100);
+    log.append(List.of(task), List.of());
+    Files.writeString(
+        file,
+        "garbage" + System.lineSeparator(),
+        StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+    log.append(List.of(), List.of(task.getId()));
+
+    assertThrows(ManagerSaveException.class, () -> new ChangeLog(file, 100));
+  }
+
+  @Test
+  @DisplayName("Reading the file should see the appends and compactions of the writing log")
+  void readFile_TailingAnotherWriter_ShouldFollowAppends() throws Exception {
+    Path file = tempDir.resolve("log");
+    ChangeLog writer = new ChangeLog(file, 2);
+    RegularTask first = createTask("Tailed1");
+    writer.append(List.of(first), List.of());
+
+    assertEquals(
+        List.of(first), ChangeLog.read(file, 0, 10).stream().map(ChangeRecord::task).toList());
+    assertTrue(ChangeLog.read(file, 1, 10).isEmpty());
+
+    for (int i = 0; i < 4; i++) {
+      writer.append(List.of(createTask("Tailed" + (i + 2))), List.of());
+    }
+    Files.writeString(file, "5,UPS", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    assertThrows(IllegalArgumentException.class, () -> ChangeLog.read(file, 0, 10));
+    List<ChangeRecord> tail = ChangeLog.read(file, writer.firstOffset(), 10);
+    assertEquals(writer.read(writer.firstOffset(), 10), tail);
+    assertEquals(1, ChangeLog.read(file, writer.firstOffset(), 1).size());
+    assertTrue(ChangeLog.read(tempDir.resolve("missing"), 0, 10).isEmpty());
+  }
+}
@@ -0,0 +1,120 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.model.implementations.TaskView;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for CompactHistoryStore covering ordering, replacement and capacity eviction. */
+class CompactHistoryStoreTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0, 0, 123_456_789);
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive capacity")
+  void constructor_NonPositiveCapacity_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new CompactHistoryStore(0));
+  }
+
+  @Test
+  @DisplayName("put should move a viewed task to the end and return the replaced view")
+  void put_ExistingView_ShouldMoveToEndAndReturnPrevious() {
+    CompactHistoryStore store = new CompactHistoryStore(3);
+    TaskView first = new TaskView(UUID.randomUUID(), NOW);
+    TaskView second = new TaskView(UUID.randomUUID(), NOW);
+    store.put(first);
+    store.put(second);
+
+    Optional<TaskView> previous = store.put(new TaskView(first.getTaskId(), NOW.plusMinutes(1)));
+
+    assertEquals(Optional.of(first), previous);
+    List<TaskView> views = List.copyOf(store.getAll());
+    assertEquals(List.of(second, first), views);
+    assertEquals(NOW.plusMinutes(1), views.get(1).getViewDateTime());
+  }
+
+  @Test
+  @DisplayName("put should evict the oldest view once the capacity is reached")
+  void put_BeyondCapacity_ShouldEvictOldestView() {
+    CompactHistoryStore store = new CompactHistoryStore(2);
+    TaskView first = new TaskView(UUID.randomUUID(), NOW);
+    TaskView second = new TaskView(UUID.randomUUID(), NOW);
+    TaskView third = new TaskView(UUID.randomUUID(), NOW);
+
+    store.put(first);
+    store.put(second);
+    store.put(third);
+
+    assertEquals(List.of(second, third), List.copyOf(store.getAll()));
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  @DisplayName("remove should delete the view and keep the order of the others")
+  void remove_ExistingView_ShouldKeepOrderOfOthers() {
+    CompactHistoryStore store = new CompactHistoryStore(3);
+    TaskView first = new TaskView(UUID.randomUUID(), NOW);
+    TaskView second = new TaskView(UUID.randomUUID(), NOW);
+    TaskView third = new TaskView(UUID.randomUUID(), NOW);
+    store.put(first);
+    store.put(second);
+    store.put(third);
+
+    assertEquals(Optional.of(second), store.remove(second.getTaskId()));
+    assertEquals(Optional.empty(), store.remove(second.getTaskId()));
+    assertEquals(List.of(first, third), List.copyOf(store.getAll()));
+  }
+
+  @Test
+  @DisplayName("View times should survive the compact encoding with nanosecond precision")
+  void getAll_ShouldPreserveViewTimes() {
+    CompactHistoryStore store = new CompactHistoryStore(2);
+    LocalDateTime beforeEpoch = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1);
+    store.put(new TaskView(UUID.randomUUID(), beforeEpoch));
+    store.put(new TaskView(UUID.randomUUID(), NOW));
+
+    List<TaskView> views = List.copyOf(store.getAll());
+
+    assertEquals(beforeEpoch, views.get(0).getViewDateTime());
+    assertEquals(NOW, views.get(1).getViewDateTime());
+  }
+
+  @Test
+  @DisplayName("getViewedBetween should find the window by binary search over view times")
+  void getViewedBetween_ShouldReturnViewsInWindow() {
+    CompactHistoryStore store = new CompactHistoryStore(10);
+    List<TaskView> views = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      TaskView view = new TaskView(UUID.randomUUID(), NOW.plusMinutes(i));
+      views.add(view);
+      store.put(view);
+    }
+
+    assertEquals(
+        views.subList(2, 4), store.getViewedBetween(NOW.plusMinutes(2), NOW.plusMinutes(4)));
+    assertEquals(views, store.getViewedBetween(LocalDateTime.MIN, LocalDateTime.MAX));
+    assertTrue(store.getViewedBetween(NOW.plusHours(1), NOW.plusHours(2)).isEmpty());
+  }
+
+  @Test
+  @DisplayName("A view put with an earlier time should take the newest time and stay in windows")
+  void put_ClockWentBack_ShouldKeepViewTimesSorted() {
+    CompactHistoryStore store = new CompactHistoryStore(10);
+    TaskView beforeStep = new TaskView(UUID.randomUUID(), NOW);
+    TaskView afterStep = new TaskView(UUID.randomUUID(), NOW.minusHours(1));
+    TaskView later = new TaskView(UUID.randomUUID(), NOW.plusMinutes(1));
+    store.put(beforeStep);
+    store.put(afterStep);
+    store.put(later);
+
+    List<TaskView> window = store.getViewedBetween(NOW, NOW.plusSeconds(1));
+
+    assertEquals(List.of(beforeStep, afterStep), window);
+    assertEquals(NOW, window.get(1).getViewDateTime());
+  }
+}
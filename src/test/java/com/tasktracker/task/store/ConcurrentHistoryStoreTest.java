@@ -0,0 +1,165 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.model.implementations.TaskView;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for ConcurrentHistoryStore covering ordering, eviction and concurrent writers. */
+class ConcurrentHistoryStoreTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive capacity")
+  void constructor_NonPositiveCapacity_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentHistoryStore(0));
+  }
+
+  @Test
+  @DisplayName("Re-viewing a task should replace its view and move it to the end")
+  void put_ExistingTask_ShouldMoveViewToEnd() {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore();
+    TaskView first = new TaskView(UUID.randomUUID(), NOW);
+    TaskView second = new TaskView(UUID.randomUUID(), NOW);
+    TaskView firstAgain = new TaskView(first.getTaskId(), NOW.plusMinutes(1));
+
+    assertTrue(store.put(first).isEmpty());
+    store.put(second);
+    assertEquals(Optional.of(first), store.put(firstAgain));
+
+    List<TaskView> history = List.copyOf(store.getAll());
+    assertEquals(List.of(second, first), history);
+    assertSame(firstAgain, history.get(1));
+    assertTrue(store.isConcurrent());
+  }
+
+  @Test
+  @DisplayName("remove should drop the view and a removal of an unknown task should do nothing")
+  void remove_ShouldDropView() {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore();
+    TaskView view = new TaskView(UUID.randomUUID(), NOW);
+    store.put(view);
+
+    assertEquals(Optional.of(view), store.remove(view.getTaskId()));
+    assertTrue(store.remove(UUID.randomUUID()).isEmpty());
+    assertTrue(store.getAll().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Views beyond the capacity should be evicted oldest first")
+  void put_BeyondCapacity_ShouldEvictOldestViews() {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore(3);
+    List<TaskView> views = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      TaskView view = new TaskView(UUID.randomUUID(), NOW.plusMinutes(i));
+      views.add(view);
+      store.put(view);
+    }
+
+    assertEquals(views.subList(2, 5), List.copyOf(store.getAll()));
+    assertEquals(2, store.getEvictionCount());
+  }
+
+  @Test
+  @DisplayName("Concurrent puts and removals should leave exactly the surviving views")
+  void putAndRemove_ConcurrentWriters_ShouldMatchSurvivingViews() throws Exception {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    int threads = 8;
+    List<Callable<Void>> writers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      writers.add(
+          () -> {
+            for (int i = 0; i < 10_000; i++) {
+              UUID id = ids.get((i + offset) % ids.size());
+              store.put(new TaskView(id, NOW));
+              if (i % 7 == 0) {
+                store.remove(id);
+              }
+              if (i % 1_000 == 0) {
+                store.getAll();
+              }
+            }
+            return null;
+          });
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+      for (Future<Void> future : executor.invokeAll(writers)) {
+        future.get();
+      }
+    }
+
+    Collection<TaskView> history = store.getAll();
+    Set<UUID> historyIds = new HashSet<>();
+    history.forEach(view -> historyIds.add(view.getTaskId()));
+    assertEquals(history.size(), historyIds.size(), "Each task should appear once");
+    for (UUID id : ids) {
+      assertEquals(
+          store.remove(id).isPresent(), historyIds.contains(id), "Order and views should agree");
+    }
+  }
+
+  @Test
+  @DisplayName("getViewedBetween should include buffered views within the window")
+  void getViewedBetween_ShouldReturnDrainedViewsInWindow() {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore();
+    TaskView old = new TaskView(UUID.randomUUID(), NOW.minusHours(1));
+    TaskView recent = new TaskView(UUID.randomUUID(), NOW.minusMinutes(1));
+    store.put(old);
+    store.put(recent);
+
+    assertEquals(List.of(recent), store.getViewedBetween(NOW.minusMinutes(5), NOW));
+  }
+
+  @Test
+  @DisplayName("A view drained after a newer one should take the newer time and stay in windows")
+  void getViewedBetween_ViewsOutOfTimeOrder_ShouldKeepViewTimeOrder() {
+    ConcurrentHistoryStore store = new ConcurrentHistoryStore();
+    TaskView newer = new TaskView(UUID.randomUUID(), NOW);
+    TaskView older = new TaskView(UUID.randomUUID(), NOW.minusMinutes(10));
+    store.put(newer);
+    store.put(older);
+
+    List<TaskView> window = store.getViewedBetween(NOW.minusMinutes(1), NOW.plusMinutes(1));
+
+    assertEquals(List.of(newer, older), window);
+    assertEquals(NOW, window.get(1).getViewDateTime());
+    assertEquals(NOW, store.getAll().stream().toList().get(1).getViewDateTime());
+  }
+
+  @Test
+  @DisplayName("Evicting an old view should never drop a newer view of the same task")
+  void drain_EvictingReviewedTask_ShouldKeepNewerView() throws Exception {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    for (int round = 0; round < 200; round++) {
+      ConcurrentHistoryStore store = new ConcurrentHistoryStore(1);
+      CountDownLatch writerDone = new CountDownLatch(1);
+      Thread reader =
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    while (writerDone.getCount() > 0) {
+                      store.getAll();
+                    }
+                  });
+      TaskView last = null;
+      for (int i = 0; i < 500; i++) {
+        last = new TaskView(i % 2 == 0 ? first : second, NOW.plusSeconds(i));
+        store.put(last);
+      }
+      writerDone.countDown();
+      reader.join();
+
+      assertEquals(List.of(last), List.copyOf(store.getAll()), "round " + round);
+    }
+  }
+}
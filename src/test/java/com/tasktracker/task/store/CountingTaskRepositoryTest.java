@@ -0,0 +1,51 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.RegularTask;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for CountingTaskRepository covering delegation, counting and reset. */
+class CountingTaskRepositoryTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+  @Test
+  @DisplayName("Calls should be delegated and counted per method until reset")
+  void calls_ShouldBeDelegatedAndCounted() throws ValidationException {
+    InMemoryTaskRepository delegate = new InMemoryTaskRepository();
+    CountingTaskRepository repository = new CountingTaskRepository(delegate);
+    RegularTask task =
+        new RegularTask(
+            UUID.randomUUID(),
+            "Counted task title",
+            "Counted task description",
+            TaskStatus.NEW,
+            NOW,
+            NOW,
+            null,
+            null);
+
+    repository.addTask(task);
+    assertEquals(task, repository.getTaskById(task.getId()).orElseThrow());
+    repository.getTaskById(UUID.randomUUID());
+    repository.applyChanges(List.of(), List.of(task.getId()));
+
+    assertTrue(delegate.getTaskById(task.getId()).isEmpty());
+    assertEquals(
+        Map.of("addTask", 1L, "getTaskById", 2L, "applyChanges", 1L), repository.getCallCounts());
+    assertEquals(2, repository.getCallCount("getTaskById"));
+    assertEquals(4, repository.getTotalCallCount());
+
+    repository.resetCallCounts();
+
+    assertEquals(0, repository.getTotalCallCount());
+    assertEquals(0, repository.getCallCount("getTaskById"));
+  }
+}
@@ -0,0 +1,156 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ManagerSaveException;
+import com.tasktracker.task.model.implementations.TaskView;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** JUnit5 tests for FileBakedHistoryStore covering replay on reopen, torn logs and compaction. */
+class FileBakedHistoryStoreTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+  @TempDir Path tempDir;
+
+  private static TaskView view(int minutes) {
+    return new TaskView(UUID.randomUUID(), NOW.plusMinutes(minutes));
+  }
+
+  @Test
+  @DisplayName("A reopened store should restore the views in their order")
+  void constructor_ExistingLog_ShouldRestoreOrderedViews() {
+    Path file = tempDir.resolve("history.log");
+    TaskView first = view(1);
+    TaskView second = view(2);
+    TaskView third = view(3);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 10)) {
+      store.put(first);
+      store.put(second);
+      store.put(third);
+      store.put(new TaskView(first.getTaskId(), NOW.plusMinutes(4)));
+      store.remove(second.getTaskId());
+    }
+
+    try (FileBakedHistoryStore reopened = new FileBakedHistoryStore(file, 10)) {
+      List<TaskView> views = List.copyOf(reopened.getAll());
+      assertEquals(List.of(third, first), views);
+      assertEquals(NOW.plusMinutes(4), views.get(1).getViewDateTime());
+    }
+  }
+
+  @Test
+  @DisplayName("Replay should reproduce capacity evictions")
+  void constructor_LogBeyondCapacity_ShouldKeepNewestViews() {
+    Path file = tempDir.resolve("history.log");
+    TaskView second = view(2);
+    TaskView third = view(3);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 2)) {
+      store.put(view(1));
+      store.put(second);
+      store.put(third);
+    }
+
+    try (FileBakedHistoryStore reopened = new FileBakedHistoryStore(file, 2)) {
+      assertEquals(List.of(second, third), List.copyOf(reopened.getAll()));
+    }
+  }
+
+  @Test
+  @DisplayName("A torn last line should be dropped and the log repaired")
+  void constructor_TornLastLine_ShouldDropItAndRepairLog() throws IOException {
+    Path file = tempDir.resolve("history.log");
+    TaskView first = view(1);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 10)) {
+      store.put(first);
+    }
+    Files.writeString(file, "P,123e4567-e89b", StandardOpenOption.APPEND);
+
+    TaskView second = view(2);
+    try (FileBakedHistoryStore reopened = new FileBakedHistoryStore(file, 10)) {
+      assertEquals(List.of(first), List.copyOf(reopened.getAll()));
+      reopened.put(second);
+    }
+    try (FileBakedHistoryStore reopened = new FileBakedHistoryStore(file, 10)) {
+      assertEquals(List.of(first, second), List.copyOf(reopened.getAll()));
+    }
+  }
+
+  @Test
+  @DisplayName("A corrupt line in the middle of the log should fail the replay")
+  void constructor_CorruptMiddleLine_ShouldThrowManagerSaveException() throws IOException {
+    Path file = tempDir.resolve("history.log");
+    Files.writeString(file, "X,garbage\nR," + UUID.randomUUID() + "\n");
+
+    assertThrows(ManagerSaveException.class, () -> new FileBakedHistoryStore(file, 10));
+  }
+
+  @Test
+  @DisplayName("Repeated views should trigger compaction down to one line per view")
+  void put_ManyRepeatedViews_ShouldCompactLog() throws IOException {
+    Path file = tempDir.resolve("history.log");
+    TaskView first = view(1);
+    TaskView second = view(2);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 10)) {
+      for (int i = 0; i < 2_000; i++) {
+        store.put(new TaskView(first.getTaskId(), NOW.plusSeconds(i)));
+      }
+      store.put(second);
+      store.flush();
+
+      assertTrue(store.getLogLineCount() < 1_024);
+      assertEquals(store.getLogLineCount(), Files.readAllLines(file).size());
+    }
+
+    try (FileBakedHistoryStore reopened = new FileBakedHistoryStore(file, 10)) {
+      List<TaskView> views = List.copyOf(reopened.getAll());
+      assertEquals(List.of(first, second), views);
+      assertEquals(NOW.plusSeconds(1_999), views.get(0).getViewDateTime());
+    }
+  }
+
+  @Test
+  @DisplayName("flush should write the buffered lines to the file")
+  void flush_BufferedViews_ShouldReachFile() throws IOException {
+    Path file = tempDir.resolve("history.log");
+    TaskView first = view(1);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 10)) {
+      store.put(first);
+      store.remove(first.getTaskId());
+
+      store.flush();
+
+      assertEquals(
+          List.of(
+              "P," + first.getTaskId() + "," + first.getViewDateTime(), "R," + first.getTaskId()),
+          Files.readAllLines(file));
+    }
+  }
+
+  @Test
+  @DisplayName("A view followed by no other write should reach the file within the flush interval")
+  void put_IdleAfterView_ShouldBeFlushedInBackground() throws IOException, InterruptedException {
+    Path file = tempDir.resolve("history.log");
+    TaskView view = view(1);
+    try (FileBakedHistoryStore store = new FileBakedHistoryStore(file, 10)) {
+      store.put(view);
+
+      long deadline = System.nanoTime() + 5_000_000_000L;
+      while (Files.readAllLines(file).isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(20);
+      }
+
+      assertEquals(
+          List.of("P," + view.getTaskId() + "," + view.getViewDateTime()),
+          Files.readAllLines(file));
+    }
+  }
+}
@@ -11,6 +11,7 @@ import com.tasktracker.task.manager.TaskManagerImpl;
 import com.tasktracker.task.model.enums.TaskStatus;
 import com.tasktracker.task.model.implementations.*;
 import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -57,6 +58,7 @@ class FileBakedTaskRepositoryTest {
       manager.clearAllTasks();
     }
     Files.deleteIfExists(testDataFile);
+    Files.deleteIfExists(testDataFile.resolveSibling(FileBakedTaskRepository.CHANGE_LOG_FILE_NAME));
   }
 
   private RegularTaskCreationDTO createValidRegularTaskCreationDTO(
@@ -836,4 +838,93 @@ class FileBakedTaskRepositoryTest {
     assertTrue(newManager.getTask(task2.getId()).isPresent());
     assertEquals(1, newManager.getAllTasks().size());
   }
+
+  @Test
+  @DisplayName("Bulk removal should persist all removed tasks")
+  void testTasksPersist_AfterBulkRemovalAndReinitializingManager() throws IOException {
+    FileBakedTaskRepository repository = new FileBakedTaskRepository(testDataFile);
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      try {
+        tasks.add(
+            new RegularTask(
+                UUID.randomUUID(),
+                VALID_TITLE_PREFIX + "Bulk" + i,
+                VALID_DESCRIPTION_PREFIX + "Bulk" + i,
+                TaskStatus.NEW,
+                DEFAULT_START_TIME,
+                DEFAULT_START_TIME,
+                null,
+                null));
+      } catch (ValidationException e) {
+        fail("Task creation failed: " + e.getMessage());
+      }
+    }
+    repository.addTasks(tasks);
+    repository.removeTasks(List.of(tasks.get(0).getId(), tasks.get(1).getId()));
+
+    FileBakedTaskRepository reloaded = new FileBakedTaskRepository(testDataFile);
+    assertEquals(3, reloaded.getAllTasks().size());
+    assertTrue(reloaded.getTaskById(tasks.get(0).getId()).isEmpty());
+    assertEquals(4, Files.readAllLines(testDataFile).size(), "Header and three tasks expected");
+  }
+
+  @Test
+  @DisplayName("Task versions should survive reloading, legacy files should load at version 0")
+  void testTaskVersions_PersistAndLegacyFilesLoad()
+      throws ValidationException, TaskNotFoundException, IOException, VersionConflictException {
+    RegularTask task =
+        addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Versioned", null, null));
+    manager.updateTask(
+        new RegularTaskUpdateDTO(
+            task.getId(), task.getTitle(), task.getDescription(), TaskStatus.DONE, null, null),
+        0);
+
+    FileBakedTaskRepository reloaded = new FileBakedTaskRepository(testDataFile);
+    assertEquals(1, reloaded.getTaskById(task.getId()).orElseThrow().getVersion());
+
+    List<String> lines = Files.readAllLines(testDataFile);
+    String legacyLine = lines.get(1).substring(0, lines.get(1).lastIndexOf(','));
+    Files.write(testDataFile, List.of(TaskCsvMapper.LEGACY_CSV_HEADER, legacyLine));
+    FileBakedTaskRepository legacy = new FileBakedTaskRepository(testDataFile);
+    Task legacyTask = legacy.getTaskById(task.getId()).orElseThrow();
+    assertEquals(TaskStatus.DONE, legacyTask.getStatus());
+    assertEquals(0, legacyTask.getVersion());
+  }
+
+  @Test
+  @DisplayName("Manager changes should be recorded in the change log next to the data file")
+  void testChangeLog_RecordsManagerChangesInOrder()
+      throws ValidationException, TaskNotFoundException {
+    assertTrue(new FileBakedTaskRepository(testDataFile).getChangeLog().isEmpty());
+    FileBakedTaskRepository repository = new FileBakedTaskRepository(testDataFile, 100);
+    manager =
+        new TaskManagerImpl(repository, new InMemoryHistoryManager(new InMemoryHistoryStore()));
+    ChangeLog changeLog = repository.getChangeLog().orElseThrow();
+    long start = changeLog.nextOffset();
+
+    RegularTask task =
+        addAndRetrieveRegularTask(createValidRegularTaskCreationDTO("Logged", null, null));
+    manager.updateTask(
+        new RegularTaskUpdateDTO(
+            task.getId(), task.getTitle(), task.getDescription(), TaskStatus.DONE, null, null));
+    manager.removeTaskById(task.getId());
+
+    List<ChangeRecord> records = changeLog.read(start, 10);
+    assertEquals(
+        List.of(
+            ChangeRecord.Operation.UPSERT,
+            ChangeRecord.Operation.UPSERT,
+            ChangeRecord.Operation.DELETE),
+        records.stream().map(ChangeRecord::operation).toList());
+    assertTrue(records.stream().allMatch(record -> record.taskId().equals(task.getId())));
+    assertEquals(TaskStatus.DONE, records.get(1).task().getStatus());
+    assertTrue(
+        Files.exists(testDataFile.resolveSibling(FileBakedTaskRepository.CHANGE_LOG_FILE_NAME)));
+    assertEquals(
+        records,
+        new ChangeLog(
+                testDataFile.resolveSibling(FileBakedTaskRepository.CHANGE_LOG_FILE_NAME), 100)
+            .read(start, 10));
+  }
 }
@@ -0,0 +1,113 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.model.implementations.TaskView;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** JUnit5 tests for InMemoryHistoryStore covering capacity eviction and time-based expiry. */
+class InMemoryHistoryStoreTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+  private static final Clock CLOCK = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+  private static TaskView view(LocalDateTime viewDateTime) {
+    return new TaskView(UUID.randomUUID(), viewDateTime);
+  }
+
+  @Test
+  @DisplayName("Constructor should reject a non-positive capacity or time to live")
+  void constructor_InvalidLimits_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryStore(0));
+    assertThrows(
+        IllegalArgumentException.class, () -> new InMemoryHistoryStore(10, Duration.ZERO, CLOCK));
+  }
+
+  @Test
+  @DisplayName("put should evict the oldest view once the capacity is reached")
+  void put_BeyondCapacity_ShouldEvictOldestView() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore(2);
+    TaskView first = view(NOW);
+    TaskView second = view(NOW);
+    TaskView third = view(NOW);
+
+    store.put(first);
+    store.put(second);
+    store.put(first);
+    store.put(third);
+
+    assertEquals(List.of(first, third), List.copyOf(store.getAll()));
+    assertEquals(1, store.getEvictionCount());
+  }
+
+  @Test
+  @DisplayName("Replacing a view in a full history should not evict anything")
+  void put_ExistingViewInFullHistory_ShouldNotEvict() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore(2);
+    TaskView first = view(NOW);
+    TaskView second = view(NOW);
+    store.put(first);
+    store.put(second);
+
+    store.put(new TaskView(first.getTaskId(), NOW.plusMinutes(1)));
+
+    assertEquals(List.of(second, first), List.copyOf(store.getAll()));
+    assertEquals(0, store.getEvictionCount());
+  }
+
+  @Test
+  @DisplayName("Views older than the time to live should expire on read and on put")
+  void getAll_ExpiredViews_ShouldBeRemoved() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore(10, Duration.ofMinutes(5), CLOCK);
+    TaskView expired = view(NOW.minusMinutes(10));
+    TaskView alsoExpired = view(NOW.minusMinutes(6));
+    TaskView fresh = view(NOW.minusMinutes(1));
+    store.put(expired);
+    store.put(alsoExpired);
+    store.put(fresh);
+
+    assertEquals(List.of(fresh), List.copyOf(store.getAll()));
+    assertEquals(2, store.getExpirationCount());
+    assertEquals(1, store.size());
+    assertEquals(0, store.getEvictionCount());
+  }
+
+  @Test
+  @DisplayName("getViewedBetween should return the views within the window, oldest first")
+  void getViewedBetween_ShouldReturnViewsInWindow() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore();
+    TaskView early = view(NOW.minusMinutes(30));
+    TaskView middle = view(NOW.minusMinutes(10));
+    TaskView late = view(NOW.minusMinutes(5));
+    store.put(early);
+    store.put(middle);
+    store.put(late);
+
+    assertEquals(List.of(middle, late), store.getViewedBetween(NOW.minusMinutes(15), NOW));
+    assertEquals(
+        List.of(middle), store.getViewedBetween(NOW.minusMinutes(10), late.getViewDateTime()));
+    assertTrue(store.getViewedBetween(NOW, NOW.minusMinutes(30)).isEmpty());
+    assertEquals(List.of(early), store.getViewedBetween(NOW.minusHours(1), NOW.minusMinutes(20)));
+  }
+
+  @Test
+  @DisplayName("A view put with an earlier time should take the newest time and stay in windows")
+  void put_ClockWentBack_ShouldKeepViewTimeOrder() {
+    InMemoryHistoryStore store = new InMemoryHistoryStore();
+    TaskView beforeStep = view(NOW);
+    TaskView afterStep = view(NOW.minusHours(1));
+    store.put(beforeStep);
+    store.put(afterStep);
+
+    List<TaskView> window = store.getViewedBetween(NOW.minusMinutes(1), NOW.plusMinutes(1));
+
+    assertEquals(List.of(beforeStep, afterStep), window);
+    assertEquals(NOW, window.get(1).getViewDateTime());
+  }
+}
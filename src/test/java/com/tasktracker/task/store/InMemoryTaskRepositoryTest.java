@@ -7,12 +7,18 @@ import com.tasktracker.task.model.enums.TaskStatus;
 import com.tasktracker.task.model.implementations.RegularTask;
 import com.tasktracker.task.model.implementations.Task;
 import com.tasktracker.task.store.exception.TaskNotFoundException; // Added for clarity
+import com.tasktracker.task.store.exception.VersionConflictException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -294,4 +300,303 @@ class InMemoryTaskRepositoryTest {
     repository.clearAllTasks();
     assertTrue(repository.getAllTasks().isEmpty(), "Repository should remain empty");
   }
+
+  @Test
+  @DisplayName("snapshot: Should not reflect changes made after it was taken")
+  void snapshot_ShouldBeIsolatedFromLaterChanges() throws TaskNotFoundException {
+    RegularTask first = createAndAddTask("Snapshot1", TaskStatus.NEW, null, null);
+    TaskRepositorySnapshot snapshot = repository.snapshot();
+
+    createAndAddTask("Snapshot2", TaskStatus.NEW, null, null);
+    repository.updateTask(createRegularTask(first.getId(), "Updated", TaskStatus.DONE, null, null));
+
+    assertEquals(1, snapshot.size(), "Snapshot should keep its size");
+    assertEquals(1, snapshot.getAllTasks().size(), "Snapshot should keep its tasks");
+    assertEquals(
+        TaskStatus.NEW,
+        snapshot.getTaskById(first.getId()).orElseThrow().getStatus(),
+        "Snapshot should keep the old task version");
+    assertEquals(2, repository.getAllTasks().size(), "Repository should contain both tasks");
+  }
+
+  @Test
+  @DisplayName("snapshot: Version should grow with every mutation")
+  void snapshot_VersionShouldIncreaseOnMutation() {
+    long initialVersion = repository.snapshot().getVersion();
+    RegularTask task = createAndAddTask("Version", TaskStatus.NEW, null, null);
+    long afterAdd = repository.snapshot().getVersion();
+    repository.removeTask(task.getId());
+    long afterRemove = repository.snapshot().getVersion();
+    repository.removeTask(task.getId());
+
+    assertTrue(afterAdd > initialVersion, "Adding should bump the version");
+    assertTrue(afterRemove > afterAdd, "Removing should bump the version");
+    assertEquals(
+        afterRemove, repository.snapshot().getVersion(), "No-op removal should keep the version");
+  }
+
+  @Test
+  @DisplayName("getAllTasks: Returned collection should be unmodifiable")
+  void getAllTasks_ShouldBeUnmodifiable() {
+    RegularTask task = createAndAddTask("Unmodifiable", TaskStatus.NEW, null, null);
+    Collection<Task> tasks = repository.getAllTasks();
+    assertThrows(UnsupportedOperationException.class, () -> tasks.add(task));
+  }
+
+  @Test
+  @DisplayName("getAllTasks(cursor): Should walk all tasks page by page in ID order")
+  void getAllTasksPaged_ShouldReturnAllTasksInIdOrder() {
+    for (int i = 0; i < 7; i++) {
+      createAndAddTask("Page" + i, TaskStatus.NEW, null, null);
+    }
+    List<UUID> collectedIds = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      TaskPage page = repository.getAllTasks(cursor, 3);
+      page.tasks().forEach(task -> collectedIds.add(task.getId()));
+      cursor = page.nextCursor();
+      pages++;
+    } while (cursor != null);
+
+    List<UUID> expectedIds = repository.getAllTasks().stream().map(Task::getId).toList();
+    assertEquals(expectedIds, collectedIds, "Pages should cover all tasks in ID order");
+    assertEquals(3, pages, "Seven tasks should fit in three pages of three");
+  }
+
+  @Test
+  @DisplayName("getAllTasks(cursor): Should stay stable when tasks are inserted between pages")
+  void getAllTasksPaged_ConcurrentInsert_ShouldNotRepeatTasks() {
+    createAndAddTask("Stable1", TaskStatus.NEW, null, null);
+    createAndAddTask("Stable2", TaskStatus.NEW, null, null);
+    createAndAddTask("Stable3", TaskStatus.NEW, null, null);
+    TaskPage firstPage = repository.getAllTasks(null, 2);
+    createAndAddTask("Stable4", TaskStatus.NEW, null, null);
+    TaskPage secondPage = repository.getAllTasks(firstPage.nextCursor(), 10);
+
+    Set<UUID> firstIds = firstPage.tasks().stream().map(Task::getId).collect(Collectors.toSet());
+    assertTrue(
+        secondPage.tasks().stream().map(Task::getId).noneMatch(firstIds::contains),
+        "Tasks of the first page should not be repeated");
+    UUID lastSeenId = firstPage.tasks().getLast().getId();
+    assertTrue(
+        secondPage.tasks().stream().allMatch(task -> task.getId().compareTo(lastSeenId) > 0),
+        "Second page should continue after the cursor");
+    assertFalse(secondPage.hasNext(), "Last page should not have a cursor");
+  }
+
+  @Test
+  @DisplayName("findTasksMatching(cursor): Should page over matching tasks only")
+  void findTasksMatchingPaged_ShouldReturnOnlyMatchingTasks() {
+    for (int i = 0; i < 6; i++) {
+      createAndAddTask("Match" + i, i % 2 == 0 ? TaskStatus.DONE : TaskStatus.NEW, null, null);
+    }
+    Predicate<Task> isDone = task -> task.getStatus() == TaskStatus.DONE;
+    List<Task> collected = new ArrayList<>();
+    String cursor = null;
+    do {
+      TaskPage page = repository.findTasksMatching(isDone, cursor, 2);
+      collected.addAll(page.tasks());
+      cursor = page.nextCursor();
+    } while (cursor != null);
+
+    assertEquals(3, collected.size(), "All DONE tasks should be returned");
+    assertTrue(collected.stream().allMatch(isDone), "Only DONE tasks should be returned");
+  }
+
+  @Test
+  @DisplayName("getAllTasks(cursor): Should reject malformed cursors and non-positive page sizes")
+  void getAllTasksPaged_InvalidArguments_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> repository.getAllTasks(null, 0));
+    assertThrows(IllegalArgumentException.class, () -> repository.getAllTasks("not a cursor", 5));
+  }
+
+  @Test
+  @DisplayName("streamTasks: Should stop scanning once a short-circuiting result is known")
+  void streamTasks_ShortCircuit_ShouldNotScanAllTasks() {
+    for (int i = 0; i < 10; i++) {
+      createAndAddTask("Stream" + i, TaskStatus.NEW, null, null);
+    }
+    AtomicInteger scanned = new AtomicInteger();
+    boolean found =
+        repository.streamTasks().peek(task -> scanned.incrementAndGet()).findAny().isPresent();
+
+    assertTrue(found, "A task should be found");
+    assertEquals(1, scanned.get(), "Only one task should be scanned");
+  }
+
+  @Test
+  @DisplayName("streamTasks: Should not be affected by removals during consumption")
+  void streamTasks_RemovalDuringConsumption_ShouldSeeAllTasks() {
+    createAndAddTask("StreamRemove1", TaskStatus.NEW, null, null);
+    createAndAddTask("StreamRemove2", TaskStatus.NEW, null, null);
+    createAndAddTask("StreamRemove3", TaskStatus.NEW, null, null);
+
+    List<Task> visited =
+        repository.streamTasks().peek(task -> repository.removeTask(task.getId())).toList();
+
+    assertEquals(3, visited.size(), "Stream should visit every task of its snapshot");
+    assertTrue(repository.getAllTasks().isEmpty(), "All tasks should have been removed");
+  }
+
+  @Test
+  @DisplayName("streamTasks: Parallel stream should return the same tasks")
+  void streamTasks_Parallel_ShouldReturnAllTasks() {
+    for (int i = 0; i < 50; i++) {
+      createAndAddTask("Parallel" + i, i % 2 == 0 ? TaskStatus.DONE : TaskStatus.NEW, null, null);
+    }
+    long doneCount =
+        repository.streamTasks().parallel().filter(t -> t.getStatus() == TaskStatus.DONE).count();
+    assertEquals(25, doneCount);
+  }
+
+  @Test
+  @DisplayName("addTasks: Should add nothing if any task in the batch is a duplicate")
+  void addTasks_DuplicateInBatch_ShouldAddNothing() {
+    RegularTask existing = createAndAddTask("BulkExisting", TaskStatus.NEW, null, null);
+    RegularTask fresh =
+        createRegularTask(UUID.randomUUID(), "BulkFresh", TaskStatus.NEW, null, null);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> repository.addTasks(List.of(fresh, existing)));
+    assertTrue(repository.getTaskById(fresh.getId()).isEmpty(), "Batch should be rolled back");
+    assertEquals(1, repository.getAllTasks().size());
+  }
+
+  @Test
+  @DisplayName("addTasks: Should publish the whole batch as one new version")
+  void addTasks_ValidBatch_ShouldAddAllTasksAtOnce() {
+    long versionBefore = repository.snapshot().getVersion();
+    List<Task> batch = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      batch.add(createRegularTask(UUID.randomUUID(), "Bulk" + i, TaskStatus.NEW, null, null));
+    }
+    repository.addTasks(batch);
+
+    assertEquals(5, repository.getAllTasks().size());
+    assertEquals(versionBefore + 1, repository.snapshot().getVersion());
+  }
+
+  @Test
+  @DisplayName("updateTasks: Should update nothing if any task does not exist")
+  void updateTasks_MissingTask_ShouldUpdateNothing() {
+    RegularTask existing = createAndAddTask("BulkUpdate", TaskStatus.NEW, null, null);
+    RegularTask updated =
+        createRegularTask(existing.getId(), "BulkUpdated", TaskStatus.DONE, null, null);
+    RegularTask missing =
+        createRegularTask(UUID.randomUUID(), "BulkMissing", TaskStatus.DONE, null, null);
+
+    assertThrows(
+        TaskNotFoundException.class, () -> repository.updateTasks(List.of(updated, missing)));
+    assertEquals(
+        TaskStatus.NEW, repository.getTaskById(existing.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  @DisplayName("updateTasks: Should return previous versions in batch order")
+  void updateTasks_ValidBatch_ShouldReturnPreviousVersions() throws TaskNotFoundException {
+    RegularTask first = createAndAddTask("BulkUpdate1", TaskStatus.NEW, null, null);
+    RegularTask second = createAndAddTask("BulkUpdate2", TaskStatus.IN_PROGRESS, null, null);
+
+    List<Task> previous =
+        repository.updateTasks(
+            List.of(
+                createRegularTask(first.getId(), "BulkUpdated1", TaskStatus.DONE, null, null),
+                createRegularTask(second.getId(), "BulkUpdated2", TaskStatus.DONE, null, null)));
+
+    assertEquals(
+        List.of(first.getTitle(), second.getTitle()),
+        previous.stream().map(Task::getTitle).toList());
+    assertTrue(repository.getAllTasks().stream().allMatch(t -> t.getStatus() == TaskStatus.DONE));
+  }
+
+  @Test
+  @DisplayName("removeTasks: Should remove existing tasks and ignore unknown IDs")
+  void removeTasks_ShouldRemoveExistingTasks() {
+    RegularTask first = createAndAddTask("BulkRemove1", TaskStatus.NEW, null, null);
+    RegularTask second = createAndAddTask("BulkRemove2", TaskStatus.NEW, null, null);
+    RegularTask kept = createAndAddTask("BulkRemoveKept", TaskStatus.NEW, null, null);
+
+    List<Task> removed =
+        repository.removeTasks(List.of(first.getId(), UUID.randomUUID(), second.getId()));
+
+    assertEquals(2, removed.size());
+    assertEquals(
+        List.of(kept.getId()), repository.getAllTasks().stream().map(Task::getId).toList());
+    assertTrue(repository.removeTasks(List.of(first.getId())).isEmpty());
+  }
+
+  @Test
+  @DisplayName("applyChanges: Should save and remove tasks as one new version")
+  void applyChanges_ShouldSaveAndRemoveAtOnce() {
+    RegularTask updated = createAndAddTask("ApplyUpdated", TaskStatus.NEW, null, null);
+    RegularTask removed = createAndAddTask("ApplyRemoved", TaskStatus.NEW, null, null);
+    RegularTask added =
+        createRegularTask(UUID.randomUUID(), "ApplyAdded", TaskStatus.NEW, null, null);
+    long versionBefore = repository.snapshot().getVersion();
+
+    repository.applyChanges(
+        List.of(
+            added,
+            createRegularTask(updated.getId(), "ApplyUpdatedNew", TaskStatus.DONE, null, null)),
+        List.of(removed.getId(), UUID.randomUUID()));
+
+    assertEquals(versionBefore + 1, repository.snapshot().getVersion());
+    assertEquals(
+        Set.of(added.getId(), updated.getId()),
+        repository.getAllTasks().stream().map(Task::getId).collect(Collectors.toSet()));
+    assertEquals(
+        TaskStatus.DONE, repository.getTaskById(updated.getId()).orElseThrow().getStatus());
+  }
+
+  @Test
+  @DisplayName("applyChanges: Should change nothing if a task in the batch is null")
+  void applyChanges_NullTask_ShouldChangeNothing() {
+    RegularTask existing = createAndAddTask("ApplyExisting", TaskStatus.NEW, null, null);
+    List<Task> tasks = new ArrayList<>();
+    tasks.add(createRegularTask(UUID.randomUUID(), "ApplyFresh", TaskStatus.NEW, null, null));
+    tasks.add(null);
+
+    assertThrows(
+        NullPointerException.class,
+        () -> repository.applyChanges(tasks, List.of(existing.getId())));
+    assertEquals(List.of(existing), repository.getAllTasks());
+  }
+
+  @Test
+  @DisplayName("Conditional updateTask should replace the task only at the expected version")
+  void updateTaskConditional_MatchingAndStaleVersion_ShouldUpdateOnceThenConflict()
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    RegularTask original = createAndAddTask("Versioned", TaskStatus.NEW, null, null);
+    RegularTask first =
+        new RegularTask(
+            original.getId(),
+            original.getTitle(),
+            original.getDescription(),
+            TaskStatus.IN_PROGRESS,
+            DEFAULT_CREATION_TIME,
+            DEFAULT_UPDATE_TIME,
+            null,
+            null,
+            1);
+    RegularTask concurrent =
+        new RegularTask(
+            original.getId(),
+            original.getTitle(),
+            original.getDescription(),
+            TaskStatus.DONE,
+            DEFAULT_CREATION_TIME,
+            DEFAULT_UPDATE_TIME,
+            null,
+            null,
+            1);
+
+    assertEquals(original, repository.updateTask(first, 0));
+    VersionConflictException conflict =
+        assertThrows(VersionConflictException.class, () -> repository.updateTask(concurrent, 0));
+    assertEquals(1, conflict.getActualVersion());
+    assertEquals(
+        TaskStatus.IN_PROGRESS, repository.getTaskById(original.getId()).orElseThrow().getStatus());
+    assertThrows(IllegalArgumentException.class, () -> repository.updateTask(concurrent, 1));
+  }
 }
@@ -0,0 +1,254 @@
+package com.tasktracker.task.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.tasktracker.task.exception.ValidationException;
+import com.tasktracker.task.model.enums.TaskStatus;
+import com.tasktracker.task.model.implementations.EpicTask;
+import com.tasktracker.task.model.implementations.RegularTask;
+import com.tasktracker.task.model.implementations.SubTask;
+import com.tasktracker.task.model.implementations.Task;
+import com.tasktracker.task.store.exception.TaskNotFoundException;
+import com.tasktracker.task.store.exception.VersionConflictException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OffHeapTaskRepositoryTest {
+
+  private static final String VALID_TITLE_PREFIX = "Off-heap Title ";
+  private static final String VALID_DESCRIPTION_PREFIX = "Off-heap Description ";
+  private static final LocalDateTime DEFAULT_CREATION_TIME =
+      LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789);
+  private static final LocalDateTime DEFAULT_UPDATE_TIME = DEFAULT_CREATION_TIME.plusHours(1);
+  private static final LocalDateTime DEFAULT_START_TIME = DEFAULT_CREATION_TIME.plusDays(1);
+  private static final Duration DEFAULT_DURATION = Duration.ofMinutes(90);
+
+  private OffHeapTaskRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new OffHeapTaskRepository();
+  }
+
+  private RegularTask createRegularTask(UUID id, String titleSuffix, TaskStatus status)
+      throws ValidationException {
+    return new RegularTask(
+        id,
+        VALID_TITLE_PREFIX + titleSuffix,
+        VALID_DESCRIPTION_PREFIX + titleSuffix,
+        status,
+        DEFAULT_CREATION_TIME,
+        DEFAULT_UPDATE_TIME,
+        DEFAULT_START_TIME,
+        DEFAULT_DURATION);
+  }
+
+  private static void assertSameTask(Task expected, Task actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getTitle(), actual.getTitle());
+    assertEquals(expected.getDescription(), actual.getDescription());
+    assertEquals(expected.getStatus(), actual.getStatus());
+    assertEquals(expected.getCreationDate(), actual.getCreationDate());
+    assertEquals(expected.getUpdateDate(), actual.getUpdateDate());
+    assertEquals(expected.getStartTime(), actual.getStartTime());
+    assertEquals(expected.getDuration(), actual.getDuration());
+  }
+
+  @Test
+  @DisplayName("Constructor: Should reject non-positive chunk sizes")
+  void constructor_NonPositiveChunkSize_ShouldThrowIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapTaskRepository(0));
+  }
+
+  @Test
+  @DisplayName("addTask: Should store and materialize every task type unchanged")
+  void addTask_AllTaskTypes_ShouldRoundTrip() throws ValidationException {
+    UUID epicId = UUID.randomUUID();
+    UUID subTaskId = UUID.randomUUID();
+    RegularTask regularTask = createRegularTask(UUID.randomUUID(), "Regular ✓", TaskStatus.DONE);
+    EpicTask epicTask =
+        new EpicTask(
+            epicId,
+            VALID_TITLE_PREFIX + "Epic",
+            VALID_DESCRIPTION_PREFIX + "Epic",
+            TaskStatus.IN_PROGRESS,
+            Set.of(subTaskId),
+            DEFAULT_CREATION_TIME,
+            DEFAULT_UPDATE_TIME,
+            null,
+            null);
+    SubTask subTask =
+        new SubTask(
+            subTaskId,
+            VALID_TITLE_PREFIX + "Sub",
+            VALID_DESCRIPTION_PREFIX + "Sub",
+            TaskStatus.NEW,
+            epicId,
+            DEFAULT_CREATION_TIME,
+            DEFAULT_UPDATE_TIME,
+            DEFAULT_START_TIME,
+            null);
+
+    repository.addTask(regularTask);
+    repository.addTask(epicTask);
+    repository.addTask(subTask);
+
+    assertSameTask(regularTask, repository.getTaskById(regularTask.getId()).orElseThrow());
+    EpicTask storedEpic = (EpicTask) repository.getTaskById(epicId).orElseThrow();
+    assertSameTask(epicTask, storedEpic);
+    assertEquals(Set.of(subTaskId), storedEpic.getSubtaskIds());
+    SubTask storedSubTask = (SubTask) repository.getTaskById(subTaskId).orElseThrow();
+    assertSameTask(subTask, storedSubTask);
+    assertEquals(epicId, storedSubTask.getEpicTaskId());
+    assertEquals(3, repository.getAllTasks().size());
+  }
+
+  @Test
+  @DisplayName("addTask: Should reject duplicates and null tasks")
+  void addTask_InvalidTask_ShouldThrow() throws ValidationException {
+    RegularTask task = createRegularTask(UUID.randomUUID(), "Duplicate", TaskStatus.NEW);
+    repository.addTask(task);
+    assertThrows(IllegalArgumentException.class, () -> repository.addTask(task));
+    assertThrows(NullPointerException.class, () -> repository.addTask(null));
+  }
+
+  @Test
+  @DisplayName("updateTask: Should replace the task and return the previous version")
+  void updateTask_ExistingTask_ShouldReturnPreviousVersion()
+      throws ValidationException, TaskNotFoundException {
+    UUID id = UUID.randomUUID();
+    repository.addTask(createRegularTask(id, "Before", TaskStatus.NEW));
+
+    Task previous = repository.updateTask(createRegularTask(id, "After", TaskStatus.DONE));
+
+    assertEquals(TaskStatus.NEW, previous.getStatus());
+    assertEquals(TaskStatus.DONE, repository.getTaskById(id).orElseThrow().getStatus());
+    assertEquals(1, repository.getAllTasks().size());
+  }
+
+  @Test
+  @DisplayName("updateTask: Should throw TaskNotFoundException for unknown tasks")
+  void updateTask_UnknownTask_ShouldThrowTaskNotFoundException() throws ValidationException {
+    RegularTask task = createRegularTask(UUID.randomUUID(), "Unknown", TaskStatus.NEW);
+    assertThrows(TaskNotFoundException.class, () -> repository.updateTask(task));
+  }
+
+  @Test
+  @DisplayName("removeTask and removeMatchingTasks: Should drop tasks from the repository")
+  void removeTasks_ShouldDropTasks() throws ValidationException {
+    RegularTask first = createRegularTask(UUID.randomUUID(), "Remove1", TaskStatus.NEW);
+    RegularTask second = createRegularTask(UUID.randomUUID(), "Remove2", TaskStatus.DONE);
+    RegularTask third = createRegularTask(UUID.randomUUID(), "Remove3", TaskStatus.DONE);
+    repository.addTask(first);
+    repository.addTask(second);
+    repository.addTask(third);
+
+    assertEquals(first.getId(), repository.removeTask(first.getId()).orElseThrow().getId());
+    assertTrue(repository.removeTask(first.getId()).isEmpty());
+    assertTrue(repository.removeMatchingTasks(task -> task.getStatus() == TaskStatus.DONE));
+    assertFalse(repository.removeMatchingTasks(task -> true));
+    assertTrue(repository.getAllTasks().isEmpty());
+    assertEquals(0, repository.getResidentBytes());
+  }
+
+  @Test
+  @DisplayName("snapshot: Should keep old task versions after updates and compaction")
+  void snapshot_AfterCompaction_ShouldKeepOldVersions()
+      throws ValidationException, TaskNotFoundException {
+    repository = new OffHeapTaskRepository(256);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      repository.addTask(createRegularTask(id, "Snapshot" + i, TaskStatus.NEW));
+    }
+    TaskRepositorySnapshot snapshot = repository.snapshot();
+    long allocatedBefore = repository.getAllocatedBytes();
+
+    for (int round = 0; round < 5; round++) {
+      for (UUID id : ids) {
+        repository.updateTask(createRegularTask(id, "Round" + round, TaskStatus.IN_PROGRESS));
+      }
+    }
+
+    assertTrue(
+        snapshot.getAllTasks().stream().allMatch(task -> task.getStatus() == TaskStatus.NEW),
+        "Snapshot should still see the original versions");
+    assertTrue(
+        repository.getAllTasks().stream()
+            .allMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS),
+        "Repository should see the latest versions");
+    assertTrue(
+        repository.getAllocatedBytes() < allocatedBefore * 3,
+        "Compaction should keep allocated memory proportional to live data");
+  }
+
+  @Test
+  @DisplayName("getResidentBytesPerTask: Should report the average record size")
+  void getResidentBytesPerTask_ShouldReportAverageRecordSize() throws ValidationException {
+    assertEquals(0, repository.getResidentBytesPerTask());
+    repository.addTask(createRegularTask(UUID.randomUUID(), "Bytes1", TaskStatus.NEW));
+    repository.addTask(createRegularTask(UUID.randomUUID(), "Bytes2", TaskStatus.NEW));
+
+    assertTrue(repository.getResidentBytes() > 0);
+    assertEquals(repository.getResidentBytes() / 2.0, repository.getResidentBytesPerTask());
+  }
+
+  @Test
+  @DisplayName("getAllTasks(cursor): Should page over tasks in ID order")
+  void getAllTasksPaged_ShouldReturnAllTasksInIdOrder() throws ValidationException {
+    for (int i = 0; i < 5; i++) {
+      repository.addTask(createRegularTask(UUID.randomUUID(), "Page" + i, TaskStatus.NEW));
+    }
+    TaskPage firstPage = repository.getAllTasks(null, 3);
+    TaskPage secondPage = repository.getAllTasks(firstPage.nextCursor(), 3);
+
+    List<UUID> pagedIds = new ArrayList<>();
+    firstPage.tasks().forEach(task -> pagedIds.add(task.getId()));
+    secondPage.tasks().forEach(task -> pagedIds.add(task.getId()));
+    assertEquals(repository.getAllTasks().stream().map(Task::getId).toList(), pagedIds);
+    assertFalse(secondPage.hasNext());
+  }
+
+  @Test
+  @DisplayName("clearAllTasks: Should release all tasks")
+  void clearAllTasks_ShouldEmptyRepository() throws ValidationException {
+    repository.addTask(createRegularTask(UUID.randomUUID(), "Clear", TaskStatus.NEW));
+    repository.clearAllTasks();
+    assertTrue(repository.getAllTasks().isEmpty());
+    assertEquals(0, repository.getAllocatedBytes());
+  }
+
+  @Test
+  @DisplayName("Conditional updateTask: Should compare the version stored in the record")
+  void updateTaskConditional_ShouldCheckStoredVersion()
+      throws ValidationException, TaskNotFoundException, VersionConflictException {
+    UUID id = UUID.randomUUID();
+    repository.addTask(createRegularTask(id, "Versioned", TaskStatus.NEW));
+    RegularTask updated =
+        new RegularTask(
+            id,
+            VALID_TITLE_PREFIX + "Versioned",
+            VALID_DESCRIPTION_PREFIX + "Versioned",
+            TaskStatus.DONE,
+            DEFAULT_CREATION_TIME,
+            DEFAULT_UPDATE_TIME,
+            DEFAULT_START_TIME,
+            DEFAULT_DURATION,
+            5);
+
+    assertThrows(VersionConflictException.class, () -> repository.updateTask(updated, 3));
+    repository.updateTask(updated, 0);
+
+    assertEquals(5, repository.getTaskById(id).orElseThrow().getVersion());
+    assertThrows(VersionConflictException.class, () -> repository.updateTask(updated, 4));
+  }
+}